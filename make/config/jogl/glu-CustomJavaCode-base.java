@@ -280,6 +280,15 @@ public static final void gluDeleteTess(GLUtessellator tessellator) {
  *   side of the edge the vertex lies on.  Two edges are merged only when both
  *   endpoints are identical.
  * </UL>
+ * <BR><b>GLU_TESS_POOL_STORAGE</b>
+ * <UL>
+ *   JOGL-specific boolean value, GL_FALSE by default.  When set to GL_TRUE,
+ *   the mesh, sweep line and priority queue storage of a polygon is recycled
+ *   for the following polygons tessellated with the same object, avoiding
+ *   garbage when tessellating many polygons.  The arrays passed to the
+ *   <b>GLU_TESS_COMBINE</b> and <b>GLU_TESS_COMBINE_DATA</b> callbacks are
+ *   reused as well and must not be retained by the callback.
+ * </UL>
  *
  * @param tessellator
  *        Specifies the tessellation object created with
@@ -860,6 +869,47 @@ public static final void gluTessEndPolygon(GLUtessellator tessellator) {
     tess.gluTessEndPolygon();
 }
 
+/*****************************************************************************
+ * JOGL-specific <b>gluTessTriangles</b> tessellates a complete polygon in one
+ * call and returns the result as an indexed triangle list, instead of
+ * delivering it through the <b>GLU_TESS_BEGIN</b>, <b>GLU_TESS_VERTEX</b>,
+ * <b>GLU_TESS_END</b> and <b>GLU_TESS_COMBINE</b> callbacks.  The tessellation
+ * properties and the normal of the tessellation object are honored, except
+ * <b>GLU_TESS_BOUNDARY_ONLY</b>.<P>
+ *
+ * The resulting vertices are the input vertices in their given order,
+ * followed by the vertices created where contours intersect.  Together with
+ * <b>GLU_TESS_POOL_STORAGE</b> and a reused <em>triangles</em> object, many
+ * polygons can be tessellated without producing garbage.
+ *
+ * Optional, throws GLException if not available in profile
+ *
+ * @param tessellator
+ *        Specifies the tessellation object (created with
+ *        {@link #gluNewTess gluNewTess}).
+ * @param coords
+ *        Specifies the interleaved x, y and z coordinates of all contours.
+ * @param contourCounts
+ *        Specifies the number of vertices of each contour.
+ * @param contourCount
+ *        Specifies the number of contours.
+ * @param triangles
+ *        Receives the resulting vertices and triangles, it is cleared first.
+ *
+ * @return false if the tessellation failed, the <b>GLU_TESS_ERROR</b>
+ *         callback has been notified in this case.
+ *
+ * @see #gluTessProperty     gluTessProperty
+ * @see #gluTessEndPolygon   gluTessEndPolygon
+ ****************************************************************************/
+public static final boolean gluTessTriangles(GLUtessellator tessellator, double[] coords, int coords_offset,
+                                             int[] contourCounts, int contourCounts_offset, int contourCount,
+                                             GLUtessellatorTriangles triangles) {
+    validateGLUtessellatorImpl();
+    GLUtessellatorImpl tess = (GLUtessellatorImpl) tessellator;
+    return tess.gluTessTriangles(coords, coords_offset, contourCounts, contourCounts_offset, contourCount, triangles);
+}
+
 /*****************************************************************************
 
  * <b>gluBeginPolygon</b> and {@link #gluEndPolygon gluEndPolygon}
@@ -1180,6 +1230,8 @@ public static final int GLU_TESS_BOUNDARY_ONLY = 100141;
 public static final int GLU_TESS_TOLERANCE = 100142;
 // JOGL-specific boolean property, false by default, that may improve the tessellation
 public static final int GLU_TESS_AVOID_DEGENERATE_TRIANGLES = 100149;
+// JOGL-specific boolean property, false by default, recycling the tessellator storage across polygons
+public static final int GLU_TESS_POOL_STORAGE = 100150;
 
 // TessError
 public static final int GLU_TESS_ERROR1 = 100151;
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.audio;
+
+import java.io.IOException;
+
+/**
+ * Output backend of the {@link MixerEngine}, e.g. an audio device, a file or nothing at all.
+ * <p>
+ * Blocks are interleaved stereo samples (left, right) in the signed 16 bit range.
+ * </p>
+ */
+public interface AudioSink {
+    /** Returns the sample rate in Hz. */
+    public int getSampleRate();
+
+    /**
+     * Blocks until the sink is able to take the next block.
+     * Called by the mixing thread only.
+     * @return the size of the next block in stereo frames, or 0 if the sink is {@link #stop() stopped}
+     */
+    public int awaitBlock() throws IOException;
+
+    /**
+     * Writes the block requested via {@link #awaitBlock()}.
+     * Called by the mixing thread only.
+     * @param block interleaved stereo samples
+     * @param frames number of stereo frames
+     */
+    public void write(float[] block, int frames) throws IOException;
+
+    /**
+     * Stops the sink. May be called from any thread,
+     * a blocked and all subsequent {@link #awaitBlock()} calls shall return 0.
+     */
+    public void stop();
+
+    /**
+     * Releases the sink, e.g. the audio device.
+     * Called by the mixing thread once it stopped mixing,
+     * hence never concurrently with {@link #awaitBlock()} or {@link #write(float[], int)}.
+     */
+    public void close();
+}
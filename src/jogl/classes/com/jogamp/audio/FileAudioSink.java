@@ -0,0 +1,110 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.audio;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * {@link AudioSink} writing raw interleaved stereo PCM, 16 bit signed little endian,
+ * i.e. the waveout device format, to a stream as fast as it is mixed.
+ */
+public class FileAudioSink implements AudioSink {
+    private final int sampleRate;
+    private final int blockFrames;
+    private final OutputStream out;
+    private byte[] bytes = new byte[0];
+    private volatile boolean stopped;
+    private boolean closed;
+    private long frameCount;
+
+    /**
+     * @param file destination file, overwritten
+     * @param sampleRate sample rate in Hz
+     * @param blockFrames number of stereo frames per block
+     */
+    public FileAudioSink(File file, int sampleRate, int blockFrames) throws IOException {
+        this(new BufferedOutputStream(new FileOutputStream(file)), sampleRate, blockFrames);
+    }
+
+    /**
+     * @param out destination stream, closed by {@link #close()}
+     * @param sampleRate sample rate in Hz
+     * @param blockFrames number of stereo frames per block
+     */
+    public FileAudioSink(OutputStream out, int sampleRate, int blockFrames) {
+        this.out = out;
+        this.sampleRate = sampleRate;
+        this.blockFrames = blockFrames;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int awaitBlock() {
+        return stopped ? 0 : blockFrames;
+    }
+
+    public synchronized void write(float[] block, int frames) throws IOException {
+        if(closed) {
+            return;
+        }
+        final int samples = 2*frames;
+        if(bytes.length < 2*samples) {
+            bytes = new byte[2*samples];
+        }
+        MixerEngine.toPCM16LE(block, samples, bytes);
+        out.write(bytes, 0, 2*samples);
+        frameCount += frames;
+    }
+
+    /** Returns the number of stereo frames written. */
+    public synchronized long getFrameCount() {
+        return frameCount;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public synchronized void close() {
+        stopped = true;
+        if(!closed) {
+            closed = true;
+            try {
+                out.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.audio;
+
+import java.io.IOException;
+
+/**
+ * Mono sample source mixed by the {@link MixerEngine},
+ * positioned in 3D space for spatialization.
+ * <p>
+ * All methods but {@link #fill()} are called by the mixing thread and must be extremely fast.
+ * </p>
+ */
+public interface MixSource {
+    /** Returns <code>true</code> if this source shall be mixed. */
+    public boolean isPlaying();
+
+    /** Returns <code>true</code> if all samples have been read and this source will not play again. */
+    public boolean done();
+
+    /** Stores the position of this source in <code>xyz[0..2]</code>. */
+    public void getPosition(float[] xyz);
+
+    /**
+     * Reads up to <code>count</code> mono samples in the signed 16 bit range.
+     * @return the number of samples read, less than <code>count</code> if starved or at the end
+     */
+    public int read(float[] dst, int off, int count);
+
+    /** Refills stream buffers, called by the filler thread of the {@link MixerEngine}. */
+    public void fill() throws IOException;
+}
@@ -0,0 +1,371 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.audio;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Platform neutral software mixer, mixing spatialized {@link MixSource}s
+ * block by block into interleaved stereo float buffers
+ * and passing them to an {@link AudioSink}.
+ * <p>
+ * Sources are registered lock-free, the mixing thread reads an immutable snapshot per block.
+ * The gains of a source are computed once per block, its samples are read in bulk
+ * and mixed in with plain array loops into reusable buffers.
+ * Stream buffers are refilled by a filler thread, signaled by the mixing thread after each block.
+ * </p>
+ * <p>
+ * The spatialization gain of each channel is
+ * <pre>
+ *     falloffFactor
+ *  -------------------
+ *  falloffFactor + r^2
+ * </pre>
+ * where <code>r</code> is the distance between source and speaker.
+ * </p>
+ */
+public class MixerEngine {
+    private static final MixSource[] EMPTY = new MixSource[0];
+    /** Filler thread poll period in ms, if not signaled by the mixing thread. */
+    private static final long FILL_PERIOD_MS = 100;
+
+    private final AtomicReference<MixSource[]> sources = new AtomicReference<MixSource[]>(EMPTY);
+
+    private volatile float[] leftSpeaker  = { -1, 0, 0 };
+    private volatile float[] rightSpeaker = {  1, 0, 0 };
+    private volatile float falloffFactor = 1.0f;
+
+    // Mixing thread only
+    private float[] monoBuffer = new float[0];
+    private final float[] position = new float[3];
+
+    // Metrics, written by the mixing thread only
+    private volatile long blockCount;
+    private volatile long lastMixNanos;
+    private volatile long maxMixNanos;
+    private volatile long totalMixNanos;
+    private volatile long underrunCount;
+
+    private volatile boolean shutdown;
+    private AudioSink sink;
+    private Thread mixerThread;
+    private volatile Thread fillerThread;
+
+    public MixerEngine() {
+    }
+
+    /**
+     * Registers the source, lock-free.
+     * @return <code>false</code> if already registered
+     */
+    public boolean add(MixSource source) {
+        while(true) {
+            final MixSource[] cur = sources.get();
+            for(int i=0; i<cur.length; i++) {
+                if(cur[i] == source) {
+                    return false;
+                }
+            }
+            final MixSource[] next = new MixSource[cur.length+1];
+            System.arraycopy(cur, 0, next, 0, cur.length);
+            next[cur.length] = source;
+            if(sources.compareAndSet(cur, next)) {
+                LockSupport.unpark(fillerThread);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Unregisters the source, lock-free.
+     * @return <code>false</code> if not registered
+     */
+    public boolean remove(MixSource source) {
+        while(true) {
+            final MixSource[] cur = sources.get();
+            int idx = -1;
+            for(int i=0; i<cur.length && 0>idx; i++) {
+                if(cur[i] == source) {
+                    idx = i;
+                }
+            }
+            if(0 > idx) {
+                return false;
+            }
+            final MixSource[] next;
+            if(1 == cur.length) {
+                next = EMPTY;
+            } else {
+                next = new MixSource[cur.length-1];
+                System.arraycopy(cur, 0, next, 0, idx);
+                System.arraycopy(cur, idx+1, next, idx, cur.length-idx-1);
+            }
+            if(sources.compareAndSet(cur, next)) {
+                return true;
+            }
+        }
+    }
+
+    /** Returns a snapshot of the registered sources. */
+    public MixSource[] getSources() {
+        return sources.get().clone();
+    }
+
+    public void setLeftSpeakerPosition(float x, float y, float z) {
+        leftSpeaker = new float[] { x, y, z };
+    }
+
+    public void setRightSpeakerPosition(float x, float y, float z) {
+        rightSpeaker = new float[] { x, y, z };
+    }
+
+    /**
+     * This defines a scale factor of sorts -- the higher the number,
+     * the larger an area the sound will affect. Default value is
+     * 1.0f. Valid values are [1.0f, ...].
+     */
+    public void setFalloffFactor(float factor) {
+        falloffFactor = factor;
+    }
+
+    public float getFalloffFactor() {
+        return falloffFactor;
+    }
+
+    /**
+     * Mixes the next block of all playing sources, used by the mixing thread.
+     * <p>
+     * Sources being {@link MixSource#done() done} are removed.
+     * A playing source delivering less than <code>frames</code> samples w/o being done
+     * is counted as an {@link #getUnderrunCount() underrun}.
+     * </p>
+     * @param block destination of at least <code>2*frames</code> interleaved stereo samples
+     * @param frames number of stereo frames
+     */
+    public void mix(float[] block, int frames) {
+        final long t0 = System.nanoTime();
+        final int samples = 2*frames;
+        Arrays.fill(block, 0, samples, 0f);
+        if(monoBuffer.length < frames) {
+            monoBuffer = new float[frames];
+        }
+        final float[] mono = monoBuffer;
+        final float[] ls = leftSpeaker, rs = rightSpeaker;
+        final float falloff = falloffFactor;
+        final MixSource[] cur = sources.get();
+        boolean underrun = false;
+        for(int j=0; j<cur.length; j++) {
+            final MixSource source = cur[j];
+            if(!source.isPlaying()) {
+                continue;
+            }
+            source.getPosition(position);
+            final float leftGain  = gain(position, ls, falloff);
+            final float rightGain = gain(position, rs, falloff);
+            final int n = source.read(mono, 0, frames);
+            for(int i=0, k=0; i<n; i++, k+=2) {
+                final float s = mono[i];
+                block[k]   += s * leftGain;
+                block[k+1] += s * rightGain;
+            }
+            if(n < frames) {
+                // This allows sources to stall without being abruptly cancelled
+                if(source.done()) {
+                    remove(source);
+                } else {
+                    underrun = true;
+                }
+            }
+        }
+        if(0 < cur.length) {
+            LockSupport.unpark(fillerThread);
+        }
+        final long dt = System.nanoTime() - t0;
+        lastMixNanos = dt;
+        totalMixNanos += dt;
+        if(dt > maxMixNanos) {
+            maxMixNanos = dt;
+        }
+        if(underrun) {
+            underrunCount++;
+        }
+        blockCount++;
+    }
+
+    private static float gain(float[] pos, float[] speaker, float falloff) {
+        final float dx = pos[0] - speaker[0];
+        final float dy = pos[1] - speaker[1];
+        final float dz = pos[2] - speaker[2];
+        return falloff / ( falloff + dx*dx + dy*dy + dz*dz );
+    }
+
+    /**
+     * Converts mixed samples to 16 bit signed little endian, clamping to the 16 bit range.
+     * @param samples number of samples
+     * @param dst destination of at least <code>2*samples</code> bytes
+     */
+    public static void toPCM16LE(float[] src, int samples, byte[] dst) {
+        for(int i=0, j=0; i<samples; i++, j+=2) {
+            final float s = src[i];
+            final int val = s >= 32767f ? 32767 : ( s <= -32768f ? -32768 : (int) s );
+            dst[j]   = (byte)  val;
+            dst[j+1] = (byte) (val >> 8);
+        }
+    }
+
+    /** Returns the number of mixed blocks. */
+    public long getBlockCount() { return blockCount; }
+
+    /** Returns the time to mix the last block in nanoseconds. */
+    public long getLastMixNanos() { return lastMixNanos; }
+
+    /** Returns the maximum time to mix a block in nanoseconds. */
+    public long getMaxMixNanos() { return maxMixNanos; }
+
+    /** Returns the average time to mix a block in nanoseconds. */
+    public long getAverageMixNanos() {
+        final long n = blockCount;
+        return 0 < n ? totalMixNanos / n : 0;
+    }
+
+    /** Returns the number of blocks in which at least one playing source was starved. */
+    public long getUnderrunCount() { return underrunCount; }
+
+    /** Resets all metrics, shall not be called while mixing. */
+    public void resetMetrics() {
+        blockCount = 0;
+        lastMixNanos = 0;
+        maxMixNanos = 0;
+        totalMixNanos = 0;
+        underrunCount = 0;
+    }
+
+    /**
+     * Starts the mixing and filler threads, writing the mixed blocks to the given sink
+     * until {@link #shutdown()}. The mixing thread {@link AudioSink#close() closes} the sink when it exits.
+     */
+    public synchronized void start(AudioSink sink) {
+        if(null != mixerThread) {
+            throw new IllegalStateException("Already started");
+        }
+        this.sink = sink;
+        shutdown = false;
+        fillerThread = new FillerThread();
+        mixerThread = new MixerThread(sink);
+        mixerThread.setPriority(Thread.MAX_PRIORITY - 1);
+        fillerThread.start();
+        mixerThread.start();
+    }
+
+    /**
+     * Stops the sink and waits until the mixing and filler threads have stopped,
+     * i.e. until the mixing thread has closed the sink, unless called from the mixing thread.
+     */
+    public synchronized void shutdown() {
+        if(null == mixerThread) {
+            return;
+        }
+        shutdown = true;
+        sink.stop();
+        LockSupport.unpark(fillerThread);
+        try {
+            if(Thread.currentThread() != mixerThread) {
+                mixerThread.join();
+            }
+            if(Thread.currentThread() != fillerThread) {
+                fillerThread.join();
+            }
+        } catch (InterruptedException e) {
+        }
+        mixerThread = null;
+        fillerThread = null;
+        sink = null;
+    }
+
+    public String toString() {
+        return "MixerEngine[sources "+sources.get().length+", blocks "+blockCount+", mix[avg "+getAverageMixNanos()/1000+
+               " us, max "+maxMixNanos/1000+" us], underruns "+underrunCount+"]";
+    }
+
+    class FillerThread extends Thread {
+        FillerThread() {
+            super("Mixer Filler Thread");
+        }
+
+        public void run() {
+            while (!shutdown) {
+                final MixSource[] cur = sources.get();
+                for(int i=0; i<cur.length; i++) {
+                    try {
+                        cur[i].fill();
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        remove(cur[i]);
+                    }
+                }
+                // Wait for the next mixed block
+                LockSupport.parkNanos(FILL_PERIOD_MS * 1000000L);
+            }
+        }
+    }
+
+    class MixerThread extends Thread {
+        private final AudioSink sink;
+        // Interleaved left and right channels
+        private float[] mixingBuffer = new float[0];
+
+        MixerThread(AudioSink sink) {
+            super("Mixer Thread");
+            this.sink = sink;
+        }
+
+        public void run() {
+            try {
+                while (!shutdown) {
+                    final int frames = sink.awaitBlock();
+                    if(0 >= frames) {
+                        break;
+                    }
+                    if(mixingBuffer.length < 2*frames) {
+                        mixingBuffer = new float[2*frames];
+                    }
+                    mix(mixingBuffer, frames);
+                    sink.write(mixingBuffer, frames);
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                // Release the sink after the last write, however the loop was left
+                sink.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.audio;
+
+/**
+ * {@link AudioSink} discarding all blocks, e.g. for headless systems w/o audio device.
+ * <p>
+ * If paced, blocks are consumed in real time at the sample rate,
+ * otherwise as fast as they are mixed.
+ * </p>
+ */
+public class NullAudioSink implements AudioSink {
+    private final int sampleRate;
+    private final int blockFrames;
+    private final boolean paced;
+    private volatile boolean stopped;
+    private long nextBlockNanos;
+    private long frameCount;
+
+    /**
+     * @param sampleRate sample rate in Hz
+     * @param blockFrames number of stereo frames per block
+     * @param paced if <code>true</code>, consume blocks in real time
+     */
+    public NullAudioSink(int sampleRate, int blockFrames, boolean paced) {
+        this.sampleRate = sampleRate;
+        this.blockFrames = blockFrames;
+        this.paced = paced;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    public int awaitBlock() {
+        if(paced && !stopped) {
+            final long now = System.nanoTime();
+            if(0 == nextBlockNanos) {
+                nextBlockNanos = now;
+            }
+            final long dt = nextBlockNanos - now;
+            if(0 < dt) {
+                try {
+                    Thread.sleep(dt / 1000000L, (int) (dt % 1000000L));
+                } catch (InterruptedException e) {
+                }
+            }
+            nextBlockNanos += ( blockFrames * 1000000000L ) / sampleRate;
+        }
+        return stopped ? 0 : blockFrames;
+    }
+
+    public void write(float[] block, int frames) {
+        frameCount += frames;
+    }
+
+    /** Returns the number of stereo frames written. */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    public void close() {
+        stopped = true;
+    }
+}
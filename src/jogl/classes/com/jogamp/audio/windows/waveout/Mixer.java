@@ -32,10 +32,12 @@
 
 package com.jogamp.audio.windows.waveout;
 
-import java.io.*;
 import java.nio.*;
 import java.util.*;
 
+import com.jogamp.audio.AudioSink;
+import com.jogamp.audio.MixerEngine;
+
 // Needed only for NIO workarounds on CVM
 import java.lang.reflect.*;
 
@@ -43,19 +45,14 @@ public class Mixer {
     // This class is a singleton
     private static Mixer mixer;
 
-    private volatile boolean shutdown;
-    private volatile Object shutdownLock = new Object();
-    private volatile boolean shutdownDone;
+    // FIXME: knowledge of native output rendering format
+    private static final int SAMPLE_RATE = 44100;
 
     // Windows Event object
     private long event;
 
-    private volatile ArrayList/*<Track>*/ tracks = new ArrayList();
-
-    private Vec3f leftSpeakerPosition  = new Vec3f(-1, 0, 0);
-    private Vec3f rightSpeakerPosition = new Vec3f( 1, 0, 0);
-
-    private float falloffFactor = 1.0f;
+    // Platform neutral mixing, this class only provides the waveout sink
+    private MixerEngine engine = new MixerEngine();
 
     static {
         mixer = new Mixer();
@@ -63,40 +60,38 @@ public class Mixer {
 
     private Mixer() {
         event = CreateEvent();
-        new FillerThread().start();
-        MixerThread m = new MixerThread();
-        m.setPriority(Thread.MAX_PRIORITY - 1);
-        m.start();
+        engine.start(new WaveOutSink());
     }
 
     public static Mixer getMixer() {
         return mixer;
     }
 
-    synchronized void add(Track track) {
-        ArrayList/*<Track>*/ newTracks = (ArrayList) tracks.clone();
-        newTracks.add(track);
-        tracks = newTracks;
+    /** Returns the platform neutral mixer, e.g. to query its metrics. */
+    public MixerEngine getEngine() {
+        return engine;
     }
 
-    synchronized void remove(Track track) {
-        ArrayList/*<Track>*/ newTracks = (ArrayList) tracks.clone();
-        newTracks.remove(track);
-        tracks = newTracks;
+    void add(Track track) {
+        engine.add(track);
+    }
+
+    void remove(Track track) {
+        engine.remove(track);
     }
 
     // NOTE: due to a bug on the APX device, we only have mono sounds,
     // so we currently only pay attention to the position of the left
     // speaker
     public void setLeftSpeakerPosition(float x, float y, float z) {
-        leftSpeakerPosition.set(x, y, z);
+        engine.setLeftSpeakerPosition(x, y, z);
     }
 
     // NOTE: due to a bug on the APX device, we only have mono sounds,
     // so we currently only pay attention to the position of the left
     // speaker
     public void setRightSpeakerPosition(float x, float y, float z) {
-        rightSpeakerPosition.set(x, y, z);
+        engine.setRightSpeakerPosition(x, y, z);
     }
 
     /** This defines a scale factor of sorts -- the higher the number,
@@ -110,68 +105,36 @@ public class Mixer {
 </PRE>
 */
     public void setFalloffFactor(float factor) {
-        falloffFactor = factor;
+        engine.setFalloffFactor(factor);
     }
 
     public void shutdown() {
-        synchronized(shutdownLock) {
-            shutdown = true;
-            SetEvent(event);
-            try {
-                shutdownLock.wait();
-            } catch (InterruptedException e) {
-            }
-        }
-    }
-
-    class FillerThread extends Thread {
-        FillerThread() {
-            super("Mixer Thread");
-        }
-
-        public void run() {
-            while (!shutdown) {
-                List/*<Track>*/ curTracks = tracks;
-
-                for (Iterator iter = curTracks.iterator(); iter.hasNext(); ) {
-                    Track track = (Track) iter.next();
-                    try {
-                        track.fill();
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                        remove(track);
-                    }
-                }
-
-                try {
-                    // Run ten times per second
-                    Thread.sleep(100);
-                } catch (InterruptedException e) {
-                    e.printStackTrace();
-                }
-            }
-        }
+        engine.shutdown();
     }
 
-    class MixerThread extends Thread {
-        // Temporary mixing buffer
-        // Interleaved left and right channels
-        float[] mixingBuffer;
-        private Vec3f temp = new Vec3f();
+    class WaveOutSink implements AudioSink {
+        private volatile boolean stopped;
+        // Mixer buffer handed out by awaitBlock()
+        private long mixerBuffer;
+        private ByteBuffer buf;
+        private byte[] bytes = new byte[0];
 
-        MixerThread() {
-            super("Mixer Thread");
+        WaveOutSink() {
             if (!initializeWaveOut(event)) {
                 throw new InternalError("Error initializing waveout device");
             }
         }
 
-        public void run() {
-            while (!shutdown) {
+        public int getSampleRate() {
+            return SAMPLE_RATE;
+        }
+
+        public int awaitBlock() {
+            while (!stopped) {
                 // Get the next buffer
-                long mixerBuffer = getNextMixerBuffer();
+                mixerBuffer = getNextMixerBuffer();
                 if (mixerBuffer != 0) {
-                    ByteBuffer buf = getMixerBufferData(mixerBuffer);
+                    buf = getMixerBufferData(mixerBuffer);
 
                     if (buf == null) {
                         // This is happening on CVM because
@@ -186,101 +149,43 @@ public class Mixer {
                         throw new InternalError("Couldn't wrap the native address with a direct byte buffer");
                     }
 
-                    // System.out.println("Mixing buffer");
-
-                    // If we don't have enough samples in our mixing buffer, expand it
-                    // FIXME: knowledge of native output rendering format
-                    if ((mixingBuffer == null) || (mixingBuffer.length < (buf.capacity() / 2 /* bytes / sample */))) {
-                        mixingBuffer = new float[buf.capacity() / 2];
-                    } else {
-                        // Zap it
-                        for (int i = 0; i < mixingBuffer.length; i++) {
-                            mixingBuffer[i] = 0.0f;
-                        }
-                    }
-
-                    // This assertion should be in place if we have stereo
-                    if ((mixingBuffer.length % 2) != 0) {
-                        String msg = "FATAL ERROR: odd number of samples in the mixing buffer";
-                        System.out.println(msg);
-                        throw new InternalError(msg);
-                    }
-
-                    // Run down all of the registered tracks mixing them in
-                    List/*<Track>*/ curTracks = tracks;
-
-                    for (Iterator iter = curTracks.iterator(); iter.hasNext(); ) {
-                        Track track = (Track) iter.next();
-                        // Consider only playing tracks
-                        if (track.isPlaying()) {
-                            // First recompute its gain
-                            Vec3f pos = track.getPosition();
-                            float leftGain  = gain(pos, leftSpeakerPosition);
-                            float rightGain = gain(pos, rightSpeakerPosition);
-                            // Now mix it in
-                            int i = 0;
-                            while (i < mixingBuffer.length) {
-                                if (track.hasNextSample()) {
-                                    float sample = track.nextSample();
-                                    mixingBuffer[i++] = sample * leftGain;
-                                    mixingBuffer[i++] = sample * rightGain;
-                                } else {
-                                    // This allows tracks to stall without being abruptly cancelled
-                                    if (track.done()) {
-                                        remove(track);
-                                    }
-                                    break;
-                                }
-                            }
-                        }
-                    }
-
-                    // Now that we have our data, send it down to the card
-                    int outPos = 0;
-                    for (int i = 0; i < mixingBuffer.length; i++) {
-                        short val = (short) mixingBuffer[i];
-                        buf.put(outPos++, (byte)  val);
-                        buf.put(outPos++, (byte) (val >> 8));
-                    }
-                    if (!prepareMixerBuffer(mixerBuffer)) {
-                        throw new RuntimeException("Error preparing mixer buffer");
-                    }
-                    if (!writeMixerBuffer(mixerBuffer)) {
-                        throw new RuntimeException("Error writing mixer buffer to device");
-                    }
-                } else {
-                    // System.out.println("No mixer buffer available");
-
-                    // Wait for a buffer to become available
-                    if (!WaitForSingleObject(event)) {
-                        throw new RuntimeException("Error while waiting for event object");
-                    }
-
-                    /*
-                    try {
-                        Thread.sleep(10);
-                    } catch (InterruptedException e) {
-                    }
-                    */
+                    // Interleaved left and right channels, 2 bytes / sample
+                    return buf.capacity() / 4;
+                }
+                // Wait for a buffer to become available
+                if (!WaitForSingleObject(event)) {
+                    throw new RuntimeException("Error while waiting for event object");
                 }
             }
+            // Need to shut down, see close()
+            return 0;
+        }
 
-            // Need to shut down
-            shutdownWaveOut();
-            synchronized(shutdownLock) {
-                shutdownLock.notifyAll();
+        public void write(float[] block, int frames) {
+            // Now that we have our data, send it down to the card
+            int samples = 2 * frames;
+            if (bytes.length < 2 * samples) {
+                bytes = new byte[2 * samples];
+            }
+            MixerEngine.toPCM16LE(block, samples, bytes);
+            buf.clear();
+            buf.put(bytes, 0, 2 * samples);
+            if (!prepareMixerBuffer(mixerBuffer)) {
+                throw new RuntimeException("Error preparing mixer buffer");
+            }
+            if (!writeMixerBuffer(mixerBuffer)) {
+                throw new RuntimeException("Error writing mixer buffer to device");
             }
         }
 
-        // This defines the 3D spatialization gain function.
-        // The function is defined as:
-        //    falloffFactor
-        // -------------------
-        // falloffFactor + r^2
-        private float gain(Vec3f pos, Vec3f speakerPos) {
-            temp.sub(pos, speakerPos);
-            float dotp = temp.dot(temp);
-            return (falloffFactor / (falloffFactor + dotp));
+        public void stop() {
+            stopped = true;
+            SetEvent(event);
+        }
+
+        // Called by the mixer thread after its last write
+        public void close() {
+            shutdownWaveOut();
         }
     }
 
@@ -41,7 +41,8 @@ class SoundBuffer {
     private int bytesPerSample;
     private int numSamples;
     private boolean playing;
-    private boolean empty;
+    // Written by the filler thread, read by the mixer thread
+    private volatile boolean empty;
 
     // Note: needsByteSwap argument makes assumptions about the format
     SoundBuffer(int size, int bytesPerSample, boolean needsByteSwap) {
@@ -121,4 +122,24 @@ class SoundBuffer {
 
         return (float) res;
     }
+
+    // Bulk version of getSample(int), called by the mixer and must be extremely fast
+    void getSamples(int sample, float[] dst, int off, int count) {
+        if (bytesPerSample == 2) {
+            int b = sample * 2;
+            if (needsByteSwap) {
+                for (int i = 0; i < count; i++, b += 2) {
+                    dst[off + i] = (short) ((data[b + 1] << 8) | (data[b] & 0xff));
+                }
+            } else {
+                for (int i = 0; i < count; i++, b += 2) {
+                    dst[off + i] = (short) ((data[b] << 8) | (data[b + 1] & 0xff));
+                }
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                dst[off + i] = getSample(sample + i);
+            }
+        }
+    }
 }
@@ -35,7 +35,9 @@ package com.jogamp.audio.windows.waveout;
 import java.io.*;
 import java.nio.*;
 
-public class Track {
+import com.jogamp.audio.MixSource;
+
+public class Track implements MixSource {
     // Default number of samples per buffer
     private static final int BUFFER_SIZE = 32768;
     // Number of bytes per sample (FIXME: dependence on audio format)
@@ -121,7 +123,7 @@ public class Track {
         position = new Vec3f(x, y, z);
     }
 
-    synchronized void fill() throws IOException {
+    public synchronized void fill() throws IOException {
         if (input == null) {
             return;
         }
@@ -172,6 +174,43 @@ public class Track {
         return position;
     }
 
+    public void getPosition(float[] xyz) {
+        Vec3f pos = position;
+        xyz[0] = pos.x();
+        xyz[1] = pos.y();
+        xyz[2] = pos.z();
+    }
+
+    // This is called by the mixer and must be extremely fast
+    // Note this assumes mono sounds (FIXME)
+    public int read(float[] dst, int off, int count) {
+        int n = 0;
+        while (n < count) {
+            if (!hasNextSample()) {
+                // Pick up the filled buffer, if the filler thread was late
+                if (!activeBuffer.empty() || fillingBuffer.empty()) {
+                    break;
+                }
+                swapBuffers();
+                samplePosition = 0;
+            }
+            int num = Math.min(count - n, activeBuffer.numSamples() - samplePosition);
+            activeBuffer.getSamples(samplePosition, dst, off + n, num);
+            samplePosition += num;
+            samplesRead += num;
+            n += num;
+            if (!hasNextSample()) {
+                swapBuffers();
+                samplePosition = 0;
+                if (done()) {
+                    playing = false;
+                    break;
+                }
+            }
+        }
+        return n;
+    }
+
     // This is called by the mixer and must be extremely fast
     // Note this assumes mono sounds (FIXME)
     boolean hasNextSample() {
@@ -200,7 +239,7 @@ public class Track {
     }
 
     // This provides a more robust termination condition
-    boolean done() {
+    public boolean done() {
         return (samplesRead == totalSamples) && !looping;
     }
 }
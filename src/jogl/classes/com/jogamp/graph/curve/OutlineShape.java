@@ -27,8 +27,11 @@
  */
 package com.jogamp.graph.curve;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.List;
 
 import com.jogamp.graph.curve.tess.Triangulation;
 import com.jogamp.graph.curve.tess.Triangulator;
@@ -116,6 +119,8 @@ public class OutlineShape implements Comparable<OutlineShape> {
      */
     private ArrayList<Outline> outlines;
     private AABBox bbox;
+    /** View of all outline's vertices, see {@link #getVertices()} */
+    private List<Vertex> verticesView = null;
 
     /** dirty bits DIRTY_BOUNDS */
     private int dirtyBits;  
@@ -125,7 +130,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
     public OutlineShape(Vertex.Factory<? extends Vertex> factory) {
         this.vertexFactory = factory;
         this.outlines = new ArrayList<Outline>(3);
-        this.outlines.add(new Outline());
+        this.outlines.add(new Outline(vertexFactory));
         this.outlineState = VerticesState.UNDEFINED;
         this.bbox = new AABBox();
         this.dirtyBits = 0;    
@@ -134,7 +139,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
     /** Clears all data and reset all states as if this instance was newly created */
     public void clear() {
         outlines.clear();
-        outlines.add(new Outline());
+        outlines.add(new Outline(vertexFactory));
         outlineState = VerticesState.UNDEFINED;
         bbox.reset();
         dirtyBits = 0;    
@@ -158,7 +163,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
      */
     public void addEmptyOutline() {
         if( !getLastOutline().isEmpty() ) {
-            outlines.add(new Outline());
+            outlines.add(new Outline(vertexFactory));
         }
     }
 
@@ -302,7 +307,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
      * of the shape around this vertex.
      */
     public final void addVertex(float x, float y, boolean onCurve) {
-        addVertex(vertexFactory.create(x, y, 0f, onCurve));
+        addVertex(x, y, 0f, onCurve);
     }
 
     /** Add a 3D {@link Vertex} to the last outline by defining the coordniate attribute
@@ -314,7 +319,28 @@ public class OutlineShape implements Comparable<OutlineShape> {
      * of the shape around this vertex.
      */
     public final void addVertex(float x, float y, float z, boolean onCurve) {
-        addVertex(vertexFactory.create(x, y, z, onCurve));
+        final Outline lo = getLastOutline();
+        lo.addVertex(x, y, z, onCurve);
+        if( 0 == ( dirtyBits & DIRTY_BOUNDS ) ) {
+            bbox.resize(lo.getBounds());
+        }
+    }
+
+    /** Add a 3D {@link Vertex} to the last outline at {@code position}
+     * by defining the coordniate attribute of the vertex.
+     * @param position indx at which the vertex will be added 
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param onCurve flag if this vertex is on the final curve or defines a curved region
+     * of the shape around this vertex.
+     */
+    public final void addVertex(int position, float x, float y, float z, boolean onCurve) {
+        final Outline lo = getLastOutline();
+        lo.addVertex(position, x, y, z, onCurve);
+        if( 0 == ( dirtyBits & DIRTY_BOUNDS ) ) {
+            bbox.resize(lo.getBounds());
+        }
     }
 
     /** Add a vertex to the last outline by passing a float array and specifying the 
@@ -329,7 +355,9 @@ public class OutlineShape implements Comparable<OutlineShape> {
      * of the shape around this vertex.
      */
     public final void addVertex(float[] coordsBuffer, int offset, int length, boolean onCurve) {
-        addVertex(vertexFactory.create(coordsBuffer, offset, length, onCurve));
+        addVertex(0 < length ? coordsBuffer[offset  ] : 0f, 
+                  1 < length ? coordsBuffer[offset+1] : 0f, 
+                  2 < length ? coordsBuffer[offset+2] : 0f, onCurve);
     }    
 
     /** Closes the last outline in the shape.
@@ -365,17 +393,31 @@ public class OutlineShape implements Comparable<OutlineShape> {
         }
     }
 
-    private void subdivideTriangle(final Outline outline, Vertex a, Vertex b, Vertex c, int index){
-        float[] v1 = VectorUtil.mid(a.getCoord(), b.getCoord());
-        float[] v3 = VectorUtil.mid(b.getCoord(), c.getCoord());
-        float[] v2 = VectorUtil.mid(v1, v3);
+    /** Subdivides the curved triangle a, b, c of the given outline by point indices, see {@link VectorUtil#mid(float[], float[])}. */
+    private void subdivideTriangle(final Outline outline, int a, int b, int c, BitSet marks){
+        final float x1 = (outline.getX(a) + outline.getX(b))*0.5f;
+        final float y1 = (outline.getY(a) + outline.getY(b))*0.5f;
+        final float z1 = (outline.getZ(a) + outline.getZ(b))*0.5f;
+        final float x3 = (outline.getX(b) + outline.getX(c))*0.5f;
+        final float y3 = (outline.getY(b) + outline.getY(c))*0.5f;
+        final float z3 = (outline.getZ(b) + outline.getZ(c))*0.5f;
 
         //drop off-curve vertex to image on the curve
-        b.setCoord(v2, 0, 3); 
-        b.setOnCurve(true);
+        outline.setCoord(b, (x1 + x3)*0.5f, (y1 + y3)*0.5f, (z1 + z3)*0.5f);
+        outline.setOnCurve(b, true);
 
-        outline.addVertex(index, vertexFactory.create(v1, 0, 3, false));
-        outline.addVertex(index+2, vertexFactory.create(v3, 0, 3, false));
+        outline.addVertex(b, x1, y1, z1, false);
+        insertMark(marks, b);
+        outline.addVertex(b+2, x3, y3, z3, false);
+        insertMark(marks, b+2);
+    }
+
+    /** Shifts all marks at and above {@code position} up by one, as for a vertex inserted at {@code position}. */
+    private static void insertMark(BitSet marks, int position) {
+        for(int i=marks.length()-1; i>=position; i--) {
+            marks.set(i+1, marks.get(i));
+        }
+        marks.clear(position);
     }
 
     /** Check overlaps between curved triangles
@@ -387,78 +429,114 @@ public class OutlineShape implements Comparable<OutlineShape> {
      *  Loop until overlap array is empty. (check only in first pass)
      */
     private void checkOverlaps() { 
-        ArrayList<Vertex> overlaps = new ArrayList<Vertex>(3);
-        int count = getOutlineNumber();
+        final int count = getOutlineNumber();
+        // overlapping off-curve vertices to be subdivided, marked per outline by index
+        final BitSet[] overlaps = new BitSet[count];
+        for (int cc = 0; cc < count; cc++) { 
+            overlaps[cc] = new BitSet();
+        }
+        final Vertex[] scratch = new Vertex[6];
+        for(int i=0; i<scratch.length; i++) {
+            scratch[i] = vertexFactory.create();
+        }
+        final int[] overlap = new int[2];
         boolean firstpass = true;
+        boolean pending;
         do {
             for (int cc = 0; cc < count; cc++) { 
                 final Outline outline = getOutline(cc);
+                final BitSet marks = overlaps[cc];
                 int vertexCount = outline.getVertexCount();
                 for(int i=0; i < outline.getVertexCount(); i++) {
-                    final Vertex currentVertex = outline.getVertex(i);
-                    if ( !currentVertex.isOnCurve()) {
-                        final Vertex nextV = outline.getVertex((i+1)%vertexCount);
-                        final Vertex prevV = outline.getVertex((i+vertexCount-1)%vertexCount);
-                        Vertex overlap =null;
+                    if ( !outline.isOnCurve(i) ) {
+                        final int next = (i+1)%vertexCount;
+                        final int prev = (i+vertexCount-1)%vertexCount;
+                        boolean hasOverlap = false;
 
                         //check for overlap even if already set for subdivision
                         //ensuring both trianglur overlaps get divided
                         //for pref. only check in first pass
                         //second pass to clear the overlaps arrray(reduces precision errors)
                         if(firstpass) {
-                            overlap = checkTriOverlaps(prevV, currentVertex, nextV);
+                            hasOverlap = checkTriOverlaps(outline, prev, i, next, scratch, overlap);
                         }
-                        if(overlaps.contains(currentVertex) || overlap != null) {
-                            overlaps.remove(currentVertex);
-
-                            subdivideTriangle(outline, prevV, currentVertex, nextV, i);
+                        if(marks.get(i) || hasOverlap) {
+                            marks.clear(i);
+
+                            subdivideTriangle(outline, prev, i, next, marks);
+                            if(hasOverlap && overlap[0] == cc) {
+                                // follow the insertions at i and i+2
+                                if(overlap[1] >= i) {
+                                    overlap[1]++;
+                                }
+                                if(overlap[1] >= i+2) {
+                                    overlap[1]++;
+                                }
+                            }
                             i+=3;
                             vertexCount+=2;
 
-                            if(overlap != null && !overlap.isOnCurve()) {
-                                if(!overlaps.contains(overlap))
-                                    overlaps.add(overlap);
+                            if(hasOverlap && !getOutline(overlap[0]).isOnCurve(overlap[1])) {
+                                overlaps[overlap[0]].set(overlap[1]);
                             }
                         }
                     }
                 }
             }
             firstpass = false;
-        }while(!overlaps.isEmpty());
+            pending = false;
+            for (int cc = 0; cc < count; cc++) { 
+                pending |= !overlaps[cc].isEmpty();
+            }
+        }while(pending);
     }
 
-    private Vertex checkTriOverlaps(Vertex a, Vertex b, Vertex c) {
+    /** 
+     * @param scratch 6 vertices used to hold coordinates
+     * @param overlap receives outline and vertex index of the first overlapping off-curve vertex
+     * @return true if the triangle a, b, c of outline {@code ao} overlaps another curved triangle 
+     */
+    private boolean checkTriOverlaps(final Outline ao, int ia, int ib, int ic, final Vertex[] scratch, final int[] overlap) {
+        final Vertex a = setCoord(scratch[0], ao, ia);
+        final Vertex b = setCoord(scratch[1], ao, ib);
+        final Vertex c = setCoord(scratch[2], ao, ic);
         int count = getOutlineNumber();
         for (int cc = 0; cc < count; cc++) { 
             final Outline outline = getOutline(cc);
             int vertexCount = outline.getVertexCount();
             for(int i=0; i < vertexCount; i++) {
-                final Vertex current = outline.getVertex(i);
-                if(current.isOnCurve() || current == a || current == b || current == c) {
+                if(outline.isOnCurve(i) || outline == ao && ( i == ia || i == ib || i == ic ) ) {
                     continue;
                 }
-                final Vertex nextV = outline.getVertex((i+1)%vertexCount);
-                final Vertex prevV = outline.getVertex((i+vertexCount-1)%vertexCount);
+                final int next = (i+1)%vertexCount;
+                final int prev = (i+vertexCount-1)%vertexCount;
 
                 //skip neighboring triangles
-                if(prevV == c || nextV == a) {
+                if(outline == ao && ( prev == ic || next == ia ) ) {
                     continue;
                 }
+                final Vertex prevV = setCoord(scratch[3], outline, prev);
+                final Vertex current = setCoord(scratch[4], outline, i);
+                final Vertex nextV = setCoord(scratch[5], outline, next);
 
                 if(VectorUtil.vertexInTriangle(a.getCoord(), b.getCoord(), c.getCoord(), current.getCoord())
                         || VectorUtil.vertexInTriangle(a.getCoord(), b.getCoord(), c.getCoord(), nextV.getCoord())
-                        || VectorUtil.vertexInTriangle(a.getCoord(), b.getCoord(), c.getCoord(), prevV.getCoord())) {
-
-                    return current;
-                }
-                if(VectorUtil.tri2SegIntersection(a, b, c, prevV, current) 
+                        || VectorUtil.vertexInTriangle(a.getCoord(), b.getCoord(), c.getCoord(), prevV.getCoord())
+                        || VectorUtil.tri2SegIntersection(a, b, c, prevV, current) 
                         || VectorUtil.tri2SegIntersection(a, b, c, current, nextV)
                         || VectorUtil.tri2SegIntersection(a, b, c, prevV, nextV)) {
-                    return current;
+                    overlap[0] = cc;
+                    overlap[1] = i;
+                    return true;
                 }
             }
         }
-        return null;
+        return false;
+    }
+
+    private static Vertex setCoord(Vertex dst, Outline outline, int index) {
+        dst.setCoord(outline.getX(index), outline.getY(index), outline.getZ(index));
+        return dst;
     }
 
     private void transformOutlines2Quadratic() {
@@ -468,15 +546,15 @@ public class OutlineShape implements Comparable<OutlineShape> {
             int vertexCount = outline.getVertexCount();
 
             for(int i=0; i < vertexCount; i++) {
-                final Vertex currentVertex = outline.getVertex(i);
-                final Vertex nextVertex = outline.getVertex((i+1)%vertexCount);
-                if ( !currentVertex.isOnCurve() && !nextVertex.isOnCurve() ) {
-                    final float[] newCoords = VectorUtil.mid(currentVertex.getCoord(), 
-                            nextVertex.getCoord());
-                    final Vertex v = vertexFactory.create(newCoords, 0, 3, true);
+                final int next = (i+1)%vertexCount;
+                if ( !outline.isOnCurve(i) && !outline.isOnCurve(next) ) {
+                    // mid point, see VectorUtil#mid(float[], float[])
+                    final float x = (outline.getX(i) + outline.getX(next))*0.5f;
+                    final float y = (outline.getY(i) + outline.getY(next))*0.5f;
+                    final float z = (outline.getZ(i) + outline.getZ(next))*0.5f;
                     i++;
                     vertexCount++;
-                    outline.addVertex(i, v);
+                    outline.addVertex(i, x, y, z, true);
                 }                
             }
             if(vertexCount <= 0) {
@@ -487,9 +565,11 @@ public class OutlineShape implements Comparable<OutlineShape> {
             }
 
             if( vertexCount > 0 ) {
-                if(VectorUtil.checkEquality(outline.getVertex(0).getCoord(), 
-                        outline.getLastVertex().getCoord())) {
-                    outline.removeVertex(vertexCount-1);
+                final int last = vertexCount-1;
+                if( Float.compare(outline.getX(0), outline.getX(last)) == 0 &&
+                    Float.compare(outline.getY(0), outline.getY(last)) == 0 &&
+                    Float.compare(outline.getZ(0), outline.getZ(last)) == 0 ) {
+                    outline.removeVertex(last);
                 }
             }
         }
@@ -508,15 +588,42 @@ public class OutlineShape implements Comparable<OutlineShape> {
         }
     }
 
-    /** @return the list of concatenated vertices associated with all 
-     * {@code Outline}s of this object
+    /** @return the number of vertices of all {@code Outline}s of this object,
+     * without walking the {@link #getVertices()} view. 
      */
-    public ArrayList<Vertex> getVertices() {
-        ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+    public int getVertexCount() {
+        int count = 0;
         for(int i=0; i<outlines.size(); i++) {
-            vertices.addAll(outlines.get(i).getVertices());
+            count += outlines.get(i).getVertexCount();
+        }
+        return count;
+    }
+
+    /** @return a view of the concatenated vertices associated with all 
+     * {@code Outline}s of this object, w/o copying them into a new list.
+     * <p>The view reflects later changes of this shape and shall not be modified.
+     * Its {@link Vertex} objects are created on demand, see {@link Outline#getVertex(int)}.</p>
+     */
+    public List<Vertex> getVertices() {
+        if( null == verticesView ) {
+            verticesView = new AbstractList<Vertex>() {
+                public Vertex get(int index) {
+                    for(int i=0; i<outlines.size(); i++) {
+                        final Outline outline = outlines.get(i);
+                        final int n = outline.getVertexCount();
+                        if( index < n ) {
+                            return outline.getVertex(index);
+                        }
+                        index -= n;
+                    }
+                    throw new IndexOutOfBoundsException("index "+index+" beyond last outline");
+                }
+                public int size() {
+                    return getVertexCount();
+                }
+            };
         }
-        return vertices;
+        return verticesView;
     }
 
     /**
@@ -620,6 +727,7 @@ public class OutlineShape implements Comparable<OutlineShape> {
             o = (OutlineShape) super.clone();
         } catch (CloneNotSupportedException e) { throw new InternalError(); }
         o.bbox = bbox.clone();
+        o.verticesView = null;
         o.outlines = new ArrayList<Outline>(outlines.size());
         for(int i=0; i<outlines.size(); i++) {
             o.outlines.add(outlines.get(i).clone());
@@ -28,11 +28,13 @@
 package com.jogamp.graph.curve;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import jogamp.opengl.Debug;
 
 import com.jogamp.graph.geom.Triangle;
 import com.jogamp.graph.geom.Vertex;
+import com.jogamp.graph.geom.VertexStore;
 import com.jogamp.opengl.math.geom.AABBox;
 
 /** Abstract Outline shape GL representation
@@ -68,6 +70,11 @@ public abstract class Region {
     protected final AABBox box = new AABBox();
     protected ArrayList<Triangle> triangles = new ArrayList<Triangle>();
     protected ArrayList<Vertex> vertices = new ArrayList<Vertex>();
+    /** Vertices added in bulk, placed after all {@link #vertices} */
+    protected final VertexStore vertexStore = new VertexStore();
+    /** Triangle indices referencing {@link #vertexStore}, 3 per triangle */
+    protected int[] vertexStoreIndices = new int[48];
+    protected int vertexStoreIndexCount = 0;
 
     public static boolean isVBAA(int renderModes) { 
         return 0 != ( renderModes & Region.VBAA_RENDERING_BIT ); 
@@ -140,6 +147,51 @@ public abstract class Region {
         setDirty(true);
     }
 
+    /** Returns the {@link VertexStore} of this region, allowing to add vertices in bulk
+     * without creating {@link Vertex} objects. 
+     * These vertices are referenced by triangles added via {@link #addTriangle(int, int, int)}
+     * and bound to OGL objects after all {@link Vertex} objects on the next call to {@code update}.
+     * 
+     * @see #addTriangle(int, int, int)
+     */
+    public final VertexStore getVertexStore() {
+        return vertexStore;
+    }
+
+    /** Adds a triangle referencing vertices of the {@link #getVertexStore() vertex store}.
+     * This triangle will be bound to OGL objects 
+     * on the next call to {@code update}
+     * @param v0 index of the first vertex within the vertex store
+     * @param v1 index of the second vertex within the vertex store
+     * @param v2 index of the third vertex within the vertex store
+     * 
+     * @see update(GL2ES2)
+     */
+    public final void addTriangle(int v0, int v1, int v2) {
+        if( vertexStoreIndexCount + 3 > vertexStoreIndices.length ) {
+            final int[] tmp = new int[vertexStoreIndices.length*2];
+            System.arraycopy(vertexStoreIndices, 0, tmp, 0, vertexStoreIndexCount);
+            vertexStoreIndices = tmp;
+        }
+        vertexStoreIndices[vertexStoreIndexCount++] = v0;
+        vertexStoreIndices[vertexStoreIndexCount++] = v1;
+        vertexStoreIndices[vertexStoreIndexCount++] = v2;
+        setDirty(true);
+    }
+
+    /** Returns the backing index array of the triangles added via {@link #addTriangle(int, int, int)},
+     * 3 indices per triangle.
+     * Only the first {@link #getVertexStoreIndexCount()} elements are valid.
+     */
+    public final int[] getVertexStoreIndices() {
+        return vertexStoreIndices;
+    }
+
+    /** Returns the number of valid {@link #getVertexStoreIndices() vertex store indices}. */
+    public final int getVertexStoreIndexCount() {
+        return vertexStoreIndexCount;
+    }
+
     /** Adds a {@link Vertex} object to the Region
      * This vertex will be bound to OGL objects 
      * on the next call to {@code update}
@@ -160,7 +212,7 @@ public abstract class Region {
      * 
      * @see update(GL2ES2)
      */
-    public void addVertices(ArrayList<Vertex> verts) {
+    public void addVertices(List<Vertex> verts) {
         vertices.addAll(verts);
         numVertices = vertices.size();
         setDirty(true);
@@ -28,9 +28,13 @@
 package com.jogamp.graph.curve.opengl;
 
 
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
 import java.util.ArrayList;
+import java.util.List;
 
 import javax.media.opengl.GL2ES2;
+import com.jogamp.opengl.util.GLArrayDataEditable;
 import com.jogamp.opengl.util.PMVMatrix;
 
 import com.jogamp.graph.curve.OutlineShape;
@@ -67,7 +71,7 @@ public abstract class GLRegion extends Region {
             ArrayList<Triangle> triangles = outlineShape.triangulate();
             region.addTriangles(triangles);
             
-            ArrayList<Vertex> vertices = outlineShape.getVertices();
+            List<Vertex> vertices = outlineShape.getVertices();
             for(int pos=0; pos < vertices.size(); pos++){
                 Vertex vert = vertices.get(pos);
                 vert.setId(numVertices++);
@@ -87,12 +91,15 @@ public abstract class GLRegion extends Region {
         
         outlineShape.transformOutlines(OutlineShape.VerticesState.QUADRATIC_NURBS);
         ArrayList<Triangle> triangles = (ArrayList<Triangle>) outlineShape.triangulate();
-        ArrayList<Vertex> vertices = (ArrayList<Vertex>) outlineShape.getVertices();
+        List<Vertex> vertices = outlineShape.getVertices();
         region.addVertices(vertices);
         region.addTriangles(triangles);
         return region;
     }        
     
+    /** Scratch indices of {@link #putVertexStoreIndices(GLArrayDataEditable, int)}, grown on demand */
+    private short[] vertexStoreIndexScratch = new short[0];
+    
     protected GLRegion(int renderModes) {
         super(renderModes);
     }
@@ -126,4 +133,30 @@ public abstract class GLRegion extends Region {
     }
     
     protected abstract void drawImpl(GL2ES2 gl, RenderState rs, int vp_width, int vp_height, int[/*1*/] texWidth);
+    
+    /** Appends the triangle indices of the {@link #getVertexStore() vertex store} in bulk,
+     *  offset by <code>base</code>, the number of preceding {@link Vertex} objects. */
+    protected final void putVertexStoreIndices(GLArrayDataEditable indices, int base) {
+        if( 0 < vertexStoreIndexCount ) {
+            if( vertexStoreIndexScratch.length < vertexStoreIndexCount ) {
+                vertexStoreIndexScratch = new short[vertexStoreIndices.length];
+            }
+            final short[] s = vertexStoreIndexScratch;
+            for(int i=0; i<vertexStoreIndexCount; i++) {
+                s[i] = (short) ( base + vertexStoreIndices[i] );
+            }
+            indices.put(ShortBuffer.wrap(s, 0, vertexStoreIndexCount));
+        }
+    }
+    
+    /** Appends the coordinates and texture coordinates of the {@link #getVertexStore() vertex store} in bulk
+     *  and resizes the bounding box accordingly. */
+    protected final void putVertexStoreVertices(GLArrayDataEditable coords, GLArrayDataEditable texCoords) {
+        final int n = vertexStore.size();
+        if( 0 < n ) {
+            coords.put(FloatBuffer.wrap(vertexStore.getCoords(), 0, n*3));
+            texCoords.put(FloatBuffer.wrap(vertexStore.getTexCoords(), 0, n*2));
+            vertexStore.resize(box);
+        }
+    }
 }
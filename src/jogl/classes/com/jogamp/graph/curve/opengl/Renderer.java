@@ -52,6 +52,8 @@ public abstract class Renderer {
     protected boolean initialized;
     protected final RenderState rs;
     private boolean vboSupported = false; 
+    /** {@link ShaderState} uniform handles, valid while initialized */
+    private int hPMVMatrix, hWeight, hAlpha, hColorStatic;
     
     public final boolean isInitialized() { return initialized; }
 
@@ -135,20 +137,26 @@ public abstract class Renderer {
             throw new GLException("Shader initialization failed");
         }
         
-        if(!rs.getShaderState().uniform(gl, rs.getPMVMatrix())) {
-            throw new GLException("Error setting PMVMatrix in shader: "+rs.getShaderState());
+        final ShaderState st = rs.getShaderState();
+        hPMVMatrix = st.registerUniform(rs.getPMVMatrix());
+        hWeight = st.registerUniform(rs.getWeight());
+        hAlpha = st.registerUniform(rs.getAlpha());
+        hColorStatic = st.registerUniform(rs.getColorStatic());
+        
+        if(!st.uniform(gl, hPMVMatrix)) {
+            throw new GLException("Error setting PMVMatrix in shader: "+st);
         }
         
-        if(!rs.getShaderState().uniform(gl, rs.getWeight())) {
-            throw new GLException("Error setting weight in shader: "+rs.getShaderState());
+        if(!st.uniform(gl, hWeight)) {
+            throw new GLException("Error setting weight in shader: "+st);
         }
                 
-        if(!rs.getShaderState().uniform(gl, rs.getAlpha())) {
-            throw new GLException("Error setting global alpha in shader: "+rs.getShaderState());
+        if(!st.uniform(gl, hAlpha)) {
+            throw new GLException("Error setting global alpha in shader: "+st);
         }        
         
-        if(!rs.getShaderState().uniform(gl, rs.getColorStatic())) {
-            throw new GLException("Error setting global color in shader: "+rs.getShaderState());
+        if(!st.uniform(gl, hColorStatic)) {
+            throw new GLException("Error setting global color in shader: "+st);
         }        
     }
 
@@ -181,15 +189,15 @@ public abstract class Renderer {
         	 throw new IllegalArgumentException("Weight out of range");
         }
         rs.getWeight().setData(v);
-        if(null != gl && rs.getShaderState().inUse()) {
-            rs.getShaderState().uniform(gl, rs.getWeight());
+        if(initialized && null != gl && rs.getShaderState().inUse()) {
+            rs.getShaderState().uniform(gl, hWeight);
         }
     }
     
     public void setAlpha(GL2ES2 gl, float alpha_t) {
         rs.getAlpha().setData(alpha_t);
-        if(null != gl && rs.getShaderState().inUse()) {
-            rs.getShaderState().uniform(gl, rs.getAlpha());
+        if(initialized && null != gl && rs.getShaderState().inUse()) {
+            rs.getShaderState().uniform(gl, hAlpha);
         }
 
     }
@@ -206,8 +214,8 @@ public abstract class Renderer {
         fb.put(0, r);
         fb.put(1, g);
         fb.put(2, b);
-        if(null != gl && rs.getShaderState().inUse()) {
-            rs.getShaderState().uniform(gl, rs.getColorStatic());
+        if(initialized && null != gl && rs.getShaderState().inUse()) {
+            rs.getShaderState().uniform(gl, hColorStatic);
         }
     }
     
@@ -234,7 +242,7 @@ public abstract class Renderer {
 
     public void updateMatrix(GL2ES2 gl) {
         if(initialized && null != gl && rs.getShaderState().inUse()) {
-            rs.getShaderState().uniform(gl, rs.getPMVMatrix());
+            rs.getShaderState().uniform(gl, hPMVMatrix);
         }
     }
 
@@ -33,6 +33,7 @@ import java.util.Iterator;
 
 import javax.media.opengl.GL2ES2;
 
+import jogamp.graph.curve.text.GlyphMeshCache;
 import jogamp.graph.curve.text.GlyphString;
 
 import com.jogamp.graph.font.Font;
@@ -68,6 +69,8 @@ public abstract class TextRenderer extends Renderer {
 
     /**Create the resulting {@link GlyphString} that represents
      * the String wrt to the font.
+     * <p>The string is assembled from the per glyph triangulation cache,
+     * see {@link #setGlyphCacheLimit(int)}.</p>
      * @param font {@link Font} to be used
      * @param size font size
      * @param str {@link String} to be created
@@ -77,7 +80,10 @@ public abstract class TextRenderer extends Renderer {
         if(DEBUG_INSTANCE) {
             System.err.println("createString: "+getCacheSize()+"/"+getCacheLimit()+" - "+Font.NAME_UNIQUNAME + " - " + str + " - " + size);
         }
-        final GlyphString glyphString = GlyphString.createString(null, rs.getVertexFactory(), font, size, str);        
+        if(null == glyphMeshCache) {
+            glyphMeshCache = new GlyphMeshCache(rs.getVertexFactory(), glyphCacheLimit);
+        }
+        final GlyphString glyphString = GlyphString.createCachedString(glyphMeshCache, font, size, str);        
         glyphString.createRegion(gl, renderModes);        
         return glyphString;
     }
@@ -103,8 +109,30 @@ public abstract class TextRenderer extends Renderer {
        }
        stringCacheMap.clear();    
        stringCacheArray.clear();
+       if(null != glyphMeshCache) {
+           glyphMeshCache.clear();
+       }
    }
    
+   /**
+    * <p>Sets the limit of the per glyph triangulation cache in glyphs,
+    * used to assemble new strings without triangulating their glyphs again.
+    * Default is {@link GlyphMeshCache#DEFAULT_LIMIT}, 0 disables eviction.</p>
+    * 
+    * @param newLimit new glyph cache size
+    */
+   public final void setGlyphCacheLimit(int newLimit) {
+       glyphCacheLimit = newLimit;
+       if(null != glyphMeshCache) {
+           glyphMeshCache.setLimit(newLimit);
+       }
+   }
+   
+   /**
+    * @return the current per glyph triangulation cache limit
+    */
+   public final int getGlyphCacheLimit() { return glyphCacheLimit; }
+   
    /**
     * <p>Sets the cache limit for reusing GlyphString's and their Region.
     * Default is {@link #DEFAULT_CACHE_LIMIT}, -1 unlimited, 0 turns cache off, >0 limited </p>
@@ -189,5 +217,7 @@ public abstract class TextRenderer extends Renderer {
    
    private HashMap<String, GlyphString> stringCacheMap = new HashMap<String, GlyphString>(DEFAULT_CACHE_LIMIT);
    private ArrayList<String> stringCacheArray = new ArrayList<String>(DEFAULT_CACHE_LIMIT);
-   private int stringCacheLimit = DEFAULT_CACHE_LIMIT;      
+   private int stringCacheLimit = DEFAULT_CACHE_LIMIT;
+   private GlyphMeshCache glyphMeshCache = null;
+   private int glyphCacheLimit = GlyphMeshCache.DEFAULT_LIMIT;      
 }
\ No newline at end of file
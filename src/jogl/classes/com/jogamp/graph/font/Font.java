@@ -82,6 +82,7 @@ public interface Font {
                 
         public Font getFont();
         public char getSymbol();
+        public short getID();
         public AABBox getBBox(float pixelSize);
         public float getAdvance(float pixelSize, boolean useFrationalMetrics);
     }
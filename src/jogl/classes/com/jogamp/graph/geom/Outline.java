@@ -30,7 +30,7 @@ package com.jogamp.graph.geom;
 import java.util.ArrayList;
 
 import com.jogamp.graph.geom.Vertex;
-import com.jogamp.opengl.math.VectorUtil;
+import com.jogamp.graph.geom.opengl.SVertex;
 import com.jogamp.opengl.math.geom.AABBox;
 
 
@@ -42,11 +42,22 @@ import com.jogamp.opengl.math.geom.AABBox;
  *  
  *  Note: An outline should be closed to be rendered as a region.
  *  
+ *  <p>
+ *  The points are stored in a {@link VertexStore}, i.e. structure of arrays.
+ *  A {@link Vertex} object of a point is only created via the {@link Vertex.Factory}
+ *  when requested by {@link #getVertex(int)} or {@link #getVertices()} and stays 
+ *  associated with the point afterwards. Coordinates and on-curve flags shall be modified
+ *  through this outline's methods, which keep the store and the created vertices in sync.
+ *  </p>
+ *  
  *  @see OutlineShape, Region
  */
 public class Outline implements Cloneable, Comparable<Outline> {
 
-    private ArrayList<Vertex> vertices = new ArrayList<Vertex>(3);
+    private final Vertex.Factory<? extends Vertex> vertexFactory;
+    private VertexStore store = new VertexStore(3);
+    /** Created vertices in point order, null for a point w/o vertex. The list itself is created on demand. */
+    private ArrayList<Vertex> vertices = null;
     private boolean closed = false;
     private AABBox bbox = new AABBox();
     private boolean dirtyBBox = false;
@@ -54,12 +65,21 @@ public class Outline implements Cloneable, Comparable<Outline> {
     /**Create an outline defined by control vertices.
      * An outline can contain off Curve vertices which define curved
      * regions in the outline.
+     * <p>{@link Vertex} objects are created via {@link SVertex#factory()}.</p>
      */
     public Outline() {        
+        this(SVertex.factory());
+    }
+
+    /**Create an outline defined by control vertices,
+     * using the given factory to create {@link Vertex} objects on demand.
+     */
+    public Outline(Vertex.Factory<? extends Vertex> factory) {
+        this.vertexFactory = factory;
     }
 
     public final int getVertexCount() {
-        return vertices.size();
+        return store.size();
     }
 
     /** Appends a vertex to the outline loop/strip.
@@ -67,7 +87,7 @@ public class Outline implements Cloneable, Comparable<Outline> {
      * @throws NullPointerException if the  {@link Vertex} element is null 
      */
     public final void addVertex(Vertex vertex) throws NullPointerException {
-        addVertex(vertices.size(), vertex);
+        addVertex(store.size(), vertex);
     }
 
     /** Insert the {@link Vertex} element at the given {@code position} to the outline loop/strip.
@@ -80,12 +100,43 @@ public class Outline implements Cloneable, Comparable<Outline> {
         if (null == vertex) {
             throw new NullPointerException("vertex is null");
         }
-        vertices.add(position, vertex);
+        final ArrayList<Vertex> vs = validateVertices();
+        final float[] tex = vertex.getTexCoord();
+        store.insert(position, vertex.getX(), vertex.getY(), vertex.getZ(), tex[0], tex[1], vertex.isOnCurve());
+        vs.add(position, vertex);
         if(!dirtyBBox) {
             bbox.resize(vertex.getX(), vertex.getY(), vertex.getZ());
         }
     }
 
+    /** Appends a point to the outline loop/strip w/o creating a {@link Vertex} object.
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param onCurve flag if this point is on the final curve
+     */
+    public final void addVertex(float x, float y, float z, boolean onCurve) {
+        addVertex(store.size(), x, y, z, onCurve);
+    }
+
+    /** Insert a point at the given {@code position} to the outline loop/strip w/o creating a {@link Vertex} object.
+     * @param position of the added point
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @param z the z coordinate
+     * @param onCurve flag if this point is on the final curve
+     * @throws IndexOutOfBoundsException if position is out of range (position < 0 || position > getVertexNumber())
+     */
+    public final void addVertex(int position, float x, float y, float z, boolean onCurve) throws IndexOutOfBoundsException {
+        store.insert(position, x, y, z, 0f, 0f, onCurve);
+        if( null != vertices ) {
+            vertices.add(position, null);
+        }
+        if(!dirtyBBox) {
+            bbox.resize(x, y, z);
+        }
+    }
+
     /** Replaces the {@link Vertex} element at the given {@code position}.
      * <p>Sets the bounding box dirty, hence a next call to {@link #getBounds()} will validate it.</p>
      * 
@@ -98,16 +149,73 @@ public class Outline implements Cloneable, Comparable<Outline> {
         if (null == vertex) {
             throw new NullPointerException("vertex is null");
         }
-        vertices.set(position, vertex);
+        validateVertices().set(position, vertex);
+        final float[] tex = vertex.getTexCoord();
+        store.setCoord(position, vertex.getX(), vertex.getY(), vertex.getZ());
+        store.setTexCoord(position, tex[0], tex[1]);
+        store.setOnCurve(position, vertex.isOnCurve());
         dirtyBBox = true;
     }
 
+    /** Sets the coordinates of the point at the given {@code position}.
+     * <p>The bounding box is resized to contain the new coordinates, it is not shrunk.</p>
+     */
+    public final void setCoord(int position, float x, float y, float z) {
+        store.setCoord(position, x, y, z);
+        final Vertex v = null != vertices ? vertices.get(position) : null;
+        if( null != v ) {
+            v.setCoord(x, y, z);
+        }
+        if(!dirtyBBox) {
+            bbox.resize(x, y, z);
+        }
+    }
+
+    /** Sets the on-curve flag of the point at the given {@code position}. */
+    public final void setOnCurve(int position, boolean onCurve) {
+        store.setOnCurve(position, onCurve);
+        final Vertex v = null != vertices ? vertices.get(position) : null;
+        if( null != v ) {
+            v.setOnCurve(onCurve);
+        }
+    }
+
+    public final float getX(int index) { return store.getX(index); }
+
+    public final float getY(int index) { return store.getY(index); }
+
+    public final float getZ(int index) { return store.getZ(index); }
+
+    public final boolean isOnCurve(int index) { return store.isOnCurve(index); }
+
+    /** Returns the {@link Vertex} of the point at the given {@code index}, creating it on first use. */
     public final Vertex getVertex(int index){
-        return vertices.get(index);
+        final ArrayList<Vertex> vs = validateVertices();
+        Vertex v = vs.get(index);
+        if( null == v ) {
+            v = store.getVertex(index, vertexFactory);
+            vs.set(index, v);
+        }
+        return v;
     }
 
+    /** 
+     * @return the index of the first point equal to the given vertex, 
+     *         i.e. same on-curve flag, vertex- and tex-coords, or -1 if none 
+     */
     public int getVertexIndex(Vertex vertex){
-        return vertices.indexOf(vertex);
+        syncStore();
+        final float[] tex = vertex.getTexCoord();
+        for(int i=0; i<store.size(); i++) {
+            if( store.isOnCurve(i) == vertex.isOnCurve() &&
+                Float.compare(store.getS(i), tex[0]) == 0 && Float.compare(store.getT(i), tex[1]) == 0 &&
+                Float.compare(store.getX(i), vertex.getX()) == 0 &&
+                Float.compare(store.getY(i), vertex.getY()) == 0 &&
+                Float.compare(store.getZ(i), vertex.getZ()) == 0 ) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /** Removes the {@link Vertex} element at the given {@code position}.
@@ -117,23 +225,36 @@ public class Outline implements Cloneable, Comparable<Outline> {
      * @throws IndexOutOfBoundsException if position is out of range (position < 0 || position >= getVertexNumber())
      */
     public final Vertex removeVertex(int position) throws IndexOutOfBoundsException {
+        final Vertex v = getVertex(position);
+        store.remove(position);
+        vertices.remove(position);
         dirtyBBox = true;        
-        return vertices.remove(position);
+        return v;
     }
 
     public final boolean isEmpty(){
-        return (vertices.size() == 0);
+        return (store.size() == 0);
     }
 
     public final Vertex getLastVertex(){
         if(isEmpty()){
             return null;
         }
-        return vertices.get(vertices.size()-1);
+        return getVertex(store.size()-1);
     }
 
+    /** 
+     * Returns the {@link Vertex} objects of all points, creating missing ones.
+     * <p>The returned list is owned by this outline and shall not be modified.</p>
+     */
     public final ArrayList<Vertex> getVertices() {
-        return vertices;
+        final ArrayList<Vertex> vs = validateVertices();
+        for(int i=vs.size()-1; i>=0; i--) {
+            if( null == vs.get(i) ) {
+                vs.set(i, store.getVertex(i, vertexFactory));
+            }
+        }
+        return vs;
     }
 
     /**
@@ -143,6 +264,10 @@ public class Outline implements Cloneable, Comparable<Outline> {
      * @param vertices the new outline loop/strip
      */
     public final void setVertices(ArrayList<Vertex> vertices) {
+        store.clear();
+        for(int i=0; i<vertices.size(); i++) {
+            store.add(vertices.get(i));
+        }
         this.vertices = vertices;
         validateBoundingBox();
     }
@@ -160,11 +285,17 @@ public class Outline implements Cloneable, Comparable<Outline> {
     public final void setClosed(boolean closed) {
         this.closed = closed;
         if( closed && !isEmpty() ) {
-            Vertex first = vertices.get(0);
-            Vertex last = getLastVertex();
-            if(!VectorUtil.checkEquality(first.getCoord(), last.getCoord())){
-                Vertex v = first.clone();
-                vertices.add(v);
+            final int last = store.size()-1;
+            if( Float.compare(store.getX(0), store.getX(last)) != 0 ||
+                Float.compare(store.getY(0), store.getY(last)) != 0 ||
+                Float.compare(store.getZ(0), store.getZ(last)) != 0 ) {
+                final Vertex first = null != vertices ? vertices.get(0) : null;
+                if( null != first ) {
+                    addVertex(first.clone());
+                } else {
+                    addVertex(store.getX(0), store.getY(0), store.getZ(0), store.isOnCurve(0));
+                    store.setTexCoord(last+1, store.getS(0), store.getT(0));
+                }
             }
         }
     }
@@ -185,12 +316,37 @@ public class Outline implements Cloneable, Comparable<Outline> {
         return 0;
     }
 
+    /** Creates the list of created vertices on demand, holding null for each point. */
+    private final ArrayList<Vertex> validateVertices() {
+        if( null == vertices ) {
+            final int n = store.size();
+            vertices = new ArrayList<Vertex>(Math.max(3, n));
+            for(int i=0; i<n; i++) {
+                vertices.add(null);
+            }
+        }
+        return vertices;
+    }
+
+    /** Copies the attributes of all created vertices back to the store, e.g. tex-coords set by the triangulation. */
+    private final void syncStore() {
+        if( null != vertices ) {
+            for(int i=vertices.size()-1; i>=0; i--) {
+                final Vertex v = vertices.get(i);
+                if( null != v ) {
+                    final float[] tex = v.getTexCoord();
+                    store.setCoord(i, v.getX(), v.getY(), v.getZ());
+                    store.setTexCoord(i, tex[0], tex[1]);
+                    store.setOnCurve(i, v.isOnCurve());
+                }
+            }
+        }
+    }
+
     private final void validateBoundingBox() {
         dirtyBBox = false;
         bbox.reset();
-        for (int i=0; i<vertices.size(); i++) {
-            bbox.resize(vertices.get(i).getCoord(), 0);
-        }
+        store.resize(bbox);
     }
 
     public final AABBox getBounds() {
@@ -218,8 +374,15 @@ public class Outline implements Cloneable, Comparable<Outline> {
         if( !getBounds().equals( o.getBounds() ) ) {
             return false;
         }
+        syncStore();
+        o.syncStore();
+        final VertexStore os = o.store;
         for (int i=getVertexCount()-1; i>=0; i--) {
-            if( ! getVertex(i).equals( o.getVertex(i) ) ) {
+            if( store.isOnCurve(i) != os.isOnCurve(i) ||
+                Float.compare(store.getS(i), os.getS(i)) != 0 || Float.compare(store.getT(i), os.getT(i)) != 0 ||
+                Float.compare(store.getX(i), os.getX(i)) != 0 ||
+                Float.compare(store.getY(i), os.getY(i)) != 0 ||
+                Float.compare(store.getZ(i), os.getZ(i)) != 0 ) {
                 return false;
             }
         }
@@ -227,18 +390,17 @@ public class Outline implements Cloneable, Comparable<Outline> {
     }
 
     /**
-     * @return deep clone of this Outline
+     * @return deep clone of this Outline, w/o any created {@link Vertex} objects
      */
     public Outline clone() {
         Outline o;
         try {
             o = (Outline) super.clone();
         } catch (CloneNotSupportedException e) { throw new InternalError(); }
+        syncStore();
         o.bbox = bbox.clone();
-        o.vertices = new ArrayList<Vertex>(vertices.size());
-        for(int i=0; i<vertices.size(); i++) {
-            o.vertices.add(vertices.get(i).clone());
-        }
+        o.store = new VertexStore(store);
+        o.vertices = null;
         return o;
     }       
 }
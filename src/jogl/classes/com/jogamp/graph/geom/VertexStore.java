@@ -0,0 +1,238 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.graph.geom;
+
+import java.util.BitSet;
+
+import com.jogamp.opengl.math.geom.AABBox;
+
+/**
+ * Structure of arrays vertex storage.
+ * <p>
+ * Coordinates, texture coordinates and the on-curve flags of all vertices
+ * are kept in primitive arrays, avoiding an object per {@link Vertex}.
+ * Hence the data can be copied in bulk, e.g. into GL buffers.
+ * </p>
+ * <p>
+ * A {@link Vertex} view of an element is only created on demand
+ * via {@link #getVertex(int, com.jogamp.graph.geom.Vertex.Factory)}.
+ * </p>
+ */
+public class VertexStore {
+    private float[] coords;
+    private float[] texCoords;
+    private final BitSet onCurve;
+    private int size = 0;
+
+    public VertexStore() {
+        this(16);
+    }
+
+    /** @param initialCapacity initial capacity in vertices */
+    public VertexStore(int initialCapacity) {
+        initialCapacity = Math.max(1, initialCapacity);
+        coords = new float[initialCapacity*3];
+        texCoords = new float[initialCapacity*2];
+        onCurve = new BitSet(initialCapacity);
+    }
+
+    /** Creates a copy of the given store, sized to its content. */
+    public VertexStore(VertexStore src) {
+        this(src.size);
+        System.arraycopy(src.coords, 0, coords, 0, src.size*3);
+        System.arraycopy(src.texCoords, 0, texCoords, 0, src.size*2);
+        onCurve.or(src.onCurve);
+        size = src.size;
+    }
+
+    /** @return the number of vertices */
+    public final int size() { return size; }
+
+    public final boolean isEmpty() { return 0 == size; }
+
+    /** Removes all vertices, keeping the storage. */
+    public final void clear() {
+        size = 0;
+        onCurve.clear();
+    }
+
+    /** Ensures the storage capacity for the given number of vertices. */
+    public final void ensureCapacity(int capacity) {
+        if( capacity*3 > coords.length ) {
+            final int newCapacity = Math.max(capacity, coords.length/3*2);
+            final float[] c = new float[newCapacity*3];
+            System.arraycopy(coords, 0, c, 0, size*3);
+            coords = c;
+            final float[] t = new float[newCapacity*2];
+            System.arraycopy(texCoords, 0, t, 0, size*2);
+            texCoords = t;
+        }
+    }
+
+    /** 
+     * Appends a vertex. 
+     * @return the index of the new vertex 
+     */
+    public final int add(float x, float y, float z, float s, float t, boolean onCurve) {
+        ensureCapacity(size+1);
+        final int i = size++;
+        coords[i*3  ] = x;
+        coords[i*3+1] = y;
+        coords[i*3+2] = z;
+        texCoords[i*2  ] = s;
+        texCoords[i*2+1] = t;
+        this.onCurve.set(i, onCurve);
+        return i;
+    }
+
+    /**
+     * Inserts a vertex at the given position, shifting the following vertices up by one.
+     * @throws IndexOutOfBoundsException if position is out of range (position < 0 || position > size())
+     */
+    public final void insert(int position, float x, float y, float z, float s, float t, boolean onCurve) throws IndexOutOfBoundsException {
+        if( 0 > position || position > size ) {
+            throw new IndexOutOfBoundsException("position "+position+", size "+size);
+        }
+        ensureCapacity(size+1);
+        System.arraycopy(coords, position*3, coords, (position+1)*3, (size-position)*3);
+        System.arraycopy(texCoords, position*2, texCoords, (position+1)*2, (size-position)*2);
+        for(int i=size; i>position; i--) {
+            this.onCurve.set(i, this.onCurve.get(i-1));
+        }
+        size++;
+        setCoord(position, x, y, z);
+        setTexCoord(position, s, t);
+        this.onCurve.set(position, onCurve);
+    }
+
+    /**
+     * Removes the vertex at the given position, shifting the following vertices down by one.
+     * @throws IndexOutOfBoundsException if position is out of range (position < 0 || position >= size())
+     */
+    public final void remove(int position) throws IndexOutOfBoundsException {
+        if( 0 > position || position >= size ) {
+            throw new IndexOutOfBoundsException("position "+position+", size "+size);
+        }
+        size--;
+        System.arraycopy(coords, (position+1)*3, coords, position*3, (size-position)*3);
+        System.arraycopy(texCoords, (position+1)*2, texCoords, position*2, (size-position)*2);
+        for(int i=position; i<size; i++) {
+            onCurve.set(i, onCurve.get(i+1));
+        }
+        onCurve.clear(size);
+    }
+
+    /** 
+     * Appends a copy of the given vertex, i.e. its coordinates, texture coordinates and on-curve flag. 
+     * @return the index of the new vertex 
+     */
+    public final int add(Vertex v) {
+        final float[] tex = v.getTexCoord();
+        return add(v.getX(), v.getY(), v.getZ(), tex[0], tex[1], v.isOnCurve());
+    }
+
+    /**
+     * Appends all vertices of the given store, scaled and translated in the x/y plane.
+     * @return the index of the first appended vertex
+     */
+    public final int add(VertexStore src, float scale, float tx, float ty) {
+        final int n = src.size;
+        ensureCapacity(size+n);
+        final int first = size;
+        final float[] sc = src.coords;
+        for(int i=0; i<n; i++) {
+            final int j = (first+i)*3;
+            coords[j  ] = sc[i*3  ] * scale + tx;
+            coords[j+1] = sc[i*3+1] * scale + ty;
+            coords[j+2] = sc[i*3+2];
+            onCurve.set(first+i, src.onCurve.get(i));
+        }
+        System.arraycopy(src.texCoords, 0, texCoords, first*2, n*2);
+        size += n;
+        return first;
+    }
+
+    public final float getX(int i) { return coords[i*3]; }
+
+    public final float getY(int i) { return coords[i*3+1]; }
+
+    public final float getZ(int i) { return coords[i*3+2]; }
+
+    public final float getS(int i) { return texCoords[i*2]; }
+
+    public final float getT(int i) { return texCoords[i*2+1]; }
+
+    public final boolean isOnCurve(int i) { return onCurve.get(i); }
+
+    public final void setCoord(int i, float x, float y, float z) {
+        coords[i*3  ] = x;
+        coords[i*3+1] = y;
+        coords[i*3+2] = z;
+    }
+
+    public final void setTexCoord(int i, float s, float t) {
+        texCoords[i*2  ] = s;
+        texCoords[i*2+1] = t;
+    }
+
+    public final void setOnCurve(int i, boolean onCurve) {
+        this.onCurve.set(i, onCurve);
+    }
+
+    /** 
+     * Returns the backing coordinate array, 3 components per vertex.
+     * Only the first <code>3*{@link #size()}</code> elements are valid.
+     * The array is replaced when growing. 
+     */
+    public final float[] getCoords() { return coords; }
+
+    /** 
+     * Returns the backing texture coordinate array, 2 components per vertex.
+     * Only the first <code>2*{@link #size()}</code> elements are valid.
+     * The array is replaced when growing. 
+     */
+    public final float[] getTexCoords() { return texCoords; }
+
+    /** Resizes the given box to contain all vertices. */
+    public final void resize(AABBox box) {
+        for(int i=0; i<size; i++) {
+            box.resize(coords, i*3);
+        }
+    }
+
+    /** Creates a {@link Vertex} copy of the element at index <code>i</code> using the given factory. */
+    public final <T extends Vertex> T getVertex(int i, Vertex.Factory<T> factory) {
+        final T v = factory.create(coords, i*3, 3, onCurve.get(i));
+        v.setTexCoord(texCoords, i*2, 2);
+        return v;
+    }
+
+    public String toString() {
+        return "VertexStore[size "+size+", capacity "+coords.length/3+"]";
+    }
+}
@@ -184,6 +184,53 @@ public class FloatUtil {
      }
   }
   
+  /**
+   * Multiplies matrix <code>a</code> with a translation matrix in place,
+   * i.e. <code>a = a * T(x, y, z)</code>, touching only the 4th column.
+   *
+   * @param a 4x4 matrix in column-major order
+   */
+  public static final void translateMatrixf(final FloatBuffer a, final float x, final float y, final float z) {
+     final int aP = a.position();
+     for (int i = 0; i < 4; i++) {
+        a.put(aP+i+3*4 , a.get(aP+i+0*4) * x + a.get(aP+i+1*4) * y + a.get(aP+i+2*4) * z + a.get(aP+i+3*4) );
+     }
+  }
+
+  /**
+   * Multiplies matrix <code>a</code> with a scale matrix in place,
+   * i.e. <code>a = a * S(x, y, z)</code>, touching only the first three columns.
+   *
+   * @param a 4x4 matrix in column-major order
+   */
+  public static final void scaleMatrixf(final FloatBuffer a, final float x, final float y, final float z) {
+     final int aP = a.position();
+     for (int i = 0; i < 4; i++) {
+        a.put(aP+i+0*4 , a.get(aP+i+0*4) * x );
+        a.put(aP+i+1*4 , a.get(aP+i+1*4) * y );
+        a.put(aP+i+2*4 , a.get(aP+i+2*4) * z );
+     }
+  }
+
+  /**
+   * Multiplies matrix <code>a</code> with the upper left 3x3 part of <code>b</code> in place,
+   * i.e. <code>a = a * b</code> for a rotation matrix <code>b</code>, touching only the first three columns.
+   * The 4th row and column of <code>b</code> are assumed to be those of the identity.
+   *
+   * @param a 4x4 matrix in column-major order
+   * @param b 4x4 matrix in column-major order
+   */
+  public static final void multMatrixRotf(final FloatBuffer a, final float[] b, int b_off) {
+     final int aP = a.position();
+     for (int i = 0; i < 4; i++) {
+        // one row in column-major order
+        final float ai0=a.get(aP+i+0*4),  ai1=a.get(aP+i+1*4),  ai2=a.get(aP+i+2*4); // row-i of a
+        a.put(aP+i+0*4 , ai0 * b[b_off+0+0*4] + ai1 * b[b_off+1+0*4] + ai2 * b[b_off+2+0*4] );
+        a.put(aP+i+1*4 , ai0 * b[b_off+0+1*4] + ai1 * b[b_off+1+1*4] + ai2 * b[b_off+2+1*4] );
+        a.put(aP+i+2*4 , ai0 * b[b_off+0+2*4] + ai1 * b[b_off+1+2*4] + ai2 * b[b_off+2+2*4] );
+     }
+  }
+
   /**
    * Normalize vector
    *
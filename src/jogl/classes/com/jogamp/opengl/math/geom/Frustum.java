@@ -27,6 +27,13 @@
  */
 package com.jogamp.opengl.math.geom;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
 import com.jogamp.common.os.Platform;
 
 /**
@@ -65,6 +72,17 @@ import com.jogamp.common.os.Platform;
  * http://www.emeyex.com/site/tuts/FrustumCulling.pdf
  * </pre>
  * </p>
+ * <p>
+ * Large amounts of objects can be culled at once via 
+ * {@link #cullAABBoxes(float[], int, int, int[], byte[], ExecutorService) cullAABBoxes(..)}
+ * and {@link #cullSpheres(float[], int, int, int[], byte[], ExecutorService) cullSpheres(..)},
+ * using packed arrays and the plane-coherency of consecutive frames:
+ * <pre>
+ * Optimized View Frustum Culling Algorithms for Bounding Boxes
+ *   Ulf Assarsson, Tomas Möller
+ *   http://www.cse.chalmers.se/~uffe/vfc_bbox.pdf
+ * </pre>
+ * </p>
  */
 public class Frustum {
     /** Normalized planes[l, r, b, t, n, f] */
@@ -366,6 +384,173 @@ public class Frustum {
         return Location.OUTSIDE == classifySphere(p, radius);
     }
     
+    /** Number of floats per box, i.e. <code>[lx, ly, lz, hx, hy, hz]</code>, as used by {@link #cullAABBoxes(float[], int, int, int[], byte[], ExecutorService) cullAABBoxes(..)}: {@value} */
+    public static final int AABBOX_FLOATS = 6;
+    
+    /** Number of floats per sphere, i.e. <code>[x, y, z, radius]</code>, as used by {@link #cullSpheres(float[], int, int, int[], byte[], ExecutorService) cullSpheres(..)}: {@value} */
+    public static final int SPHERE_FLOATS = 4;
+    
+    /** Minimum number of objects per task when culling in parallel: {@value} */
+    public static final int PARALLEL_CHUNK_MIN = 8192;
+    
+    /**
+     * Cull all packed axis aligned bounding boxes against the frustum, 
+     * using the same criteria as {@link #isAABBoxOutside(AABBox)}.
+     * <p>
+     * Box <code>i</code> is stored as <code>[lx, ly, lz, hx, hy, hz]</code> 
+     * starting at <code>boxes[boxes_off + i * {@link #AABBOX_FLOATS}]</code>.
+     * </p>
+     * <p>
+     * Bit <code>(1 &lt;&lt; (i &amp; 31))</code> of <code>visible[i &gt;&gt;&gt; 5]</code> is set 
+     * if box <code>i</code> is not outside, otherwise cleared. The unused bits of the last word are cleared.
+     * </p>
+     * <p>
+     * If not <code>null</code>, <code>planeHints[i]</code> holds the index of the plane tested first for box <code>i</code>,
+     * and receives the index of the plane culling the box, if any.
+     * Passing the same hints each frame exploits the plane-coherency of slowly moving views.
+     * Initialize the hints with zero.
+     * </p>
+     * <p>
+     * If <code>executor</code> is not <code>null</code> and <code>count</code> exceeds 
+     * 2 * {@link #PARALLEL_CHUNK_MIN}, the boxes are split into chunks culled in parallel,
+     * one of them by the calling thread. The call returns after all chunks are done.
+     * </p>
+     * 
+     * @param boxes packed boxes
+     * @param boxes_off offset of the first box in <code>boxes</code>
+     * @param count number of boxes
+     * @param visible visibility bitset of at least <code>(count + 31) / 32</code> words 
+     * @param planeHints per box plane index, may be <code>null</code>
+     * @param executor optional worker pool, may be <code>null</code>
+     * @return number of visible boxes
+     */
+    public final int cullAABBoxes(float[] boxes, int boxes_off, int count, int[] visible, byte[] planeHints, ExecutorService executor) {
+        return cull(true, boxes, boxes_off, count, visible, planeHints, executor);
+    }
+    
+    /**
+     * Cull all packed spheres against the frustum, 
+     * using the same criteria as {@link #isSphereOutside(float[], float)}.
+     * <p>
+     * Sphere <code>i</code> is stored as <code>[x, y, z, radius]</code> 
+     * starting at <code>spheres[spheres_off + i * {@link #SPHERE_FLOATS}]</code>.
+     * </p>
+     * <p>
+     * The visibility bitset, plane hints and parallel execution are handled 
+     * as described in {@link #cullAABBoxes(float[], int, int, int[], byte[], ExecutorService) cullAABBoxes(..)}.
+     * </p>
+     * 
+     * @param spheres packed spheres
+     * @param spheres_off offset of the first sphere in <code>spheres</code>
+     * @param count number of spheres
+     * @param visible visibility bitset of at least <code>(count + 31) / 32</code> words 
+     * @param planeHints per sphere plane index, may be <code>null</code>
+     * @param executor optional worker pool, may be <code>null</code>
+     * @return number of visible spheres
+     */
+    public final int cullSpheres(float[] spheres, int spheres_off, int count, int[] visible, byte[] planeHints, ExecutorService executor) {
+        return cull(false, spheres, spheres_off, count, visible, planeHints, executor);
+    }
+    
+    private final int cull(final boolean boxes, final float[] data, final int data_off, final int count, 
+                           final int[] visible, final byte[] planeHints, final ExecutorService executor) {
+        final int floats = boxes ? AABBOX_FLOATS : SPHERE_FLOATS;
+        if( 0 > count || data_off + count * floats > data.length || ( count + 31 ) >>> 5 > visible.length ||
+            ( null != planeHints && count > planeHints.length ) ) {
+            throw new IllegalArgumentException("Arrays too small for "+count+" objects: data "+data.length+", off "+data_off+
+                                               ", visible "+visible.length+", hints "+(null != planeHints ? planeHints.length : 0));
+        }
+        // snapshot of the planes, [nx, ny, nz, d] each
+        final float[] p = new float[6*4];
+        for (int i = 0; i < 6; ++i) {
+            final Plane plane = planes[i];
+            p[i*4+0] = plane.n[0];
+            p[i*4+1] = plane.n[1];
+            p[i*4+2] = plane.n[2];
+            p[i*4+3] = plane.d;
+        }
+        final int tasks = null != executor ? Math.min(Runtime.getRuntime().availableProcessors(), count / PARALLEL_CHUNK_MIN) : 1;
+        if( 2 > tasks ) {
+            return cullImpl(boxes, p, data, data_off, 0, count, visible, planeHints);
+        }
+        // chunks are aligned to whole bitset words
+        final int chunk = ( ( count + tasks - 1 ) / tasks + 31 ) & ~31;
+        final List<Future<Integer>> futures = new ArrayList<Future<Integer>>(tasks);
+        for(int first = chunk; first < count; first += chunk) {
+            final int f = first;
+            final int n = Math.min(chunk, count - first);
+            futures.add(executor.submit(new Callable<Integer>() {
+                public Integer call() {
+                    return Integer.valueOf(cullImpl(boxes, p, data, data_off, f, n, visible, planeHints));
+                } } ));
+        }
+        int visCount = cullImpl(boxes, p, data, data_off, 0, chunk, visible, planeHints);
+        try {
+            for(int i=0; i<futures.size(); i++) {
+                visCount += futures.get(i).get().intValue();
+            }
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+        return visCount;
+    }
+    
+    /** 
+     * Culls objects [first .. first+count[, where first is a multiple of 32.
+     * Returns the number of visible objects. 
+     */
+    private static int cullImpl(final boolean boxes, final float[] p, final float[] data, final int data_off, final int first, final int count, 
+                                final int[] visible, final byte[] planeHints) {
+        final int end = first + count;
+        int visCount = 0;
+        int word = 0;
+        for(int i = first; i < end; i++) {
+            final int hint = null != planeHints ? planeHints[i] : 0;
+            int outside = -1;
+            if( boxes ) {
+                final int o = data_off + i * AABBOX_FLOATS;
+                final float lx = data[o+0], ly = data[o+1], lz = data[o+2];
+                final float hx = data[o+3], hy = data[o+4], hz = data[o+5];
+                for(int j = 0; j < 6; j++) {
+                    // hinted plane first, followed by the remaining ones
+                    final int k = 0 == j ? hint : ( j - 1 < hint ? j - 1 : j );
+                    final int pk = k * 4;
+                    final float nx = p[pk], ny = p[pk+1], nz = p[pk+2];
+                    // p-vertex, i.e. the corner farthest along the normal
+                    final float dist = nx * ( nx > 0f ? hx : lx ) + ny * ( ny > 0f ? hy : ly ) + nz * ( nz > 0f ? hz : lz ) + p[pk+3];
+                    if( !( dist > 0f ) ) {
+                        outside = k;
+                        break;
+                    }
+                }
+            } else {
+                final int o = data_off + i * SPHERE_FLOATS;
+                final float x = data[o+0], y = data[o+1], z = data[o+2], r = data[o+3];
+                for(int j = 0; j < 6; j++) {
+                    final int k = 0 == j ? hint : ( j - 1 < hint ? j - 1 : j );
+                    final int pk = k * 4;
+                    if( p[pk] * x + p[pk+1] * y + p[pk+2] * z + p[pk+3] < -r ) {
+                        outside = k;
+                        break;
+                    }
+                }
+            }
+            if( 0 > outside ) {
+                word |= 1 << ( i & 31 );
+                visCount++;
+            } else if( null != planeHints ) {
+                planeHints[i] = (byte) outside;
+            }
+            if( 31 == ( i & 31 ) || end - 1 == i ) {
+                visible[i >>> 5] = word;
+                word = 0;
+            }
+        }
+        return visCount;
+    }
+    
     public StringBuilder toString(StringBuilder sb) {
         if( null == sb ) {
             sb = new StringBuilder();
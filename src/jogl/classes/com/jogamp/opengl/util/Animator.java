@@ -40,8 +40,12 @@
 
 package com.jogamp.opengl.util;
 
+import java.util.concurrent.locks.LockSupport;
+
 import javax.media.opengl.GLAutoDrawable;
 
+import jogamp.opengl.FramePacer;
+
 
 /** <P> An Animator can be attached to one or more {@link
     GLAutoDrawable}s to drive their display() methods in a loop. </P>
@@ -51,6 +55,9 @@ import javax.media.opengl.GLAutoDrawable;
     has been redrawn, a brief pause is performed to avoid swamping the
     CPU, unless {@link #setRunAsFastAsPossible} has been called.  </P>
 
+    <P> Alternatively frames may be paced to meet a fixed frame rate,
+    see {@link #setFramePacing(int, int)}. </P>
+
  * <p>
  * The Animator execution thread does not run as a daemon thread,
  * so it is able to keep an application from terminating.<br>
@@ -62,12 +69,21 @@ public class Animator extends AnimatorBase {
     /** timeout in milliseconds, 15 frames @ 60Hz = 240ms, limiting {@link #finishLifecycleAction(Condition)} */
     private static final long TO_WAIT_FOR_FINISH_LIFECYCLE_ACTION = 15*16;
     
+    /** Frame pacing policy: Skip the frame periods missed by a late frame, keeping the phase of the schedule. */
+    public static final int PACING_SKIP = FramePacer.SKIP;
+    /** Frame pacing policy: Render frames following a late frame without waiting until the schedule is met again. */
+    public static final int PACING_CATCH_UP = FramePacer.CATCH_UP;
+    
     protected ThreadGroup threadGroup;
     private Runnable runnable;
     private boolean runAsFastAsPossible;
     protected boolean isAnimating;
-    protected boolean pauseIssued;
+    protected volatile boolean pauseIssued;
     protected volatile boolean stopIssued;
+    
+    private volatile long pacingPeriod; // nanoseconds, 0 if disabled
+    private volatile int pacingPolicy;
+    private final FramePacer pacer = new FramePacer(); // animator thread only
 
     public Animator() {
         super();
@@ -116,6 +132,64 @@ public class Animator extends AnimatorBase {
         }
     }
 
+    /**
+     * Enables deadline based frame pacing, replacing the brief pause in the animation loop.
+     * <p>
+     * Frames are scheduled at fixed deadlines, <code>1/fps</code> seconds apart.
+     * The animator thread parks until shortly before the next deadline and spins the remaining time,
+     * where the spin duration adapts to the observed park latency, usually a few hundred microseconds.
+     * </p>
+     * <p>
+     * A frame finishing after its deadline is counted, see {@link #getMissedFrameDeadlines()}.
+     * With {@link #PACING_SKIP} the missed frame periods are dropped and the next frame waits for the next deadline.
+     * With {@link #PACING_CATCH_UP} the next frames are rendered without waiting until the schedule is met again,
+     * as long as a frame takes less than a period and only a few periods are missed, otherwise missed periods are skipped.
+     * </p>
+     * <p>
+     * The frame duration distribution is available via {@link #getFrameDurationPercentile(float)}
+     * if enabled via {@link #setUpdateFPSFrames(int, java.io.PrintStream)}.
+     * </p>
+     * @param fps the target frames per second, 0 disables frame pacing
+     * @param policy {@link #PACING_SKIP} or {@link #PACING_CATCH_UP}
+     */
+    public final void setFramePacing(int fps, int policy) {
+        if( 0 > fps ) {
+            throw new IllegalArgumentException("Invalid fps: "+fps);
+        }
+        if( PACING_SKIP != policy && PACING_CATCH_UP != policy ) {
+            throw new IllegalArgumentException("Invalid policy: "+policy);
+        }
+        pacingPolicy = policy;
+        pacingPeriod = 0 < fps ? 1000000000L / fps : 0;
+    }
+
+    /** @return the target frames per second set via {@link #setFramePacing(int, int)}, or 0 if disabled */
+    public final int getFramePacingFPS() {
+        final long period = pacingPeriod;
+        return 0 < period ? (int) Math.round( 1000000000.0 / period ) : 0;
+    }
+
+    /**
+     * Waits until the next deadline after the frame started at <code>frameStart</code> has been rendered.
+     */
+    private final void paceFrame(long period, long frameStart) {
+        long now = System.nanoTime();
+        if( pacer.schedule(period, pacingPolicy, frameStart, now) ) {
+            fpsCounter.tickMissedDeadline();
+        }
+        long parkNanos;
+        while( 0 < ( parkNanos = pacer.getParkNanos(now) ) && !stopIssued && !pauseIssued ) {
+            LockSupport.parkNanos(this, parkNanos);
+            final long t1 = System.nanoTime();
+            pacer.parked(parkNanos, t1 - now);
+            now = t1;
+        }
+        final long deadline = pacer.getDeadline();
+        while( deadline - now > 0 && !stopIssued && !pauseIssued ) {
+            now = System.nanoTime();
+        }
+    }
+
     private final void setIsAnimatingSynced(boolean v) {
         stateSync.lock();
         try {
@@ -147,6 +221,7 @@ public class Animator extends AnimatorBase {
                         // Don't consume CPU unless there is work to be done and not paused
                         while (!stopIssued && (pauseIssued || drawablesEmpty)) {
                             boolean wasPaused = pauseIssued;
+                            pacer.reset(); // reschedule
                             if (DEBUG) {
                                 System.err.println("Animator pause:" + Thread.currentThread() + ": " + toString());
                             }
@@ -172,12 +247,19 @@ public class Animator extends AnimatorBase {
                             Animator.this.notifyAll();
                         }
                     } // sync Animator.this
+                    final long period = pacingPeriod;
+                    final long frameStart = 0 < period ? System.nanoTime() : 0;
                     if (!stopIssued) {
                         display();
                     }
-                    if (!stopIssued && !runAsFastAsPossible) {
-                        // Avoid swamping the CPU
-                        Thread.yield();
+                    if (!stopIssued && 0 < period) {
+                        paceFrame(period, frameStart);
+                    } else {
+                        pacer.reset();
+                        if (!stopIssued && !runAsFastAsPossible) {
+                            // Avoid swamping the CPU
+                            Thread.yield();
+                        }
                     }
                 }
             } finally {
@@ -302,6 +384,7 @@ public class Animator extends AnimatorBase {
         }
         stopIssued = true;
         notifyAll();
+        LockSupport.unpark(animThread); // wake up frame pacing
         finishLifecycleAction(waitForStoppedCondition);
         return true;
     }
@@ -323,6 +406,7 @@ public class Animator extends AnimatorBase {
             stateSync.unlock();
         }
         notifyAll();
+        LockSupport.unpark(animThread); // wake up frame pacing
         finishLifecycleAction(waitForPausedCondition);
         return true;
     }
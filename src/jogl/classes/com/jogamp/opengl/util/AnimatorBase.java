@@ -183,6 +183,14 @@ public abstract class AnimatorBase implements GLAnimatorControl {
         return fpsCounter.getTotalFPS();
     }        
 
+    public final float getFrameDurationPercentile(float percentile) {
+        return fpsCounter.getFrameDurationPercentile(percentile);
+    }
+    
+    public final int getMissedFrameDeadlines() {
+        return fpsCounter.getMissedFrameDeadlines();
+    }
+
     public final Thread getThread() {
         stateSync.lock();
         try {
@@ -44,7 +44,8 @@ import javax.media.opengl.*;
 
 /** An Animator subclass which attempts to achieve a target
 frames-per-second rate to avoid using all CPU time. The target FPS
-is only an estimate and is not guaranteed. */
+is only an estimate and is not guaranteed.
+For deadline based frame pacing see {@link Animator#setFramePacing(int, int)}. */
 public class FPSAnimator extends AnimatorBase {
     private Timer timer = null;
     private TimerTask task = null;
@@ -45,8 +45,17 @@ import jogamp.opengl.Debug;
 public class GLDrawableUtil {
   protected static final boolean DEBUG = Debug.debug("GLDrawable");
   
+  /**
+   * @return true if the given thread is {@link GLAnimatorControl#getThread() the animator's thread} 
+   *         or one of its {@link ParallelAnimator#isWorkerThread(Thread) worker threads}, otherwise false
+   */
+  public static final boolean isAnimatorThread(GLAnimatorControl animatorCtrl, Thread t) {
+    return animatorCtrl.getThread() == t || 
+           ( animatorCtrl instanceof ParallelAnimator && ((ParallelAnimator)animatorCtrl).isWorkerThread(t) );
+  }
+
   public static final boolean isAnimatorStartedOnOtherThread(GLAnimatorControl animatorCtrl) {
-    return ( null != animatorCtrl ) ? animatorCtrl.isStarted() && animatorCtrl.getThread() != Thread.currentThread() : false ;
+    return ( null != animatorCtrl ) ? animatorCtrl.isStarted() && !isAnimatorThread(animatorCtrl, Thread.currentThread()) : false ;
   }
 
   public static final boolean isAnimatorStarted(GLAnimatorControl animatorCtrl) {
@@ -54,7 +63,7 @@ public class GLDrawableUtil {
   }
 
   public static final boolean isAnimatorAnimatingOnOtherThread(GLAnimatorControl animatorCtrl) {
-    return ( null != animatorCtrl ) ? animatorCtrl.isAnimating() && animatorCtrl.getThread() != Thread.currentThread() : false ;
+    return ( null != animatorCtrl ) ? animatorCtrl.isAnimating() && !isAnimatorThread(animatorCtrl, Thread.currentThread()) : false ;
   }
   
   public static final boolean isAnimatorAnimating(GLAnimatorControl animatorCtrl) {
@@ -46,6 +46,24 @@ import com.jogamp.opengl.util.glsl.ShaderState;
  * Note: Optional types, i.e. color, must be either not used or used w/ the same element count as vertex, etc. 
  * This is a semantic constraint, same as in the original OpenGL spec.
  * </p>
+ * <a name="batchMode"><h5>Batch mode</h5></a>
+ * <p>
+ * By default each deferred {@link #glEnd(GL, boolean) glEnd(gl, false)} seals the current buffer 
+ * into its own VBO, rendered with at least one draw call.<br/>
+ * If {@link #setBatchMode(boolean) batch mode} is enabled, all deferred primitives are appended 
+ * to one buffer and VBO instead, each recorded as a batch of vertices.
+ * Consecutive batches of the same independent primitive type, 
+ * i.e. <code>GL_POINTS</code>, <code>GL_LINES</code>, <code>GL_TRIANGLES</code> or {@link #GL_QUADS},
+ * are merged into one draw call.
+ * The buffer is uploaded once with the first {@link #draw(GL, boolean)} call 
+ * and again only after appending more vertices.
+ * {@link #draw(GL, Buffer, boolean) Indexed drawing} renders each run of consecutive indices 
+ * referencing the same batch w/ the primitive type of that batch.
+ * </p>
+ * <p>
+ * The number of issued draw calls and used buffer objects are available 
+ * via {@link #getDrawCallCount()} and {@link #getBufferCount()}.
+ * </p>
  */
 public class ImmModeSink {
   protected static final boolean DEBUG_BEGIN_END = Debug.isPropertyDefined("jogl.debug.ImmModeSink.BeginEnd", true);
@@ -126,6 +144,37 @@ public class ImmModeSink {
     vboSet.destroy(gl);
   }
 
+  /**
+   * Enables or disables <a href="#batchMode">batch mode</a>, disabled by default.
+   * <p>
+   * Shall be set before the first {@link #glBegin(int)} or after {@link #reset(GL)}.
+   * </p>
+   */
+  public void setBatchMode(boolean enable) {
+    batchMode = enable;
+  }
+
+  /** Returns true if <a href="#batchMode">batch mode</a> is enabled. */
+  public boolean getBatchMode() {
+    return batchMode;
+  }
+
+  /** Returns the number of draw calls issued by this sink. */
+  public long getDrawCallCount() {
+    return drawCallCount;
+  }
+
+  /** Returns the number of vertex buffer objects currently held by this sink. */
+  public int getBufferCount() {
+    int n = vboSet.hasVBO() ? 1 : 0;
+    for(int i=0; i<vboSetList.size(); i++) {
+        if( vboSetList.get(i).hasVBO() ) {
+            n++;
+        }
+    }
+    return n;
+  }
+
   public void reset() {
     reset(null);
   }
@@ -158,7 +207,11 @@ public class ImmModeSink {
     }
     int n=0;
     for(int i=0; i<vboSetList.size(); i++, n++) {
-        vboSetList.get(i).draw(gl, null, disableBufferAfterDraw, n);
+        drawCallCount += vboSetList.get(i).draw(gl, null, disableBufferAfterDraw, n);
+    }
+    if( vboSet.hasBatches() ) {
+        vboSet.seal(gl, true);
+        drawCallCount += vboSet.draw(gl, null, disableBufferAfterDraw, n);
     }
   }
 
@@ -168,11 +221,18 @@ public class ImmModeSink {
     }
     int n=0;
     for(int i=0; i<vboSetList.size(); i++, n++) {
-        vboSetList.get(i).draw(gl, indices, disableBufferAfterDraw, n);
+        drawCallCount += vboSetList.get(i).draw(gl, indices, disableBufferAfterDraw, n);
+    }
+    if( vboSet.hasBatches() ) {
+        vboSet.seal(gl, true);
+        drawCallCount += vboSet.draw(gl, indices, disableBufferAfterDraw, n);
     }
   }
 
   public void glBegin(int mode) {
+    if( batchMode ) {
+        vboSet.unseal();
+    }
     vboSet.modeOrig = mode;
     switch(mode) {
         case GL_QUAD_STRIP:
@@ -187,6 +247,7 @@ public class ImmModeSink {
         System.err.println("ImmModeSink.glBegin("+vboSet.modeOrig+" -> "+vboSet.mode+")");
     }
     vboSet.checkSeal(false);
+    vboSet.beginBatch();
   }
 
   public final void glEnd(GL gl) {
@@ -205,10 +266,15 @@ public class ImmModeSink {
     if(DEBUG_BEGIN_END) {
         System.err.println("ImmModeSink START glEnd(immediate: "+immediateDraw+")");
     }
+    if( batchMode ) {
+        vboSet.addBatch();
+    }
     if(immediateDraw) {
         vboSet.seal(gl, true);
-        vboSet.draw(gl, indices, true, -1);
+        drawCallCount += vboSet.draw(gl, indices, true, -1);
         reset(gl);
+    } else if( batchMode ) {
+        // keep appending to the current buffer
     } else {
         vboSet.seal(gl, true);
         vboSet.enableBuffer(gl, false);
@@ -362,6 +428,8 @@ public class ImmModeSink {
 
   private VBOSet vboSet;
   private final ArrayList<VBOSet> vboSetList;
+  private boolean batchMode = false;
+  private long drawCallCount = 0;
 
   protected static class VBOSet {
     protected VBOSet (int initialElementCount, 
@@ -439,8 +507,81 @@ public class ImmModeSink {
         }
     }
 
-    protected void draw(GL gl, Buffer indices, boolean disableBufferAfterDraw, int i)
+    protected final boolean hasVBO() { return 0 != vboName; }
+
+    protected final boolean hasBatches() { return 0 < batchCount; }
+
+    protected final void beginBatch() { batchFirst = vElems; }
+
+    /** Records the vertices since the last {@link ImmModeSink#glBegin(int)} as a batch, merging it with the previous if possible. */
+    protected void addBatch() {
+        final int count = vElems - batchFirst;
+        if( 0 >= count ) {
+            return;
+        }
+        if( 0 < batchCount ) {
+            final int last = ( batchCount - 1 ) * 3;
+            if( batches[last] == mode && isMergeable(mode) && batches[last+1] + batches[last+2] == batchFirst ) {
+                batches[last+2] += count;
+                return;
+            }
+        }
+        if( batches.length < ( batchCount + 1 ) * 3 ) {
+            final int[] tmp = new int[ batches.length * 2 ];
+            System.arraycopy(batches, 0, tmp, 0, batches.length);
+            batches = tmp;
+        }
+        final int idx = batchCount * 3;
+        batches[idx] = mode;
+        batches[idx+1] = batchFirst;
+        batches[idx+2] = count;
+        batchCount++;
+    }
+
+    private static final boolean isMergeable(int mode) {
+        switch(mode) {
+            case GL.GL_POINTS:
+            case GL.GL_LINES:
+            case GL.GL_TRIANGLES:
+            case GL_QUADS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** 
+     * Allows appending to a sealed buffer, e.g. after drawing its batches.
+     * <p>
+     * An enabled buffer stays enabled, it is disabled before being respecified
+     * by the next {@link #enableBuffer(GL, boolean)} if vertices have been appended,
+     * see {@link #seal(boolean)}.
+     * </p> 
+     */
+    protected void unseal() {
+        if( !sealed ) {
+            return;
+        }
+        sealed = false;
+        sealedGL = false;
+        if(null!=vertexArray) {
+            vertexArray.position(vElems * vComps);
+        }
+        if(null!=colorArray) {
+            colorArray.position(cElems * cComps);
+        }
+        if(null!=normalArray) {
+            normalArray.position(nElems * nComps);
+        }
+        if(null!=textCoordArray) {
+            textCoordArray.position(tElems * tComps);
+        }
+    }
+
+    /** @return the number of issued draw calls */
+    protected int draw(GL gl, Buffer indices, boolean disableBufferAfterDraw, int i)
     {
+        int drawCalls = 0;
         enableBuffer(gl, true);
 
         if(DEBUG_DRAW) {
@@ -449,12 +590,12 @@ public class ImmModeSink {
         
         if (buffer!=null) {
             if(null==indices) {
-                if ( GL_QUADS == mode && !gl.isGL2() ) {
-                    for (int j = 0; j < vElems - 3; j += 4) {
-                        gl.glDrawArrays(GL.GL_TRIANGLE_FAN, j, 4);
+                if( 0 < batchCount ) {
+                    for (int b = 0; b < batchCount * 3; b += 3) {
+                        drawCalls += drawArrays(gl, batches[b], batches[b+1], batches[b+2]);
                     }
                 } else {
-                    gl.glDrawArrays(mode, 0, vElems);
+                    drawCalls += drawArrays(gl, mode, 0, vElems);
                 }
             } else {
                 final int type;
@@ -470,26 +611,23 @@ public class ImmModeSink {
                 final int idxLen = indices.remaining();
                 final int idx0 = indices.position();
                 
-                if ( GL_QUADS == mode && !gl.isGL2() ) {
-                    if( GL.GL_UNSIGNED_BYTE == type ) {
-                        final ByteBuffer b = (ByteBuffer) indices;
-                        for (int j = 0; j < idxLen; j++) {
-                            gl.glDrawArrays(GL.GL_TRIANGLE_FAN, (int)(0x000000ff & b.get(idx0+j)), 4);
-                        }                        
-                    } else if( GL.GL_UNSIGNED_SHORT == type ){
-                        final ShortBuffer b = (ShortBuffer) indices;
-                        for (int j = 0; j < idxLen; j++) {
-                            gl.glDrawArrays(GL.GL_TRIANGLE_FAN, (int)(0x0000ffff & b.get(idx0+j)), 4);
-                        }                                                
-                    } else {
-                        final IntBuffer b = (IntBuffer) indices;
-                        for (int j = 0; j < idxLen; j++) {
-                            gl.glDrawArrays(GL.GL_TRIANGLE_FAN, (int)(0xffffffff & b.get(idx0+j)), 4);
-                        }                                                
+                if( 0 < batchCount ) {
+                    // draw each run of indices referencing the same batch w/ the batch's mode
+                    final int idxEnd = idx0 + idxLen;
+                    int runStart = idx0;
+                    int runBatch = -1;
+                    for (int j = idx0; j <= idxEnd; j++) {
+                        final int b = j < idxEnd ? getBatch(getIndex(indices, type, j)) : -1;
+                        if( b != runBatch || j == idxEnd ) {
+                            if( 0 <= runBatch ) {
+                                drawCalls += drawElements(gl, batches[runBatch*3], indices, type, runStart, j - runStart);
+                            }
+                            runStart = j;
+                            runBatch = b;
+                        }
                     }
                 } else {
-                    gl.glDrawElements(mode, idxLen, type, indices);
-                    // GL2: gl.glDrawRangeElements(mode, 0, idxLen-1, idxLen, type, indices);
+                    drawCalls += drawElements(gl, mode, indices, type, idx0, idxLen);
                 }
             }
         }
@@ -499,7 +637,65 @@ public class ImmModeSink {
         }
         
         if(DEBUG_DRAW) {
-            System.err.println("ImmModeSink.draw["+i+"].X (disableBufferAfterDraw: "+disableBufferAfterDraw+")");
+            System.err.println("ImmModeSink.draw["+i+"].X (disableBufferAfterDraw: "+disableBufferAfterDraw+", drawCalls "+drawCalls+")");
+        }
+        return drawCalls;
+    }
+
+    /** @return the batch containing the given vertex, or -1 if none */
+    private final int getBatch(int vertex) {
+        int lo = 0, hi = batchCount - 1;
+        while( lo <= hi ) {
+            final int b = ( lo + hi ) >>> 1;
+            final int first = batches[b*3+1];
+            if( vertex < first ) {
+                hi = b - 1;
+            } else if( vertex >= first + batches[b*3+2] ) {
+                lo = b + 1;
+            } else {
+                return b;
+            }
+        }
+        return -1;
+    }
+
+    private static final int getIndex(Buffer indices, int type, int j) {
+        if( GL.GL_UNSIGNED_BYTE == type ) {
+            return 0x000000ff & ((ByteBuffer) indices).get(j);
+        } else if( GL.GL_UNSIGNED_SHORT == type ) {
+            return 0x0000ffff & ((ShortBuffer) indices).get(j);
+        } else {
+            return ((IntBuffer) indices).get(j);
+        }
+    }
+
+    /** Draws <code>idxLen</code> indices starting at <code>idx0</code>, @return the number of issued draw calls */
+    private static final int drawElements(GL gl, int mode, Buffer indices, int type, int idx0, int idxLen) {
+        if ( GL_QUADS == mode && !gl.isGL2() ) {
+            for (int j = 0; j < idxLen; j++) {
+                gl.glDrawArrays(GL.GL_TRIANGLE_FAN, getIndex(indices, type, idx0+j), 4);
+            }
+            return idxLen;
+        } else {
+            final int pos = indices.position();
+            indices.position(idx0);
+            gl.glDrawElements(mode, idxLen, type, indices);
+            // GL2: gl.glDrawRangeElements(mode, 0, idxLen-1, idxLen, type, indices);
+            indices.position(pos);
+            return 1;
+        }
+    }
+
+    private static final int drawArrays(GL gl, int mode, int first, int count) {
+        if ( GL_QUADS == mode && !gl.isGL2() ) {
+            int drawCalls = 0;
+            for (int j = 0; j < count - 3; j += 4, drawCalls++) {
+                gl.glDrawArrays(GL.GL_TRIANGLE_FAN, first + j, 4);
+            }
+            return drawCalls;
+        } else {
+            gl.glDrawArrays(mode, first, count);
+            return 1;
         }
     }
 
@@ -818,6 +1014,8 @@ public class ImmModeSink {
         this.cElems=0;
         this.nElems=0;
         this.tElems=0;        
+        this.batchFirst=0;
+        this.batchCount=0;
     }
 
     public void seal(GL glObj, boolean seal)
@@ -857,12 +1055,18 @@ public class ImmModeSink {
         if(sealed==seal) return;
         sealed = seal;
         if(seal) {
-            bufferWritten=false;
+            if( writtenElemCount != getElemCount() ) {
+                bufferWritten=false; // content changed
+            }
             rewind();
         }
     }
 
   public void enableBuffer(GL gl, boolean enable) {
+    if( enable && bufferEnabled && !bufferWritten ) {
+        // enabled before vertices were appended, see unseal()
+        enableBuffer(gl, false);
+    }
     if( bufferEnabled != enable && vElems>0 ) {
         if(enable) {
             checkSeal(true);
@@ -925,6 +1129,7 @@ public class ImmModeSink {
             }
         }
         bufferWritten=true;
+        writtenElemCount=getElemCount();
     }
 
     if(useV) {
@@ -996,6 +1201,7 @@ public class ImmModeSink {
             }
         }
         bufferWritten=true;
+        writtenElemCount=getElemCount();
     }
 
     if(useV) {
@@ -1048,6 +1254,7 @@ public class ImmModeSink {
                        ", sealedGL "+sealedGL+
                        ", bufferEnabled "+bufferEnabled+ 
                        ", bufferWritten "+bufferWritten+" (once "+bufferWrittenOnce+")"+
+                       ", batches "+batchCount+
                        ", useVBO "+useVBO+", vboName "+vboName+
                        ",\n\t"+vArrayData+
                        ",\n\t"+cArrayData+
@@ -1061,7 +1268,11 @@ public class ImmModeSink {
     protected String getElemUseCountStr() {
         return "[v "+vElems+"/"+vCount+", c "+cElems+"/"+cCount+", n "+nElems+"/"+nCount+", t "+tElems+"/"+tCount+"]";
     }
-    
+
+    protected final int getElemCount() {
+        return vElems + cElems + nElems + tElems;
+    }
+
     protected boolean fitElementInBuffer(int type) {
         final int addElems = 1;
         switch (type) {
@@ -1288,6 +1499,11 @@ public class ImmModeSink {
 
     private boolean sealed, sealedGL, useGLSL;
     private boolean bufferEnabled, bufferWritten, bufferWrittenOnce;
+    private int writtenElemCount = -1; // element count at last write, see getElemCount()
+    
+    private int batchFirst; // first vertex of current batch
+    private int[] batches = new int[3*8]; // tuples of mode, first vertex and vertex count
+    private int batchCount;
   }
 
 }
@@ -37,8 +37,6 @@ package com.jogamp.opengl.util;
 import java.nio.Buffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
-import java.util.ArrayList;
-import java.util.List;
 
 import javax.media.opengl.GL;
 import javax.media.opengl.GLException;
@@ -106,6 +104,13 @@ public class PMVMatrix implements GLMatrixFunc {
     public static final int DIRTY_FRUSTUM                       = 1 << 2;    
     /** Bit value stating all is dirty */
     public static final int DIRTY_ALL                           = DIRTY_INVERSE_MODELVIEW | DIRTY_INVERSE_TRANSPOSED_MODELVIEW | DIRTY_FRUSTUM;
+
+    /** Preallocated {@link #glPushMatrix() modelview stack} depth, i.e. the minimum of the GL specification. */
+    public static final int MODELVIEW_STACK_DEPTH               = 32;
+    /** Preallocated {@link #glPushMatrix() projection stack} depth, i.e. the minimum of the GL specification. */
+    public static final int PROJECTION_STACK_DEPTH              = 2;
+    /** Preallocated {@link #glPushMatrix() texture stack} depth, i.e. the minimum of the GL specification. */
+    public static final int TEXTURE_STACK_DEPTH                 = 2;
     
     /**
      * @param matrixModeName One of {@link GLMatrixFunc#GL_MODELVIEW GL_MODELVIEW}, {@link GLMatrixFunc#GL_PROJECTION GL_PROJECTION} or {@link GL#GL_TEXTURE GL_TEXTURE}  
@@ -249,19 +254,19 @@ public class PMVMatrix implements GLMatrixFunc {
           
           vec3f         = new float[3];
           matrixMult    = new float[16];
-          matrixTrans   = new float[16];
           matrixRot     = new float[16];
-          matrixScale   = new float[16];
           matrixOrtho   = new float[16];
           matrixFrustum = new float[16];
-          FloatUtil.makeIdentityf(matrixTrans, 0);
           FloatUtil.makeIdentityf(matrixRot, 0);
-          FloatUtil.makeIdentityf(matrixScale, 0);
           FloatUtil.makeIdentityf(matrixOrtho, 0);
           FloatUtil.makeZero(matrixFrustum, 0);
 
-          matrixPStack = new ArrayList<float[]>();
-          matrixMvStack= new ArrayList<float[]>();
+          matrixMvStack = new float[16*MODELVIEW_STACK_DEPTH];
+          matrixPStack  = new float[16*PROJECTION_STACK_DEPTH];
+          matrixTStack  = new float[16*TEXTURE_STACK_DEPTH];
+          matrixMvStackDepth = 0;
+          matrixPStackDepth  = 0;
+          matrixTStackDepth  = 0;
 
           // default values and mode
           glMatrixMode(GL_PROJECTION);
@@ -293,24 +298,13 @@ public class PMVMatrix implements GLMatrixFunc {
 
         vec3f         = null;
         matrixMult    = null;
-        matrixTrans   = null;
         matrixRot     = null;
-        matrixScale   = null;
         matrixOrtho   = null;
         matrixFrustum = null;
         
-        if(null!=matrixPStack) {
-            matrixPStack.clear(); matrixPStack=null;
-        }
-        if(null!=matrixMvStack) {
-            matrixMvStack.clear(); matrixMvStack=null;
-        }
-        if(null!=matrixPStack) {
-            matrixPStack.clear(); matrixPStack=null;
-        }
-        if(null!=matrixTStack) {
-            matrixTStack.clear(); matrixTStack=null;
-        }
+        matrixMvStack = null; matrixMvStackDepth = 0;
+        matrixPStack  = null; matrixPStackDepth  = 0;
+        matrixTStack  = null; matrixTStackDepth  = 0;
     }
 
     
@@ -527,7 +521,10 @@ public class PMVMatrix implements GLMatrixFunc {
 
     @Override
     public final void glLoadMatrixf(final float[] values, final int offset) {
-        int len = values.length-offset;
+        loadMatrixf(values, offset, values.length-offset);
+    }
+
+    private final void loadMatrixf(final float[] values, final int offset, final int len) {
         if(matrixMode==GL_MODELVIEW) {
             matrixMv.put(values, offset, len);
             matrixMv.reset();
@@ -566,35 +563,60 @@ public class PMVMatrix implements GLMatrixFunc {
         m.position(spos);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Restores the matrix from the preallocated stack storage.
+     * </p>
+     * @throws IndexOutOfBoundsException if the stack of the current matrix mode is empty
+     */
     @Override
     public final void glPopMatrix() {
-        float[] stackEntry=null;
         if(matrixMode==GL_MODELVIEW) {
-            stackEntry = matrixMvStack.remove(0);
+            checkStackUnderflow(matrixMvStackDepth);
+            loadMatrixf(matrixMvStack, --matrixMvStackDepth*16, 16);
         } else if(matrixMode==GL_PROJECTION) {
-            stackEntry = matrixPStack.remove(0);
+            checkStackUnderflow(matrixPStackDepth);
+            loadMatrixf(matrixPStack, --matrixPStackDepth*16, 16);
         } else if(matrixMode==GL.GL_TEXTURE) {
-            stackEntry = matrixTStack.remove(0);
-        } 
-        glLoadMatrixf(stackEntry, 0);
+            checkStackUnderflow(matrixTStackDepth);
+            loadMatrixf(matrixTStack, --matrixTStackDepth*16, 16);
+        }
+    }
+
+    private final void checkStackUnderflow(final int depth) {
+        if(0 >= depth) {
+            throw new IndexOutOfBoundsException("Matrix stack underflow, mode 0x"+Integer.toHexString(matrixMode));
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Copies the matrix into preallocated stack storage, see {@link #MODELVIEW_STACK_DEPTH}.
+     * The storage is doubled if the stack exceeds it.
+     * </p>
+     */
     @Override
     public final void glPushMatrix() {
-        float[] stackEntry = new float[1*16];
         if(matrixMode==GL_MODELVIEW) {
-            matrixMv.get(stackEntry);
-            matrixMv.reset();
-            matrixMvStack.add(0, stackEntry);
+            matrixMvStack = pushMatrix(matrixMv, matrixMvStack, matrixMvStackDepth++);
         } else if(matrixMode==GL_PROJECTION) {
-            matrixP.get(stackEntry);
-            matrixP.reset();
-            matrixPStack.add(0, stackEntry);
+            matrixPStack = pushMatrix(matrixP, matrixPStack, matrixPStackDepth++);
         } else if(matrixMode==GL.GL_TEXTURE) {
-            matrixTex.get(stackEntry);
-            matrixTex.reset();
-            matrixTStack.add(0, stackEntry);
+            matrixTStack = pushMatrix(matrixTex, matrixTStack, matrixTStackDepth++);
+        }
+    }
+
+    private static final float[] pushMatrix(final FloatBuffer m, float[] stack, final int depth) {
+        if( (depth+1)*16 > stack.length ) {
+            final float[] grown = new float[stack.length*2];
+            System.arraycopy(stack, 0, grown, 0, depth*16);
+            stack = grown;
         }
+        m.get(stack, depth*16, 16);
+        m.reset();
+        return stack;
     }
 
     @Override
@@ -656,10 +678,16 @@ public class PMVMatrix implements GLMatrixFunc {
         //  0 1 0 y
         //  0 0 1 z
         //  0 0 0 1
-        matrixTrans[0+4*3] = x;
-        matrixTrans[1+4*3] = y;
-        matrixTrans[2+4*3] = z;
-        glMultMatrixf(matrixTrans, 0);
+        //
+        // Only the 4th column of the current matrix changes, hence it is updated in place.
+        if(matrixMode==GL_MODELVIEW) {
+            FloatUtil.translateMatrixf(matrixMv, x, y, z);
+        } else if(matrixMode==GL_PROJECTION) {
+            FloatUtil.translateMatrixf(matrixP, x, y, z);
+        } else if(matrixMode==GL.GL_TEXTURE) {
+            FloatUtil.translateMatrixf(matrixTex, x, y, z);
+        }
+        setCurrentMatrixModified();
     }
 
     @Override
@@ -696,7 +724,15 @@ public class PMVMatrix implements GLMatrixFunc {
         matrixRot[2*4+1] = yz*ic-xs;
         matrixRot[2*4+2] = z*z*ic+c;
 
-        glMultMatrixf(matrixRot, 0);
+        // Only the first three columns of the current matrix change
+        if(matrixMode==GL_MODELVIEW) {
+            FloatUtil.multMatrixRotf(matrixMv, matrixRot, 0);
+        } else if(matrixMode==GL_PROJECTION) {
+            FloatUtil.multMatrixRotf(matrixP, matrixRot, 0);
+        } else if(matrixMode==GL.GL_TEXTURE) {
+            FloatUtil.multMatrixRotf(matrixTex, matrixRot, 0);
+        }
+        setCurrentMatrixModified();
     }
 
     @Override
@@ -706,11 +742,29 @@ public class PMVMatrix implements GLMatrixFunc {
         //  0 y 0 0
         //  0 0 z 0
         //  0 0 0 1
-        matrixScale[0+4*0] = x;
-        matrixScale[1+4*1] = y;
-        matrixScale[2+4*2] = z;
+        //
+        // Only the first three columns of the current matrix change
+        if(matrixMode==GL_MODELVIEW) {
+            FloatUtil.scaleMatrixf(matrixMv, x, y, z);
+        } else if(matrixMode==GL_PROJECTION) {
+            FloatUtil.scaleMatrixf(matrixP, x, y, z);
+        } else if(matrixMode==GL.GL_TEXTURE) {
+            FloatUtil.scaleMatrixf(matrixTex, x, y, z);
+        }
+        setCurrentMatrixModified();
+    }
 
-        glMultMatrixf(matrixScale, 0);
+    /** Updates the dirty and modified bits after the current matrix has been changed in place. */
+    private final void setCurrentMatrixModified() {
+        if(matrixMode==GL_MODELVIEW) {
+            dirtyBits |= DIRTY_INVERSE_MODELVIEW | DIRTY_INVERSE_TRANSPOSED_MODELVIEW | DIRTY_FRUSTUM ;
+            modifiedBits |= MODIFIED_MODELVIEW;
+        } else if(matrixMode==GL_PROJECTION) {
+            dirtyBits |= DIRTY_FRUSTUM ;
+            modifiedBits |= MODIFIED_PROJECTION;
+        } else if(matrixMode==GL.GL_TEXTURE) {
+            modifiedBits |= MODIFIED_TEXTURE;
+        }
     }
 
     @Override
@@ -1121,8 +1175,9 @@ public class PMVMatrix implements GLMatrixFunc {
     protected final boolean usesBackingArray;
     protected Buffer matrixBuffer;
     protected FloatBuffer matrixIdent, matrixPMvMvit, matrixPMvMvi, matrixPMv, matrixP, matrixTex, matrixMv, matrixMvi, matrixMvit;
-    protected float[] matrixMult, matrixTrans, matrixRot, matrixScale, matrixOrtho, matrixFrustum, vec3f;
-    protected List<float[]> matrixTStack, matrixPStack, matrixMvStack;
+    protected float[] matrixMult, matrixRot, matrixOrtho, matrixFrustum, vec3f;
+    protected float[] matrixTStack, matrixPStack, matrixMvStack; // depth-indexed, 16 floats per entry
+    protected int matrixTStackDepth, matrixPStackDepth, matrixMvStackDepth;
     protected int matrixMode = GL_MODELVIEW;
     protected int modifiedBits = MODIFIED_ALL;
     protected int dirtyBits = DIRTY_ALL; // contains the dirty bits, i.e. hinting for update operation
@@ -0,0 +1,387 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util;
+
+import java.util.ArrayList;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.media.opengl.GLAutoDrawable;
+
+/**
+ * An {@link Animator} rendering its {@link GLAutoDrawable}s in parallel on a set of worker threads.
+ * <p>
+ * Each drawable is assigned to one worker thread and always rendered by it, 
+ * hence its GL context is only made current on that thread. 
+ * Drawables are distributed across at most <code>maxWorkers</code> threads, 
+ * a worker rendering all its drawables sequentially.
+ * </p>
+ * <p>
+ * The animator thread starts each frame on all workers and waits until all drawables are rendered,
+ * i.e. frames are rendered in lockstep. With {@link #setSwapLockstep(boolean)} enabled,
+ * the swapping of buffers is also deferred until all workers have finished rendering.
+ * </p>
+ * <p>
+ * Intended for independent drawables, e.g. offscreen ones not sharing any GL resources.
+ * The rendering duration of each drawable is available via {@link #getLastFrameDuration(GLAutoDrawable)}
+ * and {@link #getAverageFrameDuration(GLAutoDrawable)}.
+ * </p>
+ */
+public class ParallelAnimator extends Animator {
+    private final int maxWorkers;
+    private final Object workersLock = new Object();
+    /** Workers and their assigned drawables, only modified between frames */
+    private final ArrayList<Worker> workers = new ArrayList<Worker>();
+    private final ConcurrentHashMap<GLAutoDrawable, Slot> slots = new ConcurrentHashMap<GLAutoDrawable, Slot>();
+    private final AtomicInteger pendingWorkers = new AtomicInteger();
+    private volatile long frameRequest = 0;
+    private volatile boolean swapLockstep = false;
+    private CyclicBarrier swapBarrier = null;
+    private Thread coordinator = null;
+    private int workerCount = 0;
+
+    /** Creates a new ParallelAnimator using up to one worker thread per available processor. */
+    public ParallelAnimator() {
+        this(null, Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Creates a new ParallelAnimator using up to <code>maxWorkers</code> worker threads. */
+    public ParallelAnimator(int maxWorkers) {
+        this(null, maxWorkers);
+    }
+
+    /** Creates a new ParallelAnimator using up to <code>maxWorkers</code> worker threads. */
+    public ParallelAnimator(ThreadGroup tg, int maxWorkers) {
+        super(tg);
+        if( 0 >= maxWorkers ) {
+            throw new IllegalArgumentException("Invalid maxWorkers: "+maxWorkers);
+        }
+        this.maxWorkers = maxWorkers;
+    }
+
+    protected String getBaseName(String prefix) {
+        return "Parallel" + prefix + "Animator" ;
+    }
+
+    /**
+     * Enables or disables swapping the buffers of all drawables in lockstep, disabled by default.
+     * <p>
+     * If enabled, drawables in {@link GLAutoDrawable#getAutoSwapBufferMode() auto swap buffer mode} 
+     * are displayed without swapping, and their buffers are swapped 
+     * via {@link GLAutoDrawable#swapBuffers()} after all drawables have been displayed.
+     * </p>
+     */
+    public final void setSwapLockstep(boolean enable) {
+        swapLockstep = enable;
+    }
+
+    public final boolean getSwapLockstep() {
+        return swapLockstep;
+    }
+
+    /** @return the number of worker threads currently in use */
+    public final int getWorkerCount() {
+        synchronized(workersLock) {
+            return workers.size();
+        }
+    }
+
+    /** 
+     * @return the duration of the last frame of the given drawable in nanoseconds, 
+     *         including the buffer swap, or 0 if not rendered yet
+     */
+    public final long getLastFrameDuration(GLAutoDrawable drawable) {
+        final Slot slot = slots.get(drawable);
+        return null != slot ? slot.lastDuration : 0;
+    }
+
+    /** 
+     * @return the average frame duration of the given drawable in nanoseconds 
+     *         since it has been rendered by this animator, or 0 if not rendered yet
+     */
+    public final long getAverageFrameDuration(GLAutoDrawable drawable) {
+        final Slot slot = slots.get(drawable);
+        if( null == slot ) {
+            return 0;
+        }
+        synchronized(slot) {
+            return 0 < slot.frames ? slot.totalDuration / slot.frames : 0;
+        }
+    }
+
+    /**
+     * Returns true if the given thread is one of the worker threads of this animator.
+     * <p>
+     * A drawable rendered by a worker thread shall treat it like {@link #getThread() the animator thread},
+     * e.g. not pausing this animator or deferring a {@link javax.media.opengl.GLRunnable} while on it,
+     * see {@link GLDrawableUtil#isAnimatorThread(javax.media.opengl.GLAnimatorControl, Thread)}.
+     * </p>
+     */
+    public final boolean isWorkerThread(Thread t) {
+        return t instanceof Worker && ((Worker)t).getAnimator() == this;
+    }
+
+    /** @return the worker threads currently in use, may be empty */
+    public final Thread[] getWorkerThreads() {
+        synchronized(workersLock) {
+            return workers.toArray(new Thread[workers.size()]);
+        }
+    }
+
+    @Override
+    public synchronized boolean stop() {
+        final boolean res = super.stop();
+        shutdownWorkers();
+        return res;
+    }
+
+    @Override
+    protected void display() {
+        synchronized(workersLock) {
+            syncWorkers();
+            if( 0 == workers.size() ) {
+                return;
+            }
+            coordinator = Thread.currentThread();
+            pendingWorkers.set(workers.size());
+            frameRequest++; // volatile: publishes slot assignment and swapBarrier
+            for(int i = 0; i < workers.size(); i++) {
+                LockSupport.unpark(workers.get(i));
+            }
+        }
+        while( 0 < pendingWorkers.get() ) {
+            LockSupport.parkNanos(this, 1000000000L);
+        }
+        RuntimeException error = null;
+        synchronized(workersLock) {
+            for(int i = 0; i < workers.size(); i++) {
+                final Worker w = workers.get(i);
+                if( null != w.error ) {
+                    if (ignoreExceptions) {
+                        if (printExceptions) {
+                            w.error.printStackTrace();
+                        }
+                    } else if( null == error ) {
+                        error = w.error;
+                    }
+                    w.error = null;
+                }
+            }
+        }
+        if( null != error ) {
+            shutdownWorkers();
+            throw error;
+        }
+        fpsCounter.tickFPS();
+    }
+
+    /** Assigns added drawables to workers and drops removed ones, must hold workersLock. */
+    private final void syncWorkers() {
+        boolean changed = slots.size() != drawables.size();
+        for(int i = 0; !changed && i < drawables.size(); i++) {
+            final Slot slot = slots.get(drawables.get(i));
+            changed = null == slot || null == slot.worker;
+        }
+        if( changed ) {
+            // drop removed drawables
+            for(int i = workers.size() - 1; i >= 0; i--) {
+                final Worker w = workers.get(i);
+                for(int j = w.slots.size() - 1; j >= 0; j--) {
+                    if( !drawables.contains(w.slots.get(j).drawable) ) {
+                        w.slots.remove(j);
+                    }
+                }
+                if( 0 == w.slots.size() ) {
+                    workers.remove(i);
+                    w.quit();
+                }
+            }
+            slots.keySet().retainAll(drawables);
+            // assign added drawables, keeping existing assignments
+            for(int i = 0; i < drawables.size(); i++) {
+                final GLAutoDrawable drawable = drawables.get(i);
+                Slot slot = slots.get(drawable);
+                if( null == slot ) {
+                    slot = new Slot(drawable);
+                    slots.put(drawable, slot);
+                }
+                if( null == slot.worker ) {
+                    slot.worker = getLeastLoadedWorker();
+                    slot.worker.slots.add(slot);
+                }
+            }
+        }
+        final boolean useSwapBarrier = swapLockstep && 1 < workers.size();
+        if( changed || useSwapBarrier != ( null != swapBarrier ) ) {
+            swapBarrier = useSwapBarrier ? new CyclicBarrier(workers.size()) : null;
+        }
+    }
+
+    private final Worker getLeastLoadedWorker() {
+        if( workers.size() < maxWorkers ) {
+            final Worker w = new Worker(Thread.currentThread().getName()+"-Worker-"+(workerCount++), frameRequest);
+            workers.add(w);
+            w.start();
+            return w;
+        }
+        Worker res = workers.get(0);
+        for(int i = 1; i < workers.size(); i++) {
+            final Worker w = workers.get(i);
+            if( w.slots.size() < res.slots.size() ) {
+                res = w;
+            }
+        }
+        return res;
+    }
+
+    private final void shutdownWorkers() {
+        synchronized(workersLock) {
+            for(int i = 0; i < workers.size(); i++) {
+                final Worker w = workers.get(i);
+                for(int j = 0; j < w.slots.size(); j++) {
+                    w.slots.get(j).worker = null; // keep statistics, reassign on restart
+                }
+                w.quit();
+            }
+            workers.clear();
+            swapBarrier = null;
+        }
+    }
+
+    /** A drawable and its frame statistics */
+    private static class Slot {
+        final GLAutoDrawable drawable;
+        Worker worker; // guarded by workersLock
+        boolean swapDeferred;
+        long displayDuration;
+        volatile long lastDuration;
+        long totalDuration;
+        long frames;
+
+        Slot(GLAutoDrawable drawable) {
+            this.drawable = drawable;
+        }
+
+        void record(long duration) {
+            lastDuration = duration;
+            synchronized(this) {
+                totalDuration += duration;
+                frames++;
+            }
+        }
+    }
+
+    private class Worker extends Thread {
+        final ArrayList<Slot> slots = new ArrayList<Slot>();
+        private volatile boolean quit = false;
+        /** Last frame request seen, taken at creation before the worker's first frame is requested */
+        private long frame;
+        RuntimeException error = null;
+
+        Worker(String name, long frame) {
+            super(name);
+            this.frame = frame;
+            setDaemon(true);
+        }
+
+        final ParallelAnimator getAnimator() { return ParallelAnimator.this; }
+
+        final void quit() {
+            quit = true;
+            LockSupport.unpark(this);
+        }
+
+        public void run() {
+            while( true ) {
+                while( !quit && frame == frameRequest ) {
+                    LockSupport.park(this);
+                }
+                if( quit ) {
+                    break;
+                }
+                frame = frameRequest;
+                renderFrame(swapBarrier);
+                if( 0 == pendingWorkers.decrementAndGet() ) {
+                    LockSupport.unpark(coordinator);
+                }
+            }
+        }
+
+        private final void renderFrame(CyclicBarrier barrier) {
+            final boolean deferSwap = swapLockstep;
+            for(int i = 0; i < slots.size(); i++) {
+                final Slot slot = slots.get(i);
+                final long t0 = System.nanoTime();
+                try {
+                    slot.swapDeferred = deferSwap && slot.drawable.getAutoSwapBufferMode();
+                    if( slot.swapDeferred ) {
+                        slot.drawable.setAutoSwapBufferMode(false);
+                    }
+                    slot.drawable.display();
+                } catch (Throwable t) {
+                    setError(t);
+                }
+                slot.displayDuration = System.nanoTime() - t0;
+            }
+            if( null != barrier ) {
+                try {
+                    barrier.await();
+                } catch (InterruptedException e) {
+                    setError(e);
+                } catch (BrokenBarrierException e) {
+                    setError(e);
+                }
+            }
+            for(int i = 0; i < slots.size(); i++) {
+                final Slot slot = slots.get(i);
+                long duration = slot.displayDuration;
+                if( slot.swapDeferred ) {
+                    final long t0 = System.nanoTime();
+                    try {
+                        slot.drawable.swapBuffers();
+                    } catch (Throwable t) {
+                        setError(t);
+                    } finally {
+                        slot.drawable.setAutoSwapBufferMode(true);
+                    }
+                    duration += System.nanoTime() - t0;
+                }
+                slot.record(duration);
+            }
+        }
+
+        private final void setError(Throwable t) {
+            if( null == error ) {
+                error = t instanceof RuntimeException ? (RuntimeException) t : new RuntimeException(t);
+            }
+        }
+    }
+}
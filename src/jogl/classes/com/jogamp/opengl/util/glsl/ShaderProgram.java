@@ -32,6 +32,7 @@ import javax.media.opengl.*;
 
 import com.jogamp.common.os.Platform;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.io.PrintStream;
@@ -50,6 +51,16 @@ public class ShaderProgram {
         return programInUse;
     }
 
+    /**
+     * Returns the number of successful links of this program, 
+     * incremented by {@link #link(GL2ES2, PrintStream)} and {@link #replaceShader(GL2ES2, ShaderCode, ShaderCode, PrintStream)}.
+     * <p>
+     * Each link invalidates all uniform locations and resets all uniform values,
+     * hence a changed count signals users caching them to query and upload again.
+     * </p>
+     */
+    public int linkCount() { return linkCount; }
+
     /** Returns the shader program name, which is non zero if valid. */
     public int program() { return shaderProgram; }
 
@@ -58,6 +69,19 @@ public class ShaderProgram {
      */
     public int        id() { return id; }
 
+    /**
+     * Sets the {@link ShaderProgramCache} used by {@link #link(GL2ES2, PrintStream)},
+     * defaults to {@link ShaderProgramCache#getDefault()}.
+     * <p>
+     * Program state set via GL calls bypassing this instance before linking, 
+     * e.g. transform feedback varyings, is not part of the cache key.
+     * Pass <code>null</code> to disable caching for such programs.
+     * </p>
+     */
+    public synchronized void setProgramCache(ShaderProgramCache cache) { programCache = cache; }
+
+    public ShaderProgramCache getProgramCache() { return programCache; }
+
     /**
      * Detaches all shader codes and deletes the program.
      * Destroys the shader codes as well.
@@ -97,6 +121,7 @@ public class ShaderProgram {
         }
         allShaderCode.clear();
         attachedShaderCode.clear();
+        attribLocations.clear();
         if( 0 != shaderProgram ) {
             gl.glDeleteProgram(shaderProgram);
             shaderProgram=0;
@@ -174,6 +199,18 @@ public class ShaderProgram {
         return true;
     }
 
+    /**
+     * Binds a shader attribute to a location using {@link GL2ES2#glBindAttribLocation(int, int, String)},
+     * which must happen before linking.
+     * <p>
+     * The binding is recorded and becomes part of the {@link ShaderProgramCache} key.
+     * </p>
+     */
+    public synchronized void bindAttribLocation(GL2ES2 gl, int location, String name) {
+        attribLocations.put(name, new Integer(location));
+        gl.glBindAttribLocation(shaderProgram, location, name);
+    }
+
     /**
      * Replace a shader in a program and re-links the program.
      *
@@ -213,10 +250,18 @@ public class ShaderProgram {
         if(attachedShaderCode.add(newShader)) {
             ShaderUtil.attachShader(gl, shaderProgram, newShader.shader());
         }
+        // the remaining shaders may not be compiled if the program was loaded from cache
+        if(!compileAndAttachAll(gl, verboseOut)) {
+            programLinked = false;
+            return false;
+        }
         
         gl.glLinkProgram(shaderProgram);
         
         programLinked = ShaderUtil.isProgramLinkStatusValid(gl, shaderProgram, System.err);
+        if ( programLinked ) {
+            linkCount++;
+        }
         if ( programLinked && shaderWasInUse )  {
             useProgram(gl, true);
         }
@@ -229,6 +274,10 @@ public class ShaderProgram {
      * <p>Compiles and attaches the shader code to the program if not done by yet</p>
      * 
      * <p>Within this process, all GL resources (shader and program objects) are created if necessary.</p>
+     * 
+     * <p>If a {@link #setProgramCache(ShaderProgramCache) program cache} is set and supported,
+     * the linked program binary is loaded from the cache, skipping compilation and linking. 
+     * Otherwise the program is linked from source and its binary is stored in the cache.</p>
      *  
      * @param gl
      * @param verboseOut
@@ -242,25 +291,53 @@ public class ShaderProgram {
             return false;
         }
 
-        for(Iterator<ShaderCode> iter=allShaderCode.iterator(); iter.hasNext(); ) {
-            final ShaderCode shaderCode = iter.next();
-            if(!shaderCode.compile(gl, verboseOut)) {
-                programLinked = false; // mark unlinked due to user attempt to [re]link
-                return false;
-            }
-            if(attachedShaderCode.add(shaderCode)) {
-                ShaderUtil.attachShader(gl, shaderProgram, shaderCode.shader());
+        final ShaderProgramCache cache = programCache;
+        String cacheKey = null;
+        if( null != cache && cache.isSupported(gl) ) {
+            cacheKey = cache.computeKey(gl, allShaderCode, attribLocations);
+            if( cache.load(gl, shaderProgram, cacheKey) ) {
+                programLinked = true;
+                linkCount++;
+                return programLinked;
             }
         }
 
+        if(!compileAndAttachAll(gl, verboseOut)) {
+            programLinked = false; // mark unlinked due to user attempt to [re]link
+            return false;
+        }
+
+        if( null != cacheKey ) {
+            cache.setRetrievableHint(gl, shaderProgram);
+        }
+
         // Link the program
         gl.glLinkProgram(shaderProgram);
 
         programLinked = ShaderUtil.isProgramLinkStatusValid(gl, shaderProgram, System.err);
+        if( programLinked ) {
+            linkCount++;
+        }
 
+        if( programLinked && null != cacheKey ) {
+            cache.store(gl, shaderProgram, cacheKey);
+        }
         return programLinked;
     }
 
+    private boolean compileAndAttachAll(GL2ES2 gl, PrintStream verboseOut) {
+        for(Iterator<ShaderCode> iter=allShaderCode.iterator(); iter.hasNext(); ) {
+            final ShaderCode shaderCode = iter.next();
+            if(!shaderCode.compile(gl, verboseOut)) {
+                return false;
+            }
+            if(attachedShaderCode.add(shaderCode)) {
+                ShaderUtil.attachShader(gl, shaderProgram, shaderCode.shader());
+            }
+        }
+        return true;
+    }
+
     public boolean equals(Object obj) {
         if(this == obj)  { return true; }
         if(obj instanceof ShaderProgram) {
@@ -309,10 +386,13 @@ public class ShaderProgram {
     }
 
     protected boolean programLinked = false;
+    protected int linkCount = 0;
     protected boolean programInUse = false;
     protected int shaderProgram = 0; // non zero is valid!
     protected HashSet<ShaderCode> allShaderCode = new HashSet<ShaderCode>();
     protected HashSet<ShaderCode> attachedShaderCode = new HashSet<ShaderCode>();
+    protected HashMap<String, Integer> attribLocations = new HashMap<String, Integer>();
+    protected ShaderProgramCache programCache = ShaderProgramCache.getDefault();
     protected int id = -1;
 
     private static synchronized int getNextID() {
@@ -0,0 +1,525 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.glsl;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2ES2;
+import javax.media.opengl.GL2GL3;
+import javax.media.opengl.GLContext;
+import javax.media.opengl.GLException;
+
+import jogamp.opengl.Debug;
+
+import com.jogamp.common.nio.Buffers;
+
+/**
+ * On-disk cache of linked shader program binaries,
+ * using <code>GL_ARB_get_program_binary</code> or <code>GL_OES_get_program_binary</code>.
+ * <p>
+ * Entries are content addressed by a SHA-1 key over the GL vendor, renderer and version strings,
+ * the source or binary of all {@link ShaderCode} and the attribute locations
+ * bound via {@link ShaderProgram#bindAttribLocation(GL2ES2, int, String)}.
+ * Hence a driver update or a changed shader simply misses the cache.
+ * </p>
+ * <p>
+ * The summed size of all entries is bounded, the least recently used entries are evicted.
+ * An entry failing to load, e.g. due to a rejected binary, is removed
+ * and the caller falls back to compile and link from source.
+ * </p>
+ * <p>
+ * The {@link #getDefault() default} cache used by {@link ShaderProgram} is enabled by setting the directory
+ * via the property <code>jogl.glsl.programcache</code>, its size limit in bytes
+ * may be set via <code>jogl.glsl.programcache.limit</code>.
+ * </p>
+ */
+public class ShaderProgramCache {
+    public static final boolean DEBUG = Debug.debug("GLSLCode");
+
+    /** Default size limit of all entries in bytes, 16 MB */
+    public static final long DEFAULT_LIMIT;
+
+    private static final ShaderProgramCache defaultCache;
+
+    static {
+        long limit = 16 * 1024 * 1024;
+        final String s = Debug.getProperty("jogl.glsl.programcache.limit", true);
+        if( null != s ) {
+            try {
+                limit = Long.parseLong(s);
+            } catch (NumberFormatException nfe) {
+                System.err.println("ShaderProgramCache: invalid jogl.glsl.programcache.limit: "+s);
+            }
+        }
+        DEFAULT_LIMIT = limit;
+        final String dir = Debug.getProperty("jogl.glsl.programcache", true);
+        defaultCache = null != dir && dir.length() > 0 ? new ShaderProgramCache(new File(dir), DEFAULT_LIMIT) : null;
+    }
+
+    /**
+     * Returns the default cache as configured via the property <code>jogl.glsl.programcache</code>,
+     * or null if not configured.
+     */
+    public static ShaderProgramCache getDefault() { return defaultCache; }
+
+    private static final String SUFFIX = ".bin";
+    private static final int MAGIC = 0x4A504243; // 'JPBC'
+    private static final int VERSION = 1;
+
+    private final File dir;
+    private long limit;
+    private long hits = 0;
+    private long misses = 0;
+    private long stores = 0;
+    private long failures = 0;
+    /** {@link #isSupported(GL2ES2)} per context */
+    private final WeakHashMap<GLContext, Boolean> supported = new WeakHashMap<GLContext, Boolean>();
+
+    /**
+     * @param dir the cache directory, created on demand
+     * @param limit the size limit of all entries in bytes, 0 for no limit
+     */
+    public ShaderProgramCache(File dir, long limit) {
+        this.dir = dir;
+        this.limit = limit;
+    }
+
+    public final File getDirectory() { return dir; }
+    public final long getLimit() { return limit; }
+    public final void setLimit(long limit) { this.limit = limit; }
+
+    /** Returns the number of programs loaded from this cache. */
+    public final synchronized long getHitCount() { return hits; }
+    /** Returns the number of lookups not found in this cache. */
+    public final synchronized long getMissCount() { return misses; }
+    /** Returns the number of stored program binaries. */
+    public final synchronized long getStoreCount() { return stores; }
+    /** Returns the number of entries which could not be loaded and were removed. */
+    public final synchronized long getFailureCount() { return failures; }
+
+    /**
+     * Returns true if the GL implementation is able to retrieve and load program binaries,
+     * i.e. <code>glGetProgramBinary</code> and <code>glProgramBinary</code> are available
+     * and at least one binary format is supported.
+     * <p>
+     * The result is queried once per {@link GLContext} and cached.
+     * </p>
+     */
+    public synchronized boolean isSupported(GL2ES2 gl) {
+        final GLContext context = gl.getContext();
+        Boolean res = supported.get(context);
+        if( null == res ) {
+            res = Boolean.valueOf(querySupported(gl));
+            supported.put(context, res);
+        }
+        return res.booleanValue();
+    }
+
+    private static boolean querySupported(GL2ES2 gl) {
+        if( !gl.isFunctionAvailable("glGetProgramBinary") || !gl.isFunctionAvailable("glProgramBinary") ) {
+            return false;
+        }
+        final int[] param = new int[1];
+        gl.glGetIntegerv(GL2ES2.GL_NUM_PROGRAM_BINARY_FORMATS, param, 0);
+        return GL.GL_NO_ERROR == gl.glGetError() && 0 < param[0];
+    }
+
+    /**
+     * Computes the cache key of a program.
+     *
+     * @param gl the current GL, providing the vendor, renderer and version strings
+     * @param shaderCodes all {@link ShaderCode} of the program, in any order
+     * @param attribLocations the attribute locations bound before linking, may be null
+     * @return the hex encoded SHA-1 key
+     */
+    public String computeKey(GL2ES2 gl, Collection<ShaderCode> shaderCodes, Map<String, Integer> attribLocations) {
+        final MessageDigest md = newDigest();
+        update(md, gl.glGetString(GL.GL_VENDOR));
+        update(md, gl.glGetString(GL.GL_RENDERER));
+        update(md, gl.glGetString(GL.GL_VERSION));
+
+        // program key is independent of the shader code order
+        final byte[][] codeKeys = new byte[shaderCodes.size()][];
+        int n=0;
+        for(Iterator<ShaderCode> iter=shaderCodes.iterator(); iter.hasNext(); ) {
+            codeKeys[n++] = digest(iter.next());
+        }
+        Arrays.sort(codeKeys, byteArrayComparator);
+        for(int i=0; i<n; i++) {
+            md.update(codeKeys[i]);
+        }
+
+        if(null != attribLocations) {
+            final TreeMap<String, Integer> sorted = new TreeMap<String, Integer>(attribLocations);
+            for(Iterator<Map.Entry<String, Integer>> iter=sorted.entrySet().iterator(); iter.hasNext(); ) {
+                final Map.Entry<String, Integer> e = iter.next();
+                update(md, e.getKey());
+                update(md, e.getValue().intValue());
+            }
+        }
+        return toHexString(md.digest());
+    }
+
+    /**
+     * Loads the program binary of the given key into <code>program</code>.
+     * <p>
+     * If the binary is rejected by the GL implementation, or the entry is corrupt,
+     * the entry is removed and false is returned.
+     * The program may then be linked from source as usual.
+     * </p>
+     *
+     * @return true if the program was loaded and is linked, otherwise false
+     */
+    public boolean load(GL2ES2 gl, int program, String key) {
+        final File file = getFile(key);
+        if( !file.isFile() ) {
+            synchronized(this) { misses++; }
+            return false;
+        }
+        int binaryFormat;
+        ByteBuffer binary;
+        try {
+            final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            try {
+                if( MAGIC != in.readInt() || VERSION != in.readInt() ) {
+                    throw new IOException("Invalid header");
+                }
+                binaryFormat = in.readInt();
+                final int length = in.readInt();
+                if( 0 >= length || length > file.length() ) {
+                    throw new IOException("Invalid length "+length);
+                }
+                final byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                binary = Buffers.newDirectByteBuffer(bytes);
+            } finally {
+                in.close();
+            }
+        } catch (IOException ioe) {
+            if(DEBUG) {
+                System.err.println("ShaderProgramCache: Failed to read "+file+": "+ioe.getMessage());
+            }
+            remove(file);
+            return false;
+        }
+
+        boolean linked;
+        try {
+            gl.glGetError(); // flush previous errors ..
+            gl.glProgramBinary(program, binaryFormat, binary, binary.remaining());
+            linked = GL.GL_NO_ERROR == gl.glGetError() &&
+                     ShaderUtil.isProgramStatusValid(gl, program, GL2ES2.GL_LINK_STATUS);
+        } catch (GLException gle) {
+            if(DEBUG) {
+                gle.printStackTrace();
+            }
+            linked = false;
+        }
+        if( !linked ) {
+            if(DEBUG) {
+                System.err.println("ShaderProgramCache: Rejected binary "+file+", format 0x"+Integer.toHexString(binaryFormat));
+            }
+            remove(file);
+            return false;
+        }
+        file.setLastModified(System.currentTimeMillis());
+        synchronized(this) { hits++; }
+        if(DEBUG) {
+            System.err.println("ShaderProgramCache: Loaded "+file+", "+binary.capacity()+" bytes");
+        }
+        return true;
+    }
+
+    /**
+     * Hints the driver that the binary of <code>program</code> will be retrieved,
+     * to be called before linking the program from source.
+     * <p>
+     * Only desktop GL knows <code>GL_PROGRAM_BINARY_RETRIEVABLE_HINT</code>,
+     * w/ <code>GL_OES_get_program_binary</code> the binary is always retrievable.
+     * </p>
+     */
+    public void setRetrievableHint(GL2ES2 gl, int program) {
+        if( gl.isGL2GL3() && gl.isFunctionAvailable("glProgramParameteri") ) {
+            gl.getGL2GL3().glProgramParameteri(program, GL2GL3.GL_PROGRAM_BINARY_RETRIEVABLE_HINT, GL.GL_TRUE);
+        }
+    }
+
+    /**
+     * Stores the binary of the linked <code>program</code> using the given key
+     * and evicts the least recently used entries exceeding the size limit.
+     *
+     * @return true if the binary was stored, otherwise false
+     */
+    public boolean store(GL2ES2 gl, int program, String key) {
+        final int[] param = new int[2];
+        gl.glGetProgramiv(program, GL2ES2.GL_PROGRAM_BINARY_LENGTH, param, 0);
+        final int length = param[0];
+        if( 0 >= length ) {
+            return false;
+        }
+        final ByteBuffer binary = Buffers.newDirectByteBuffer(length);
+        gl.glGetProgramBinary(program, length, param, 0, param, 1, binary);
+        if( GL.GL_NO_ERROR != gl.glGetError() || 0 >= param[0] ) {
+            return false;
+        }
+        final byte[] bytes = new byte[param[0]];
+        binary.get(bytes);
+
+        final File file = getFile(key);
+        File tmp = null;
+        try {
+            if( !dir.isDirectory() && !dir.mkdirs() ) {
+                throw new IOException("Could not create directory");
+            }
+            // unique per writer, concurrent stores of the same key must not share the temporary file
+            tmp = File.createTempFile(key+"-", ".tmp", dir);
+            final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(param[1]);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            } finally {
+                out.close();
+            }
+            file.delete();
+            if( !tmp.renameTo(file) ) {
+                throw new IOException("Could not rename "+tmp);
+            }
+        } catch (IOException ioe) {
+            if(DEBUG) {
+                System.err.println("ShaderProgramCache: Failed to write "+file+": "+ioe.getMessage());
+            }
+            if( null != tmp ) {
+                tmp.delete();
+            }
+            return false;
+        }
+        synchronized(this) { stores++; }
+        if(DEBUG) {
+            System.err.println("ShaderProgramCache: Stored "+file+", "+bytes.length+" bytes");
+        }
+        trim(file);
+        return true;
+    }
+
+    /** Removes all entries. */
+    public synchronized void clear() {
+        final File[] files = listEntries();
+        for(int i=0; i<files.length; i++) {
+            files[i].delete();
+        }
+    }
+
+    /** Returns the summed size of all entries in bytes. */
+    public long getSize() {
+        final File[] files = listEntries();
+        long size = 0;
+        for(int i=0; i<files.length; i++) {
+            size += files[i].length();
+        }
+        return size;
+    }
+
+    /** Evicts the least recently used entries while exceeding the limit, keeping <code>keep</code>. */
+    private synchronized void trim(File keep) {
+        if( 0 >= limit ) {
+            return;
+        }
+        final File[] files = listEntries();
+        final long[] lastModified = new long[files.length];
+        long size = 0;
+        for(int i=0; i<files.length; i++) {
+            size += files[i].length();
+        }
+        if( size <= limit ) {
+            return;
+        }
+        final Integer[] order = new Integer[files.length];
+        for(int i=0; i<files.length; i++) {
+            lastModified[i] = files[i].lastModified();
+            order[i] = new Integer(i);
+        }
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer o1, Integer o2) {
+                final long d = lastModified[o1.intValue()] - lastModified[o2.intValue()];
+                return d < 0 ? -1 : ( d > 0 ? 1 : 0 );
+            }
+        });
+        for(int i=0; i<order.length && size > limit; i++) {
+            final File f = files[order[i].intValue()];
+            if( !f.equals(keep) ) {
+                final long l = f.length();
+                if( f.delete() ) {
+                    size -= l;
+                    if(DEBUG) {
+                        System.err.println("ShaderProgramCache: Evicted "+f);
+                    }
+                }
+            }
+        }
+    }
+
+    private void remove(File file) {
+        file.delete();
+        synchronized(this) { failures++; }
+    }
+
+    private File getFile(String key) {
+        return new File(dir, key+SUFFIX);
+    }
+
+    private File[] listEntries() {
+        final File[] files = dir.listFiles(new FilenameFilter() {
+            public boolean accept(File d, String name) {
+                return name.endsWith(SUFFIX);
+            }
+        });
+        return null != files ? files : new File[0];
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new GLException(e);
+        }
+    }
+
+    private static byte[] digest(ShaderCode code) {
+        final MessageDigest md = newDigest();
+        update(md, code.shaderType());
+        final CharSequence[][] source = code.shaderSource();
+        if( null != source ) {
+            update(md, source.length);
+            for(int i=0; i<source.length; i++) {
+                update(md, source[i].length);
+                for(int j=0; j<source[i].length; j++) {
+                    update(md, source[i][j].toString());
+                }
+            }
+        } else {
+            update(md, code.shaderBinaryFormat());
+            final Buffer binary = code.shaderBinary();
+            if( null != binary ) {
+                update(md, binary);
+            }
+        }
+        return md.digest();
+    }
+
+    private static void update(MessageDigest md, int v) {
+        md.update((byte)(v >>> 24));
+        md.update((byte)(v >>> 16));
+        md.update((byte)(v >>>  8));
+        md.update((byte) v);
+    }
+
+    private static void update(MessageDigest md, String s) {
+        if( null == s ) {
+            update(md, -1);
+        } else {
+            update(md, s.length());
+            try {
+                md.update(s.getBytes("UTF-8"));
+            } catch (java.io.UnsupportedEncodingException e) {
+                throw new GLException(e);
+            }
+        }
+    }
+
+    private static void update(MessageDigest md, Buffer binary) {
+        final int pos = binary.position();
+        final int n = binary.remaining();
+        update(md, n);
+        if( binary instanceof ByteBuffer ) {
+            final ByteBuffer b = (ByteBuffer) binary;
+            for(int i=0; i<n; i++) { md.update(b.get(pos+i)); }
+        } else if( binary instanceof IntBuffer ) {
+            final IntBuffer b = (IntBuffer) binary;
+            for(int i=0; i<n; i++) { update(md, b.get(pos+i)); }
+        } else if( binary instanceof ShortBuffer ) {
+            final ShortBuffer b = (ShortBuffer) binary;
+            for(int i=0; i<n; i++) { update(md, b.get(pos+i)); }
+        } else if( binary instanceof FloatBuffer ) {
+            final FloatBuffer b = (FloatBuffer) binary;
+            for(int i=0; i<n; i++) { update(md, Float.floatToRawIntBits(b.get(pos+i))); }
+        } else {
+            throw new GLException("Unsupported shader binary buffer: "+binary);
+        }
+    }
+
+    private static final Comparator<byte[]> byteArrayComparator = new Comparator<byte[]>() {
+        public int compare(byte[] a, byte[] b) {
+            final int n = Math.min(a.length, b.length);
+            for(int i=0; i<n; i++) {
+                final int d = (a[i] & 0xff) - (b[i] & 0xff);
+                if( 0 != d ) {
+                    return d;
+                }
+            }
+            return a.length - b.length;
+        }
+    };
+
+    private static String toHexString(byte[] bytes) {
+        final StringBuilder sb = new StringBuilder(2*bytes.length);
+        for(int i=0; i<bytes.length; i++) {
+            final int v = bytes[i] & 0xff;
+            if( v < 0x10 ) {
+                sb.append('0');
+            }
+            sb.append(Integer.toHexString(v));
+        }
+        return sb.toString();
+    }
+}
@@ -28,6 +28,9 @@
 
 package com.jogamp.opengl.util.glsl;
 
+import java.nio.Buffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -55,6 +58,15 @@ import com.jogamp.opengl.util.GLArrayDataEditable;
  * A {@link #useProgram(GL2ES2, boolean) used} ShaderState is attached to the current GL context
  * and can be retrieved via {@link #getShaderState(GL)}.
  * </p>
+ * <p>
+ * Frequently updated uniforms and attributes may be registered once via
+ * {@link #registerUniform(GLUniformData)} and {@link #registerAttribute(GLArrayData)}.
+ * The returned int handle addresses an array slot, hence per frame calls like
+ * {@link #uniform(GL2ES2, int)} or {@link #enableVertexAttribArray(GL2ES2, int)}
+ * avoid the name based map lookups. The slots track the last uploaded uniform value
+ * and the attribute enable state, so redundant GL calls are skipped.
+ * GL calls issued for registered names bypassing this ShaderState are not tracked.
+ * </p>
  */
 public class ShaderState {
     public static final boolean DEBUG = Debug.isPropertyDefined("jogl.debug.GLSLState", true);
@@ -169,6 +181,8 @@ public class ShaderState {
             resetAllShaderData = false;            
         } else {
             shaderProgram.useProgram(gl, false);
+            // the enable state may be altered by others while we are not in use
+            invalidateAttributeSlots();
         }
     }
 
@@ -226,6 +240,8 @@ public class ShaderState {
                 }
             }
             resetAllShaderData = true;
+            invalidateAttributeSlots();
+            invalidateUniformSlots();
         }
 
         // register new one
@@ -259,6 +275,7 @@ public class ShaderState {
     public synchronized void destroy(GL2ES2 gl) {
         release(gl, true, true, true);
         attachedObjectsByString.clear();        
+        clearSlots();
     }
 
     /**
@@ -383,7 +400,7 @@ public class ShaderState {
         if(shaderProgram.linked()) throw new GLException("Program is already linked");        
         final Integer loc = new Integer(location);
         activeAttribLocationMap.put(name, loc);
-        gl.glBindAttribLocation(shaderProgram.program(), location, name);
+        shaderProgram.bindAttribLocation(gl, location, name);
     }
 
     /**
@@ -490,8 +507,11 @@ public class ShaderState {
         return isVertexAttribArrayEnabled(data.getName());
     }
     
-    private boolean enableVertexAttribArray(GL2ES2 gl, String name, int location) {
+    private boolean enableVertexAttribArray(GL2ES2 gl, String name, int location, AttributeSlot slot) {
         activedAttribEnabledMap.put(name, Boolean.TRUE);
+        if(null != slot) {
+            slot.enableState = ENABLE_STATE_UNKNOWN;
+        }
         if(0>location) {
             location = getAttribLocation(gl, name);
             if(0>location) {
@@ -508,6 +528,9 @@ public class ShaderState {
             System.err.println("ShaderState: glEnableVertexAttribArray: "+name+", loc: "+location);
         }
         gl.glEnableVertexAttribArray(location);
+        if(null != slot) {
+            slot.enableState = ENABLE_STATE_ON;
+        }
         return true;
     }
     
@@ -530,7 +553,7 @@ public class ShaderState {
      * @see #getVertexAttribPointer
      */
     public boolean enableVertexAttribArray(GL2ES2 gl, String name) {
-        return enableVertexAttribArray(gl, name, -1);
+        return enableVertexAttribArray(gl, name, -1, findAttributeSlot(name));
     }
     
 
@@ -562,11 +585,14 @@ public class ShaderState {
             // ensure data is the current bound one
             activeAttribDataMap.put(data.getName(), data);             
         }
-        return enableVertexAttribArray(gl, data.getName(), data.getLocation());
+        return enableVertexAttribArray(gl, data.getName(), data.getLocation(), findAttributeSlot(data.getName()));
     }
     
-    private boolean disableVertexAttribArray(GL2ES2 gl, String name, int location) {
+    private boolean disableVertexAttribArray(GL2ES2 gl, String name, int location, AttributeSlot slot) {
         activedAttribEnabledMap.put(name, Boolean.FALSE);
+        if(null != slot) {
+            slot.enableState = ENABLE_STATE_UNKNOWN;
+        }
         if(0>location) {
             location = getAttribLocation(gl, name);
             if(0>location) {
@@ -583,6 +609,9 @@ public class ShaderState {
             System.err.println("ShaderState: glDisableVertexAttribArray: "+name);
         }
         gl.glDisableVertexAttribArray(location);
+        if(null != slot) {
+            slot.enableState = ENABLE_STATE_OFF;
+        }
         return true;
     }
     
@@ -606,7 +635,7 @@ public class ShaderState {
      * @see #getVertexAttribPointer
      */
     public boolean disableVertexAttribArray(GL2ES2 gl, String name) {
-        return disableVertexAttribArray(gl, name, -1);
+        return disableVertexAttribArray(gl, name, -1, findAttributeSlot(name));
     }
 
     /**
@@ -634,7 +663,7 @@ public class ShaderState {
         if(0 > data.getLocation()) {
             getAttribLocation(gl, data);
         }
-        return disableVertexAttribArray(gl, data.getName(), data.getLocation());
+        return disableVertexAttribArray(gl, data.getName(), data.getLocation(), findAttributeSlot(data.getName()));
     }
     
     /**
@@ -696,6 +725,7 @@ public class ShaderState {
         activedAttribEnabledMap.clear();
         activeAttribLocationMap.clear();
         managedAttributes.clear();        
+        invalidateAttributeSlots();
     }
         
     /**
@@ -726,6 +756,7 @@ public class ShaderState {
                 gl.glDisableVertexAttribArray(index);
             }
         }
+        invalidateAttributeSlots();
     }
 
     private final void relocateAttribute(GL2ES2 gl, GLArrayData attribute) {
@@ -936,13 +967,24 @@ public class ShaderState {
      * @see ShaderProgram#glReplaceShader
      */
     public boolean uniform(GL2ES2 gl, GLUniformData data) {
+        return uniform(gl, data, findUniformSlot(data.getName()));
+    }
+
+    private boolean uniform(GL2ES2 gl, GLUniformData data, UniformSlot slot) {
         if(!shaderProgram.inUse()) throw new GLException("Program is not in use");
+        if(uniformLinkCount != shaderProgram.linkCount()) {
+            invalidateUniformLocations();
+        }
         int location = data.getLocation();
         if(0>location) {
             location = getUniformLocation(gl, data);
         }
         if(0<=location) {
             // only pass the data, if the uniform exists in the current shader
+            if(null != slot && !slot.update(data, location)) {
+                // unchanged since last upload
+                return true;
+            }
             if(DEBUG) {
                 System.err.println("ShaderState: glUniform: "+data);
             }
@@ -968,6 +1010,10 @@ public class ShaderState {
         activeUniformDataMap.clear();
         activeUniformLocationMap.clear();
         managedUniforms.clear();
+        for(int i=0; i<uniformSlotCount; i++) {
+            uniformSlots[i].data.setLocation(-1);
+        }
+        invalidateUniformSlots();
     }
         
     /**
@@ -982,14 +1028,359 @@ public class ShaderState {
      */
     private final void resetAllUniforms(GL2ES2 gl) {
         if(!shaderProgram.inUse()) throw new GLException("Program is not in use");        
+        invalidateUniformLocations();
+        for(Iterator<GLUniformData> iter = activeUniformDataMap.values().iterator(); iter.hasNext(); ) {
+            final GLUniformData uniform = iter.next();
+            uniform.setLocation(-1);
+            uniform(gl, uniform);
+        }
+    }
+
+    //
+    // Handle based uniform and attribute access
+    //
+
+    /**
+     * Registers the {@link GLUniformData} for handle based access.
+     * <p>
+     * The returned handle addresses an array slot of this ShaderState and stays valid
+     * until {@link #destroy(GL2ES2)}, i.e. it survives shader program switches.
+     * Registering an already registered name binds the given data object to the existing handle.
+     * </p>
+     * <p>
+     * The last uploaded value is tracked per handle, hence {@link #uniform(GL2ES2, int)}
+     * as well as {@link #uniform(GL2ES2, GLUniformData)} of a registered name 
+     * skip the glUniform call if the data is unchanged.
+     * </p>
+     * <p>The data will not be transfered to the GPU, use {@link #uniform(GL2ES2, int)} additionally.</p>
+     * 
+     * @return the uniform handle, >= 0
+     * 
+     * @see #uniform(GL2ES2, int)
+     * @see #getUniform(int)
+     */
+    public int registerUniform(GLUniformData data) {
+        final String name = data.getName();
+        final Integer idx = uniformSlotMap.get(name);
+        final UniformSlot slot;
+        if(null != idx) {
+            slot = uniformSlots[idx.intValue()];
+        } else {
+            if(uniformSlotCount == uniformSlots.length) {
+                final UniformSlot[] newSlots = new UniformSlot[2*uniformSlotCount+8];
+                System.arraycopy(uniformSlots, 0, newSlots, 0, uniformSlotCount);
+                uniformSlots = newSlots;
+            }
+            slot = new UniformSlot();
+            uniformSlots[uniformSlotCount] = slot;
+            uniformSlotMap.put(name, new Integer(uniformSlotCount));
+            uniformSlotCount++;
+        }
+        if(slot.data != data) {
+            final int location = getCachedUniformLocation(name);
+            if(0<=location) {
+                data.setLocation(location);
+            }
+            slot.data = data;
+        }
+        return (null != idx) ? idx.intValue() : uniformSlotCount-1;
+    }
+
+    /**
+     * @return the {@link GLUniformData} bound to the given handle
+     * @throws GLException if the handle is invalid
+     * @see #registerUniform(GLUniformData)
+     */
+    public final GLUniformData getUniform(int handle) {
+        return getUniformSlot(handle).data;
+    }
+
+    /**
+     * Set the uniform data bound to the given handle,
+     * array indexed counterpart of {@link #uniform(GL2ES2, GLUniformData)}.
+     * <p>
+     * The glUniform call is skipped if the data's value and location
+     * are unchanged since its last upload to the current program.
+     * </p>
+     *
+     * @return false, if the name is not found, otherwise true
+     *
+     * @throws GLException if the program is not in use or the handle is invalid
+     *
+     * @see #registerUniform(GLUniformData)
+     */
+    public boolean uniform(GL2ES2 gl, int handle) {
+        final UniformSlot slot = getUniformSlot(handle);
+        return uniform(gl, slot.data, slot);
+    }
+
+    /**
+     * Registers a vertex attribute name for handle based access.
+     * <p>
+     * The returned handle addresses an array slot of this ShaderState and stays valid
+     * until {@link #destroy(GL2ES2)}.
+     * The enable state is tracked per handle, hence {@link #enableVertexAttribArray(GL2ES2, int)}
+     * and {@link #disableVertexAttribArray(GL2ES2, int)} skip the GL call if the state is unchanged.
+     * </p>
+     *
+     * @return the attribute handle, >= 0
+     * 
+     * @see #registerAttribute(GLArrayData)
+     */
+    public int registerAttribute(String name) {
+        final Integer idx = attribSlotMap.get(name);
+        if(null != idx) {
+            return idx.intValue();
+        }
+        if(attribSlotCount == attribSlots.length) {
+            final AttributeSlot[] newSlots = new AttributeSlot[2*attribSlotCount+8];
+            System.arraycopy(attribSlots, 0, newSlots, 0, attribSlotCount);
+            attribSlots = newSlots;
+        }
+        attribSlots[attribSlotCount] = new AttributeSlot(name);
+        attribSlotMap.put(name, new Integer(attribSlotCount));
+        return attribSlotCount++;
+    }
+
+    /**
+     * Registers the {@link GLArrayData} vertex attribute for handle based access,
+     * see {@link #registerAttribute(String)}.
+     * <p>
+     * Registering an already registered name binds the given data object to the existing handle.
+     * </p>
+     *
+     * @return the attribute handle, >= 0
+     * 
+     * @see #vertexAttribPointer(GL2ES2, int)
+     * @see #getAttribute(int)
+     */
+    public int registerAttribute(GLArrayData data) {
+        final int handle = registerAttribute(data.getName());
+        attribSlots[handle].data = data;
+        return handle;
+    }
+
+    /**
+     * @return the {@link GLArrayData} bound to the given handle, may be null
+     * @throws GLException if the handle is invalid
+     * @see #registerAttribute(GLArrayData)
+     */
+    public final GLArrayData getAttribute(int handle) {
+        return getAttributeSlot(handle).data;
+    }
+
+    /**
+     * Enables the vertex attribute array of the given handle,
+     * array indexed counterpart of {@link #enableVertexAttribArray(GL2ES2, GLArrayData)}.
+     * <p>
+     * Nothing is done if the attribute is known to be enabled already.
+     * </p>
+     *
+     * @return false, if the name is not found, otherwise true
+     *
+     * @throws GLException if the handle is invalid
+     * @throws GLException if the program is not linked and no location was cached.
+     */
+    public boolean enableVertexAttribArray(GL2ES2 gl, int handle) {
+        final AttributeSlot slot = getAttributeSlot(handle);
+        if(ENABLE_STATE_ON == slot.enableState) {
+            return true;
+        }
+        if(null != slot.data) {
+            final GLArrayData data = slot.data;
+            if(0 > data.getLocation()) {
+                getAttribLocation(gl, data);
+            } else {
+                activeAttribDataMap.put(data.getName(), data);             
+            }
+            return enableVertexAttribArray(gl, slot.name, data.getLocation(), slot);
+        }
+        return enableVertexAttribArray(gl, slot.name, -1, slot);
+    }
+
+    /**
+     * Disables the vertex attribute array of the given handle,
+     * array indexed counterpart of {@link #disableVertexAttribArray(GL2ES2, GLArrayData)}.
+     * <p>
+     * Nothing is done if the attribute is known to be disabled already.
+     * </p>
+     *
+     * @return false, if the name is not found, otherwise true
+     *
+     * @throws GLException if the handle is invalid
+     * @throws GLException if the program is not linked and no location was cached.
+     */
+    public boolean disableVertexAttribArray(GL2ES2 gl, int handle) {
+        final AttributeSlot slot = getAttributeSlot(handle);
+        if(ENABLE_STATE_OFF == slot.enableState) {
+            return true;
+        }
+        if(null != slot.data) {
+            final GLArrayData data = slot.data;
+            if(0 > data.getLocation()) {
+                getAttribLocation(gl, data);
+            }
+            return disableVertexAttribArray(gl, slot.name, data.getLocation(), slot);
+        }
+        return disableVertexAttribArray(gl, slot.name, -1, slot);
+    }
+
+    /**
+     * Set the {@link GLArrayData} vertex attribute data bound to the given handle,
+     * see {@link #vertexAttribPointer(GL2ES2, GLArrayData)}.
+     *
+     * @return false, if the location could not be determined, otherwise true
+     *
+     * @throws GLException if the handle is invalid or no {@link GLArrayData} is bound to it
+     * @throws GLException if the program is not linked and no location was cached.
+     */
+    public boolean vertexAttribPointer(GL2ES2 gl, int handle) {
+        final GLArrayData data = getAttributeSlot(handle).data;
+        if(null == data) throw new GLException("No GLArrayData bound to attribute handle "+handle);
+        return vertexAttribPointer(gl, data);
+    }
+
+    private final UniformSlot getUniformSlot(int handle) {
+        if(0 > handle || handle >= uniformSlotCount) throw new GLException("Invalid uniform handle "+handle+", registered "+uniformSlotCount);
+        return uniformSlots[handle];
+    }
+
+    private final UniformSlot findUniformSlot(String name) {
+        if(0 == uniformSlotCount) {
+            return null;
+        }
+        final Integer idx = uniformSlotMap.get(name);
+        return (null!=idx)?uniformSlots[idx.intValue()]:null;
+    }
+
+    private final AttributeSlot getAttributeSlot(int handle) {
+        if(0 > handle || handle >= attribSlotCount) throw new GLException("Invalid attribute handle "+handle+", registered "+attribSlotCount);
+        return attribSlots[handle];
+    }
+
+    private final AttributeSlot findAttributeSlot(String name) {
+        if(0 == attribSlotCount) {
+            return null;
+        }
+        final Integer idx = attribSlotMap.get(name);
+        return (null!=idx)?attribSlots[idx.intValue()]:null;
+    }
+
+    /** 
+     * Drops all cached uniform locations and forces the next upload of all registered uniforms,
+     * e.g. after a program switch or relink, see {@link ShaderProgram#linkCount()}.
+     */
+    private final void invalidateUniformLocations() {
         activeUniformLocationMap.clear();
         for(Iterator<GLUniformData> iter = managedUniforms.iterator(); iter.hasNext(); ) {
             iter.next().setLocation(-1);
         }        
         for(Iterator<GLUniformData> iter = activeUniformDataMap.values().iterator(); iter.hasNext(); ) {
-            final GLUniformData uniform = iter.next();
-            uniform.setLocation(-1);
-            uniform(gl, uniform);
+            iter.next().setLocation(-1);
+        }
+        for(int i=0; i<uniformSlotCount; i++) {
+            uniformSlots[i].data.setLocation(-1);
+        }
+        invalidateUniformSlots();
+        uniformLinkCount = shaderProgram.linkCount();
+    }
+
+    /** Forces the next upload of all registered uniforms, e.g. after a program switch. */
+    private final void invalidateUniformSlots() {
+        for(int i=0; i<uniformSlotCount; i++) {
+            uniformSlots[i].valid = false;
+        }
+    }
+
+    /** Forgets the tracked enable state of all registered attributes. */
+    private final void invalidateAttributeSlots() {
+        for(int i=0; i<attribSlotCount; i++) {
+            attribSlots[i].enableState = ENABLE_STATE_UNKNOWN;
+        }
+    }
+
+    private final void clearSlots() {
+        uniformSlotMap.clear();
+        uniformSlots = new UniformSlot[0];
+        uniformSlotCount = 0;
+        attribSlotMap.clear();
+        attribSlots = new AttributeSlot[0];
+        attribSlotCount = 0;
+    }
+
+    /** Registered uniform, holding a copy of its last uploaded value. */
+    private static final class UniformSlot {
+        GLUniformData data;
+        /** last uploaded value, float values as raw int bits */
+        int[] value = new int[4];
+        int valueCount;
+        int location = -1;
+        boolean valid;
+
+        /**
+         * Stores the given data as the last uploaded value.
+         * @return true if the value or location differs from the last upload, otherwise false
+         */
+        boolean update(GLUniformData data, int location) {
+            final Object o = data.getObject();
+            final int n;
+            if(o instanceof Buffer) {
+                n = data.count() * data.components();
+            } else {
+                n = 1;
+            }
+            boolean changed = !valid || this.location != location || valueCount != n;
+            if(value.length < n) {
+                value = new int[n];
+                changed = true;
+            }
+            final int[] v = value;
+            if(o instanceof FloatBuffer) {
+                final FloatBuffer fb = (FloatBuffer) o;
+                final int pos = fb.position();
+                for(int i=0; i<n; i++) {
+                    final int bits = Float.floatToRawIntBits(fb.get(pos+i));
+                    if(bits != v[i]) {
+                        v[i] = bits;
+                        changed = true;
+                    }
+                }
+            } else if(o instanceof IntBuffer) {
+                final IntBuffer ib = (IntBuffer) o;
+                final int pos = ib.position();
+                for(int i=0; i<n; i++) {
+                    final int iv = ib.get(pos+i);
+                    if(iv != v[i]) {
+                        v[i] = iv;
+                        changed = true;
+                    }
+                }
+            } else {
+                final int iv = (o instanceof Float) ? Float.floatToRawIntBits(((Float)o).floatValue()) : ((Integer)o).intValue();
+                if(iv != v[0]) {
+                    v[0] = iv;
+                    changed = true;
+                }
+            }
+            valueCount = n;
+            this.location = location;
+            valid = true;
+            return changed;
+        }
+    }
+
+    private static final byte ENABLE_STATE_UNKNOWN = 0;
+    private static final byte ENABLE_STATE_OFF = 1;
+    private static final byte ENABLE_STATE_ON = 2;
+
+    /** Registered attribute, holding its last issued enable state. */
+    private static final class AttributeSlot {
+        final String name;
+        GLArrayData data;
+        byte enableState = ENABLE_STATE_UNKNOWN;
+
+        AttributeSlot(String name) {
+            this.name = name;
         }
     }
 
@@ -1063,6 +1454,15 @@ public class ShaderState {
     private HashMap<String, GLUniformData> activeUniformDataMap = new HashMap<String, GLUniformData>();
     private ArrayList<GLUniformData> managedUniforms = new ArrayList<GLUniformData>();
     
+    private HashMap<String, Integer> uniformSlotMap = new HashMap<String, Integer>();
+    private UniformSlot[] uniformSlots = new UniformSlot[0];
+    private int uniformSlotCount = 0;
+    /** {@link ShaderProgram#linkCount()} of the program the cached uniform locations belong to */
+    private int uniformLinkCount = -1;
+    private HashMap<String, Integer> attribSlotMap = new HashMap<String, Integer>();
+    private AttributeSlot[] attribSlots = new AttributeSlot[0];
+    private int attribSlotCount = 0;
+    
     private HashMap<String, Object> attachedObjectsByString = new HashMap<String, Object>();    
     private boolean resetAllShaderData = false;
 }
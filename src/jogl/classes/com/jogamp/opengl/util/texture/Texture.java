@@ -36,6 +36,7 @@
 
 package com.jogamp.opengl.util.texture;
 
+import java.io.IOException;
 import java.nio.*;
 
 import javax.media.opengl.*;
@@ -417,6 +418,33 @@ public class Texture {
         updateImage(gl, data, 0);
     }
 
+    /**
+     * Updates the entire content area of this texture band by band
+     * using the data of the given reader, hence the image is never fully
+     * kept in memory. The texture storage is allocated via
+     * {@link TextureBandReader#getTextureData()} first, then each band
+     * is uploaded via {@link #updateSubImage(GL, TextureData, int, int, int)}.
+     * <p>
+     * The reader is consumed and closed.
+     * </p>
+     *
+     * @param bandRows maximum number of rows decoded and uploaded at once
+     *
+     * @throws IOException if an error occurred while reading the image data
+     * @throws GLException if any OpenGL-related errors occurred
+     */
+    public void updateImage(GL gl, TextureBandReader reader, int bandRows) throws IOException, GLException {
+        try {
+            updateImage(gl, reader.getTextureData());
+            TextureData band;
+            while( null != ( band = reader.nextBand(bandRows) ) ) {
+                updateSubImage(gl, band, 0, 0, reader.getBandY());
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
     /**
      * Indicates whether this texture's texture coordinates must be
      * flipped vertically in order to properly display the texture. This
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.texture;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.jogamp.common.nio.Buffers;
+
+/**
+ * Sequential band by band access to an uncompressed texture image,
+ * which is never fully materialized in memory.
+ * <p>
+ * The image is decoded in horizontal bands of rows on demand,
+ * each band is stored in one reused direct buffer in OpenGL order (bottom-to-top),
+ * hence the memory footprint is bounded by the band size.
+ * </p>
+ * <p>
+ * Usage, see {@link Texture#updateImage(javax.media.opengl.GL, TextureBandReader, int)}:
+ * <pre>
+ *   final TextureBandReader reader = TextureIO.newTextureBandReader(glp, file, 0, 0, null);
+ *   try {
+ *       texture.updateImage(gl, reader, 256);
+ *   } finally {
+ *       reader.close();
+ *   }
+ * </pre>
+ * or manually:
+ * <pre>
+ *   texture.updateImage(gl, reader.getTextureData()); // allocation only
+ *   while( reader.hasMoreBands() ) {
+ *       final TextureData band = reader.nextBand(256);
+ *       texture.updateSubImage(gl, band, 0, 0, reader.getBandY());
+ *   }
+ * </pre>
+ * </p>
+ * <p>
+ * Rows are decoded in file order, the band order depends on the file format,
+ * see {@link #getBandY()}.
+ * </p>
+ */
+public abstract class TextureBandReader {
+    private final TextureData textureData;
+    private final int bytesPerRow;
+    private final boolean topToBottom;
+    private TextureData band = null;
+    private ByteBuffer bandBuffer = null;
+    private int nextRow = 0;
+    private int bandY = 0;
+    private boolean closed = false;
+
+    /**
+     * @param textureData the description of the whole image, without buffer
+     * @param bytesPerPixel number of bytes per pixel of the decoded rows
+     * @param topToBottom true if the rows are stored top-to-bottom in the file,
+     *                    i.e. the first decoded row is the top most row in OpenGL coordinates.
+     */
+    protected TextureBandReader(TextureData textureData, int bytesPerPixel, boolean topToBottom) {
+        if( null != textureData.getBuffer() || null != textureData.getMipmapData() ) {
+            throw new IllegalArgumentException("TextureData must not hold any data: "+textureData);
+        }
+        if( textureData.getMipmap() || textureData.isDataCompressed() ) {
+            throw new IllegalArgumentException("Mipmap generation and compressed data not supported: "+textureData);
+        }
+        this.textureData = textureData;
+        this.bytesPerRow = bytesPerPixel * textureData.getWidth();
+        this.topToBottom = topToBottom;
+    }
+
+    /**
+     * Decodes the next row in file order into <code>dst</code> at the absolute
+     * position <code>dstOff</code>, converted to the pixel format and type of {@link #getTextureData()}.
+     */
+    protected abstract void readRow(ByteBuffer dst, int dstOff) throws IOException;
+
+    /** Releases the underlying stream. */
+    protected abstract void closeImpl() throws IOException;
+
+    /**
+     * Returns the description of the whole image, width, height and formats,
+     * without any data. Passing it to {@link Texture#updateImage(javax.media.opengl.GL, TextureData)}
+     * allocates the texture storage only.
+     */
+    public final TextureData getTextureData() { return textureData; }
+
+    public final int getWidth() { return textureData.getWidth(); }
+
+    public final int getHeight() { return textureData.getHeight(); }
+
+    /** Returns the number of bytes of one decoded row. */
+    public final int getBytesPerRow() { return bytesPerRow; }
+
+    /** Returns true if not all rows have been read. */
+    public final boolean hasMoreBands() { return !closed && nextRow < textureData.getHeight(); }
+
+    /**
+     * Decodes the next band of at most <code>maxRows</code> rows.
+     * <p>
+     * The returned TextureData and its buffer are reused by the next call,
+     * they have the width of the image and the height of the band.
+     * The rows are stored bottom-to-top.
+     * The band's location within the image is given by {@link #getBandY()}.
+     * </p>
+     * @return the band, or null if all rows have been read
+     */
+    public final TextureData nextBand(int maxRows) throws IOException {
+        if( 1 > maxRows ) {
+            throw new IllegalArgumentException("Invalid band size "+maxRows);
+        }
+        if( !hasMoreBands() ) {
+            return null;
+        }
+        final int height = textureData.getHeight();
+        final int rows = Math.min(maxRows, height - nextRow);
+        if( null == bandBuffer || bandBuffer.capacity() < rows * bytesPerRow ) {
+            bandBuffer = Buffers.newDirectByteBuffer(rows * bytesPerRow);
+        }
+        for(int i=0; i<rows; i++) {
+            // file order -> bottom-to-top within the band
+            final int line = topToBottom ? rows - 1 - i : i;
+            readRow(bandBuffer, line * bytesPerRow);
+        }
+        bandY = topToBottom ? height - nextRow - rows : nextRow;
+        nextRow += rows;
+        bandBuffer.clear();
+        bandBuffer.limit(rows * bytesPerRow);
+        if( null == band ) {
+            band = new TextureData(textureData.getGLProfile(), textureData.getInternalFormat(),
+                                   textureData.getWidth(), rows, 0,
+                                   textureData.getPixelFormat(), textureData.getPixelType(),
+                                   false, false, textureData.getMustFlipVertically(),
+                                   bandBuffer, null);
+        } else {
+            band.setHeight(rows);
+            band.setBuffer(bandBuffer);
+        }
+        if( !hasMoreBands() ) {
+            close();
+        }
+        return band;
+    }
+
+    /**
+     * Returns the y offset of the last band read by {@link #nextBand(int)},
+     * relative to the lower-left corner of the image, i.e. as passed to
+     * {@link Texture#updateSubImage(javax.media.opengl.GL, TextureData, int, int, int)}.
+     */
+    public final int getBandY() { return bandY; }
+
+    /**
+     * Releases the underlying stream. Implicitly called after the last band has been read.
+     */
+    public final void close() throws IOException {
+        if( !closed ) {
+            closed = true;
+            closeImpl();
+        }
+    }
+
+    public String toString() {
+        return "TextureBandReader["+textureData+", row "+nextRow+", band-y "+bandY+", closed "+closed+"]";
+    }
+}
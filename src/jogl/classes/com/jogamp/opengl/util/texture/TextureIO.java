@@ -66,6 +66,7 @@ import com.jogamp.opengl.util.texture.spi.DDSImage;
 import com.jogamp.opengl.util.texture.spi.NetPbmTextureWriter;
 import com.jogamp.opengl.util.texture.spi.PNGImage;
 import com.jogamp.opengl.util.texture.spi.SGIImage;
+import com.jogamp.opengl.util.texture.spi.StreamingTextureProvider;
 import com.jogamp.opengl.util.texture.spi.TGAImage;
 import com.jogamp.opengl.util.texture.spi.TextureProvider;
 import com.jogamp.opengl.util.texture.spi.TextureWriter;
@@ -414,6 +415,86 @@ public class TextureIO {
         return newTextureDataImpl(glp, url, internalFormat, pixelFormat, mipmap, fileSuffix);
     }
 
+    /**
+     * Opens the given file for band-wise decoding, see {@link TextureBandReader}.
+     * Does no OpenGL work, only the image header is read.
+     * <p>
+     * Currently supports uncompressed PNG and TGA files.
+     * The returned reader must be closed, which releases the file.
+     * </p>
+     *
+     * @param glp the OpenGL Profile the texture data should be created for.
+     * @param file the file from which to read the texture data
+     * @param internalFormat the OpenGL internal format of the texture, or 0 to infer it
+     * @param pixelFormat the OpenGL pixel format of the texture, or 0 to infer it
+     * @param fileSuffix the suffix of the file name to be used as a
+     *                   hint of the file format, or null to use the file's suffix
+     * @return the band reader
+     * @throws IOException if an error occurred while reading the file,
+     *                     or if no registered provider supports the file format
+     */
+    public static TextureBandReader newTextureBandReader(GLProfile glp, File file,
+                                                         int internalFormat,
+                                                         int pixelFormat,
+                                                         String fileSuffix) throws IOException {
+        if (file == null) {
+            throw new IOException("File was null");
+        }
+        if (fileSuffix == null) {
+            fileSuffix = IOUtil.getFileSuffix(file);
+        }
+        final InputStream stream = new FileInputStream(file);
+        boolean ok = false;
+        try {
+            final TextureBandReader reader = newTextureBandReader(glp, stream, internalFormat, pixelFormat, fileSuffix);
+            ok = true;
+            return reader;
+        } finally {
+            if (!ok) {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Opens the given stream for band-wise decoding, see {@link TextureBandReader}.
+     * Does no OpenGL work, only the image header is read.
+     * The returned reader owns the stream and must be closed.
+     *
+     * @param glp the OpenGL Profile the texture data should be created for.
+     * @param stream the stream from which to read the texture data
+     * @param internalFormat the OpenGL internal format of the texture, or 0 to infer it
+     * @param pixelFormat the OpenGL pixel format of the texture, or 0 to infer it
+     * @param fileSuffix the suffix of the file name to be used as a
+     *                   hint of the file format, must not be null
+     * @return the band reader
+     * @throws IOException if an error occurred while reading the stream,
+     *                     or if no registered provider supports the file format
+     */
+    public static TextureBandReader newTextureBandReader(GLProfile glp, InputStream stream,
+                                                         int internalFormat,
+                                                         int pixelFormat,
+                                                         String fileSuffix) throws IOException {
+        if (stream == null) {
+            throw new IOException("Stream was null");
+        }
+
+        fileSuffix = toLowerCase(fileSuffix);
+
+        for (Iterator<StreamingTextureProvider> iter = streamingTextureProviders.iterator(); iter.hasNext(); ) {
+            StreamingTextureProvider provider = iter.next();
+            TextureBandReader reader = provider.newTextureBandReader(glp, stream,
+                                                                     internalFormat,
+                                                                     pixelFormat,
+                                                                     fileSuffix);
+            if (reader != null) {
+                return reader;
+            }
+        }
+
+        throw new IOException("No suitable band reader for given stream, suffix "+fileSuffix);
+    }
+
     //----------------------------------------------------------------------
     // methods that *do* require a current context
     //
@@ -723,6 +804,12 @@ public class TextureIO {
         textureProviders.add(0, provider);
     }
 
+    /** Adds a StreamingTextureProvider to support band-wise reading 
+        of a new file format. */
+    public static void addStreamingTextureProvider(StreamingTextureProvider provider) {
+        streamingTextureProviders.add(0, provider);
+    }
+
     /** Adds a TextureWriter to support writing of a new file
         format. */
     public static void addTextureWriter(TextureWriter writer) {
@@ -767,6 +854,7 @@ public class TextureIO {
 
     private static List<TextureProvider> textureProviders = new ArrayList<TextureProvider>();
     private static List<TextureWriter>   textureWriters   = new ArrayList<TextureWriter>();
+    private static List<StreamingTextureProvider> streamingTextureProviders = new ArrayList<StreamingTextureProvider>();
 
     static {
         // ImageIO provider, the fall-back, must be the first one added
@@ -788,6 +876,8 @@ public class TextureIO {
         addTextureProvider(new SGITextureProvider());
         addTextureProvider(new TGATextureProvider());
         addTextureProvider(new PNGTextureProvider());
+        addStreamingTextureProvider(new TGATextureProvider());
+        addStreamingTextureProvider(new PNGTextureProvider());
 
         // ImageIO writer, the fall-back, must be the first one added
         if(GLProfile.isAWTAvailable()) {
@@ -949,7 +1039,6 @@ public class TextureIO {
                                            int internalFormat,
                                            int pixelFormat,
                                            boolean mipmap) {
-            DDSImage.ImageInfo info = image.getMipMap(0);
             if (pixelFormat == 0) {
                 switch (image.getPixelFormat()) {
                 case DDSImage.D3DFMT_R8G8B8:
@@ -960,8 +1049,8 @@ public class TextureIO {
                     break;
                 }
             }
-            if (info.isCompressed()) {
-                switch (info.getCompressionFormat()) {
+            if (image.isCompressed()) {
+                switch (image.getCompressionFormat()) {
                 case DDSImage.D3DFMT_DXT1:
                     internalFormat = GL.GL_COMPRESSED_RGB_S3TC_DXT1_EXT;
                     break;
@@ -973,7 +1062,7 @@ public class TextureIO {
                     break;
                 default:
                     throw new RuntimeException("Unsupported DDS compression format \"" +
-                                               DDSImage.getCompressionFormatName(info.getCompressionFormat()) + "\"");
+                                               DDSImage.getCompressionFormatName(image.getCompressionFormat()) + "\"");
                 }
             }
             if (internalFormat == 0) {
@@ -986,44 +1075,65 @@ public class TextureIO {
                     break;
                 }
             }
-            TextureData.Flusher flusher = new TextureData.Flusher() {
-                    public void flush() {
-                        image.close();
-                    }
-                };
-            TextureData data;
-            if (mipmap && image.getNumMipMaps() > 0) {
-                Buffer[] mipmapData = new Buffer[image.getNumMipMaps()];
-                for (int i = 0; i < image.getNumMipMaps(); i++) {
-                    mipmapData[i] = image.getMipMap(i).getData();
-                }
-                data = new TextureData(glp, internalFormat,
-                                       info.getWidth(),
-                                       info.getHeight(),
-                                       0,
-                                       pixelFormat,
-                                       GL.GL_UNSIGNED_BYTE,
-                                       info.isCompressed(),
-                                       true,
-                                       mipmapData,
-                                       flusher);
-            } else {
+            if (!(mipmap && image.getNumMipMaps() > 0)) {
                 // Fix this up for the end user because we can't generate
                 // mipmaps for compressed textures
                 mipmap = false;
-                data = new TextureData(glp, internalFormat,
-                                       info.getWidth(),
-                                       info.getHeight(),
-                                       0,
-                                       pixelFormat,
-                                       GL.GL_UNSIGNED_BYTE,
-                                       mipmap,
-                                       info.isCompressed(),
-                                       true,
-                                       info.getData(),
-                                       flusher);
             }
-            return data;
+            return new DDSTextureData(glp, image, internalFormat, pixelFormat,
+                                      mipmap ? image.getNumMipMaps() : 0);
+        }
+    }
+
+    /** TextureData referencing the (memory-mapped) DDSImage,
+        the mipmap levels are sliced lazily at upload. */
+    static class DDSTextureData extends TextureData {
+        private DDSImage image;
+        private final int numMipMaps;
+        private Buffer[] mipmapData;
+
+        /** @param numMipMaps number of mipmap levels to upload, or 0 for the topmost level only */
+        DDSTextureData(GLProfile glp, DDSImage image, int internalFormat, int pixelFormat, int numMipMaps) {
+            super(glp);
+            this.image = image;
+            this.numMipMaps = numMipMaps;
+            this.internalFormat = internalFormat;
+            this.pixelFormat = pixelFormat;
+            this.pixelType = GL.GL_UNSIGNED_BYTE;
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            this.mipmap = false;
+            this.mustFlipVertically = true;
+            this.alignment = 1;
+            setIsDataCompressed(image.isCompressed());
+            estimatedMemorySize = numMipMaps > 0 ? image.getSideSizeInBytes() : image.getMipMapData(0, 0).capacity();
+        }
+
+        public Buffer getBuffer() {
+            if (buffer == null && numMipMaps == 0 && image != null) {
+                buffer = image.getMipMapData(0, 0);
+            }
+            return buffer;
+        }
+
+        public Buffer[] getMipmapData() {
+            if (mipmapData == null && numMipMaps > 0 && image != null) {
+                Buffer[] data = new Buffer[numMipMaps];
+                for (int i = 0; i < numMipMaps; i++) {
+                    data[i] = image.getMipMapData(0, i);
+                }
+                mipmapData = data;
+            }
+            return mipmapData;
+        }
+
+        public void flush() {
+            if (image != null) {
+                image.close();
+                image = null;
+            }
+            buffer = null;
+            mipmapData = null;
         }
     }
 
@@ -1101,7 +1211,17 @@ public class TextureIO {
 
     //----------------------------------------------------------------------
     // TGA (Targa) image provider
-    static class TGATextureProvider extends StreamBasedTextureProvider {
+    static class TGATextureProvider extends StreamBasedTextureProvider implements StreamingTextureProvider {
+        public TextureBandReader newTextureBandReader(GLProfile glp, InputStream stream,
+                                                      int internalFormat,
+                                                      int pixelFormat,
+                                                      String fileSuffix) throws IOException {
+            if (TGA.equals(fileSuffix)) {
+                return TGAImage.newBandReader(glp, stream, internalFormat, pixelFormat);
+            }
+            return null;
+        }
+
         public TextureData newTextureData(GLProfile glp, InputStream stream,
                                           int internalFormat,
                                           int pixelFormat,
@@ -1138,7 +1258,17 @@ public class TextureIO {
 
     //----------------------------------------------------------------------
     // PNG image provider
-    static class PNGTextureProvider extends StreamBasedTextureProvider {
+    static class PNGTextureProvider extends StreamBasedTextureProvider implements StreamingTextureProvider {
+        public TextureBandReader newTextureBandReader(GLProfile glp, InputStream stream,
+                                                      int internalFormat,
+                                                      int pixelFormat,
+                                                      String fileSuffix) throws IOException {
+            if (PNG.equals(fileSuffix)) {
+                return PNGImage.newBandReader(glp, stream, internalFormat, pixelFormat);
+            }
+            return null;
+        }
+
         public TextureData newTextureData(GLProfile glp, InputStream stream,
                                           int internalFormat,
                                           int pixelFormat,
@@ -1150,11 +1280,7 @@ public class TextureIO {
                     pixelFormat = image.getGLFormat();
                 }
                 if (internalFormat == 0) {
-                    if(glp.isGL2GL3()) {
-                        internalFormat = (image.getBytesPerPixel()==4)?GL.GL_RGBA8:GL.GL_RGB8;
-                    } else {
-                        internalFormat = (image.getBytesPerPixel()==4)?GL.GL_RGBA:GL.GL_RGB;
-                    }
+                    internalFormat = image.getGLInternalFormat(glp);
                 }
                 return new TextureData(glp, internalFormat,
                                        image.getWidth(),
@@ -0,0 +1,518 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.texture;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.PriorityQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.media.opengl.GLAutoDrawable;
+import javax.media.opengl.GLProfile;
+import javax.media.opengl.GLRunnable;
+
+import jogamp.opengl.Debug;
+
+/**
+ * Asynchronous texture loader.
+ * <p>
+ * Images are decoded to {@link TextureData} on a pool of worker threads
+ * via the {@link TextureIO} provider chain, hence no OpenGL work is performed there.
+ * Decoded data is uploaded on the GL thread of the given {@link GLAutoDrawable}
+ * via {@link GLAutoDrawable#invoke(boolean, GLRunnable)}, i.e. within the next
+ * {@link GLAutoDrawable#display() display()} calls.
+ * Per frame, uploads stop once the upload time budget has been exceeded,
+ * the remaining ones are deferred to the next frame. At least one texture is uploaded per frame.
+ * </p>
+ * <p>
+ * Requests with a higher priority are decoded and uploaded first,
+ * requests of equal priority in submission order.
+ * </p>
+ * <p>
+ * The upload budget is a per frame budget only if an animator renders the drawable
+ * on another thread. Otherwise {@link GLAutoDrawable#invoke(boolean, GLRunnable) invoke}
+ * issues an extra {@link GLAutoDrawable#display() display()} call on an internal thread for each
+ * scheduled upload batch, i.e. the budget merely slices the uploads into consecutive
+ * display calls and does not spread them over the application's frames.
+ * </p>
+ * <p>
+ * After {@link #dispose()}, all unfinished requests are cancelled and new requests are rejected.
+ * </p>
+ * <p>
+ * Usage:
+ * <pre>
+ *   final TextureLoader loader = new TextureLoader(glWindow, 2, 4000000L); // 4ms per frame
+ *   final TextureLoader.Request req = loader.load(file, true, null, 0, null);
+ *   ..
+ *   if( req.isDone() ) {
+ *       final Texture tex = req.get(); // in the GL thread
+ *   }
+ *   ..
+ *   loader.dispose();
+ * </pre>
+ * </p>
+ */
+public class TextureLoader {
+    private static final boolean DEBUG = Debug.debug("TextureLoader");
+
+    /**
+     * Notified on the GL thread after the texture has been uploaded,
+     * or on an arbitrary thread if loading failed.
+     */
+    public static interface Listener {
+        /** Called on the GL thread, the context is current. */
+        void textureLoaded(GLAutoDrawable drawable, Request request, Texture texture);
+
+        /** Called if decoding or uploading failed, not called for cancelled requests. */
+        void textureFailed(Request request, Throwable cause);
+    }
+
+    /** Decodes the TextureData on a worker thread. */
+    private static interface Source {
+        TextureData decode(GLProfile glp) throws IOException;
+    }
+
+    private static final int PENDING   = 0;
+    private static final int DECODED   = 1;
+    private static final int DONE      = 2;
+    private static final int FAILED    = 3;
+    private static final int CANCELLED = 4;
+
+    /**
+     * A pending texture load, the {@link Future} result is the uploaded {@link Texture}.
+     */
+    public class Request implements Future<Texture>, Runnable, Comparable<Request> {
+        private final Source source;
+        private final int priority;
+        private final long sequence;
+        private final Listener listener;
+        private final String name;
+        private int state = PENDING;
+        private TextureData data;
+        private Texture texture;
+        private Throwable cause;
+
+        Request(Source source, int priority, Listener listener, String name) {
+            this.source = source;
+            this.priority = priority;
+            this.sequence = sequenceCounter.getAndIncrement();
+            this.listener = listener;
+            this.name = name;
+        }
+
+        public final int getPriority() { return priority; }
+
+        /** Higher priority first, FIFO for equal priority. */
+        public final int compareTo(Request o) {
+            if( priority != o.priority ) {
+                return priority > o.priority ? -1 : 1;
+            }
+            return sequence < o.sequence ? -1 : ( sequence > o.sequence ? 1 : 0 );
+        }
+
+        /** Decoding, executed by a worker thread. */
+        public final void run() {
+            synchronized(this) {
+                if( PENDING != state ) {
+                    return;
+                }
+            }
+            TextureData d = null;
+            Throwable t = null;
+            try {
+                d = source.decode(glp);
+                if( null == d ) {
+                    t = new IOException("No suitable reader for "+name);
+                }
+            } catch (Throwable e) {
+                t = e;
+            }
+            if( null != t && isDisposed() ) {
+                // interrupted by dispose()
+                cancel(false);
+                return;
+            }
+            synchronized(this) {
+                if( PENDING != state ) {
+                    // cancelled while decoding
+                    if( null != d ) {
+                        d.flush();
+                    }
+                    return;
+                }
+                if( null != t ) {
+                    setResult(FAILED, null, t);
+                } else {
+                    data = d;
+                    state = DECODED;
+                }
+            }
+            if( null != t ) {
+                if( null != listener ) {
+                    listener.textureFailed(this, t);
+                }
+            } else {
+                enqueueUpload(this);
+            }
+        }
+
+        /** Uploading, executed on the GL thread */
+        final void upload(GLAutoDrawable drawable) {
+            final TextureData d;
+            synchronized(this) {
+                if( DECODED != state ) {
+                    return;
+                }
+                d = data;
+                data = null;
+            }
+            Texture tex = null;
+            Throwable t = null;
+            try {
+                tex = TextureIO.newTexture(drawable.getGL(), d);
+            } catch (Throwable e) {
+                t = e;
+            } finally {
+                d.flush();
+            }
+            synchronized(this) {
+                if( DECODED != state ) {
+                    // cancelled concurrently
+                    if( null != tex ) {
+                        tex.destroy(drawable.getGL());
+                    }
+                    return;
+                }
+                if( null != t ) {
+                    setResult(FAILED, null, t);
+                } else {
+                    setResult(DONE, tex, null);
+                }
+            }
+            if( null != listener ) {
+                if( null != t ) {
+                    listener.textureFailed(this, t);
+                } else {
+                    listener.textureLoaded(drawable, this, tex);
+                }
+            }
+        }
+
+        private void setResult(int state, Texture texture, Throwable cause) {
+            this.state = state;
+            this.texture = texture;
+            this.cause = cause;
+            notifyAll();
+        }
+
+        /**
+         * Cancels this request if it has not been uploaded yet.
+         * Decoded data is released, the <code>mayInterruptIfRunning</code> argument is ignored.
+         */
+        public final boolean cancel(boolean mayInterruptIfRunning) {
+            final TextureData d;
+            synchronized(this) {
+                if( PENDING != state && DECODED != state ) {
+                    return false;
+                }
+                d = data;
+                data = null;
+                setResult(CANCELLED, null, null);
+            }
+            workers.remove(this);
+            synchronized(uploadQueue) {
+                uploadQueue.remove(this);
+            }
+            if( null != d ) {
+                d.flush();
+            }
+            return true;
+        }
+
+        public final synchronized boolean isCancelled() { return CANCELLED == state; }
+
+        public final synchronized boolean isDone() { return DONE <= state; }
+
+        public final synchronized Texture get() throws InterruptedException, ExecutionException {
+            while( DONE > state ) {
+                wait();
+            }
+            return getResult();
+        }
+
+        public final synchronized Texture get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            final long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while( DONE > state ) {
+                final long left = deadline - System.nanoTime();
+                if( 0 >= left ) {
+                    throw new TimeoutException("Texture not loaded: "+name);
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, left);
+            }
+            return getResult();
+        }
+
+        private Texture getResult() throws ExecutionException {
+            switch( state ) {
+                case CANCELLED: throw new CancellationException("Cancelled: "+name);
+                case FAILED: throw new ExecutionException(cause);
+                default: return texture;
+            }
+        }
+
+        public String toString() {
+            return "TextureLoader.Request["+name+", prio "+priority+", state "+state+"]";
+        }
+    }
+
+    private final GLAutoDrawable drawable;
+    private final GLProfile glp;
+    private final long uploadBudgetNanos;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService invoker;
+    private final PriorityQueue<Request> uploadQueue = new PriorityQueue<Request>();
+    private final AtomicLong sequenceCounter = new AtomicLong();
+    private boolean uploadScheduled = false; // guarded by uploadQueue
+    private boolean disposed = false; // guarded by uploadQueue
+
+    private final GLRunnable uploader = new GLRunnable() {
+        public boolean run(GLAutoDrawable drawable) {
+            final long t0 = System.nanoTime();
+            int count = 0;
+            while( true ) {
+                final Request r;
+                synchronized(uploadQueue) {
+                    if( 0 < count && System.nanoTime() - t0 >= uploadBudgetNanos ) {
+                        // budget exhausted, continue next frame
+                        if( !uploadQueue.isEmpty() && !disposed ) {
+                            scheduleUpload();
+                        } else {
+                            uploadScheduled = false;
+                        }
+                        break;
+                    }
+                    r = uploadQueue.poll();
+                    if( null == r ) {
+                        uploadScheduled = false;
+                        break;
+                    }
+                }
+                r.upload(drawable);
+                count++;
+            }
+            if( DEBUG ) {
+                System.err.println("TextureLoader: uploaded "+count+" in "+(System.nanoTime()-t0)/1000+" us");
+            }
+            return true;
+        }
+    };
+
+    /**
+     * @param drawable the drawable used to upload the textures
+     * @param threads number of decoding worker threads
+     * @param uploadBudgetNanos maximum time spent per frame to upload textures in nanoseconds,
+     *                          requires an animator, see {@link TextureLoader}
+     */
+    public TextureLoader(GLAutoDrawable drawable, int threads, long uploadBudgetNanos) {
+        if( 1 > threads ) {
+            throw new IllegalArgumentException("Invalid number of threads "+threads);
+        }
+        this.drawable = drawable;
+        this.glp = drawable.getGLProfile();
+        this.uploadBudgetNanos = uploadBudgetNanos;
+        this.workers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                                              new PriorityBlockingQueue<Runnable>(),
+                                              new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                final Thread t = new Thread(r, "TextureLoader");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        this.invoker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                final Thread t = new Thread(r, "TextureLoader-Invoker");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Loads the texture from the given file, see {@link TextureIO#newTextureData(GLProfile, File, boolean, String)}.
+     * @param listener optional listener, may be null
+     */
+    public Request load(final File file, final boolean mipmap, final String fileSuffix, int priority, Listener listener) {
+        return submit(new Source() {
+            public TextureData decode(GLProfile glp) throws IOException {
+                return TextureIO.newTextureData(glp, file, mipmap, fileSuffix);
+            }
+        }, priority, listener, file.getPath());
+    }
+
+    /**
+     * Loads the texture from the given URL, see {@link TextureIO#newTextureData(GLProfile, URL, boolean, String)}.
+     * @param listener optional listener, may be null
+     */
+    public Request load(final URL url, final boolean mipmap, final String fileSuffix, int priority, Listener listener) {
+        return submit(new Source() {
+            public TextureData decode(GLProfile glp) throws IOException {
+                return TextureIO.newTextureData(glp, url, mipmap, fileSuffix);
+            }
+        }, priority, listener, url.toExternalForm());
+    }
+
+    /**
+     * Loads the texture from the given stream, see {@link TextureIO#newTextureData(GLProfile, InputStream, boolean, String)}.
+     * The stream is read on a worker thread and closed afterwards.
+     * @param listener optional listener, may be null
+     */
+    public Request load(final InputStream stream, final boolean mipmap, final String fileSuffix, int priority, Listener listener) {
+        return submit(new Source() {
+            public TextureData decode(GLProfile glp) throws IOException {
+                try {
+                    return TextureIO.newTextureData(glp, stream, mipmap, fileSuffix);
+                } finally {
+                    stream.close();
+                }
+            }
+        }, priority, listener, "stream."+fileSuffix);
+    }
+
+    /**
+     * @throws IllegalStateException if this loader has been disposed
+     */
+    private Request submit(Source source, int priority, Listener listener, String name) {
+        synchronized(uploadQueue) {
+            if( disposed ) {
+                throw new IllegalStateException("TextureLoader disposed, rejected "+name);
+            }
+        }
+        final Request r = new Request(source, priority, listener, name);
+        try {
+            workers.execute(r);
+        } catch (RejectedExecutionException ree) {
+            // disposed concurrently
+            r.cancel(false);
+            throw new IllegalStateException("TextureLoader disposed, rejected "+name);
+        }
+        return r;
+    }
+
+    /** Called by a worker after decoding. Once disposed, the request is cancelled instead. */
+    private void enqueueUpload(Request r) {
+        synchronized(uploadQueue) {
+            if( !disposed ) {
+                uploadQueue.add(r);
+                if( !uploadScheduled ) {
+                    scheduleUpload();
+                }
+                return;
+            }
+        }
+        r.cancel(false);
+    }
+
+    /**
+     * Issues the uploader via {@link GLAutoDrawable#invoke(boolean, GLRunnable)} from the invoker thread:
+     * invoke issues a {@link GLAutoDrawable#display() display()} call on the calling thread
+     * if no animator is running on another thread, which shall neither block a worker
+     * nor happen recursively within the uploader.
+     * Caller holds the uploadQueue lock.
+     */
+    private void scheduleUpload() {
+        uploadScheduled = true;
+        invoker.execute(invokeUploader);
+    }
+
+    private final Runnable invokeUploader = new Runnable() {
+        public void run() {
+            if( !drawable.invoke(false, uploader) ) {
+                synchronized(uploadQueue) {
+                    uploadScheduled = false;
+                }
+            }
+        }
+    };
+
+    /** Returns the number of requests waiting to be decoded. */
+    public int getPendingDecodes() {
+        return workers.getQueue().size();
+    }
+
+    /** Returns the number of decoded requests waiting to be uploaded. */
+    public int getPendingUploads() {
+        synchronized(uploadQueue) {
+            return uploadQueue.size();
+        }
+    }
+
+    /**
+     * Cancels all unfinished requests, i.e. waiting for decoding, being decoded
+     * or waiting for upload, and stops the worker threads.
+     * Their {@link Request#get()} throws a {@link CancellationException}.
+     * New requests are rejected afterwards.
+     */
+    public void dispose() {
+        final Request[] uploads;
+        synchronized(uploadQueue) {
+            if( disposed ) {
+                return;
+            }
+            disposed = true; // requests being decoded cancel themselves, see enqueueUpload(..)
+            uploads = uploadQueue.toArray(new Request[uploadQueue.size()]);
+        }
+        for(Runnable r : workers.shutdownNow()) {
+            ((Request)r).cancel(false);
+        }
+        for(int i=0; i<uploads.length; i++) {
+            uploads[i].cancel(false);
+        }
+        invoker.shutdown();
+    }
+
+    /** Returns true if {@link #dispose()} has been called. */
+    public boolean isDisposed() {
+        synchronized(uploadQueue) {
+            return disposed;
+        }
+    }
+}
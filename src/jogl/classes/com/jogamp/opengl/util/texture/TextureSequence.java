@@ -110,16 +110,27 @@ public interface TextureSequence {
      * to associated related data. 
      */
     public static class TextureFrame {
+        /** Invalid presentation time stamp, i.e. the frame is not associated with a stream position. */
+        public static final int INVALID_PTS = Integer.MIN_VALUE;
+        
         public TextureFrame(Texture t) {
             texture = t;
+            pts = INVALID_PTS;
         }
         
         public final Texture getTexture() { return texture; }
         
+        /** Returns the presentation time stamp of the content in milliseconds, or {@link #INVALID_PTS}. */
+        public final int getPTS() { return pts; }
+        
+        /** Sets the presentation time stamp of the content in milliseconds, see {@link #getPTS()}. */
+        public final void setPTS(int pts) { this.pts = pts; }
+        
         public String toString() {
-            return "TextureFrame[" + texture + "]";
+            return "TextureFrame[pts " + pts + " ms, " + texture + "]";
         }
         protected final Texture texture;
+        protected int pts;
     }
 
     public interface TexSeqEventListener<T extends TextureSequence> {
@@ -49,6 +49,7 @@ import java.io.PrintStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
+import java.util.HashMap;
 
 import javax.media.opengl.GL;
 
@@ -88,10 +89,10 @@ public class DDSImage {
         }
     }
 
-    private FileInputStream fis;
-    private FileChannel     chan;
+    private MappedFile mappedFile;
     private ByteBuffer buf;
     private Header header;
+    private int[] mipMapOffsets; // lazily computed, relative to the side's start
 
     //
     // Selected bits in header flags
@@ -169,6 +170,12 @@ public class DDSImage {
   
     /** Reads a DirectDraw surface from the specified file, returning
         the resulting DDSImage.
+        <p>
+        The file is memory-mapped read-only and the mapping is shared
+        between all DDSImages read from the same file, see {@link #close()}.
+        No image data is copied, {@link #getMipMap(int, int)} returns slices
+        of the mapped region.
+        </p>
 
         @param file File object
         @return DDS image object
@@ -195,20 +202,21 @@ public class DDSImage {
 
     /** Closes open files and resources associated with the open
         DDSImage. No other methods may be called on this object once
-        this is called. */
+        this is called. A shared file mapping is released
+        once the last DDSImage using it has been closed. */
     public void close() {
-        try {
-            if (chan != null) {
-                chan.close();
-                chan = null;
-            }
-            if (fis != null) {
-                fis.close();
-                fis = null;
-            }
-            buf = null;
-        } catch (IOException e) {
-            e.printStackTrace();
+        if (mappedFile != null) {
+            mappedFile.release();
+            mappedFile = null;
+        }
+        buf = null;
+    }
+
+    /** Returns the number of file mappings currently shared by
+        DDSImages read via {@link #read(File)}. */
+    public static int getSharedMappingCount() {
+        synchronized (mappedFiles) {
+            return mappedFiles.size();
         }
     }
 
@@ -291,8 +299,9 @@ public class DDSImage {
         header.write(hdr);
         hdr.rewind();
         chan.write(hdr);
-        buf.position(Header.writtenSize());
-        chan.write(buf);
+        ByteBuffer data = buf.duplicate();
+        data.position(Header.writtenSize());
+        chan.write(data);
         chan.force(true);
         chan.close();
         stream.close();
@@ -424,20 +433,42 @@ public class DDSImage {
             throw new RuntimeException("Illegal mipmap number " + map + " (0.." + (getNumMipMaps() - 1) + ")");
         }
 
-        // Figure out how far to seek
-        int seek = Header.writtenSize();
+        return new ImageInfo(getMipMapData(side, map), mipMapWidth(map), mipMapHeight(map), isCompressed(), getCompressionFormat());
+    }
+
+    /**
+     * Returns a slice of the <i>i</i>th mipmap data (0..getNumMipMaps() - 1)
+     * without copying, suitable to be passed to glCompressedTexImage2D.
+     * Unlike {@link #getMipMap(int, int)} no validation of the arguments
+     * is performed. The backing buffer is not modified, hence this method
+     * may be called from multiple threads.
+     * @param side Cubemap side or 0 for 2D texture
+     * @param map Mipmap index
+     * @return Image data
+     */
+    public ByteBuffer getMipMapData(int side, int map) {
+        if (mipMapOffsets == null) {
+            int numLevels = Math.max(1, getNumMipMaps());
+            int[] offsets = new int[numLevels + 1];
+            for (int i = 0; i < numLevels; i++) {
+                offsets[i + 1] = offsets[i] + mipMapSizeInBytes(i);
+            }
+            mipMapOffsets = offsets;
+        }
+        int seek = Header.writtenSize() + mipMapOffsets[map];
         if (isCubemap()) {
             seek += sideShiftInBytes(side);
         }
-        for (int i = 0; i < map; i++) {
-            seek += mipMapSizeInBytes(i);
-        }
-        buf.limit(seek + mipMapSizeInBytes(map));
-        buf.position(seek);
-        ByteBuffer next = buf.slice();
-        buf.position(0);
-        buf.limit(buf.capacity());
-        return new ImageInfo(next, mipMapWidth(map), mipMapHeight(map), isCompressed(), getCompressionFormat());
+        ByteBuffer next = buf.duplicate();
+        next.limit(seek + mipMapOffsets[map + 1] - mipMapOffsets[map]);
+        next.position(seek);
+        return next.slice();
+    }
+
+    /** Size in bytes of all mipmap levels of one side, i.e. of the
+        whole image data if this is not a cubemap. */
+    public int getSideSizeInBytes() {
+        return sideSizeInBytes();
     }
 
     /** Returns an array of ImageInfos corresponding to all mipmap
@@ -723,21 +754,74 @@ public class DDSImage {
     }
 
     private void readFromFile(File file) throws IOException {
-        fis = new FileInputStream(file);
-        chan = fis.getChannel();
-        ByteBuffer buf = chan.map(FileChannel.MapMode.READ_ONLY,
-                                  0, (int) file.length());
-        readFromBuffer(buf);
+        MappedFile mf = MappedFile.acquire(file);
+        try {
+            readFromBuffer(mf.buf);
+        } catch (IOException e) {
+            mf.release();
+            throw e;
+        }
+        mappedFile = mf;
     }
 
     private void readFromBuffer(ByteBuffer buf) throws IOException {
-        this.buf = buf;
-        buf.order(ByteOrder.LITTLE_ENDIAN);
+        // own view, the buffer may be shared with other DDSImages
+        this.buf = buf.duplicate();
+        this.buf.order(ByteOrder.LITTLE_ENDIAN);
         header = new Header();
-        header.read(buf);
+        header.read(this.buf);
+        this.buf.rewind();
         fixupHeader();
     }
 
+    private static final HashMap<String, MappedFile> mappedFiles = new HashMap<String, MappedFile>();
+
+    /** A read-only file mapping shared by all DDSImages of the same file,
+        released when the last one is closed. */
+    private static class MappedFile {
+        final String path;
+        final long length;
+        final long lastModified;
+        final ByteBuffer buf;
+        int refCount;
+
+        private MappedFile(String path, long length, long lastModified, ByteBuffer buf) {
+            this.path = path; this.length = length; this.lastModified = lastModified; this.buf = buf;
+        }
+
+        static MappedFile acquire(File file) throws IOException {
+            final String path = file.getCanonicalPath();
+            final long length = file.length();
+            final long lastModified = file.lastModified();
+            synchronized (mappedFiles) {
+                MappedFile mf = mappedFiles.get(path);
+                if (mf == null || mf.length != length || mf.lastModified != lastModified) {
+                    // a modified file gets a new mapping, the stale one is kept alive by its users
+                    FileInputStream fis = new FileInputStream(file);
+                    try {
+                        // the mapping stays valid after the channel has been closed
+                        FileChannel chan = fis.getChannel();
+                        mf = new MappedFile(path, length, lastModified,
+                                            chan.map(FileChannel.MapMode.READ_ONLY, 0, length));
+                    } finally {
+                        fis.close();
+                    }
+                    mappedFiles.put(path, mf);
+                }
+                mf.refCount++;
+                return mf;
+            }
+        }
+
+        void release() {
+            synchronized (mappedFiles) {
+                if (--refCount == 0 && mappedFiles.get(path) == this) {
+                    mappedFiles.remove(path);
+                }
+            }
+        }
+    }
+
     private void initFromData(int d3dFormat,
                               int width,
                               int height,
@@ -9,6 +9,8 @@ import java.io.OutputStream;
 import java.nio.ByteBuffer;
 
 import javax.media.opengl.GL;
+import javax.media.opengl.GL2GL3;
+import javax.media.opengl.GLProfile;
 
 import jogamp.opengl.util.pngj.ImageInfo;
 import jogamp.opengl.util.pngj.ImageLine;
@@ -18,6 +20,8 @@ import jogamp.opengl.util.pngj.chunks.PngChunkTextVar;
 
 import com.jogamp.common.nio.Buffers;
 import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.util.texture.TextureBandReader;
+import com.jogamp.opengl.util.texture.TextureData;
 
 
 public class PNGImage {    
@@ -29,21 +33,47 @@ public class PNGImage {
         return new PNGImage(width, height, dpiX, dpiY, bytesPerPixel, reversedChannels, data);
     }
     
-    /** Reads a PNG image from the specified InputStream. */
+    /** 
+     * Reads a PNG image from the specified InputStream. 
+     * <p>
+     * All PNG formats are supported, including interlaced images. Indexed images are expanded to RGB[A], 
+     * grey with alpha to LUMINANCE_ALPHA and 16 bit samples are reduced to 8 bit.
+     * </p>
+     */
     public static PNGImage read(InputStream in) throws IOException {
-        return new PNGImage(in);
+        return new PNGImage(in, null, false, false);
+    }
+    
+    /** 
+     * Reads a PNG image from the specified InputStream into the given buffer. 
+     * <p>
+     * Rows are unfiltered and copied straight into <code>dest</code>, starting at its current position, 
+     * without any intermediate <code>int</code> scanline. The buffer's position and limit are not modified. 
+     * This allows decoding into a pooled or pre-allocated direct buffer.
+     * </p>
+     * @param in the PNG stream
+     * @param dest the destination buffer with at least {@link #getBytesPerPixel()} * width * height 
+     *             remaining bytes, or <code>null</code> to allocate a new direct buffer.
+     * @param reversedChannels if true, RGB[A] data is stored as BGR[A], see {@link #getHasReversedChannels()}
+     */
+    public static PNGImage read(InputStream in, ByteBuffer dest, boolean reversedChannels) throws IOException {
+        return new PNGImage(in, dest, reversedChannels, false);
+    }
+    
+    /** 
+     * Reads a PNG image from the specified InputStream into the given buffer,
+     * see {@link #read(InputStream, ByteBuffer, boolean)}.
+     * <p>
+     * If <code>keep16Bits</code> is true, 16 bit images are not reduced to 8 bit
+     * but stored as {@link GL#GL_UNSIGNED_SHORT GL_UNSIGNED_SHORT} in the byte order of <code>dest</code>, 
+     * which shall be the native byte order. Channels of 16 bit images are never reversed.
+     * </p>
+     * @see #getGLType()
+     */
+    public static PNGImage read(InputStream in, ByteBuffer dest, boolean reversedChannels, boolean keep16Bits) throws IOException {
+        return new PNGImage(in, dest, reversedChannels, keep16Bits);
     }
     
-    /** Reverse read and store, implicitly flip image to GL coords. */
-    private static final int getPixelRGBA8(ByteBuffer d, int dOff, ImageLine line, int lineOff, boolean hasAlpha) {
-        if(hasAlpha) {
-            d.put(dOff--, (byte)line.scanline[lineOff + 3]); // A
-        }
-        d.put(dOff--, (byte)line.scanline[lineOff + 2]); // B
-        d.put(dOff--, (byte)line.scanline[lineOff + 1]); // G        
-        d.put(dOff--, (byte)line.scanline[lineOff    ]); // R
-        return dOff;
-    }    
     /** Reverse read and store, implicitly flip image from GL coords. Handle reversed channels (BGR[A])*/
     private static int setPixelRGBA8(ImageLine line, int lineOff, ByteBuffer d, int dOff, boolean hasAlpha, boolean reversedChannels) {
         if(reversedChannels) {
@@ -75,24 +105,82 @@ public class PNGImage {
         } else {
             throw new InternalError("XXX: bytesPerPixel "+bytesPerPixel);
         }
+        glType = GL.GL_UNSIGNED_BYTE;
         this.bytesPerPixel = bytesPerPixel;
         this.reversedChannels = reversedChannels;
         this.data = data;        
     }
     
-    private PNGImage(InputStream in) {
-        final PngReader pngr = new PngReader(new BufferedInputStream(in), null);
-        final int channels = pngr.imgInfo.channels;
-        if ( ! ( 1 == channels || 3 == channels || 4 == channels ) ) {
-            throw new RuntimeException("PNGImage can only handle Lum/RGB/RGBA [1/3/4 channels] images for now. Channels "+channels);
+    /** Sets up the expansion of all PNG formats to LUMINANCE[_ALPHA] or RGB[A], returns the number of channels */
+    private static int setupOutput(PngReader pngr, boolean keep16Bits) {
+        pngr.setOutputTransform(true, !keep16Bits);
+        return pngr.getOutputChannels();
+    }
+    
+    private static int getGLFormat(int channels) {
+        switch(channels) {
+            case 1: return GL.GL_LUMINANCE;
+            case 2: return GL.GL_LUMINANCE_ALPHA;
+            case 3: return GL.GL_RGB;
+            case 4: return GL.GL_RGBA;
+            default: throw new InternalError("XXX: channels: "+channels);
         }
-        bytesPerPixel=pngr.imgInfo.bytesPixel;
-        if ( ! ( 1 == bytesPerPixel || 3 == bytesPerPixel || 4 == bytesPerPixel ) ) {
-            throw new RuntimeException("PNGImage can only handle Lum/RGB/RGBA [1/3/4 bpp] images for now. BytesPerPixel "+bytesPerPixel);
+    }
+    
+    private static int getGLInternalFormat(GLProfile glp, int channels, boolean sixteenBits) {
+        final boolean alpha = 2 == channels || 4 == channels;
+        if(glp.isGL2GL3()) {
+            if( sixteenBits ) {
+                return alpha ? GL2GL3.GL_RGBA16 : GL2GL3.GL_RGB16;
+            }
+            return alpha ? GL.GL_RGBA8 : GL.GL_RGB8;
+        } else {
+            // ES: internalformat must match format, incl. GL_LUMINANCE and GL_LUMINANCE_ALPHA
+            return getGLFormat(channels);
         }
-        if(channels != bytesPerPixel) {
-            throw new RuntimeException("PNGImage currently only handles Channels [1/3/4] == BytePerPixel [1/3/4], channels: "+channels+", bytesPerPixel "+bytesPerPixel);
+    }
+    
+    /**
+     * Opens a PNG image from the specified InputStream for band-wise decoding,
+     * see {@link TextureBandReader}. Only the header is read here.
+     * 
+     * @param glp the OpenGL Profile the texture data is created for
+     * @param in the PNG stream, closed by {@link TextureBandReader#close()}
+     * @param internalFormat the OpenGL internal format, or 0 to infer it
+     * @param pixelFormat the OpenGL pixel format, or 0 to infer it
+     */
+    public static TextureBandReader newBandReader(GLProfile glp, InputStream in, int internalFormat, int pixelFormat) {
+        final PngReader pngr = new PngReader(new BufferedInputStream(in), null);
+        final int channels = setupOutput(pngr, false);
+        if (pixelFormat == 0) {
+            pixelFormat = getGLFormat(channels);
         }
+        if (internalFormat == 0) {
+            internalFormat = getGLInternalFormat(glp, channels, false);
+        }
+        final TextureData texData = new TextureData(glp, internalFormat, pngr.imgInfo.cols, pngr.imgInfo.rows, 0, 
+                                                    pixelFormat, GL.GL_UNSIGNED_BYTE, false, false, false, null, null);
+        return new TextureBandReader(texData, channels, true /* topToBottom */) {
+            private int row = 0;
+            protected void readRow(ByteBuffer dst, int dstOff) {
+                pngr.readRowToBuffer(row++, dst, dstOff, false);
+            }
+            protected void closeImpl() {
+                if( row == pngr.imgInfo.rows ) {
+                    pngr.end(); // closes stream
+                } else {
+                    pngr.close();
+                }
+            }
+        };
+    }
+    
+    private PNGImage(InputStream in, ByteBuffer dest, boolean reversedChannels, boolean keep16Bits) {
+        final PngReader pngr = new PngReader(new BufferedInputStream(in), null);
+        final int channels = setupOutput(pngr, keep16Bits);
+        final boolean sixteenBits = 16 == pngr.getOutputBitDepth();
+        glType = sixteenBits ? GL.GL_UNSIGNED_SHORT : GL.GL_UNSIGNED_BYTE;
+        bytesPerPixel = channels * ( sixteenBits ? 2 : 1 );
         pixelWidth=pngr.imgInfo.cols;
         pixelHeight=pngr.imgInfo.rows;
         dpi = new double[2];
@@ -101,36 +189,45 @@ public class PNGImage {
             dpi[0]=dpi2[0];
             dpi[1]=dpi2[1];
         }
-        switch(channels) {
-            case 1: glFormat = GL.GL_LUMINANCE; break;
-            case 3: glFormat = GL.GL_RGB; break;
-            case 4: glFormat = GL.GL_RGBA; break;
-            default: throw new InternalError("XXX: channels: "+channels+", bytesPerPixel "+bytesPerPixel);
+        this.reversedChannels = reversedChannels && 3 <= channels && !sixteenBits;
+        if( this.reversedChannels ) {
+            glFormat = 4 == channels ? GL.GL_BGRA : GL2GL3.GL_BGR;
+        } else {
+            glFormat = getGLFormat(channels);
         }
-        data = Buffers.newDirectByteBuffer(bytesPerPixel * pixelWidth * pixelHeight);
-        reversedChannels = false; // RGB[A]
-        final boolean hasAlpha = 4 == channels;
-        int dataOff = bytesPerPixel * pixelWidth * pixelHeight - 1; // start at end-of-buffer, reverse store
-        for (int row = 0; row < pixelHeight; row++) {
-            final ImageLine l1 = pngr.readRow(row);
-            int lineOff = ( pixelWidth - 1 ) * bytesPerPixel ;      // start w/ last pixel in line, reverse read
-            if(1 == channels) {
-                for (int j = pixelWidth - 1; j >= 0; j--) {
-                    data.put(dataOff--, (byte)l1.scanline[lineOff--]); // Luminance, 1 bytesPerPixel
-                }
-            } else {
-                for (int j = pixelWidth - 1; j >= 0; j--) {
-                    dataOff = getPixelRGBA8(data, dataOff, l1, lineOff, hasAlpha);
-                    lineOff -= bytesPerPixel;
-                }
-            }
+        final int size = bytesPerPixel * pixelWidth * pixelHeight;
+        if( null == dest ) {
+            dest = Buffers.newDirectByteBuffer(size);
+        } else if( dest.remaining() < size ) {
+            throw new IllegalArgumentException("Destination buffer too small: remaining "+dest.remaining()+" < "+size+" for "+pixelWidth+"x"+pixelHeight+"x"+bytesPerPixel);
         }
+        // unfilter straight into dest, flipping the image to GL coords (bottom-to-top)
+        pngr.readRowsToBuffer(dest, dest.position(), true, this.reversedChannels);
         pngr.end();
+        data = dest;
     }
-    private final int pixelWidth, pixelHeight, glFormat, bytesPerPixel;
+    private final int pixelWidth, pixelHeight, glFormat, glType, bytesPerPixel;
     private boolean reversedChannels;
     private final double[] dpi;
     private final ByteBuffer data;
+    private int writeThreads = 0;
+    private int writeStripeRows = 64;
+    
+    /**
+     * Configures the parallel PNG encoding used by {@link #write(File, boolean)} of this instance.
+     * <p>
+     * Disabled by default.
+     * </p>
+     * @param threads number of encoder threads, 0 disables parallel encoding
+     * @param stripeRows number of rows per stripe filtered by one thread
+     */
+    public void setWriteParallelism(int threads, int stripeRows) {
+        if( 0 > threads || 1 > stripeRows ) {
+            throw new IllegalArgumentException("Invalid threads "+threads+" or stripeRows "+stripeRows);
+        }
+        writeStripeRows = stripeRows;
+        writeThreads = threads;
+    }
     
     /** Returns the width of the image. */
     public int getWidth()    { return pixelWidth; }
@@ -147,8 +244,17 @@ public class PNGImage {
     /** Returns the OpenGL format for this texture; e.g. GL.GL_BGR or GL.GL_BGRA. */
     public int getGLFormat() { return glFormat; }
     
-    /** Returns the OpenGL data type: GL.GL_UNSIGNED_BYTE. */
-    public int getGLType() { return GL.GL_UNSIGNED_BYTE; }
+    /** Returns the OpenGL data type: GL.GL_UNSIGNED_BYTE, or GL.GL_UNSIGNED_SHORT for 16 bit images read w/ <code>keep16Bits</code>. */
+    public int getGLType() { return glType; }
+    
+    /** 
+     * Returns a matching OpenGL internal format for the given profile, e.g. GL.GL_RGBA8.
+     * On ES profiles the unsized format equal to the {@link #getGLFormat() format} of the decoded channels is returned.
+     */
+    public int getGLInternalFormat(GLProfile glp) {
+        final boolean sixteenBits = GL.GL_UNSIGNED_SHORT == glType;
+        return getGLInternalFormat(glp, sixteenBits ? bytesPerPixel / 2 : bytesPerPixel, sixteenBits);
+    }
 
     /** Returns the bytes per pixel */
     public int getBytesPerPixel() { return bytesPerPixel; }
@@ -158,11 +264,17 @@ public class PNGImage {
     public ByteBuffer getData()  { return data; }
 
     public void write(File out, boolean allowOverwrite) throws IOException {        
+        if( GL.GL_UNSIGNED_BYTE != glType || 2 == bytesPerPixel ) {
+            throw new IOException("PNGImage can only write Lum/RGB/RGBA 8 bit images, not "+this);
+        }
         final ImageInfo imi = new ImageInfo(pixelWidth, pixelHeight, 8, (4 == bytesPerPixel) ? true : false); // 8 bits per channel, no alpha 
         // open image for writing to a output stream
         final OutputStream outs = new BufferedOutputStream(IOUtil.getFileOutputStream(out, allowOverwrite));
+        final PngWriter png = new PngWriter(outs, imi); 
         try {
-            final PngWriter png = new PngWriter(outs, imi); 
+            if( 0 < writeThreads && 1 < pixelHeight ) {
+                png.setParallelMode(writeThreads, writeStripeRows);
+            }
             // add some optional metadata (chunks)
             png.getMetadata().setDpi(dpi[0], dpi[1]);
             png.getMetadata().setTimeNow(0); // 0 seconds fron now = now
@@ -187,9 +299,10 @@ public class PNGImage {
             }
             png.end();
         } finally {
+            png.close();
             IOUtil.close(outs, false);
         }
     }
     
-    public String toString() { return "PNGImage["+pixelWidth+"x"+pixelHeight+", dpi "+dpi[0]+" x "+dpi[1]+", bytesPerPixel "+bytesPerPixel+", reversedChannels "+reversedChannels+", "+data+"]"; }       
+    public String toString() { return "PNGImage["+pixelWidth+"x"+pixelHeight+", dpi "+dpi[0]+" x "+dpi[1]+", bytesPerPixel "+bytesPerPixel+", glType 0x"+Integer.toHexString(glType)+", reversedChannels "+reversedChannels+", "+data+"]"; }       
 }
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.util.texture.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.media.opengl.GLProfile;
+
+import com.jogamp.opengl.util.texture.TextureBandReader;
+
+/**
+ * Plug-in interface to TextureIO to support band-wise reading of
+ * very large uncompressed images, see {@link TextureBandReader}.
+ */
+public interface StreamingTextureProvider {
+
+    /**
+     * Opens the stream for band-wise decoding, or returns null if the
+     * file format was not supported by this provider. Does not do any
+     * OpenGL-related work and reads only the image header.
+     * <p>
+     * If a reader is returned, it owns the stream and closes it
+     * via {@link TextureBandReader#close()}.
+     * </p>
+     *
+     * @param glp the OpenGL Profile the texture data should be created for.
+     * @param stream the stream from which to read the texture data
+     * @param internalFormat the OpenGL internal format to be used for
+     *                       the texture, or 0 if it should be inferred
+     *                       from the file's contents
+     * @param pixelFormat    the OpenGL pixel format to be used for
+     *                       the texture, or 0 if it should be inferred
+     *                       from the file's contents
+     * @param fileSuffix     the file suffix, used to decide whether
+     *                       the provider can handle the stream
+     *
+     * @throws IOException if an error occurred while reading the stream
+     */
+    public TextureBandReader newTextureBandReader(GLProfile glp, InputStream stream,
+                                                  int internalFormat,
+                                                  int pixelFormat,
+                                                  String fileSuffix) throws IOException;
+}
@@ -45,6 +45,8 @@ import java.nio.channels.*;
 import javax.media.opengl.*;
 
 import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.util.texture.TextureBandReader;
+import com.jogamp.opengl.util.texture.TextureData;
 
 /**
  * Targa image reader and writer adapted from sources of the <a href =
@@ -302,13 +304,26 @@ public class TGAImage {
             System.arraycopy(rawBuf, 0, tmpData, y * rawWidth, rawBuf.length);
         }
 
+        if( setupRGBFormat(glp) ) {
+            swapBGR(tmpData, rawWidth, header.height(), bpp);
+        }
+
+        data = ByteBuffer.wrap(tmpData);
+    }
+
+    /**
+     * Sets <code>bpp</code> and <code>format</code> for a 24 or 32 bit image,
+     * returns true if the BGR[A] data must be swapped to RGB[A].
+     */
+    private boolean setupRGBFormat(GLProfile glp) {
         if (header.pixelDepth() == 24) {
             bpp=3;
             if(glp.isGL2GL3()) {
                 format = GL2GL3.GL_BGR;
+                return false;
             } else {
                 format = GL.GL_RGB;
-                swapBGR(tmpData, rawWidth, header.height(), bpp);
+                return true;
             }
         } else {
             assert header.pixelDepth() == 32;
@@ -320,13 +335,12 @@ public class TGAImage {
             }
             if( useBGRA ) {
                 format = GL.GL_BGRA;
+                return false;
             } else {
                 format = GL.GL_RGBA;
-                swapBGR(tmpData, rawWidth, header.height(), bpp);
+                return true;
             }
         }
-
-        data = ByteBuffer.wrap(tmpData);
     }
 
     private static void swapBGR(byte[] data, int bWidth, int height, int bpp) {
@@ -374,6 +388,56 @@ public class TGAImage {
         return res;
     }
 
+    /**
+     * Opens a Targa image from the specified InputStream for band-wise decoding,
+     * see {@link TextureBandReader}. Only the header is read here.
+     * Supports uncompressed 24 and 32 bit true color images.
+     *
+     * @param glp the OpenGL Profile the texture data is created for
+     * @param in the Targa stream, closed by {@link TextureBandReader#close()}
+     * @param internalFormat the OpenGL internal format, or 0 to infer it
+     * @param pixelFormat the OpenGL pixel format, or 0 to infer it
+     */
+    public static TextureBandReader newBandReader(GLProfile glp, InputStream in, int internalFormat, int pixelFormat) throws IOException {
+        final LEDataInputStream dIn = new LEDataInputStream(new BufferedInputStream(in));
+        final Header header = new Header(dIn);
+        if ( Header.UTRUECOLOR != header.imageType() || ( 24 != header.pixelDepth() && 32 != header.pixelDepth() ) ) {
+            dIn.close();
+            throw new IOException("TGADecoder band-wise reading only supports uncompressed 24/32-bit True Color images: "+header);
+        }
+        final TGAImage image = new TGAImage(header);
+        final boolean swap = image.setupRGBFormat(glp);
+        if (pixelFormat == 0) {
+            pixelFormat = image.getGLFormat();
+        }
+        if (internalFormat == 0) {
+            if(glp.isGL2GL3()) {
+                internalFormat = (image.getBytesPerPixel()==4)?GL.GL_RGBA8:GL.GL_RGB8;
+            } else {
+                internalFormat = (image.getBytesPerPixel()==4)?GL.GL_RGBA:GL.GL_RGB;
+            }
+        }
+        final TextureData texData = new TextureData(glp, internalFormat, header.width(), header.height(), 0,
+                                                    pixelFormat, GL.GL_UNSIGNED_BYTE, false, false, false, null, null);
+        final int bpp = image.getBytesPerPixel();
+        return new TextureBandReader(texData, bpp, header.topToBottom()) {
+            private final byte[] rawBuf = new byte[header.width() * bpp];
+            protected void readRow(ByteBuffer dst, int dstOff) throws IOException {
+                dIn.readFully(rawBuf, 0, rawBuf.length);
+                if( swap ) {
+                    swapBGR(rawBuf, rawBuf.length, 1, bpp);
+                }
+                final int pos = dst.position();
+                dst.position(dstOff);
+                dst.put(rawBuf);
+                dst.position(pos);
+            }
+            protected void closeImpl() throws IOException {
+                dIn.close();
+            }
+        };
+    }
+
     /** Writes the image in Targa format to the specified file name. */
     public void write(String filename) throws IOException {
         write(new File(filename));
@@ -114,4 +114,27 @@ public interface FPSCounter {
      * @see #resetFPSCounter()
      */
     float getTotalFPS();       
+
+    /**
+     * Returns the given percentile of frame durations, i.e. the time between two subsequent frames, 
+     * recorded since {@link #resetFPSCounter()} while this feature is enabled via {@link #setUpdateFPSFrames(int, PrintStream)}.
+     * <p>
+     * Frame durations are binned in a histogram with a relative precision of about 6%.
+     * </p>
+     * 
+     * @param percentile the percentile in the range [0..1], e.g. 0.5f for the median or 0.99f
+     * @return the frame duration in milliseconds, or 0 if no frame duration has been recorded
+     *
+     * @see #setUpdateFPSFrames(int, PrintStream)
+     * @see #resetFPSCounter()
+     */
+    float getFrameDurationPercentile(float percentile);
+
+    /**
+     * @return Number of frames which missed their deadline since {@link #resetFPSCounter()}, 
+     *         only counted by a deadline pacing animator, see {@link com.jogamp.opengl.util.Animator#setFramePacing(int, int)}.
+     * 
+     * @see #resetFPSCounter()
+     */
+    int getMissedFrameDeadlines();
 }
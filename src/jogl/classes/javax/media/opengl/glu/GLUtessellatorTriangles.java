@@ -0,0 +1,112 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package javax.media.opengl.glu;
+
+/**
+ * JOGL-specific indexed triangle list produced by
+ * {@link GLU#gluTessTriangles(GLUtessellator, double[], int, int[], int, int, GLUtessellatorTriangles) GLU.gluTessTriangles}.
+ * <p>
+ * The vertices are stored as interleaved x, y and z coordinates,
+ * the triangles as three vertex indices each.
+ * The storage is retained by {@link #clear()}, hence an instance
+ * may be reused for many polygons without producing garbage.
+ * </p>
+ */
+public class GLUtessellatorTriangles {
+    private double[] vertices;
+    private int vertexCount;
+    private int[] indices;
+    private int indexCount;
+
+    public GLUtessellatorTriangles() {
+        this(64);
+    }
+
+    /**
+     * @param initialVertexCount initial vertex capacity, the index capacity is derived from it
+     */
+    public GLUtessellatorTriangles(int initialVertexCount) {
+        vertices = new double[3 * Math.max(initialVertexCount, 3)];
+        indices = new int[3 * Math.max(initialVertexCount, 3)];
+    }
+
+    /** Removes all vertices and triangles, keeping the storage. */
+    public final void clear() {
+        vertexCount = 0;
+        indexCount = 0;
+    }
+
+    /** Adds a vertex and returns its index. */
+    public final int addVertex(double x, double y, double z) {
+        int i = 3 * vertexCount;
+        if (i + 3 > vertices.length) {
+            double[] a = new double[vertices.length * 2];
+            System.arraycopy(vertices, 0, a, 0, i);
+            vertices = a;
+        }
+        vertices[i++] = x;
+        vertices[i++] = y;
+        vertices[i] = z;
+        return vertexCount++;
+    }
+
+    /** Adds the triangle of the given vertex indices. */
+    public final void addTriangle(int i0, int i1, int i2) {
+        if (indexCount + 3 > indices.length) {
+            int[] a = new int[indices.length * 2];
+            System.arraycopy(indices, 0, a, 0, indexCount);
+            indices = a;
+        }
+        indices[indexCount++] = i0;
+        indices[indexCount++] = i1;
+        indices[indexCount++] = i2;
+    }
+
+    public final int getVertexCount() {
+        return vertexCount;
+    }
+
+    /** Returns the interleaved x, y and z coordinates, valid up to <code>3 * getVertexCount()</code>. */
+    public final double[] getVertices() {
+        return vertices;
+    }
+
+    public final int getTriangleCount() {
+        return indexCount / 3;
+    }
+
+    public final int getIndexCount() {
+        return indexCount;
+    }
+
+    /** Returns the vertex indices of all triangles, valid up to {@link #getIndexCount()}. */
+    public final int[] getIndices() {
+        return indices;
+    }
+}
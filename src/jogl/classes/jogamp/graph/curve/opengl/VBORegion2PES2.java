@@ -144,6 +144,7 @@ public class VBORegion2PES2  extends GLRegion {
                 indicesTxt.puts((short) t_vertices[2].getId());                
             }
         }
+        putVertexStoreIndices(indicesTxt, vertices.size());
         indicesTxt.seal(gl, true);
         indicesTxt.enableBuffer(gl, false);
 
@@ -164,6 +165,7 @@ public class VBORegion2PES2  extends GLRegion {
             texCoordTxtAttr.putf(tex[0]);
             texCoordTxtAttr.putf(tex[1]);            
         }
+        putVertexStoreVertices(verticeTxtAttr, texCoordTxtAttr);
         texCoordTxtAttr.seal(gl, true);
         texCoordTxtAttr.enableBuffer(gl, false);
         verticeTxtAttr.seal(gl, true);     
@@ -97,6 +97,7 @@ public class VBORegionSPES2 extends GLRegion {
                 indices.puts((short) t_vertices[2].getId());
             }
         }
+        putVertexStoreIndices(indices, vertices.size());
         indices.seal(gl, true);
         indices.enableBuffer(gl, false);
 
@@ -117,6 +118,7 @@ public class VBORegionSPES2 extends GLRegion {
             texCoordAttr.putf(tex[0]);
             texCoordAttr.putf(tex[1]);
         }
+        putVertexStoreVertices(verticeAttr, texCoordAttr);
         verticeAttr.seal(gl, true);        
         verticeAttr.enableBuffer(gl, false);
         texCoordAttr.seal(gl, true);
@@ -48,7 +48,28 @@ public class CDTriangulator2D implements Triangulator{
 
     protected static final boolean DEBUG = Debug.debug("Triangulation");
     
+    /** 
+     * Default minimum number of loop vertices to accelerate the Delaunay tests
+     * using a spatial grid, 64. May be set via the property <code>jogl.graph.triangulation.grid</code>,
+     * 0 disables the grid.
+     */
+    public static final int DEFAULT_GRID_THRESHOLD;
+    
+    static {
+        int threshold = 64;
+        final String s = Debug.getProperty("jogl.graph.triangulation.grid", true);
+        if( null != s ) {
+            try {
+                threshold = Integer.parseInt(s);
+            } catch (NumberFormatException nfe) {
+                System.err.println("CDTriangulator2D: invalid jogl.graph.triangulation.grid: "+s);
+            }
+        }
+        DEFAULT_GRID_THRESHOLD = threshold;
+    }
+    
     private float sharpness = 0.5f;
+    private int gridThreshold = DEFAULT_GRID_THRESHOLD;
     private ArrayList<Loop> loops;
     private ArrayList<Vertex> vertices;
     
@@ -62,6 +83,20 @@ public class CDTriangulator2D implements Triangulator{
         reset();
     }
     
+    /** 
+     * Sets the minimum number of loop vertices to accelerate the Delaunay tests
+     * using a spatial grid, 0 disables the grid. 
+     * Applies to curves added after this call.
+     * @see #DEFAULT_GRID_THRESHOLD
+     */
+    public void setGridThreshold(int threshold) {
+        gridThreshold = threshold;
+    }
+    
+    public int getGridThreshold() {
+        return gridThreshold;
+    }
+    
     /** Reset the triangulation to initial state
      *  Clearing cached data
      */
@@ -83,7 +118,7 @@ public class CDTriangulator2D implements Triangulator{
             GraphOutline outline = new GraphOutline(polyline);
             GraphOutline innerPoly = extractBoundaryTriangles(outline, false);
             vertices.addAll(polyline.getVertices());
-            loop = new Loop(innerPoly, VectorUtil.Winding.CCW);
+            loop = new Loop(innerPoly, VectorUtil.Winding.CCW, gridThreshold);
             loops.add(loop);
         } else {
             GraphOutline outline = new GraphOutline(polyline);
@@ -189,13 +224,11 @@ public class CDTriangulator2D implements Triangulator{
         ArrayList<Vertex> vertices = polyline.getVertices();
         for(int i=0; i < loops.size(); i++) {
             Loop loop = loops.get(i);
-            boolean inside = false;
             for(int j=0; j < vertices.size(); j++) {
                 Vertex v = vertices.get(j);
-                inside |= loop.checkInside(v);
-            }
-            if(inside) {
-                return loop;
+                if(loop.checkInside(v)) {
+                    return loop;
+                }
             }
         }
         return null;
@@ -0,0 +1,228 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.curve.tess;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.opengl.math.VectorUtil;
+
+/**
+ * Uniform grid over a set of {@link GraphVertex}, 
+ * limiting the {@link VectorUtil#inCircle(com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable) inCircle}
+ * tests of the triangulation to the vertices within the bounding box of the circumcircle.
+ * <p>
+ * Each vertex carries an occurrence count, i.e. how often it is referenced by the current loop.
+ * Vertices with a zero count, e.g. cut off by the triangulation, are ignored.
+ * </p>
+ */
+final class GraphVertexGrid {
+    private final IdentityHashMap<GraphVertex, Integer> index;
+    private final GraphVertex[] vertices;
+    private final float[] xs, ys;
+    private final int[] counts;
+    private final float minX, minY, maxX, maxY;
+    private final float cellScaleX, cellScaleY;
+    private final int cols, rows;
+    /** start offset of each cell's items in {@link #cellItems}, cols*rows+1 */
+    private final int[] cellStart;
+    private final int[] cellItems;
+
+    /** Creates a grid of all vertices referenced by the loop starting with <code>root</code>. */
+    static GraphVertexGrid createFromLoop(HEdge root) {
+        final ArrayList<GraphVertex> unique = new ArrayList<GraphVertex>();
+        final IdentityHashMap<GraphVertex, Integer> index = new IdentityHashMap<GraphVertex, Integer>();
+        int[] counts = new int[64];
+        HEdge e = root;
+        do {
+            final GraphVertex gv = e.getGraphPoint();
+            Integer i = index.get(gv);
+            if(null == i) {
+                i = Integer.valueOf(unique.size());
+                index.put(gv, i);
+                unique.add(gv);
+                if(counts.length < unique.size()) {
+                    final int[] tmp = new int[counts.length*2];
+                    System.arraycopy(counts, 0, tmp, 0, counts.length);
+                    counts = tmp;
+                }
+            }
+            counts[i.intValue()]++;
+            e = e.getNext();
+        } while(e != root);
+        return new GraphVertexGrid(unique, index, counts);
+    }
+
+    /** Creates a grid of the given vertices, each referenced once. */
+    static GraphVertexGrid createFromVertices(ArrayList<GraphVertex> vertices) {
+        final ArrayList<GraphVertex> unique = new ArrayList<GraphVertex>(vertices.size());
+        final IdentityHashMap<GraphVertex, Integer> index = new IdentityHashMap<GraphVertex, Integer>();
+        final int[] counts = new int[vertices.size()];
+        for(int i=0; i<vertices.size(); i++) {
+            final GraphVertex gv = vertices.get(i);
+            Integer j = index.get(gv);
+            if(null == j) {
+                j = Integer.valueOf(unique.size());
+                index.put(gv, j);
+                unique.add(gv);
+            }
+            counts[j.intValue()]++;
+        }
+        return new GraphVertexGrid(unique, index, counts);
+    }
+
+    private GraphVertexGrid(ArrayList<GraphVertex> unique, IdentityHashMap<GraphVertex, Integer> index, int[] counts) {
+        final int n = unique.size();
+        this.index = index;
+        this.counts = counts;
+        vertices = unique.toArray(new GraphVertex[n]);
+        xs = new float[n];
+        ys = new float[n];
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for(int i=0; i<n; i++) {
+            final float x = vertices[i].getX();
+            final float y = vertices[i].getY();
+            xs[i] = x;
+            ys[i] = y;
+            if(x < x0) { x0 = x; }
+            if(x > x1) { x1 = x; }
+            if(y < y0) { y0 = y; }
+            if(y > y1) { y1 = y; }
+        }
+        minX = x0; minY = y0; maxX = x1; maxY = y1;
+
+        // about one vertex per cell
+        final int dim = Math.max(1, (int) Math.sqrt(n));
+        cols = dim;
+        rows = dim;
+        cellScaleX = cols / Math.max(maxX - minX, Float.MIN_NORMAL);
+        cellScaleY = rows / Math.max(maxY - minY, Float.MIN_NORMAL);
+
+        // counting sort of the vertices into their cells
+        final int[] cellOf = new int[n];
+        cellStart = new int[cols*rows+1];
+        for(int i=0; i<n; i++) {
+            cellOf[i] = cellY(ys[i]) * cols + cellX(xs[i]);
+            cellStart[cellOf[i]+1]++;
+        }
+        for(int c=0; c<cols*rows; c++) {
+            cellStart[c+1] += cellStart[c];
+        }
+        cellItems = new int[n];
+        final int[] fill = new int[cols*rows];
+        for(int i=0; i<n; i++) {
+            final int c = cellOf[i];
+            cellItems[cellStart[c] + fill[c]++] = i;
+        }
+    }
+
+    /** Same computation as {@link VectorUtil#inCircle(com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable) inCircle} on primitive coordinates. */
+    private static boolean inCircle(float ax, float ay, float bx, float by, float cx, float cy, float dx, float dy) {
+        return (ax * ax + ay * ay) * triArea(bx, by, cx, cy, dx, dy) -
+               (bx * bx + by * by) * triArea(ax, ay, cx, cy, dx, dy) +
+               (cx * cx + cy * cy) * triArea(ax, ay, bx, by, dx, dy) -
+               (dx * dx + dy * dy) * triArea(ax, ay, bx, by, cx, cy) > 0;
+    }
+
+    private static float triArea(float ax, float ay, float bx, float by, float cx, float cy) {
+        return (bx - ax) * (cy - ay) - (by - ay)*(cx - ax);
+    }
+
+    private int cellX(float x) {
+        final int c = (int) ( (x - minX) * cellScaleX );
+        return c < 0 ? 0 : ( c >= cols ? cols - 1 : c );
+    }
+
+    private int cellY(float y) {
+        final int c = (int) ( (y - minY) * cellScaleY );
+        return c < 0 ? 0 : ( c >= rows ? rows - 1 : c );
+    }
+
+    /** Decrements the occurrence count of the given vertex, e.g. after it has been cut off the loop. */
+    void remove(GraphVertex gv) {
+        final Integer i = index.get(gv);
+        if(null != i && 0 < counts[i.intValue()]) {
+            counts[i.intValue()]--;
+        }
+    }
+
+    /**
+     * Returns true if any referenced vertex, except <code>skip0</code>, <code>skip1</code>, <code>skip2</code>
+     * and the vertices of point <code>skipPoint</code>, 
+     * is {@link VectorUtil#inCircle(com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable, com.jogamp.opengl.math.Vert2fImmutable) inCircle}
+     * of the counter clockwise triangle <code>a</code>, <code>b</code>, <code>c</code>.
+     */
+    boolean anyInCircle(Vertex a, Vertex b, Vertex c, GraphVertex skip0, GraphVertex skip1, GraphVertex skip2, Vertex skipPoint) {
+        // circumcircle relative to a
+        final float bx = b.getX() - a.getX(), by = b.getY() - a.getY();
+        final float cx = c.getX() - a.getX(), cy = c.getY() - a.getY();
+        final float d = 2f * ( bx * cy - by * cx );
+        final float b2 = bx * bx + by * by;
+        final float c2 = cx * cx + cy * cy;
+        final float ux = ( cy * b2 - by * c2 ) / d;
+        final float uy = ( bx * c2 - cx * b2 ) / d;
+        final float r = (float) Math.sqrt( ux * ux + uy * uy );
+
+        final float ax = a.getX(), ay = a.getY();
+        final float bX = b.getX(), bY = b.getY();
+        final float cX = c.getX(), cY = c.getY();
+        
+        int cx0 = 0, cy0 = 0, cx1 = cols - 1, cy1 = rows - 1;
+        if( 0f != d && !Float.isNaN(r) && !Float.isInfinite(r) ) {
+            // generous margin covering the rounding of the inCircle determinant
+            final float margin = r / 32f + 1e-4f * ( Math.abs(a.getX()) + Math.abs(a.getY()) + r );
+            final float ox = a.getX() + ux, oy = a.getY() + uy, rm = r + margin;
+            if( ox + rm < minX || ox - rm > maxX || oy + rm < minY || oy - rm > maxY ) {
+                return false;
+            }
+            cx0 = cellX(ox - rm); cx1 = cellX(ox + rm);
+            cy0 = cellY(oy - rm); cy1 = cellY(oy + rm);
+        } // else degenerate: test all
+        
+        for(int y=cy0; y<=cy1; y++) {
+            for(int x=cx0; x<=cx1; x++) {
+                final int cell = y * cols + x;
+                for(int k=cellStart[cell]; k<cellStart[cell+1]; k++) {
+                    final int i = cellItems[k];
+                    if( 0 == counts[i] ) {
+                        continue;
+                    }
+                    final GraphVertex gv = vertices[i];
+                    if( gv == skip0 || gv == skip1 || gv == skip2 || gv.getPoint() == skipPoint ) {
+                        continue;
+                    }
+                    if( inCircle(ax, ay, bX, bY, cX, cY, xs[i], ys[i]) ) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}
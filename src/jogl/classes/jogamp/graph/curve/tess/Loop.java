@@ -39,8 +39,21 @@ public class Loop {
     private HEdge root = null;
     private AABBox box = new AABBox();
     private GraphOutline initialOutline = null;
+    /** minimum number of loop vertices to use a {@link GraphVertexGrid}, 0 disables it */
+    private final int gridThreshold;
+    private GraphVertexGrid grid = null;
+    private boolean gridValidated = false;
 
     public Loop(GraphOutline polyline, VectorUtil.Winding winding){
+        this(polyline, winding, 0);
+    }
+
+    /**
+     * @param gridThreshold minimum number of loop vertices to accelerate the
+     *        Delaunay tests using a spatial grid, 0 disables the grid
+     */
+    public Loop(GraphOutline polyline, VectorUtil.Winding winding, int gridThreshold){
+        this.gridThreshold = gridThreshold;
         initialOutline = polyline;
         this.root = initFromPolyline(initialOutline, winding);
     }
@@ -83,6 +96,11 @@ public class Loop {
         HEdge.connect(prev, v3EdgeSib);
         HEdge.connect(v3EdgeSib, next2);
 
+        if(null != grid) {
+            // next1 has been cut off the loop
+            grid.remove(v2);
+        }
+
         Triangle t = createTriangle(v1.getPoint(), v2.getPoint(), v3.getPoint(), root);
         this.root = next2;
         return t;
@@ -178,6 +196,9 @@ public class Loop {
 
         HEdge.connect(v3EdgeP, crossEdgeSib);
         HEdge.connect(crossEdgeSib, root);
+
+        grid = null;
+        gridValidated = false;
     }
 
     /** Locates the vertex and update the loops root 
@@ -194,6 +215,8 @@ public class Loop {
         boolean inValid = false;
         ArrayList<GraphVertex> initVertices = initialOutline.getGraphPoint();
         ArrayList<GraphVertex> vertices = polyline.getGraphPoint();
+        final GraphVertexGrid vertGrid = 0 < gridThreshold && vertices.size() >= gridThreshold ? 
+                                         GraphVertexGrid.createFromVertices(vertices) : null;
 
         for(int i=0; i< initVertices.size()-1; i++){
             GraphVertex v = initVertices.get(i);
@@ -202,13 +225,18 @@ public class Loop {
                 GraphVertex cand = vertices.get(pos);
                 float distance = VectorUtil.computeLength(v.getCoord(), cand.getCoord());
                 if(distance < minDistance){
-                    for (GraphVertex vert:vertices){
-                        if(vert == v || vert == nextV || vert == cand)
-                            continue;
-                        inValid = VectorUtil.inCircle(v.getPoint(), nextV.getPoint(), 
-                                cand.getPoint(), vert.getPoint());
-                        if(inValid){
-                            break;
+                    if(null != vertGrid && VectorUtil.ccw(v.getPoint(), nextV.getPoint(), cand.getPoint())) {
+                        // only the circumcircle's neighborhood of a ccw triangle is relevant
+                        inValid = vertGrid.anyInCircle(v.getPoint(), nextV.getPoint(), cand.getPoint(), v, nextV, cand, null);
+                    } else {
+                        for (GraphVertex vert:vertices){
+                            if(vert == v || vert == nextV || vert == cand)
+                                continue;
+                            inValid = VectorUtil.inCircle(v.getPoint(), nextV.getPoint(), 
+                                    cand.getPoint(), vert.getPoint());
+                            if(inValid){
+                                break;
+                            }
                         }
                     }
                     if(!inValid){
@@ -239,7 +267,11 @@ public class Loop {
         HEdge candEdge = edge;
         boolean inValid = false;
 
-        if(delaunay){
+        if(delaunay && null != getGrid()){
+            inValid = grid.anyInCircle(root.getGraphPoint().getPoint(), next.getGraphPoint().getPoint(),
+                                       candEdge.getGraphPoint().getPoint(), 
+                                       root.getGraphPoint(), next.getGraphPoint(), null, candEdge.getGraphPoint().getPoint());
+        } else if(delaunay){
             Vertex cand = candEdge.getGraphPoint().getPoint();
             HEdge e = candEdge.getNext();
             while (e != candEdge){
@@ -263,6 +295,17 @@ public class Loop {
         return null;
     }
 
+    /** Returns the {@link GraphVertexGrid} of the current loop, if its size exceeds the threshold. */
+    private GraphVertexGrid getGrid() {
+        if(!gridValidated) {
+            gridValidated = true;
+            if(0 < gridThreshold && computeLoopSize() >= gridThreshold) {
+                grid = GraphVertexGrid.createFromLoop(root);
+            }
+        }
+        return grid;
+    }
+
     /** Create a triangle from the param vertices only if
      * the triangle is valid. IE not outside region.
      * @param v1 vertex 1
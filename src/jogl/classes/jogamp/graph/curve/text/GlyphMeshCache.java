@@ -0,0 +1,233 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.curve.text;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import jogamp.graph.font.FontInt;
+import jogamp.opengl.Debug;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.Font.Glyph;
+import com.jogamp.graph.geom.Triangle;
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.graph.geom.VertexStore;
+
+/**
+ * Size bounded least-recently-used cache of triangulated glyphs.
+ * <p>
+ * Each glyph is triangulated once in unscaled font unit space and kept as plain
+ * vertex and index arrays, keyed by its {@link Font} and glyph id.
+ * A string's region is assembled from the cached {@link Mesh}es by scaling and offsetting
+ * their vertices into the region's {@link VertexStore}, see {@link GlyphString#createCachedString(GlyphMeshCache, Font, int, String)},
+ * hence the cost of a new string is reduced to its layout and the buffer fill.
+ * </p>
+ * <p>
+ * The default limit in glyphs may be set via the property <code>jogl.graph.glyphmeshcache.limit</code>,
+ * a limit of 0 disables eviction.
+ * </p>
+ */
+public class GlyphMeshCache {
+    /** Default limit in glyphs */
+    public static final int DEFAULT_LIMIT;
+
+    static {
+        int limit = 1024;
+        final String s = Debug.getProperty("jogl.graph.glyphmeshcache.limit", true);
+        if( null != s ) {
+            try {
+                limit = Integer.parseInt(s);
+            } catch (NumberFormatException nfe) {
+                System.err.println("GlyphMeshCache: invalid jogl.graph.glyphmeshcache.limit: "+s);
+            }
+        }
+        DEFAULT_LIMIT = limit;
+    }
+
+    /** Triangulated glyph in unscaled font unit space. */
+    public static class Mesh {
+        /** Glyph vertices */
+        public final VertexStore vertices;
+        /** Triangle indices, 3 per triangle, referencing the vertices of this mesh */
+        public final int[] indices;
+
+        Mesh(VertexStore vertices, int[] indices) {
+            this.vertices = vertices;
+            this.indices = indices;
+        }
+
+        public final int getVertexCount() { return vertices.size(); }
+
+        public final int getTriangleCount() { return indices.length / 3; }
+    }
+
+    private static final class Key {
+        Font font;
+        int id;
+
+        Key(Font font, int id) {
+            this.font = font;
+            this.id = id;
+        }
+
+        public int hashCode() {
+            return 31 * System.identityHashCode(font) + id;
+        }
+
+        public boolean equals(Object o) {
+            if( !(o instanceof Key) ) {
+                return false;
+            }
+            final Key k = (Key) o;
+            return font == k.font && id == k.id;
+        }
+    }
+
+    /** Marks a glyph without a fill, e.g. a glyph with less than 3 vertices. */
+    private static final Mesh EMPTY = new Mesh(new VertexStore(1), new int[0]);
+
+    private final LinkedHashMap<Key, Mesh> map = new LinkedHashMap<Key, Mesh>(128, 0.75f, true);
+    private final Key lookup = new Key(null, 0);
+    private final Vertex.Factory<? extends Vertex> vertexFactory;
+    private int limit;
+    private long hits = 0;
+    private long misses = 0;
+
+    /**
+     * @param vertexFactory vertex impl factory used for triangulation
+     * @param limit the limit in glyphs, 0 disables eviction
+     */
+    public GlyphMeshCache(Vertex.Factory<? extends Vertex> vertexFactory, int limit) {
+        this.vertexFactory = vertexFactory;
+        this.limit = limit;
+    }
+
+    /**
+     * Returns the triangulated glyph, triangulating and caching it if required.
+     * @return the {@link Mesh} of the glyph or null if the glyph has no fill, e.g. a space.
+     */
+    public synchronized Mesh get(Font font, Glyph glyph) {
+        lookup.font = font;
+        lookup.id = glyph.getID();
+        Mesh mesh = map.get(lookup);
+        if( null != mesh ) {
+            hits++;
+        } else {
+            misses++;
+            mesh = createMesh(((FontInt)font).getOutlineShape(glyph, vertexFactory));
+            map.put(new Key(font, lookup.id), mesh);
+            evict();
+        }
+        lookup.font = null;
+        return EMPTY != mesh ? mesh : null;
+    }
+
+    private static Mesh createMesh(OutlineShape shape) {
+        shape.transformOutlines(OutlineShape.VerticesState.QUADRATIC_NURBS);
+        if( shape.getVertexCount() < 3 ) {
+            return EMPTY;
+        }
+        final ArrayList<Triangle> triangles = shape.triangulate();
+        if( null == triangles ) {
+            return EMPTY;
+        }
+        // shape vertices first, followed by vertices added by the triangulation
+        final List<Vertex> vertices = shape.getVertices();
+        final ArrayList<Vertex> added = new ArrayList<Vertex>();
+        final IdentityHashMap<Vertex, Integer> vertexIndex = new IdentityHashMap<Vertex, Integer>(vertices.size()*2);
+        for(int i=0; i<vertices.size(); i++) {
+            final Vertex v = vertices.get(i);
+            if( !vertexIndex.containsKey(v) ) {
+                vertexIndex.put(v, Integer.valueOf(vertexIndex.size()));
+            }
+        }
+        final int[] indices = new int[triangles.size()*3];
+        for(int i=0; i<triangles.size(); i++) {
+            final Vertex[] tv = triangles.get(i).getVertices();
+            for(int j=0; j<3; j++) {
+                Integer idx = vertexIndex.get(tv[j]);
+                if( null == idx ) {
+                    idx = Integer.valueOf(vertexIndex.size());
+                    vertexIndex.put(tv[j], idx);
+                    added.add(tv[j]);
+                }
+                indices[i*3+j] = idx.intValue();
+            }
+        }
+        // vertices are in index order, skipping duplicates
+        final VertexStore store = new VertexStore(vertexIndex.size());
+        for(int i=0; i<vertices.size(); i++) {
+            final Vertex v = vertices.get(i);
+            if( vertexIndex.get(v).intValue() == store.size() ) {
+                store.add(v);
+            }
+        }
+        for(int i=0; i<added.size(); i++) {
+            store.add(added.get(i));
+        }
+        return new Mesh(store, indices);
+    }
+
+    private void evict() {
+        if( 0 >= limit ) {
+            return;
+        }
+        final Iterator<Mesh> it = map.values().iterator();
+        while( map.size() > limit ) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    /** Sets the limit in glyphs, 0 disables eviction. */
+    public synchronized void setLimit(int limit) {
+        this.limit = limit;
+        evict();
+    }
+
+    public synchronized int getLimit() { return limit; }
+
+    public synchronized int size() { return map.size(); }
+
+    public synchronized long getHits() { return hits; }
+
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized String toString() {
+        return "GlyphMeshCache[glyphs "+map.size()+"/"+limit+", hits "+hits+", misses "+misses+"]";
+    }
+}
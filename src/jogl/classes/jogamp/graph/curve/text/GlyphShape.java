@@ -28,6 +28,7 @@
 package jogamp.graph.curve.text;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.jogamp.graph.geom.Vertex;
 import com.jogamp.graph.geom.Triangle;
@@ -65,7 +66,7 @@ public class GlyphShape {
     }
     
     public int getNumVertices() {
-        return shape.getVertices().size();
+        return shape.getVertexCount();
     }
     
     /** Get the rotational Quaternion attached to this Shape
@@ -91,9 +92,9 @@ public class GlyphShape {
     }
 
     /** Get the list of Vertices of this Object
-     * @return arrayList of Vertices
+     * @return view of the Vertices, see {@link OutlineShape#getVertices()}
      */
-    public ArrayList<Vertex> getVertices(){
+    public List<Vertex> getVertices(){
         return shape.getVertices();
     }    
 }
@@ -28,8 +28,10 @@
 package jogamp.graph.curve.text;
 
 import java.util.ArrayList;
+import java.util.List;
 
 import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.Font.Glyph;
 import com.jogamp.graph.geom.Vertex;
 import com.jogamp.graph.geom.Triangle;
 import com.jogamp.graph.geom.Vertex.Factory;
@@ -54,6 +56,9 @@ public class GlyphString {
     public static final int STATIC_FONT_SIZE = 10;
     
     private ArrayList<GlyphShape> glyphs = new ArrayList<GlyphShape>();
+    private ArrayList<GlyphMeshCache.Mesh> meshes = null;
+    /** translation x, y and scale per mesh */
+    private float[] meshPlacements = null;
     private CharSequence str;
     private String fontname;
     private GLRegion region;
@@ -97,6 +102,52 @@ public class GlyphString {
         return glyphString;
     }
     
+    /**
+     * <p>Assembles the string from the triangulated glyphs of the given {@link GlyphMeshCache},
+     * triangulating only glyphs not cached yet.</p>
+     * <p>The layout matches {@link #createString(OutlineShape, Factory, Font, int, String)}.</p>
+     * 
+     * @param cache the {@link GlyphMeshCache} providing the triangulated glyphs
+     * @param font the target {@link Font} 
+     * @param fontSize font size
+     * @param str string text
+     * @return the created {@link GlyphString} instance
+     */
+    public static GlyphString createCachedString(GlyphMeshCache cache, Font font, int fontSize, String str) {
+        final GlyphString glyphString = new GlyphString(font.getName(Font.NAME_UNIQUNAME), str);
+        final int len = str.length();
+        glyphString.meshes = new ArrayList<GlyphMeshCache.Mesh>(len);
+        glyphString.meshPlacements = new float[len*3];
+        
+        final Font.Metrics metrics = font.getMetrics();
+        final float advanceY = metrics.getLineGap(fontSize) - metrics.getDescent(fontSize) + metrics.getAscent(fontSize);
+        final float scale = metrics.getScale(fontSize);
+        float advanceTotal = 0;
+        float y = 0;
+        for(int i=0; i<len; i++) {
+            final char character = str.charAt(i);
+            if (character == '\n') {
+                y += advanceY;
+                advanceTotal = 0;
+                continue;
+            } else if (character == ' ') {
+                advanceTotal += font.getAdvanceWidth(Glyph.ID_SPACE, fontSize);
+                continue;
+            }
+            final Glyph glyph = font.getGlyph(character);
+            final GlyphMeshCache.Mesh mesh = cache.get(font, glyph);
+            if(null != mesh) {
+                final int k = glyphString.meshes.size()*3;
+                glyphString.meshPlacements[k  ] = advanceTotal;
+                glyphString.meshPlacements[k+1] = y;
+                glyphString.meshPlacements[k+2] = scale;
+                glyphString.meshes.add(mesh);
+            }
+            advanceTotal += glyph.getAdvance(fontSize, true);
+        }
+        return glyphString;
+    }
+    
     /** Create a new GlyphString object
      * @param fontname the name of the font that this String is
      * associated with
@@ -146,12 +197,18 @@ public class GlyphString {
         
         int numVertices = region.getNumVertices();
         
+        if(null != meshes) {
+            for(int i=0; i<meshes.size(); i++) {
+                addMesh(meshes.get(i), meshPlacements[i*3], meshPlacements[i*3+1], meshPlacements[i*3+2]);
+            }
+        }
+        
         for(int i=0; i< glyphs.size(); i++) {
             final GlyphShape glyph = glyphs.get(i);
             ArrayList<Triangle> gtris = glyph.triangulate();
             region.addTriangles(gtris);
             
-            final ArrayList<Vertex> gVertices = glyph.getVertices();
+            final List<Vertex> gVertices = glyph.getVertices();
             for(int j=0; j<gVertices.size(); j++) {
                 final Vertex gVert = gVertices.get(j);
                 gVert.setId(numVertices++);
@@ -161,6 +218,15 @@ public class GlyphString {
         return region;
     }
     
+    /** Adds the scaled and translated mesh to the region's vertex store. */
+    private void addMesh(GlyphMeshCache.Mesh mesh, float tx, float ty, float scale) {
+        final int base = region.getVertexStore().add(mesh.vertices, scale, tx, ty);
+        final int[] indices = mesh.indices;
+        for(int j=0; j<indices.length; j+=3) {
+            region.addTriangle(base+indices[j], base+indices[j+1], base+indices[j+2]);
+        }
+    }
+    
     /** Generate a Hashcode for this object 
      * @return a string defining the hashcode
      */
@@ -205,6 +271,7 @@ public class GlyphString {
             throw new InternalError("destroy called w/o GL context, but has a region");
         }
         glyphs.clear();
+        meshes = null;
     }
     
     public AABBox getBounds(){
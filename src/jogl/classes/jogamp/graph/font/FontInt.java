@@ -43,5 +43,11 @@ public interface FontInt extends Font {
         public Path2D getPath(float pixelSize);         
     }
 
+    /** Returns the glyph cache of this font, allowing to adjust its limit and to query its statistics. */
+    public GlyphCache getGlyphCache();
+
+    /** Returns the unscaled {@link OutlineShape} of the given glyph in font units. */
+    public OutlineShape getOutlineShape(Glyph glyph, Factory<? extends Vertex> vertexFactory);
+
     public ArrayList<OutlineShape> getOutlineShapes(CharSequence string, float pixelSize, Factory<? extends Vertex> vertexFactory);
 }
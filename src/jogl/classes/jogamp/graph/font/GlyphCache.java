@@ -0,0 +1,191 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.graph.font;
+
+import jogamp.opengl.Debug;
+
+import com.jogamp.common.util.IntObjectHashMap;
+import com.jogamp.graph.font.Font.Glyph;
+
+/**
+ * Size bounded least-recently-used glyph cache.
+ * <p>
+ * Each glyph is weighted by the number of coordinates of its outline path,
+ * which dominates its memory footprint. If the summed weight exceeds the limit,
+ * the least recently used glyphs are evicted. The most recent glyph is always kept.
+ * </p>
+ * <p>
+ * Glyphs are keyed by their symbol in a primitive int map, the recency order
+ * is kept in a doubly linked list through the entries.
+ * </p>
+ * <p>
+ * The default limit may be set via the property <code>jogl.graph.font.glyphcache.limit</code>,
+ * a limit of 0 disables eviction.
+ * </p>
+ */
+public class GlyphCache {
+    /** Default weight limit, about 4MB of outline coordinates per font */
+    public static final int DEFAULT_LIMIT;
+
+    static {
+        int limit = 512 * 1024;
+        final String s = Debug.getProperty("jogl.graph.font.glyphcache.limit", true);
+        if( null != s ) {
+            try {
+                limit = Integer.parseInt(s);
+            } catch (NumberFormatException nfe) {
+                System.err.println("GlyphCache: invalid jogl.graph.font.glyphcache.limit: "+s);
+            }
+        }
+        DEFAULT_LIMIT = limit;
+    }
+
+    /** Computes the weight of a glyph. */
+    public static interface Weigher {
+        int weight(Glyph glyph);
+    }
+
+    /** Map entry and node of the recency list */
+    private static final class Entry {
+        final char symbol;
+        Glyph glyph;
+        int weight;
+        Entry prev, next;
+
+        Entry(char symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private final IntObjectHashMap map;
+    private final Entry head = new Entry((char)0); // sentinel, head.next is the least recently used
+    private final Weigher weigher;
+    private int limit;
+    private long weight = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param weigher computes the weight of a glyph
+     * @param limit weight limit, 0 disables eviction
+     * @param initialCapacity initial capacity of the map, e.g. the number of cmap entries
+     */
+    public GlyphCache(Weigher weigher, int limit, int initialCapacity) {
+        this.weigher = weigher;
+        this.limit = limit;
+        this.map = new IntObjectHashMap(Math.max(16, initialCapacity));
+        head.prev = head;
+        head.next = head;
+    }
+
+    /** Returns the cached glyph, or null if not cached. */
+    public synchronized Glyph get(char symbol) {
+        final Entry e = (Entry) map.get(symbol);
+        if( null != e ) {
+            hits++;
+            unlink(e);
+            linkLast(e);
+            return e.glyph;
+        }
+        misses++;
+        return null;
+    }
+
+    /** Adds the glyph and evicts the least recently used ones if the limit is exceeded. */
+    public synchronized void put(char symbol, Glyph glyph) {
+        Entry e = (Entry) map.get(symbol);
+        if( null != e ) {
+            weight -= e.weight;
+            unlink(e);
+        } else {
+            e = new Entry(symbol);
+            map.put(symbol, e);
+        }
+        e.glyph = glyph;
+        e.weight = weigher.weight(glyph);
+        weight += e.weight;
+        linkLast(e);
+        evict();
+    }
+
+    private void unlink(Entry e) {
+        e.prev.next = e.next;
+        e.next.prev = e.prev;
+    }
+
+    private void linkLast(Entry e) {
+        e.prev = head.prev;
+        e.next = head;
+        head.prev.next = e;
+        head.prev = e;
+    }
+
+    private void evict() {
+        if( 0 >= limit ) {
+            return;
+        }
+        while( weight > limit && map.size() > 1 ) {
+            final Entry e = head.next;
+            unlink(e);
+            map.remove(e.symbol);
+            weight -= e.weight;
+            evictions++;
+        }
+    }
+
+    /** Sets the weight limit, 0 disables eviction. */
+    public synchronized void setLimit(int limit) {
+        this.limit = limit;
+        evict();
+    }
+
+    public synchronized int getLimit() { return limit; }
+
+    /** Returns the summed weight of all cached glyphs. */
+    public synchronized long getWeight() { return weight; }
+
+    public synchronized int size() { return map.size(); }
+
+    public synchronized long getHits() { return hits; }
+
+    public synchronized long getMisses() { return misses; }
+
+    public synchronized long getEvictions() { return evictions; }
+
+    public synchronized void clear() {
+        map.clear();
+        head.prev = head;
+        head.next = head;
+        weight = 0;
+    }
+
+    public synchronized String toString() {
+        return "GlyphCache[glyphs "+map.size()+", weight "+weight+"/"+limit+", hits "+hits+", misses "+misses+", evictions "+evictions+"]";
+    }
+}
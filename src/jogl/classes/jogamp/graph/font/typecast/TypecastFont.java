@@ -30,6 +30,7 @@ package jogamp.graph.font.typecast;
 import java.util.ArrayList;
 
 import jogamp.graph.font.FontInt;
+import jogamp.graph.font.GlyphCache;
 import jogamp.graph.font.typecast.ot.OTFont;
 import jogamp.graph.font.typecast.ot.OTFontCollection;
 import jogamp.graph.font.typecast.ot.table.CmapFormat;
@@ -40,7 +41,6 @@ import jogamp.graph.font.typecast.ot.table.ID;
 import jogamp.graph.geom.plane.AffineTransform;
 import jogamp.graph.geom.plane.Path2D;
 
-import com.jogamp.common.util.IntObjectHashMap;
 import com.jogamp.graph.curve.OutlineShape;
 import com.jogamp.graph.font.Font;
 import com.jogamp.graph.font.FontFactory;
@@ -58,8 +58,15 @@ class TypecastFont implements FontInt {
     final CmapFormat cmapFormat;
     int cmapentries;
     
-    // FIXME: Add cache size to limit memory usage ??    
-    IntObjectHashMap char2Glyph; 
+    final GlyphCache char2Glyph; 
+
+    /** Weight: number of coordinates of the unscaled and the lazily scaled path */
+    private static final GlyphCache.Weigher glyphWeigher = new GlyphCache.Weigher() {
+        public int weight(Glyph glyph) {
+            final Path2D path = ((TypecastGlyph) glyph).getPath();
+            return 1 + ( null != path ? 2 * path.coordCount() : 0 );
+        }
+    };
 
     public TypecastFont(OTFontCollection fontset) {
         this.fontset = fontset;
@@ -145,7 +152,7 @@ class TypecastFont implements FontInt {
                 }
             }
         }
-        char2Glyph = new IntObjectHashMap(cmapentries + cmapentries/4);
+        char2Glyph = new GlyphCache(glyphWeigher, GlyphCache.DEFAULT_LIMIT, cmapentries + cmapentries/4);
     }
     
     public StringBuilder getName(StringBuilder sb, int nameIndex) {
@@ -167,6 +174,10 @@ class TypecastFont implements FontInt {
         return font.getHmtxTable().getAdvanceWidth(i) * metrics.getScale(pixelSize);        
     }
     
+    public GlyphCache getGlyphCache() {
+        return char2Glyph;
+    }
+    
     public Metrics getMetrics() {
         if (metrics == null) {
             metrics = new TypecastHMetrics(this);
@@ -224,6 +235,10 @@ class TypecastFont implements FontInt {
     	return TypecastRenderer.getOutlineShapes(this, string, pixelSize, transform, vertexFactory);
     }
 
+    public OutlineShape getOutlineShape(Glyph glyph, Factory<? extends Vertex> vertexFactory) {
+        return TypecastRenderer.getOutlineShape(((GlyphInt)glyph).getPath(), new AffineTransform(vertexFactory), vertexFactory);
+    }
+
     public float getStringWidth(CharSequence string, float pixelSize) {
         float width = 0;
         final int len = string.length();
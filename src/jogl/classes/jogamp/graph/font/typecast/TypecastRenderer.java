@@ -100,38 +100,47 @@ public class TypecastRenderer {
             if(paths[index] == null){
                 continue;
             }
-            OutlineShape shape = new OutlineShape(vertexFactory);
-            shapes.add(shape);
-            PathIterator iterator = paths[index].iterator(transform);
-            if(null != iterator){
-                while(!iterator.isDone()){
-                    float[] coords = new float[6];
-                    int segmentType = iterator.currentSegment(coords);
-                    addPathVertexToOutline(shape, vertexFactory, coords, segmentType);
-                    iterator.next();
-                }
-            }
+            shapes.add(getOutlineShape(paths[index], transform, vertexFactory));
         }
         return shapes;
     }
-    private static void addPathVertexToOutline(OutlineShape shape, Factory<? extends Vertex> vertexFactory, float[] coords, int segmentType){
+
+    /**
+     * Build an {@link OutlineShape} from the given {@link Path2D}, 
+     * e.g. the unscaled font unit space path of a single glyph.
+     */
+    public static OutlineShape getOutlineShape(Path2D path, AffineTransform transform, Factory<? extends Vertex> vertexFactory) {
+        OutlineShape shape = new OutlineShape(vertexFactory);
+        PathIterator iterator = path.iterator(transform);
+        if(null != iterator){
+            while(!iterator.isDone()){
+                float[] coords = new float[6];
+                int segmentType = iterator.currentSegment(coords);
+                addPathVertexToOutline(shape, coords, segmentType);
+                iterator.next();
+            }
+        }
+        return shape;
+    }
+
+    private static void addPathVertexToOutline(OutlineShape shape, float[] coords, int segmentType){
         switch(segmentType) {
         case PathIterator.SEG_MOVETO:
             shape.closeLastOutline();
             shape.addEmptyOutline();
-            shape.addVertex(0, vertexFactory.create(coords, 0, 2, true));            
+            shape.addVertex(0, coords[0], coords[1], 0f, true);            
             break;
         case PathIterator.SEG_LINETO:
-            shape.addVertex(0, vertexFactory.create(coords, 0, 2, true));            
+            shape.addVertex(0, coords[0], coords[1], 0f, true);            
             break;
         case PathIterator.SEG_QUADTO:
-            shape.addVertex(0, vertexFactory.create(coords, 0, 2, false));
-            shape.addVertex(0, vertexFactory.create(coords, 2, 2, true));            
+            shape.addVertex(0, coords[0], coords[1], 0f, false);
+            shape.addVertex(0, coords[2], coords[3], 0f, true);            
             break;
         case PathIterator.SEG_CUBICTO:
-            shape.addVertex(0, vertexFactory.create(coords, 0, 2, false));
-            shape.addVertex(0, vertexFactory.create(coords, 2, 2, false));
-            shape.addVertex(0, vertexFactory.create(coords, 4, 2, true));            
+            shape.addVertex(0, coords[0], coords[1], 0f, false);
+            shape.addVertex(0, coords[2], coords[3], 0f, false);
+            shape.addVertex(0, coords[4], coords[5], 0f, true);            
             break;
         case PathIterator.SEG_CLOSE:
             shape.closeLastOutline();
@@ -52,6 +52,7 @@ package jogamp.graph.font.typecast.ot;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import jogamp.graph.font.typecast.ot.table.CmapTable;
 import jogamp.graph.font.typecast.ot.table.DirectoryEntry;
@@ -81,7 +82,10 @@ public class OTFont {
 
     private OTFontCollection _fc;
     private TableDirectory _tableDirectory = null;
-    private Table[] _tables;
+    private ByteBuffer _data;
+    private int _tablesOrigin;
+    private Table[] _tables; // by directory entry, parsed on demand
+    private boolean[] _tablesRead;
     private Os2Table _os2;
     private CmapTable _cmap;
     private GlyfTable _glyf;
@@ -105,10 +109,11 @@ public class OTFont {
         if(null == sb) {
             sb = new StringBuilder();
         }        
-        return _name.getRecordsRecordString(sb, nameIndex);
+        return getNameTable().getRecordsRecordString(sb, nameIndex);
     }
     
     public StringBuilder getAllNames(StringBuilder sb, String separator) {
+        final NameTable _name = getNameTable();
         if(null != _name) {
             if(null == sb) {
                 sb = new StringBuilder();
@@ -120,20 +125,37 @@ public class OTFont {
         return sb;  
     }
     
-    public Table getTable(int tableType) {
+    /**
+     * Returns the table of the given type, which is parsed on first access.
+     */
+    public synchronized Table getTable(int tableType) {
         for (int i = 0; i < _tables.length; i++) {
-            if ((_tables[i] != null) && (_tables[i].getType() == tableType)) {
+            if (_tableDirectory.getEntry(i).getTag() == tableType) {
+                if (!_tablesRead[i]) {
+                    _tablesRead[i] = true;
+                    try {
+                        _tables[i] = readTable(_tableDirectory.getEntry(i));
+                    } catch (IOException e) {
+                        throw new RuntimeException("Error reading table "+_tableDirectory.getEntry(i), e);
+                    }
+                }
                 return _tables[i];
             }
         }
         return null;
     }
 
-    public Os2Table getOS2Table() {
+    public synchronized Os2Table getOS2Table() {
+        if (_os2 == null) {
+            _os2 = (Os2Table) getTable(Table.OS_2);
+        }
         return _os2;
     }
     
-    public CmapTable getCmapTable() {
+    public synchronized CmapTable getCmapTable() {
+        if (_cmap == null) {
+            _cmap = (CmapTable) getTable(Table.cmap);
+        }
         return _cmap;
     }
     
@@ -145,11 +167,17 @@ public class OTFont {
         return _hhea;
     }
     
-    public HdmxTable getHdmxTable() {
+    public synchronized HdmxTable getHdmxTable() {
+        if (_hdmx == null) {
+            _hdmx = (HdmxTable) getTable(Table.hdmx);
+        }
         return _hdmx;
     }
     
-    public HmtxTable getHmtxTable() {
+    public synchronized HmtxTable getHmtxTable() {
+        if (_hmtx == null) {
+            _hmtx = (HmtxTable) getTable(Table.hmtx);
+        }
         return _hmtx;
     }
     
@@ -161,11 +189,17 @@ public class OTFont {
         return _maxp;
     }
 
-    public NameTable getNameTable() {
+    public synchronized NameTable getNameTable() {
+        if (_name == null) {
+            _name = (NameTable) getTable(Table.name);
+        }
         return _name;
     }
 
-    public PostTable getPostTable() {
+    public synchronized PostTable getPostTable() {
+        if (_post == null) {
+            _post = (PostTable) getTable(Table.post);
+        }
         return _post;
     }
 
@@ -173,6 +207,13 @@ public class OTFont {
         return _vhea;
     }
 
+    private synchronized GlyfTable getGlyfTable() {
+        if (_glyf == null) {
+            _glyf = (GlyfTable) getTable(Table.glyf);
+        }
+        return _glyf;
+    }
+
     public int getAscent() {
         return _hhea.getAscender();
     }
@@ -187,7 +228,8 @@ public class OTFont {
 
     public OTGlyph getGlyph(int i) {
         
-        final GlyfDescript _glyfDescr = _glyf.getDescription(i); 
+        final GlyfDescript _glyfDescr = getGlyfTable().getDescription(i); 
+        final HmtxTable _hmtx = getHmtxTable();
         return (null != _glyfDescr)
             ? new OTGlyph(
                 _glyfDescr,
@@ -200,21 +242,20 @@ public class OTFont {
         return _tableDirectory;
     }
     
-    private Table readTable(
-            DataInputStream dis,
-            int tablesOrigin,
-            int tag) throws IOException {
-        dis.reset();
-        DirectoryEntry entry = _tableDirectory.getEntryByTag(tag);
-        if (entry == null) {
-            return null;
-        }
-        dis.skip(tablesOrigin + entry.getOffset());
-        return TableFactory.create(_fc, this, entry, dis);
+    private Table readTable(DirectoryEntry entry) throws IOException {
+        ByteBuffer tableData = _data.duplicate();
+        tableData.position(_tablesOrigin + entry.getOffset());
+        tableData.limit(_tablesOrigin + entry.getOffset() + entry.getLength());
+        return TableFactory.create(_fc, this, entry, tableData.slice());
     }
 
     /**
-     * @param dis OpenType/TrueType font file data.
+     * Reads the table directory and the tables required to parse the others,
+     * i.e. 'head', 'hhea', 'maxp', 'loca' and 'vhea'.
+     * All other tables are parsed on first access, see {@link #getTable(int)},
+     * hence the font file data must remain valid.
+     *
+     * @param data OpenType/TrueType font file data, not modified.
      * @param directoryOffset The Table Directory offset within the file.  For a
      * regular TTF/OTF file this will be zero, but for a TTC (Font Collection)
      * the offset is retrieved from the TTC header.  For a Mac font resource,
@@ -225,62 +266,25 @@ public class OTFont {
      * individual font resource data.
      */
     protected void read(
-            DataInputStream dis,
+            ByteBuffer data,
             int directoryOffset,
             int tablesOrigin) throws IOException {
+        _data = data;
+        _tablesOrigin = tablesOrigin;
         
         // Load the table directory
-        dis.reset();
-        dis.skip(directoryOffset);
-        _tableDirectory = new TableDirectory(dis);
+        ByteBuffer dirData = data.duplicate();
+        dirData.position(directoryOffset);
+        _tableDirectory = new TableDirectory(new DataInputStream(new ByteBufferInputStream(dirData)));
         _tables = new Table[_tableDirectory.getNumTables()];
+        _tablesRead = new boolean[_tableDirectory.getNumTables()];
         
-        // Load some prerequisite tables
-        _head = (HeadTable) readTable(dis, tablesOrigin, Table.head);
-        _hhea = (HheaTable) readTable(dis, tablesOrigin, Table.hhea);
-        _maxp = (MaxpTable) readTable(dis, tablesOrigin, Table.maxp);
-        _loca = (LocaTable) readTable(dis, tablesOrigin, Table.loca);
-        _vhea = (VheaTable) readTable(dis, tablesOrigin, Table.vhea);
-
-        int index = 0;
-        _tables[index++] = _head;
-        _tables[index++] = _hhea;
-        _tables[index++] = _maxp;
-        if (_loca != null) {
-            _tables[index++] = _loca;
-        }
-        if (_vhea != null) {
-            _tables[index++] = _vhea;
-        }
-        
-        // Load all other tables
-        for (int i = 0; i < _tableDirectory.getNumTables(); i++) {
-            DirectoryEntry entry = _tableDirectory.getEntry(i);
-            if (entry.getTag() == Table.head
-                    || entry.getTag() == Table.hhea
-                    || entry.getTag() == Table.maxp
-                    || entry.getTag() == Table.loca
-                    || entry.getTag() == Table.vhea) {
-                continue;
-            }
-            dis.reset();
-            dis.skip(tablesOrigin + entry.getOffset());
-            _tables[index] = TableFactory.create(_fc, this, entry, dis);
-            ++index;
-        }
-
-        // Get references to commonly used tables (these happen to be all the
-        // required tables)
-        _cmap = (CmapTable) getTable(Table.cmap);
-        _hdmx = (HdmxTable) getTable(Table.hdmx);
-        _hmtx = (HmtxTable) getTable(Table.hmtx);
-        _name = (NameTable) getTable(Table.name);
-        _os2 = (Os2Table) getTable(Table.OS_2);
-        _post = (PostTable) getTable(Table.post);
-
-        // If this is a TrueType outline, then we'll have at least the
-        // 'glyf' table (along with the 'loca' table)
-        _glyf = (GlyfTable) getTable(Table.glyf);
+        // Load some prerequisite tables, in dependency order
+        _head = (HeadTable) getTable(Table.head);
+        _hhea = (HheaTable) getTable(Table.hhea);
+        _maxp = (MaxpTable) getTable(Table.maxp);
+        _loca = (LocaTable) getTable(Table.loca);
+        _vhea = (VheaTable) getTable(Table.vhea);
     }
 
     public String toString() {
@@ -21,10 +21,11 @@
 package jogamp.graph.font.typecast.ot;
 
 import java.io.File;
-import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 
 import java.util.ArrayList;
 
@@ -84,7 +85,7 @@ public class OTFontCollection {
         return _ttcHeader;
     }
 
-    public Table getTable(DirectoryEntry de) {
+    public synchronized Table getTable(DirectoryEntry de) {
         for (int i = 0; i < _tables.size(); i++) {
             Table table = _tables.get(i);
             if ((table.getDirectoryEntry().getTag() == de.getTag()) &&
@@ -95,7 +96,7 @@ public class OTFontCollection {
         return null;
     }
 
-    public void addTable(Table table) {
+    public synchronized void addTable(Table table) {
         _tables.add(table);
     }
 
@@ -120,9 +121,10 @@ public class OTFontCollection {
             _resourceFork = true;
         }
 
-        DataInputStream dis = new DataInputStream(
-            new BufferedInputStream(
-                new FileInputStream(file), (int) file.length()));
+        // The file is mapped, not read: tables are parsed on demand
+        // from the mapping, see OTFont
+        ByteBuffer data = map(file);
+        DataInputStream dis = new DataInputStream(new ByteBufferInputStream(data.duplicate()));
         dis.mark((int) file.length());
 
         if (_resourceFork || _pathName.endsWith(".dfont")) {
@@ -145,7 +147,7 @@ public class OTFontCollection {
                 _fonts[i] = new OTFont(this);
                 int offset = resourceHeader.getDataOffset() +
                         resourceReference.getDataOffset() + 4;
-                _fonts[i].read(dis, offset, offset);
+                _fonts[i].read(data, offset, offset);
             }
 
         } else if (TTCHeader.isTTC(dis)) {
@@ -156,15 +158,33 @@ public class OTFontCollection {
             _fonts = new OTFont[_ttcHeader.getDirectoryCount()];
             for (int i = 0; i < _ttcHeader.getDirectoryCount(); i++) {
                 _fonts[i] = new OTFont(this);
-                _fonts[i].read(dis, _ttcHeader.getTableDirectory(i), 0);
+                _fonts[i].read(data, _ttcHeader.getTableDirectory(i), 0);
             }
         } else {
 
             // This is a standalone font file
             _fonts = new OTFont[1];
             _fonts[0] = new OTFont(this);
-            _fonts[0].read(dis, 0, 0);
+            _fonts[0].read(data, 0, 0);
         }
         dis.close();
     }
+
+    private static ByteBuffer map(File file) throws IOException {
+        FileInputStream fis = new FileInputStream(file);
+        try {
+            // The mapping stays valid after closing the channel
+            FileChannel chan = fis.getChannel();
+            return chan.map(FileChannel.MapMode.READ_ONLY, 0, chan.size());
+        } catch (IOException e) {
+            // e.g. a resource fork, which may not be mappable: read it instead
+            fis.close();
+            fis = new FileInputStream(file);
+            byte[] buf = new byte[(int) file.length()];
+            new DataInputStream(fis).readFully(buf);
+            return ByteBuffer.wrap(buf);
+        } finally {
+            fis.close();
+        }
+    }
 }
@@ -50,70 +50,97 @@
 
 package jogamp.graph.font.typecast.ot.table;
 
-import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import jogamp.graph.font.typecast.ot.ByteBufferInputStream;
 
 /**
+ * The glyph descriptions are parsed on demand, see {@link #getDescription(int)}.
+ *
  * @version $Id: GlyfTable.java,v 1.6 2010-08-10 11:46:30 davidsch Exp $
  * @author <a href="mailto:davidsch@dev.java.net">David Schweinsberg</a>
  */
 public class GlyfTable implements Table {
 
+    private static final byte UNREAD = 0;
+    private static final byte READING = 1;
+    private static final byte READ = 2;
+
     private DirectoryEntry _de;
+    private ByteBuffer _data;
+    private LocaTable _loca;
     private GlyfDescript[] _descript;
+    private byte[] _state;
 
     protected GlyfTable(
             DirectoryEntry de,
             DataInput di,
             MaxpTable maxp,
             LocaTable loca) throws IOException {
+        this(de, readFully(de, di), maxp, loca);
+    }
+
+    /**
+     * @param data the table data starting at its position, referenced, not modified
+     */
+    protected GlyfTable(
+            DirectoryEntry de,
+            ByteBuffer data,
+            MaxpTable maxp,
+            LocaTable loca) {
         _de = (DirectoryEntry) de.clone();
+        _data = data.slice();
+        _loca = loca;
         _descript = new GlyfDescript[maxp.getNumGlyphs()];
-        
-        // Buffer the whole table so we can randomly access it
+        _state = new byte[maxp.getNumGlyphs()];
+    }
+
+    private static ByteBuffer readFully(DirectoryEntry de, DataInput di) throws IOException {
         byte[] buf = new byte[de.getLength()];
         di.readFully(buf);
-        ByteArrayInputStream bais = new ByteArrayInputStream(buf);
-        
-        // Process all the simple glyphs
-        for (int i = 0; i < maxp.getNumGlyphs(); i++) {
-            int len = loca.getOffset(i + 1) - loca.getOffset(i);
-            if (len > 0) {
-                bais.reset();
-                bais.skip(loca.getOffset(i));
-                DataInputStream dis = new DataInputStream(bais);
-                short numberOfContours = dis.readShort();
-                if (numberOfContours >= 0) {
-                    _descript[i] = new GlyfSimpleDescript(this, i, numberOfContours, dis);
-                }
-            } else {
-                _descript[i] = null;
-            }
-        }
+        return ByteBuffer.wrap(buf);
+    }
 
-        // Now do all the composite glyphs
-        for (int i = 0; i < maxp.getNumGlyphs(); i++) {
-            int len = loca.getOffset(i + 1) - loca.getOffset(i);
-            if (len > 0) {
-                bais.reset();
-                bais.skip(loca.getOffset(i));
-                DataInputStream dis = new DataInputStream(bais);
-                short numberOfContours = dis.readShort();
-                if (numberOfContours < 0) {
-                    _descript[i] = new GlyfCompositeDescript(this, i, dis);
-                }
+    /**
+     * Returns the description of the given glyph, parsed on first access,
+     * or null if the glyph has no outline.
+     */
+    public synchronized GlyfDescript getDescription(int i) {
+        if (i < 0 || i >= _descript.length) {
+            return null;
+        }
+        if (_state[i] == UNREAD) {
+            // a composite referencing itself, directly or indirectly,
+            // sees its own description as null while being read
+            _state[i] = READING;
+            try {
+                _descript[i] = readDescription(i);
+            } catch (IOException e) {
+                throw new RuntimeException("Error reading glyph "+i, e);
+            } finally {
+                _state[i] = READ;
             }
         }
+        return _descript[i];
     }
 
-    public GlyfDescript getDescription(int i) {
-        if (i < _descript.length) {
-            return _descript[i];
-        } else {
+    private GlyfDescript readDescription(int i) throws IOException {
+        int len = _loca.getOffset(i + 1) - _loca.getOffset(i);
+        if (len <= 0) {
             return null;
         }
+        ByteBuffer glyphData = _data.duplicate();
+        glyphData.position(_loca.getOffset(i));
+        DataInputStream dis = new DataInputStream(new ByteBufferInputStream(glyphData));
+        short numberOfContours = dis.readShort();
+        if (numberOfContours >= 0) {
+            return new GlyfSimpleDescript(this, i, numberOfContours, dis);
+        } else {
+            return new GlyfCompositeDescript(this, i, dis);
+        }
     }
 
     public int getType() {
@@ -52,7 +52,9 @@ package jogamp.graph.font.typecast.ot.table;
 
 import java.io.DataInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 
+import jogamp.graph.font.typecast.ot.ByteBufferInputStream;
 import jogamp.graph.font.typecast.ot.OTFont;
 import jogamp.graph.font.typecast.ot.OTFontCollection;
 
@@ -63,6 +65,33 @@ import jogamp.graph.font.typecast.ot.OTFontCollection;
  */
 public class TableFactory {
 
+    /**
+     * Creates the table from the given table data, starting at its position.
+     * The 'glyf' table keeps a reference to the data and parses
+     * the glyph descriptions on demand.
+     */
+    public static Table create(
+            OTFontCollection fc,
+            OTFont font,
+            DirectoryEntry de,
+            ByteBuffer data) throws IOException {
+        if (de.getTag() == Table.glyf) {
+            Table t = null;
+            if (fc != null) {
+                t = fc.getTable(de);
+                if (t != null) {
+                    return t;
+                }
+            }
+            t = new GlyfTable(de, data, font.getMaxpTable(), font.getLocaTable());
+            if (fc != null) {
+                fc.addTable(t);
+            }
+            return t;
+        }
+        return create(fc, font, de, new DataInputStream(new ByteBufferInputStream(data)));
+    }
+
     public static Table create(
             OTFontCollection fc,
             OTFont font,
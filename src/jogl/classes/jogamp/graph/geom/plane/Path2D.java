@@ -245,6 +245,11 @@ public final class Path2D implements Cloneable {
         return typeSize;
     }
     
+    /** Returns the number of coordinates, i.e. twice the number of points */
+    final public int coordCount() {
+        return pointSize;
+    }
+    
     final public boolean isClosed() {
         return typeSize > 0 && types[typeSize - 1] == PathIterator.SEG_CLOSE ;
     }
@@ -28,6 +28,7 @@
 package jogamp.opengl;
 
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 import javax.media.opengl.FPSCounter;
@@ -42,6 +43,17 @@ public class FPSCounterImpl implements FPSCounter {
     private int  fpsTotalFrames;
     private float fpsLast, fpsTotal;
     
+    /** 
+     * Log-linear histogram of frame durations in microseconds, 
+     * {@link #HISTO_SUB_BUCKETS} linear buckets per power of two. 
+     */
+    private static final int HISTO_SUB_BITS = 4;
+    private static final int HISTO_SUB_BUCKETS = 1 << HISTO_SUB_BITS;
+    private final int[] frameHisto = new int[ ( 32 - HISTO_SUB_BITS ) * HISTO_SUB_BUCKETS ];
+    private int frameHistoCount;
+    private long lastFrameTime; // nanoseconds, 0 if none
+    private int missedDeadlines;
+    
     /** Creates a disabled instance */
     public FPSCounterImpl() {
         setUpdateFPSFrames(0, null);
@@ -54,10 +66,27 @@ public class FPSCounterImpl implements FPSCounter {
      * Shall be called by actual FPSCounter implementing renderer, after display a new frame.
      *  
      */
-    public final synchronized void tickFPS() {
+    public final void tickFPS() {
+        tickFPS(System.nanoTime());
+    }
+    
+    /**
+     * Variant of {@link #tickFPS()} using the given frame completion time, 
+     * allowing the frame duration statistics to be fed by a deterministic clock.
+     * 
+     * @param t frame completion time in nanoseconds, based on {@link System#nanoTime()}
+     */
+    public final synchronized void tickFPS(long t) {
         fpsTotalFrames++;
+        if(fpsUpdateFramesInterval>0) {
+            if( 0 != lastFrameTime ) {
+                frameHisto[histoIndex( ( t - lastFrameTime ) / 1000L )]++;
+                frameHistoCount++;
+            }
+            lastFrameTime = t;
+        }
         if(fpsUpdateFramesInterval>0 && fpsTotalFrames%fpsUpdateFramesInterval == 0) {
-            final long now = TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+            final long now = TimeUnit.NANOSECONDS.toMillis(t);
             fpsLastPeriod = now - fpsLastUpdateTime;
             fpsLastPeriod = Math.max(fpsLastPeriod, 1); // div 0 
             fpsLast = ( (float)fpsUpdateFramesInterval * 1000f ) / ( (float) fpsLastPeriod ) ; 
@@ -74,6 +103,34 @@ public class FPSCounterImpl implements FPSCounter {
         }
     }
     
+    /**
+     * Counts a frame which missed its deadline.<br>
+     * 
+     * Shall be called by a deadline pacing animator.
+     */
+    public final synchronized void tickMissedDeadline() {
+        missedDeadlines++;
+    }
+    
+    private static final int histoIndex(long micros) {
+        if( micros < HISTO_SUB_BUCKETS ) {
+            return micros > 0 ? (int) micros : 0;
+        }
+        final int v = micros > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) micros;
+        final int shift = 31 - Integer.numberOfLeadingZeros(v) - HISTO_SUB_BITS;
+        return ( shift + 1 ) * HISTO_SUB_BUCKETS + ( ( v >>> shift ) & ( HISTO_SUB_BUCKETS - 1 ) );
+    }
+    
+    /** @return the center value of the bucket in microseconds */
+    private static final float histoValue(int index) {
+        if( index < HISTO_SUB_BUCKETS ) {
+            return index;
+        }
+        final int shift = index / HISTO_SUB_BUCKETS - 1;
+        final int lower = ( HISTO_SUB_BUCKETS + index % HISTO_SUB_BUCKETS ) << shift;
+        return lower + ( ( 1 << shift ) - 1 ) / 2f;
+    }
+    
     public StringBuilder toString(StringBuilder sb) {
         if(null==sb) {
             sb = new StringBuilder();
@@ -84,6 +141,12 @@ public class FPSCounterImpl implements FPSCounter {
         fpsTotalS = fpsTotalS.substring(0, fpsTotalS.indexOf('.') + 2);                
         sb.append(fpsTotalDuration/1000 +" s: "+ fpsUpdateFramesInterval+" f / "+ fpsLastPeriod+" ms, " + fpsLastS+" fps, "+ fpsLastPeriod/fpsUpdateFramesInterval+" ms/f; "+
                   "total: "+ fpsTotalFrames+" f, "+ fpsTotalS+ " fps, "+ fpsTotalDuration/fpsTotalFrames+" ms/f");
+        if( 0 < frameHistoCount ) {
+            sb.append("; frame p50 "+getFrameDurationPercentile(0.5f)+" ms, p99 "+getFrameDurationPercentile(0.99f)+" ms");
+        }
+        if( 0 < missedDeadlines ) {
+            sb.append(", missed "+missedDeadlines+" f");
+        }
         return sb;
     }
     
@@ -103,6 +166,10 @@ public class FPSCounterImpl implements FPSCounter {
         fpsLastPeriod = 0;
         fpsTotalFrames = 0;
         fpsLast = 0f; fpsTotal = 0f;
+        Arrays.fill(frameHisto, 0);
+        frameHistoCount = 0;
+        lastFrameTime = 0;
+        missedDeadlines = 0;
     }
 
     public final synchronized int getUpdateFPSFrames() {
@@ -136,4 +203,23 @@ public class FPSCounterImpl implements FPSCounter {
     public final synchronized float getTotalFPS() {
         return fpsTotal;
     }        
+    
+    public final synchronized float getFrameDurationPercentile(float percentile) {
+        if( 0 == frameHistoCount ) {
+            return 0f;
+        }
+        final int rank = Math.max(1, (int) Math.ceil( Math.min(Math.max(percentile, 0f), 1f) * frameHistoCount ));
+        int sum = 0;
+        for(int i = 0; i < frameHisto.length; i++) {
+            sum += frameHisto[i];
+            if( sum >= rank ) {
+                return histoValue(i) / 1000f;
+            }
+        }
+        return histoValue(frameHisto.length - 1) / 1000f;
+    }
+    
+    public final synchronized int getMissedFrameDeadlines() {
+        return missedDeadlines;
+    }
 }
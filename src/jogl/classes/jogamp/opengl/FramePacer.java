@@ -0,0 +1,119 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.opengl;
+
+/**
+ * Deadline schedule of a frame pacing animator, 
+ * see {@link com.jogamp.opengl.util.Animator#setFramePacing(int, int)}.
+ * <p>
+ * All times are passed in by the caller in nanoseconds, 
+ * hence the schedule can be driven by a deterministic clock.
+ * The caller parks for {@link #getParkNanos(long)} while positive, 
+ * reports the actual park duration via {@link #parked(long, long)}
+ * and spins for the remaining time until {@link #getDeadline()}.
+ * </p>
+ * <p>
+ * Not thread safe, shall be used by the animator thread only.
+ * </p>
+ */
+public class FramePacer {
+    /** Frame pacing policy: Skip the frame periods missed by a late frame, keeping the phase of the schedule. */
+    public static final int SKIP = 0;
+    /** Frame pacing policy: Render frames following a late frame without waiting until the schedule is met again. */
+    public static final int CATCH_UP = 1;
+    /** Maximum number of missed frame periods being caught up, more are skipped */
+    public static final int MAX_CATCH_UP = 3;
+    /** Bounds of the adaptive spin duration before a deadline in nanoseconds */
+    public static final long SPIN_MIN = 100000L;
+    public static final long SPIN_MAX = 2000000L;
+    
+    private long deadline; // 0 if not scheduled
+    private long spin = 4 * SPIN_MIN;
+    
+    /** Drops the schedule, the next {@link #schedule(long, int, long, long) scheduled} frame starts a new one. */
+    public final void reset() {
+        deadline = 0;
+    }
+    
+    /** @return the current deadline in nanoseconds, 0 if not scheduled */
+    public final long getDeadline() {
+        return deadline;
+    }
+    
+    /** @return the current spin duration before a deadline in nanoseconds */
+    public final long getSpin() {
+        return spin;
+    }
+    
+    /**
+     * Schedules the deadline of the frame following the one started at <code>frameStart</code>.
+     * <p>
+     * If the frame completed late, the missed periods are skipped, 
+     * unless the policy is {@link #CATCH_UP} and the frame is less than {@link #MAX_CATCH_UP} periods behind
+     * while not exceeding one period itself. In the latter case the deadline stays in the past
+     * and the next frame shall be rendered right away.
+     * </p>
+     * 
+     * @param period frame period in nanoseconds, &gt; 0
+     * @param policy {@link #SKIP} or {@link #CATCH_UP}
+     * @param frameStart start time of the frame in nanoseconds
+     * @param now completion time of the frame in nanoseconds
+     * @return true if the frame missed its deadline, otherwise false
+     */
+    public final boolean schedule(long period, int policy, long frameStart, long now) {
+        if( 0 == deadline ) {
+            deadline = frameStart;
+        }
+        deadline += period;
+        if( now - deadline <= 0 ) {
+            return false;
+        }
+        final long behind = ( now - deadline ) / period; // periods missed beyond this frame's
+        if( CATCH_UP != policy || MAX_CATCH_UP <= behind || period <= now - frameStart ) {
+            deadline += ( behind + 1 ) * period;
+        }
+        return true;
+    }
+    
+    /** @return the duration to park at time <code>now</code> before spinning until the deadline in nanoseconds, 0 if none */
+    public final long getParkNanos(long now) {
+        final long remaining = deadline - now;
+        return remaining > spin ? remaining - spin : 0;
+    }
+    
+    /**
+     * Adapts the spin duration to twice the park overshoot.
+     * 
+     * @param parkNanos the requested park duration in nanoseconds
+     * @param parkedNanos the actual park duration in nanoseconds
+     */
+    public final void parked(long parkNanos, long parkedNanos) {
+        final long overshoot = Math.max(0, parkedNanos - parkNanos);
+        spin = Math.min(SPIN_MAX, Math.max(SPIN_MIN, spin + ( 2 * overshoot - spin ) / 8));
+    }
+}
@@ -493,6 +493,16 @@ public abstract class GLAutoDrawableBase implements GLAutoDrawable, FPSCounter {
     public final float getTotalFPS() {
         return fpsCounter.getTotalFPS();
     }
+
+    @Override
+    public final float getFrameDurationPercentile(float percentile) {
+        return fpsCounter.getFrameDurationPercentile(percentile);
+    }
+
+    @Override
+    public final int getMissedFrameDeadlines() {
+        return fpsCounter.getMissedFrameDeadlines();
+    }
     
     //
     // GLDrawable delegation
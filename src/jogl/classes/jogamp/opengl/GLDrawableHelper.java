@@ -44,6 +44,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.HashSet;
 
+import jogamp.nativewindow.ListenerArray;
+
 import javax.media.nativewindow.NativeSurface;
 import javax.media.nativewindow.NativeWindowException;
 import javax.media.nativewindow.ProxySurface;
@@ -59,6 +61,7 @@ import javax.media.opengl.GLFBODrawable;
 import javax.media.opengl.GLRunnable;
 
 import com.jogamp.opengl.util.Animator;
+import com.jogamp.opengl.util.GLDrawableUtil;
 
 /** Encapsulates the implementation of most of the GLAutoDrawable's
     methods to be able to share it between GLCanvas and GLJPanel. */
@@ -67,9 +70,13 @@ public class GLDrawableHelper {
   private static final boolean PERF_STATS = Debug.isPropertyDefined("jogl.debug.GLDrawable.PerfStats", true);
     
   protected static final boolean DEBUG = GLDrawableImpl.DEBUG;
+  /** Guards compound modifications of listeners and listenersToBeInit */
   private final Object listenersLock = new Object();
-  private final ArrayList<GLEventListener> listeners = new ArrayList<GLEventListener>();
+  /** Copy-on-write listeners, allowing lock free iteration on display */
+  private final ListenerArray<GLEventListener> listeners = new ListenerArray<GLEventListener>(new GLEventListener[0]);
   private final HashSet<GLEventListener> listenersToBeInit = new HashSet<GLEventListener>();
+  /** Size of listenersToBeInit, written while holding listenersLock, skips locking if zero */
+  private volatile int listenersToBeInitCount = 0;
   private final Object glRunnablesLock = new Object();
   private volatile ArrayList<GLRunnableTask> glRunnables = new ArrayList<GLRunnableTask>();
   private boolean autoSwapBufferMode;
@@ -85,6 +92,7 @@ public class GLDrawableHelper {
     synchronized(listenersLock) {
         listeners.clear();
         listenersToBeInit.clear();
+        listenersToBeInitCount = 0;
     }
     autoSwapBufferMode = true;
     skipContextReleaseThread = null;
@@ -99,9 +107,10 @@ public class GLDrawableHelper {
     StringBuilder sb = new StringBuilder();
     sb.append("GLAnimatorControl: "+animatorCtrl+", ");
     synchronized(listenersLock) {
-        sb.append("GLEventListeners num "+listeners.size()+" [");
-        for (int i=0; i < listeners.size(); i++) {
-          Object l = listeners.get(i);
+        final GLEventListener[] _listeners = listeners.getArray();
+        sb.append("GLEventListeners num "+_listeners.length+" [");
+        for (int i=0; i < _listeners.length; i++) {
+          Object l = _listeners[i];
           sb.append(l);
           sb.append("[init ");
           sb.append( !listenersToBeInit.contains(l) );
@@ -283,18 +292,30 @@ public class GLDrawableHelper {
       return drawable;
   }
     
+  /** Earmarks the listener for initialization, must hold listenersLock */
+  private final void markToBeInit(GLEventListener listener) {
+      listenersToBeInit.add(listener);
+      listenersToBeInitCount = listenersToBeInit.size();
+  }
+
+  /** Clears the listener's initialization earmark, must hold listenersLock */
+  private final boolean unmarkToBeInit(GLEventListener listener) {
+      if( 0 < listenersToBeInitCount && listenersToBeInit.remove(listener) ) {
+          listenersToBeInitCount = listenersToBeInit.size();
+          return true;
+      }
+      return false;
+  }
+
   public final void addGLEventListener(GLEventListener listener) {
     addGLEventListener(-1, listener);
   }
 
   public final void addGLEventListener(int index, GLEventListener listener) {
     synchronized(listenersLock) {
-        if(0>index) {
-            index = listeners.size();
-        }
         // GLEventListener may be added after context is created,
         // hence we earmark initialization for the next display call.
-        listenersToBeInit.add(listener);
+        markToBeInit(listener);
         
         listeners.add(index, listener);
     }
@@ -308,38 +329,38 @@ public class GLDrawableHelper {
    */
   public final GLEventListener removeGLEventListener(GLEventListener listener) {
     synchronized(listenersLock) {
-        listenersToBeInit.remove(listener);
+        unmarkToBeInit(listener);
         return listeners.remove(listener) ? listener : null;
     }
   }
 
   public final GLEventListener removeGLEventListener(int index) throws IndexOutOfBoundsException {
     synchronized(listenersLock) {
-        if(0>index) {
-            index = listeners.size()-1;
-        }
         final GLEventListener listener = listeners.remove(index);
-        listenersToBeInit.remove(listener);
+        unmarkToBeInit(listener);
         return listener;
     }
   }
   
   public final int getGLEventListenerCount() {
-    synchronized(listenersLock) {
-        return listeners.size();
-    }      
+    return listeners.size();
   }
 
   public final GLEventListener getGLEventListener(int index) throws IndexOutOfBoundsException {
-    synchronized(listenersLock) {
-        if(0>index) {
-            index = listeners.size()-1;
-        }
-        return listeners.get(index);
+    final GLEventListener[] _listeners = listeners.getArray();
+    if(0>index) {
+        index = _listeners.length-1;
+    }
+    if( 0 > index || index >= _listeners.length ) {
+        throw new IndexOutOfBoundsException("Index "+index+", size "+_listeners.length);
     }
+    return _listeners[index];
   }
   
   public final boolean getGLEventListenerInitState(GLEventListener listener) {
+    if( 0 == listenersToBeInitCount ) { // volatile: ok
+        return true;
+    }
     synchronized(listenersLock) {
         return !listenersToBeInit.contains(listener);
     }
@@ -348,9 +369,9 @@ public class GLDrawableHelper {
   public final void setGLEventListenerInitState(GLEventListener listener, boolean initialized) {
     synchronized(listenersLock) {
         if(initialized) {
-            listenersToBeInit.remove(listener);
+            unmarkToBeInit(listener);
         } else {
-            listenersToBeInit.add(listener);
+            markToBeInit(listener);
         }
     }
   }
@@ -374,7 +395,7 @@ public class GLDrawableHelper {
       synchronized(listenersLock) {
           if( remove ) {              
               if( listeners.remove(listener) ) {
-                  if( !listenersToBeInit.remove(listener) ) {              
+                  if( !unmarkToBeInit(listener) ) {              
                       listener.dispose(autoDrawable);
                   }
                   return listener;
@@ -382,7 +403,7 @@ public class GLDrawableHelper {
           } else {
               if( listeners.contains(listener) && !listenersToBeInit.contains(listener) ) {
                   listener.dispose(autoDrawable);
-                  listenersToBeInit.add(listener);
+                  markToBeInit(listener);
                   return listener;
               }              
           }
@@ -410,7 +431,7 @@ public class GLDrawableHelper {
         if( remove ) {
             for (int count = listeners.size(); 0 < count && 0 < listeners.size(); count--) {
               final GLEventListener listener = listeners.remove(0);
-              if( !listenersToBeInit.remove(listener) ) {
+              if( !unmarkToBeInit(listener) ) {
                   listener.dispose(autoDrawable);
                   disposeCount++;
               }
@@ -420,7 +441,7 @@ public class GLDrawableHelper {
               final GLEventListener listener = listeners.get(i);
               if( !listenersToBeInit.contains(listener) ) {
                   listener.dispose(autoDrawable);
-                  listenersToBeInit.add(listener);
+                  markToBeInit(listener);
                   disposeCount++;
               }
             }            
@@ -451,7 +472,7 @@ public class GLDrawableHelper {
           // fast path for uninitialized listener
           if( listenersToBeInit.contains(listener) ) {
              if( remove ) {
-                 listenersToBeInit.remove(listener);
+                 unmarkToBeInit(listener);
                  return listeners.remove(listener) ? listener : null; 
              }
              return null;
@@ -516,14 +537,14 @@ public class GLDrawableHelper {
    **/
   public final void init(GLAutoDrawable drawable, boolean sendReshape) {
     synchronized(listenersLock) {
-        final ArrayList<GLEventListener> _listeners = listeners;
-        for (int i=0; i < _listeners.size(); i++) {
-          final GLEventListener listener = _listeners.get(i) ;
+        final GLEventListener[] _listeners = listeners.getArray();
+        for (int i=0; i < _listeners.length; i++) {
+          final GLEventListener listener = _listeners[i] ;
 
           // If make ctx current, invoked by invokGL(..), results in a new ctx, init gets called.
           // This may happen not just for initial setup, but for ctx recreation due to resource change (drawable/window),
           // hence it must be called unconditional, always.
-          listenersToBeInit.remove(listener); // remove if exist, avoiding dbl init
+          unmarkToBeInit(listener); // remove if exist, avoiding dbl init
           init( listener, drawable, sendReshape);
         }
     }
@@ -536,13 +557,15 @@ public class GLDrawableHelper {
     }
   }
   private final void displayImpl(GLAutoDrawable drawable) {
+      // holding the lock, a removed or disposed listener is never displayed afterwards;
+      // the snapshot array avoids a copy per frame
       synchronized(listenersLock) {
-          final ArrayList<GLEventListener> _listeners = listeners;
-          for (int i=0; i < _listeners.size(); i++) {
-            final GLEventListener listener = _listeners.get(i) ;
+          final GLEventListener[] _listeners = listeners.getArray();
+          for (int i=0; i < _listeners.length; i++) {
+            final GLEventListener listener = _listeners[i] ;
             // GLEventListener may need to be init, 
             // in case this one is added after the realization of the GLAutoDrawable
-            if( listenersToBeInit.remove(listener) ) {
+            if( unmarkToBeInit(listener) ) {
                 init( listener, drawable, true /* sendReshape */) ;
             }
             listener.display(drawable);
@@ -556,7 +579,7 @@ public class GLDrawableHelper {
         // GLEventListener may need to be init, 
         // in case this one is added after the realization of the GLAutoDrawable
         synchronized(listenersLock) {
-            if( listenersToBeInit.remove(listener) ) {
+            if( unmarkToBeInit(listener) ) {
                 init( listener, drawable, false /* sendReshape */) ;
             }
         }
@@ -569,8 +592,9 @@ public class GLDrawableHelper {
 
   public final void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {
     synchronized(listenersLock) {
-        for (int i=0; i < listeners.size(); i++) {
-          reshape((GLEventListener) listeners.get(i), drawable, x, y, width, height, 0==i, true);
+        final GLEventListener[] _listeners = listeners.getArray();
+        for (int i=0; i < _listeners.length; i++) {
+          reshape(_listeners[i], drawable, x, y, width, height, 0==i, true);
         }
     }
   }
@@ -635,7 +659,7 @@ public class GLDrawableHelper {
   }
 
   public final boolean isAnimatorStartedOnOtherThread() {
-    return ( null != animatorCtrl ) ? animatorCtrl.isStarted() && animatorCtrl.getThread() != Thread.currentThread() : false ;
+    return ( null != animatorCtrl ) ? animatorCtrl.isStarted() && !GLDrawableUtil.isAnimatorThread(animatorCtrl, Thread.currentThread()) : false ;
   }
 
   public final boolean isAnimatorStarted() {
@@ -643,7 +667,7 @@ public class GLDrawableHelper {
   }
 
   public final boolean isAnimatorAnimatingOnOtherThread() {
-    return ( null != animatorCtrl ) ? animatorCtrl.isAnimating() && animatorCtrl.getThread() != Thread.currentThread() : false ;
+    return ( null != animatorCtrl ) ? animatorCtrl.isAnimating() && !GLDrawableUtil.isAnimatorThread(animatorCtrl, Thread.currentThread()) : false ;
   }
 
   public final boolean isAnimatorAnimating() {
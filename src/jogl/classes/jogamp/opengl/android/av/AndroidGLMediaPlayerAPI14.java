@@ -181,6 +181,12 @@ public class AndroidGLMediaPlayerAPI14 extends GLMediaPlayerImpl {
         return lastTexFrame;
     }
     
+    @Override
+    protected int decodeNextFrameImpl(GL gl, TextureSequence.TextureFrame nextFrame) {
+        // no decoder thread, the SurfaceTexture delivers the frames, see getNextTextureImpl(..)
+        return TextureSequence.TextureFrame.INVALID_PTS;
+    }
+    
     private void wakeUp(boolean newFrame) {
         synchronized(updateSurfaceLock) {
             if(newFrame) {
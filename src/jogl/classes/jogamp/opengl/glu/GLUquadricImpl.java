@@ -205,6 +205,7 @@ public class GLUquadricImpl implements GLUquadric {
                                               USE_TEXT?2:0, GL.GL_FLOAT,  // texCoords
                                               GL.GL_STATIC_DRAW);
     }
+    immModeSink.setBatchMode(true); // deferred primitives share one VBO
     return res;
   }
 
@@ -56,6 +56,7 @@ class Dict {
     DictNode head;
     Object frame;
     DictLeq leq;
+    MeshPool pool;
 
     private Dict() {
     }
@@ -74,6 +75,11 @@ class Dict {
         return dict;
     }
 
+    static void dictClear(Dict dict) {
+        dict.head.next = dict.head;
+        dict.head.prev = dict.head;
+    }
+
     static void dictDeleteDict(Dict dict) {
         dict.head = null;
         dict.frame = null;
@@ -89,7 +95,7 @@ class Dict {
             node = node.prev;
         } while (node.key != null && !dict.leq.leq(dict.frame, node.key, key));
 
-        DictNode newNode = new DictNode();
+        DictNode newNode = dict.pool != null ? dict.pool.newDictNode() : new DictNode();
         newNode.key = key;
         newNode.next = node.next;
         node.next.prev = newNode;
@@ -92,6 +92,17 @@ public class GLUtessellatorImpl implements GLUtessellator {
     GLUface lonelyTriList;
     /* list of triangles which could not be rendered as strips or fans */
 
+    MeshPool pool;    /* recycled storage (GLU_TESS_POOL_STORAGE), or null */
+
+    /*** state needed for gluTessTriangles() ***/
+
+    private GLUtessellatorTriangles triangles;    /* bulk output, or null if using callbacks */
+    private Integer[] vertexIndices = new Integer[0];    /* vertex data objects of the bulk output */
+    private int primitiveType;    /* primitive assembly of the renderCache() output */
+    private int primitiveCount;
+    private int primitiveFirst;
+    private int primitivePrev;
+
 
 
     /*** state needed to cache single-contour polygons for renderCache() */
@@ -99,6 +110,7 @@ public class GLUtessellatorImpl implements GLUtessellator {
     private boolean flushCacheOnNextVertex;        /* empty cache on next vertex() call */
     int cacheCount;        /* number of cached vertices */
     CachedVertex[] cache = new CachedVertex[TESS_MAX_CACHE];    /* the vertex data */
+    private double[] clamped = new double[3];    /* clamped vertex coordinates */
 
     /*** rendering callbacks that also pass polygon data  ***/
     private Object polygonData;        /* client data for current polygon */
@@ -171,6 +183,9 @@ public class GLUtessellatorImpl implements GLUtessellator {
 
         if (mesh != null) {
             Mesh.__gl_meshDeleteMesh(mesh);
+            if (pool != null) {
+                pool.reset();
+            }
         }
         state = TessState.T_DORMANT;
         lastEdge = null;
@@ -242,6 +257,14 @@ public class GLUtessellatorImpl implements GLUtessellator {
                 avoidDegenerateTris = (value != 0);
                 return;
 
+            case GLU.GLU_TESS_POOL_STORAGE:
+                if (value == 0) {
+                    pool = null;
+                } else if (pool == null) {
+                    pool = new MeshPool();
+                }
+                return;
+
             default:
                 callErrorOrErrorData(GLU.GLU_INVALID_ENUM);
                 return;
@@ -272,6 +295,9 @@ public class GLUtessellatorImpl implements GLUtessellator {
             case GLU.GLU_TESS_AVOID_DEGENERATE_TRIANGLES:
                 value[value_offset] = avoidDegenerateTris ? 1 : 0;
                 break;
+            case GLU.GLU_TESS_POOL_STORAGE:
+                value[value_offset] = pool != null ? 1 : 0;
+                break;
             default:
                 value[value_offset] = 0.0;
                 callErrorOrErrorData(GLU.GLU_INVALID_ENUM);
@@ -395,7 +421,7 @@ public class GLUtessellatorImpl implements GLUtessellator {
     private boolean flushCache() {
         CachedVertex[] v = cache;
 
-        mesh = Mesh.__gl_meshNewMesh();
+        mesh = Mesh.__gl_meshNewMesh(pool);
         if (mesh == null) return false;
 
         for (int i = 0; i < cacheCount; i++) {
@@ -412,7 +438,6 @@ public class GLUtessellatorImpl implements GLUtessellator {
         int i;
         boolean tooLarge = false;
         double x;
-        double[] clamped = new double[3];
 
         requireState(TessState.T_IN_CONTOUR);
 
@@ -463,6 +488,9 @@ public class GLUtessellatorImpl implements GLUtessellator {
         cacheCount = 0;
         flushCacheOnNextVertex = false;
         mesh = null;
+        if (pool != null) {
+            pool.reset();    /* also recovers from a previously failed polygon */
+        }
 
         polygonData = data;
     }
@@ -489,6 +517,84 @@ public class GLUtessellatorImpl implements GLUtessellator {
     }
 
     public void gluTessEndPolygon() {
+        endPolygon();
+    }
+
+    /**
+     * JOGL-specific bulk tessellation, see <code>GLU.gluTessTriangles</code>.
+     * <p>
+     * Tessellates the given contours into an indexed triangle list, without invoking
+     * the begin, vertex, edge flag, end or combine callbacks.  The output vertices
+     * are the input vertices in the given order, followed by the vertices created at
+     * intersections.  Triangles are oriented CCW with respect to the polygon normal.
+     * The <code>GLU_TESS_BOUNDARY_ONLY</code> property is ignored.
+     * </p>
+     *
+     * @param coords interleaved x, y and z coordinates of all contours
+     * @param contourCounts number of vertices of each contour
+     * @param contourCount number of contours
+     * @param triangles cleared and filled with the resulting vertices and triangles
+     * @return false if the tessellation failed, the error callback has been notified then
+     */
+    public boolean gluTessTriangles(double[] coords, int coords_offset,
+                                    int[] contourCounts, int contourCounts_offset, int contourCount,
+                                    GLUtessellatorTriangles triangles) {
+        final boolean saveBoundaryOnly = boundaryOnly;
+        int v = 0;
+
+        requireState(TessState.T_DORMANT);
+        triangles.clear();
+        this.triangles = triangles;
+        boundaryOnly = false;
+        try {
+            gluTessBeginPolygon(null);
+            for (int i = 0; i < contourCount; i++) {
+                final int n = contourCounts[contourCounts_offset + i];
+                gluTessBeginContour();
+                for (int j = 0; j < n; j++, v++) {
+                    gluTessVertex(coords, coords_offset + 3 * v, vertexIndex(v));
+                    triangles.addVertex(clamped[0], clamped[1], clamped[2]);
+                }
+                gluTessEndContour();
+            }
+            return endPolygon();
+        } finally {
+            this.triangles = null;
+            boundaryOnly = saveBoundaryOnly;
+        }
+    }
+
+    /** Returns the vertex data object identifying the bulk output vertex <code>i</code>. */
+    private Object vertexIndex(int i) {
+        if (i >= vertexIndices.length) {
+            Integer[] a = new Integer[Math.max(i + 1, vertexIndices.length * 2)];
+            System.arraycopy(vertexIndices, 0, a, 0, vertexIndices.length);
+            vertexIndices = a;
+        }
+        Integer idx = vertexIndices[i];
+        if (idx == null) {
+            idx = vertexIndices[i] = Integer.valueOf(i);
+        }
+        return idx;
+    }
+
+    /* Adds the inside faces of the tessellated mesh, all triangles, to the bulk output */
+    private void addTriangles(GLUmesh mesh) {
+        for (GLUface f = mesh.fHead.next; f != mesh.fHead; f = f.next) {
+            if (f.inside) {
+                GLUhalfEdge e = f.anEdge;
+                final int i0 = ((Integer) e.Org.data).intValue();
+                e = e.Lnext;
+                do {
+                    /* a fan, in case the face is not a triangle */
+                    triangles.addTriangle(i0, ((Integer) e.Org.data).intValue(), ((Integer) e.Lnext.Org.data).intValue());
+                    e = e.Lnext;
+                } while (e.Lnext != f.anEdge);
+            }
+        }
+    }
+
+    private boolean endPolygon() {
         GLUmesh mesh;
 
         try {
@@ -501,11 +607,11 @@ public class GLUtessellatorImpl implements GLUtessellator {
 /* Try some special code to make the easy cases go quickly
  * (eg. convex polygons).  This code does NOT handle multiple contours,
  * intersections, edge flags, and of course it does not generate
- * an explicit mesh either.
+ * an explicit mesh either.  Bulk output is assembled from its callbacks.
  */
                     if (Render.__gl_renderCache(this)) {
                         polygonData = null;
-                        return;
+                        return true;
                     }
                 }
                 if (!flushCache()) throw new RuntimeException(); /* could've used a label*/
@@ -543,7 +649,9 @@ public class GLUtessellatorImpl implements GLUtessellator {
 
                 Mesh.__gl_meshCheckMesh(mesh);
 
-                if (callBegin != NULL_CB || callEnd != NULL_CB
+                if (triangles != null) {
+                    addTriangles(mesh);
+                } else if (callBegin != NULL_CB || callEnd != NULL_CB
                         || callVertex != NULL_CB || callEdgeFlag != NULL_CB
                         || callBeginData != NULL_CB
                         || callEndData != NULL_CB
@@ -571,11 +679,16 @@ public class GLUtessellatorImpl implements GLUtessellator {
 //                }
             }
             Mesh.__gl_meshDeleteMesh(mesh);
+            if (pool != null) {
+                pool.reset();
+            }
             polygonData = null;
-            mesh = null;
+            this.mesh = null;
+            return !fatalError;
         } catch (Exception e) {
             e.printStackTrace();
             callErrorOrErrorData(GLU.GLU_OUT_OF_MEMORY);
+            return false;
         }
     }
 
@@ -602,6 +715,11 @@ public class GLUtessellatorImpl implements GLUtessellator {
     }
 
     void callBeginOrBeginData(int a) {
+        if (triangles != null) {
+            primitiveType = a;
+            primitiveCount = 0;
+            return;
+        }
         if (callBeginData != NULL_CB)
             callBeginData.beginData(a, polygonData);
         else
@@ -609,6 +727,10 @@ public class GLUtessellatorImpl implements GLUtessellator {
     }
 
     void callVertexOrVertexData(Object a) {
+        if (triangles != null) {
+            assembleTriangles(((Integer) a).intValue());
+            return;
+        }
         if (callVertexData != NULL_CB)
             callVertexData.vertexData(a, polygonData);
         else
@@ -622,7 +744,29 @@ public class GLUtessellatorImpl implements GLUtessellator {
             callEdgeFlag.edgeFlag(a);
     }
 
+    /* Converts the GL_TRIANGLES and GL_TRIANGLE_FAN output of renderCache() to bulk triangles */
+    private void assembleTriangles(int index) {
+        switch (primitiveCount++) {
+            case 0:
+                primitiveFirst = index;
+                break;
+            case 1:
+                break;
+            default:
+                if (primitiveType == GL.GL_TRIANGLE_FAN || primitiveCount % 3 == 0) {
+                    triangles.addTriangle(primitiveFirst, primitivePrev, index);
+                }
+                if (primitiveType == GL.GL_TRIANGLES && primitiveCount % 3 == 1) {
+                    primitiveFirst = index;
+                }
+        }
+        primitivePrev = index;
+    }
+
     void callEndOrEndData() {
+        if (triangles != null) {
+            return;
+        }
         if (callEndData != NULL_CB)
             callEndData.endData(polygonData);
         else
@@ -630,6 +774,10 @@ public class GLUtessellatorImpl implements GLUtessellator {
     }
 
     void callCombineOrCombineData(double[] coords, Object[] vertexData, float[] weights, Object[] outData) {
+        if (triangles != null) {
+            outData[0] = vertexIndex(triangles.addVertex(coords[0], coords[1], coords[2]));
+            return;
+        }
         if (callCombineData != NULL_CB)
             callCombineData.combineData(coords, vertexData, weights, outData, polygonData);
         else
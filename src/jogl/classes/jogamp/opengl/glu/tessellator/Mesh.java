@@ -56,6 +56,15 @@ class Mesh {
     private Mesh() {
     }
 
+    /* Element allocation, recycling storage of a MeshPool if the mesh has one. */
+    private static jogamp.opengl.glu.tessellator.GLUvertex NewVertex(jogamp.opengl.glu.tessellator.GLUhalfEdge e) {
+        return e.pool != null ? e.pool.newVertex() : new jogamp.opengl.glu.tessellator.GLUvertex();
+    }
+
+    private static jogamp.opengl.glu.tessellator.GLUface NewFace(jogamp.opengl.glu.tessellator.GLUhalfEdge e) {
+        return e.pool != null ? e.pool.newFace() : new jogamp.opengl.glu.tessellator.GLUface();
+    }
+
     /************************ Utility Routines ************************/
 /* MakeEdge creates a new pair of half-edges which form their own loop.
  * No vertex or face structures are allocated, but these must be assigned
@@ -71,9 +80,14 @@ class Mesh {
 //        if (pair == NULL) return NULL;
 //
 //        e = &pair - > e;
-        e = new jogamp.opengl.glu.tessellator.GLUhalfEdge(true);
+        if (eNext.pool != null) {
+            e = eNext.pool.newEdgePair();
 //        eSym = &pair - > eSym;
-        eSym = new jogamp.opengl.glu.tessellator.GLUhalfEdge(false);
+            eSym = e.Sym;
+        } else {
+            e = new jogamp.opengl.glu.tessellator.GLUhalfEdge(true);
+            eSym = new jogamp.opengl.glu.tessellator.GLUhalfEdge(false);
+        }
 
 
         /* Make sure eNext points to the first edge of the edge pair */
@@ -264,9 +278,9 @@ class Mesh {
  * The loop consists of the two new half-edges.
  */
     public static jogamp.opengl.glu.tessellator.GLUhalfEdge __gl_meshMakeEdge(jogamp.opengl.glu.tessellator.GLUmesh mesh) {
-        jogamp.opengl.glu.tessellator.GLUvertex newVertex1 = new jogamp.opengl.glu.tessellator.GLUvertex();
-        jogamp.opengl.glu.tessellator.GLUvertex newVertex2 = new jogamp.opengl.glu.tessellator.GLUvertex();
-        jogamp.opengl.glu.tessellator.GLUface newFace = new jogamp.opengl.glu.tessellator.GLUface();
+        jogamp.opengl.glu.tessellator.GLUvertex newVertex1 = NewVertex(mesh.eHead);
+        jogamp.opengl.glu.tessellator.GLUvertex newVertex2 = NewVertex(mesh.eHead);
+        jogamp.opengl.glu.tessellator.GLUface newFace = NewFace(mesh.eHead);
         jogamp.opengl.glu.tessellator.GLUhalfEdge e;
 
         e = MakeEdge(mesh.eHead);
@@ -323,7 +337,7 @@ class Mesh {
         Splice(eDst, eOrg);
 
         if (!joiningVertices) {
-            jogamp.opengl.glu.tessellator.GLUvertex newVertex = new jogamp.opengl.glu.tessellator.GLUvertex();
+            jogamp.opengl.glu.tessellator.GLUvertex newVertex = NewVertex(eOrg);
 
             /* We split one vertex into two -- the new vertex is eDst.Org.
              * Make sure the old vertex points to a valid half-edge.
@@ -332,7 +346,7 @@ class Mesh {
             eOrg.Org.anEdge = eOrg;
         }
         if (!joiningLoops) {
-            jogamp.opengl.glu.tessellator.GLUface newFace = new jogamp.opengl.glu.tessellator.GLUface();
+            jogamp.opengl.glu.tessellator.GLUface newFace = NewFace(eOrg);
 
             /* We split one loop into two -- the new loop is eDst.Lface.
              * Make sure the old face points to a valid half-edge.
@@ -377,7 +391,7 @@ class Mesh {
 
             Splice(eDel, eDel.Sym.Lnext);
             if (!joiningLoops) {
-                jogamp.opengl.glu.tessellator.GLUface newFace = new jogamp.opengl.glu.tessellator.GLUface();
+                jogamp.opengl.glu.tessellator.GLUface newFace = NewFace(eDel);
 
                 /* We are splitting one loop into two -- create a new loop for eDel. */
                 MakeFace(newFace, eDel, eDel.Lface);
@@ -427,7 +441,7 @@ class Mesh {
         /* Set the vertex and face information */
         eNew.Org = eOrg.Sym.Org;
         {
-            jogamp.opengl.glu.tessellator.GLUvertex newVertex = new jogamp.opengl.glu.tessellator.GLUvertex();
+            jogamp.opengl.glu.tessellator.GLUvertex newVertex = NewVertex(eNew);
 
             MakeVertex(newVertex, eNewSym, eNew.Org);
         }
@@ -498,7 +512,7 @@ class Mesh {
         eOrg.Lface.anEdge = eNewSym;
 
         if (!joiningLoops) {
-            jogamp.opengl.glu.tessellator.GLUface newFace = new jogamp.opengl.glu.tessellator.GLUface();
+            jogamp.opengl.glu.tessellator.GLUface newFace = NewFace(eNew);
 
             /* We split one loop into two -- the new loop is eNew.Lface */
             MakeFace(newFace, eNew, eOrg.Lface);
@@ -562,11 +576,19 @@ class Mesh {
  * and no loops (what we usually call a "face").
  */
     public static jogamp.opengl.glu.tessellator.GLUmesh __gl_meshNewMesh() {
+        return __gl_meshNewMesh(null);
+    }
+
+/* __gl_meshNewMesh( pool ) creates a new empty mesh whose elements are
+ * allocated from the given pool, if not null.  The pool's mesh is reused,
+ * hence only one mesh per pool may be in use at a time.
+ */
+    static jogamp.opengl.glu.tessellator.GLUmesh __gl_meshNewMesh(MeshPool pool) {
         jogamp.opengl.glu.tessellator.GLUvertex v;
         jogamp.opengl.glu.tessellator.GLUface f;
         jogamp.opengl.glu.tessellator.GLUhalfEdge e;
         jogamp.opengl.glu.tessellator.GLUhalfEdge eSym;
-        jogamp.opengl.glu.tessellator.GLUmesh mesh = new jogamp.opengl.glu.tessellator.GLUmesh();
+        jogamp.opengl.glu.tessellator.GLUmesh mesh = pool != null ? pool.newMesh() : new jogamp.opengl.glu.tessellator.GLUmesh();
 
         v = mesh.vHead;
         f = mesh.fHead;
@@ -592,6 +614,7 @@ class Mesh {
         e.Lface = null;
         e.winding = 0;
         e.activeRegion = null;
+        e.pool = pool;
 
         eSym.next = eSym;
         eSym.Sym = e;
@@ -601,6 +624,7 @@ class Mesh {
         eSym.Lface = null;
         eSym.winding = 0;
         eSym.activeRegion = null;
+        eSym.pool = pool;
 
         return mesh;
     }
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package jogamp.opengl.glu.tessellator;
+
+/**
+ * Per tessellator storage recycling the mesh elements, sweep regions
+ * and dictionary nodes of one polygon for the following polygons.
+ * <p>
+ * Elements are handed out in allocation order and are never freed individually,
+ * {@link #reset()} makes all of them available again once the polygon is done.
+ * This matches the lifetime of the C implementation's <code>memFree</code>'d elements,
+ * which are not referenced anymore after the polygon has been rendered.
+ * </p>
+ * <p>
+ * The edge dictionary, the priority queue and the scratch arrays passed
+ * to the combine callback are reused as well.
+ * </p>
+ */
+class MeshPool {
+    private static final int INIT_SIZE = 64;
+
+    private GLUvertex[] vertices = new GLUvertex[INIT_SIZE];
+    private int vertexCount;
+    private GLUface[] faces = new GLUface[INIT_SIZE];
+    private int faceCount;
+    /** first half-edge of each edge pair */
+    private GLUhalfEdge[] edges = new GLUhalfEdge[INIT_SIZE];
+    private int edgeCount;
+    private ActiveRegion[] regions = new ActiveRegion[INIT_SIZE];
+    private int regionCount;
+    private DictNode[] dictNodes = new DictNode[INIT_SIZE];
+    private int dictNodeCount;
+
+    private GLUmesh mesh;
+    Dict dict;
+    PriorityQ pq;
+
+    /* scratch storage for the sweep, see Sweep.java */
+    final GLUvertex isect = new GLUvertex();
+    final ActiveRegion searchRegion = new ActiveRegion();
+    final double[] combineCoords = new double[3];
+    final Object[] combineData = new Object[4];
+    final float[] combineWeights = new float[4];
+    final float[] combineWeights1 = new float[2];
+    final float[] combineWeights2 = new float[2];
+    final Object[] combineOutData = new Object[1];
+
+    GLUmesh newMesh() {
+        if (mesh == null) {
+            mesh = new GLUmesh();
+        }
+        return mesh;
+    }
+
+    GLUvertex newVertex() {
+        if (vertexCount == vertices.length) {
+            GLUvertex[] a = new GLUvertex[vertices.length << 1];
+            System.arraycopy(vertices, 0, a, 0, vertexCount);
+            vertices = a;
+        }
+        GLUvertex v = vertices[vertexCount];
+        if (v == null) {
+            v = vertices[vertexCount] = new GLUvertex();
+        }
+        vertexCount++;
+        return v;
+    }
+
+    GLUface newFace() {
+        if (faceCount == faces.length) {
+            GLUface[] a = new GLUface[faces.length << 1];
+            System.arraycopy(faces, 0, a, 0, faceCount);
+            faces = a;
+        }
+        GLUface f = faces[faceCount];
+        if (f == null) {
+            f = faces[faceCount] = new GLUface();
+        }
+        faceCount++;
+        return f;
+    }
+
+    /** Returns the first half-edge of a pair, the second one is its <code>Sym</code>. */
+    GLUhalfEdge newEdgePair() {
+        if (edgeCount == edges.length) {
+            GLUhalfEdge[] a = new GLUhalfEdge[edges.length << 1];
+            System.arraycopy(edges, 0, a, 0, edgeCount);
+            edges = a;
+        }
+        GLUhalfEdge e = edges[edgeCount];
+        if (e == null) {
+            e = edges[edgeCount] = new GLUhalfEdge(true);
+            e.Sym = new GLUhalfEdge(false);
+            e.Sym.Sym = e;
+            e.pool = e.Sym.pool = this;
+        }
+        edgeCount++;
+        return e;
+    }
+
+    ActiveRegion newRegion() {
+        if (regionCount == regions.length) {
+            ActiveRegion[] a = new ActiveRegion[regions.length << 1];
+            System.arraycopy(regions, 0, a, 0, regionCount);
+            regions = a;
+        }
+        ActiveRegion r = regions[regionCount];
+        if (r == null) {
+            r = regions[regionCount] = new ActiveRegion();
+        }
+        regionCount++;
+        return r;
+    }
+
+    DictNode newDictNode() {
+        if (dictNodeCount == dictNodes.length) {
+            DictNode[] a = new DictNode[dictNodes.length << 1];
+            System.arraycopy(dictNodes, 0, a, 0, dictNodeCount);
+            dictNodes = a;
+        }
+        DictNode n = dictNodes[dictNodeCount];
+        if (n == null) {
+            n = dictNodes[dictNodeCount] = new DictNode();
+        }
+        dictNodeCount++;
+        return n;
+    }
+
+    /**
+     * Makes all elements available again and clears their references,
+     * so no client vertex data is retained beyond the polygon.
+     */
+    void reset() {
+        for (int i = 0; i < vertexCount; i++) {
+            GLUvertex v = vertices[i];
+            v.next = v.prev = null;
+            v.anEdge = null;
+            v.data = null;
+            v.coords[0] = v.coords[1] = v.coords[2] = 0;
+            v.s = v.t = 0;
+            v.pqHandle = 0;
+        }
+        vertexCount = 0;
+        for (int i = 0; i < faceCount; i++) {
+            GLUface f = faces[i];
+            f.next = f.prev = f.trail = null;
+            f.anEdge = null;
+            f.data = null;
+        }
+        faceCount = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            clearEdge(edges[i]);
+            clearEdge(edges[i].Sym);
+        }
+        edgeCount = 0;
+        for (int i = 0; i < regionCount; i++) {
+            ActiveRegion r = regions[i];
+            r.eUp = null;
+            r.nodeUp = null;
+            r.windingNumber = 0;
+            r.inside = r.sentinel = r.dirty = r.fixUpperEdge = false;
+        }
+        regionCount = 0;
+        for (int i = 0; i < dictNodeCount; i++) {
+            DictNode n = dictNodes[i];
+            n.key = null;
+            n.next = n.prev = null;
+        }
+        dictNodeCount = 0;
+
+        isect.data = null;
+        searchRegion.eUp = null;
+        combineData[0] = combineData[1] = combineData[2] = combineData[3] = null;
+        combineOutData[0] = null;
+    }
+
+    private static void clearEdge(GLUhalfEdge e) {
+        e.next = e.Onext = e.Lnext = null;
+        e.Org = null;
+        e.Lface = null;
+        e.activeRegion = null;
+        e.winding = 0;
+    }
+}
@@ -85,6 +85,9 @@ abstract class PriorityQ {
 
     abstract void pqDeletePriorityQ();
 
+    /* Empties the queue while keeping its storage for reuse */
+    abstract void pqReset();
+
     abstract boolean pqInit();
 
     abstract int pqInsert(Object keyNew);
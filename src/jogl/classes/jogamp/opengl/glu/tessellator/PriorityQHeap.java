@@ -80,6 +80,19 @@ class PriorityQHeap extends jogamp.opengl.glu.tessellator.PriorityQ {
         handles[1].key = null;
     }
 
+    void pqReset() {
+        /* only the live entries still reference their keys */
+        for (int i = 1; i <= size; i++) {
+            handles[nodes[i].handle].key = null;
+        }
+        size = 0;
+        freeList = 0;
+        initialized = false;
+
+        nodes[1].handle = 1;    /* so that Minimum() returns NULL */
+        handles[1].key = null;
+    }
+
 /* really __gl_pqHeapDeletePriorityQ */
     void pqDeletePriorityQ() {
         handles = null;
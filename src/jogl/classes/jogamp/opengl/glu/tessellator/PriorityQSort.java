@@ -56,6 +56,7 @@ class PriorityQSort extends jogamp.opengl.glu.tessellator.PriorityQ {
     // (from Frank Suykens, Luciad.com).
     int[] order;
     int size, max;
+    private Stack[] stack;
     boolean initialized;
     jogamp.opengl.glu.tessellator.PriorityQ.Leq leq;
 
@@ -70,6 +71,15 @@ class PriorityQSort extends jogamp.opengl.glu.tessellator.PriorityQ {
         this.leq = leq;
     }
 
+    void pqReset() {
+        /* extracted keys are not cleared, hence clear all slots ever used */
+        java.util.Arrays.fill(keys, 0, initialized ? max : size, null);
+        heap.pqReset();
+        size = 0;
+        max = keys.length;
+        initialized = false;
+    }
+
 /* really __gl_pqSortDeletePriorityQ */
     void pqDeletePriorityQ() {
         if (heap != null) heap.pqDeletePriorityQ();
@@ -103,9 +113,11 @@ class PriorityQSort extends jogamp.opengl.glu.tessellator.PriorityQ {
     boolean pqInit() {
         int p, r, i, j;
         int piv;
-        Stack[] stack = new Stack[50];
-        for (int k = 0; k < stack.length; k++) {
-            stack[k] = new Stack();
+        if (stack == null) {
+            stack = new Stack[50];
+            for (int k = 0; k < stack.length; k++) {
+                stack[k] = new Stack();
+            }
         }
         int top = 0;
 
@@ -114,7 +126,9 @@ class PriorityQSort extends jogamp.opengl.glu.tessellator.PriorityQ {
         /* Create an array of indirect pointers to the keys, so that we
          * the handles we have returned are still valid.
          */
-        order = new int[size + 1];
+        if (order == null || order.length < size + 1) {
+            order = new int[size + 1];
+        }
 /* the previous line is a patch to compensate for the fact that IBM */
 /* machines return a null on a malloc of zero bytes (unlike SGI),   */
 /* so we have to put in this defense to guard against a memory      */
@@ -222,7 +222,7 @@ class Sweep {
  * The upper edge of the new region will be "eNewUp".
  * Winding number and "inside" flag are not updated.
  */ {
-        ActiveRegion regNew = new ActiveRegion();
+        ActiveRegion regNew = tess.pool != null ? tess.pool.newRegion() : new ActiveRegion();
         if (regNew == null) throw new RuntimeException();
 
         regNew.eUp = eNewUp;
@@ -408,14 +408,15 @@ class Sweep {
 
     static void CallCombine(GLUtessellatorImpl tess, GLUvertex isect,
                             Object[] data, float[] weights, boolean needed) {
-        double[] coords = new double[3];
+        double[] coords = tess.pool != null ? tess.pool.combineCoords : new double[3];
 
         /* Copy coord data in case the callback changes it. */
         coords[0] = isect.coords[0];
         coords[1] = isect.coords[1];
         coords[2] = isect.coords[2];
 
-        Object[] outData = new Object[1];
+        Object[] outData = tess.pool != null ? tess.pool.combineOutData : new Object[1];
+        outData[0] = null;
         tess.callCombineOrCombineData(coords, data, weights, outData);
         isect.data = outData[0];
         if (isect.data == null) {
@@ -438,8 +439,18 @@ class Sweep {
  * Two vertices with idential coordinates are combined into one.
  * e1.Org is kept, while e2.Org is discarded.
  */ {
-        Object[] data = new Object[4];
-        float[] weights = new float[]{0.5f, 0.5f, 0.0f, 0.0f};
+        Object[] data;
+        float[] weights;
+        if (tess.pool != null) {
+            data = tess.pool.combineData;
+            weights = tess.pool.combineWeights;
+            data[2] = data[3] = null;
+            weights[0] = weights[1] = 0.5f;
+            weights[2] = weights[3] = 0.0f;
+        } else {
+            data = new Object[4];
+            weights = new float[]{0.5f, 0.5f, 0.0f, 0.0f};
+        }
 
         data[0] = e1.Org.data;
         data[1] = e2.Org.data;
@@ -475,10 +486,19 @@ class Sweep {
  * from the user so that we can refer to this new vertex in the
  * rendering callbacks.
  */ {
-        Object[] data = new Object[4];
-        float[] weights = new float[4];
-        float[] weights1 = new float[2];
-        float[] weights2 = new float[2];
+        Object[] data;
+        float[] weights, weights1, weights2;
+        if (tess.pool != null) {
+            data = tess.pool.combineData;
+            weights = tess.pool.combineWeights;
+            weights1 = tess.pool.combineWeights1;
+            weights2 = tess.pool.combineWeights2;
+        } else {
+            data = new Object[4];
+            weights = new float[4];
+            weights1 = new float[2];
+            weights2 = new float[2];
+        }
 
         data[0] = orgUp.data;
         data[1] = dstUp.data;
@@ -617,7 +637,7 @@ class Sweep {
         GLUvertex dstUp = eUp.Sym.Org;
         GLUvertex dstLo = eLo.Sym.Org;
         double tMinUp, tMaxLo;
-        GLUvertex isect = new GLUvertex();
+        GLUvertex isect = tess.pool != null ? tess.pool.isect : new GLUvertex();
         GLUvertex orgMin;
         GLUhalfEdge e;
 
@@ -743,7 +763,7 @@ class Sweep {
         eUp.Org.t = isect.t;
         eUp.Org.pqHandle = tess.pq.pqInsert(eUp.Org); /* __gl_pqSortInsert */
         if (eUp.Org.pqHandle == Long.MAX_VALUE) {
-            tess.pq.pqDeletePriorityQ();    /* __gl_pqSortDeletePriorityQ */
+            DonePriorityQ(tess);
             tess.pq = null;
             throw new RuntimeException();
         }
@@ -1007,7 +1027,7 @@ class Sweep {
  */ {
         ActiveRegion regUp, regLo, reg;
         GLUhalfEdge eUp, eLo, eNew;
-        ActiveRegion tmp = new ActiveRegion();
+        ActiveRegion tmp = tess.pool != null ? tess.pool.searchRegion : new ActiveRegion();
 
         /* assert ( vEvent.anEdge.Onext.Onext == vEvent.anEdge ); */
 
@@ -1120,7 +1140,7 @@ class Sweep {
  * to avoid special cases at the top and bottom.
  */ {
         GLUhalfEdge e;
-        ActiveRegion reg = new ActiveRegion();
+        ActiveRegion reg = tess.pool != null ? tess.pool.newRegion() : new ActiveRegion();
         if (reg == null) throw new RuntimeException();
 
         e = Mesh.__gl_meshMakeEdge(tess.mesh);
@@ -1148,13 +1168,23 @@ class Sweep {
  * We maintain an ordering of edge intersections with the sweep line.
  * This order is maintained in a dynamic dictionary.
  */ {
-        /* __gl_dictListNewDict */
-        tess.dict = Dict.dictNewDict(tess, new Dict.DictLeq() {
-            public boolean leq(Object frame, Object key1, Object key2) {
-                return EdgeLeq(tess, (ActiveRegion) key1, (ActiveRegion) key2);
+        if (tess.pool != null && tess.pool.dict != null) {
+            /* reuse the pooled dictionary, its nodes were recycled with the pool */
+            tess.dict = tess.pool.dict;
+            Dict.dictClear(tess.dict);
+        } else {
+            /* __gl_dictListNewDict */
+            tess.dict = Dict.dictNewDict(tess, new Dict.DictLeq() {
+                public boolean leq(Object frame, Object key1, Object key2) {
+                    return EdgeLeq(tess, (ActiveRegion) key1, (ActiveRegion) key2);
+                }
+            });
+            if (tess.dict == null) throw new RuntimeException();
+            if (tess.pool != null) {
+                tess.dict.pool = tess.pool;
+                tess.pool.dict = tess.dict;
             }
-        });
-        if (tess.dict == null) throw new RuntimeException();
+        }
 
         AddSentinel(tess, -SENTINEL_COORD);
         AddSentinel(tess, SENTINEL_COORD);
@@ -1180,7 +1210,9 @@ class Sweep {
             DeleteRegion(tess, reg);
 /*    __gl_meshDelete( reg.eUp );*/
         }
-        Dict.dictDeleteDict(tess.dict);    /* __gl_dictListDeleteDict */
+        if (tess.pool == null || tess.pool.dict != tess.dict) {
+            Dict.dictDeleteDict(tess.dict);    /* __gl_dictListDeleteDict */
+        }
     }
 
 
@@ -1229,13 +1261,22 @@ class Sweep {
         PriorityQ pq;
         GLUvertex v, vHead;
 
-        /* __gl_pqSortNewPriorityQ */
-        pq = tess.pq = PriorityQ.pqNewPriorityQ(new PriorityQ.Leq() {
-            public boolean leq(Object key1, Object key2) {
-                return Geom.VertLeq(((GLUvertex) key1), (GLUvertex) key2);
+        if (tess.pool != null && tess.pool.pq != null) {
+            /* reuse the pooled priority queue and its storage */
+            pq = tess.pq = tess.pool.pq;
+            pq.pqReset();
+        } else {
+            /* __gl_pqSortNewPriorityQ */
+            pq = tess.pq = PriorityQ.pqNewPriorityQ(new PriorityQ.Leq() {
+                public boolean leq(Object key1, Object key2) {
+                    return Geom.VertLeq(((GLUvertex) key1), (GLUvertex) key2);
+                }
+            });
+            if (pq == null) return false;
+            if (tess.pool != null) {
+                tess.pool.pq = pq;
             }
-        });
-        if (pq == null) return false;
+        }
 
         vHead = tess.mesh.vHead;
         for (v = vHead.next; v != vHead; v = v.next) {
@@ -1243,7 +1284,7 @@ class Sweep {
             if (v.pqHandle == Long.MAX_VALUE) break;
         }
         if (v != vHead || !pq.pqInit()) { /* __gl_pqSortInit */
-            tess.pq.pqDeletePriorityQ();    /* __gl_pqSortDeletePriorityQ */
+            DonePriorityQ(tess);
             tess.pq = null;
             return false;
         }
@@ -1253,7 +1294,11 @@ class Sweep {
 
 
     static void DonePriorityQ(GLUtessellatorImpl tess) {
-        tess.pq.pqDeletePriorityQ(); /* __gl_pqSortDeletePriorityQ */
+        if (tess.pool != null && tess.pool.pq == tess.pq) {
+            tess.pq.pqReset();    /* keep the storage for the next polygon */
+        } else {
+            tess.pq.pqDeletePriorityQ(); /* __gl_pqSortDeletePriorityQ */
+        }
     }
 
 
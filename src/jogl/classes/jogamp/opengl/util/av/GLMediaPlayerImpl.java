@@ -35,8 +35,13 @@ import java.util.Iterator;
 
 import javax.media.opengl.GL;
 import javax.media.opengl.GL2;
+import javax.media.opengl.GLCapabilities;
+import javax.media.opengl.GLContext;
+import javax.media.opengl.GLDrawable;
+import javax.media.opengl.GLDrawableFactory;
 import javax.media.opengl.GLES2;
 import javax.media.opengl.GLException;
+import javax.media.opengl.GLProfile;
 
 import com.jogamp.opengl.util.av.GLMediaPlayer;
 import com.jogamp.opengl.util.texture.Texture;
@@ -47,10 +52,20 @@ import com.jogamp.opengl.util.texture.TextureSequence;
  * <ul>
  *   <li>{@link #setTextureCount(int)}</li>
  *   <li>{@link #setTextureTarget(int)}</li>
+ *   <li>{@link #setDecoderThread(boolean)}</li>
  *   <li>{@link EGLMediaPlayerImpl#setEGLTexImageAttribs(boolean, boolean)}.</li>
  * </ul>
  * 
  * <p>
+ * Using a decoder thread, frames are decoded into {@link #getTextureCount()} textures
+ * on a dedicated thread w/ a shared GL context, see {@link #decodeNextFrameImpl(GL, TextureSequence.TextureFrame)}.
+ * The decoded frames are passed to the render thread via a {@link TextureFrameQueue},
+ * where {@link #getNextTexture(GL, boolean)} picks the frame matching the presentation clock
+ * and drops late frames. Otherwise frames are decoded by the render thread
+ * via {@link #getNextTextureImpl(GL, boolean)}.
+ * </p>
+ * 
+ * <p>
  * See {@link GLMediaPlayer}.
  * </p>
  */
@@ -100,6 +115,18 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     protected TextureSequence.TextureFrame[] texFrames = null;
     protected HashMap<Integer, TextureSequence.TextureFrame> texFrameMap = new HashMap<Integer, TextureSequence.TextureFrame>();
     private ArrayList<GLMediaEventListener> eventListeners = new ArrayList<GLMediaEventListener>();
+    
+    private boolean useDecoderThread = false;
+    private volatile TextureFrameQueue frameQueue = null;
+    private volatile DecoderThread decoderThread = null;
+    
+    private final Object clockLock = new Object();
+    /** Presentation clock PTS at {@link #clockStartMS}, in ms. */
+    private int clockStartPTS = 0;
+    /** Presentation clock time base, see {@link #getClockMillis()}. */
+    private long clockStartMS = 0;
+    /** If <code>false</code>, the presentation clock is synchronized to the next decoded frame. */
+    private boolean clockSynced = false;
 
     protected GLMediaPlayerImpl() {
         this.textureCount=3;
@@ -129,6 +156,22 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
         textureFormat=format; 
     }    
     protected final void setTextureType(int t) { textureType=t; }
+    
+    /**
+     * Enables decoding on a dedicated thread, see {@link #decodeNextFrameImpl(GL, TextureSequence.TextureFrame)}.
+     * <p>
+     * Shall be called before {@link #initGLStream(GL, URLConnection)}
+     * and requires a {@link #setTextureCount(int) texture count} of at least 3,
+     * since the render thread holds the current and the previous frame, see {@link TextureFrameQueue}.
+     * </p>
+     */
+    protected final void setDecoderThread(boolean enable) { useDecoderThread = enable; }
+    
+    /** Returns <code>true</code> if frames are decoded on a dedicated thread, see {@link #setDecoderThread(boolean)}. */
+    public final boolean usesDecoderThread() { return null != frameQueue; }
+    
+    /** Returns the queue of decoded frames if {@link #usesDecoderThread() using a decoder thread}, otherwise <code>null</code>. */
+    public final TextureFrameQueue getFrameQueue() { return frameQueue; }
 
     public final void setTextureMinMagFilter(int[] minMagFilter) { texMinMagFilter[0] = minMagFilter[0]; texMinMagFilter[1] = minMagFilter[1];}
     public final int[] getTextureMinMagFilter() { return texMinMagFilter; }
@@ -141,23 +184,119 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
         if(State.Uninitialized == state) {
             throw new IllegalStateException("Instance not initialized: "+this);
         }
+        final TextureFrameQueue q = frameQueue;
+        if(null != q) {
+            final TextureSequence.TextureFrame f = q.getCurrent();
+            if(null != f) {
+                return f;
+            }
+        }
         return getLastTextureImpl();
     }
     protected abstract TextureSequence.TextureFrame getLastTextureImpl();
     
     @Override
-    public final synchronized TextureSequence.TextureFrame getNextTexture(GL gl, boolean blocking) throws IllegalStateException {
+    public final TextureSequence.TextureFrame getNextTexture(GL gl, boolean blocking) throws IllegalStateException {
         if(State.Uninitialized == state) {
             throw new IllegalStateException("Instance not initialized: "+this);
         }
-        if(State.Playing == state) {
-            final TextureSequence.TextureFrame f = getNextTextureImpl(gl, blocking);
-            return f;
+        final TextureFrameQueue q = frameQueue;
+        if(null != q) {
+            // not holding the instance lock, which may be required by decodeNextFrameImpl(..)
+            return getNextDecodedTexture(q, blocking);
+        }
+        synchronized(this) {
+            if(State.Playing == state) {
+                final TextureSequence.TextureFrame f = getNextTextureImpl(gl, blocking);
+                return f;
+            }
+            return getLastTextureImpl();
         }
-        return getLastTextureImpl();        
     }
     protected abstract TextureSequence.TextureFrame getNextTextureImpl(GL gl, boolean blocking);
     
+    /**
+     * Picks the decoded frame matching the presentation clock, dropping late frames.
+     * If <code>blocking</code>, waits for the next frame being due, at most for two frame durations.
+     */
+    private TextureSequence.TextureFrame getNextDecodedTexture(TextureFrameQueue q, boolean blocking) {
+        TextureSequence.TextureFrame f = null;
+        if(State.Playing == state) {
+            f = q.pick(getPresentationClock());
+            if(null == f && blocking) {
+                final long t1 = System.currentTimeMillis() + ( 0 < fps ? (long) ( 2000f / fps ) : 100 );
+                try {
+                    long dt;
+                    while( null == f && State.Playing == state && !q.isClosed() && 0 < ( dt = t1 - System.currentTimeMillis() ) ) {
+                        final int pts = q.getNextPTS();
+                        if( TextureSequence.TextureFrame.INVALID_PTS != pts ) {
+                            dt = Math.min(dt, (long) ( ( pts - getPresentationClock() ) / playSpeed ) );
+                        }
+                        if( 0 < dt ) {
+                            q.waitForDecoded(dt);
+                        }
+                        f = q.pick(getPresentationClock());
+                    }
+                } catch (InterruptedException ie) { }
+            }
+        }
+        if(null == f) {
+            f = q.getCurrent();
+        }
+        return null != f ? f : getLastTextureImpl();
+    }
+    
+    /**
+     * Returns the time base of the presentation clock in milliseconds,
+     * i.e. {@link System#currentTimeMillis()} if not overridden by specialization.
+     */
+    protected long getClockMillis() {
+        return System.currentTimeMillis();
+    }
+    
+    /**
+     * Returns the presentation clock in milliseconds, i.e. the PTS of the frame due for display,
+     * scaled by the {@link #getPlaySpeed() play speed} and halted while not {@link State#Playing playing}.
+     * <p>
+     * After {@link #initGLStream(GL, URLConnection) initialization}, {@link #stop()} and {@link #seek(int)}
+     * the clock starts w/ the PTS of the next decoded frame.
+     * </p>
+     */
+    protected final int getPresentationClock() {
+        synchronized(clockLock) {
+            if( !clockSynced ) {
+                final TextureFrameQueue q = frameQueue;
+                final int pts = null != q ? q.getNextPTS() : TextureSequence.TextureFrame.INVALID_PTS;
+                if( TextureSequence.TextureFrame.INVALID_PTS == pts ) {
+                    return clockStartPTS;
+                }
+                clockStartPTS = pts;
+                clockStartMS = getClockMillis();
+                clockSynced = true;
+            }
+            if( State.Playing != state ) {
+                return clockStartPTS;
+            }
+            return clockStartPTS + (int) ( ( getClockMillis() - clockStartMS ) * playSpeed );
+        }
+    }
+    
+    /** Continues the presentation clock from its current value, to be called before changing state or speed. */
+    private void rebaseClock() {
+        synchronized(clockLock) {
+            if( clockSynced ) {
+                clockStartPTS = getPresentationClock();
+                clockStartMS = getClockMillis();
+            }
+        }
+    }
+    
+    private void resetClock() {
+        synchronized(clockLock) {
+            clockSynced = false;
+        }
+    }
+    
     @Override
     public String getRequiredExtensionsShaderStub() throws IllegalStateException {
         if(State.Uninitialized == state) {
@@ -222,6 +361,7 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     @Override
     public final synchronized void setPlaySpeed(float rate) {
         if(State.Uninitialized != state && setPlaySpeedImpl(rate)) {
+            rebaseClock();
             playSpeed = rate;
         }
         if(DEBUG) { System.err.println("SetPlaySpeed: "+toString()); }
@@ -233,7 +373,11 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
             case Stopped:
             case Paused:
                 if(startImpl()) {
+                    rebaseClock();
                     state = State.Playing;
+                    if(null != decoderThread) {
+                        decoderThread.setDecoding(true);
+                    }
                 }
         }
         if(DEBUG) { System.err.println("Start: "+toString()); }
@@ -243,6 +387,7 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     
     public final State pause() {
         if(State.Playing == state && pauseImpl()) {
+            rebaseClock();
             state = State.Paused;
         }
         if(DEBUG) { System.err.println("Pause: "+toString()); }            
@@ -254,8 +399,15 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
         switch(state) {
             case Playing:
             case Paused:
+                final boolean decoding = null != decoderThread && decoderThread.setDecoding(false);
                 if(stopImpl()) {
                     state = State.Stopped;
+                    if(null != decoderThread) {
+                        frameQueue.flush();
+                        resetClock();
+                    }
+                } else if(decoding) {
+                    decoderThread.setDecoding(true);
                 }
         }
         if(DEBUG) { System.err.println("Stop: "+toString()); }
@@ -266,6 +418,13 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     @Override
     public final int getCurrentPosition() {
         if(State.Uninitialized != state) {
+            final TextureFrameQueue q = frameQueue;
+            if(null != q) {
+                final TextureSequence.TextureFrame f = q.getCurrent();
+                if(null != f && TextureSequence.TextureFrame.INVALID_PTS != f.getPTS()) {
+                    return f.getPTS();
+                }
+            }
             return getCurrentPositionImpl();
         }
         return 0;
@@ -278,7 +437,15 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
             case Stopped:
             case Playing:
             case Paused:
-                cp = seekImpl(msec);
+                if(null != decoderThread) {
+                    final boolean decoding = decoderThread.setDecoding(false);
+                    cp = seekImpl(msec);
+                    frameQueue.flush();
+                    resetClock();
+                    decoderThread.setDecoding(decoding);
+                } else {
+                    cp = seekImpl(msec);
+                }
                 break;
             default:
                 cp = 0;
@@ -320,6 +487,13 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
                         texFrames[i] = tf;
                         texFrameMap.put(tex[i], tf);
                     }
+                    if(useDecoderThread && 2 < textureCount) {
+                        gl.glFlush(); // textures shall be visible to the decoder context
+                        resetClock();
+                        frameQueue = new TextureFrameQueue(texFrames);
+                        decoderThread = new DecoderThread(frameQueue, createDecoderContext(gl));
+                        decoderThread.start();
+                    }
                 }
                 state = State.Stopped;
                 return state;
@@ -344,6 +518,166 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     */
     protected abstract void initGLStreamImpl(GL gl, int[] texNames) throws IOException;
     
+    /**
+     * Creates the GL context of the decoder thread, sharing the textures of the given GL's context.
+     * <p>
+     * Returns <code>null</code> if the given GL is not associated w/ a context,
+     * in which case {@link #decodeNextFrameImpl(GL, TextureSequence.TextureFrame)} is called w/o GL.
+     * </p>
+     */
+    protected GLContext createDecoderContext(GL gl) {
+        final GLContext shareWith = gl.getContext();
+        if(null == shareWith) {
+            return null;
+        }
+        final GLProfile glp = gl.getGLProfile();
+        final GLCapabilities caps = new GLCapabilities(glp);
+        caps.setOnscreen(false);
+        final GLDrawable drawable = GLDrawableFactory.getFactory(glp).createOffscreenDrawable(null /* default platform device */, 
+                                                                                             caps, null, 1, 1);
+        drawable.setRealized(true);
+        return drawable.createContext(shareWith);
+    }
+    
+    /**
+     * Decodes the next video frame into the given frame's texture,
+     * called by the decoder thread if {@link #setDecoderThread(boolean) enabled}.
+     * <p>
+     * The decoder thread's shared GL context is current, if one could be {@link #createDecoderContext(GL) created},
+     * otherwise <code>gl</code> is <code>null</code>.
+     * </p>
+     * 
+     * <p>
+     * Implementations not {@link #setDecoderThread(boolean) enabling} the decoder thread
+     * deliver their frames via {@link #getNextTextureImpl(GL, boolean)} and may return
+     * {@link TextureSequence.TextureFrame#INVALID_PTS}.
+     * </p>
+     * 
+     * @return the presentation time stamp of the decoded frame in milliseconds,
+     *         or {@link TextureSequence.TextureFrame#INVALID_PTS} if no frame was decoded, e.g. at end of stream.
+     */
+    protected abstract int decodeNextFrameImpl(GL gl, TextureSequence.TextureFrame nextFrame);
+    
+    /** Fills free frames of the {@link TextureFrameQueue} via {@link GLMediaPlayerImpl#decodeNextFrameImpl(GL, TextureSequence.TextureFrame)}. */
+    private class DecoderThread extends Thread {
+        private final TextureFrameQueue queue;
+        private final GLContext context;
+        private volatile boolean shallStop = false;
+        private boolean decoding = false;
+        private boolean busy = false;
+        
+        DecoderThread(TextureFrameQueue queue, GLContext context) {
+            super("GLMediaPlayer-Decoder-"+toHexString(GLMediaPlayerImpl.this.hashCode()));
+            this.queue = queue;
+            this.context = context;
+            setDaemon(true);
+        }
+        
+        /** 
+         * Enables or disables decoding. If disabled, waits until a pending frame is decoded and queued. 
+         * @return the previous decoding state
+         */
+        synchronized boolean setDecoding(boolean on) {
+            final boolean old = decoding;
+            decoding = on;
+            notifyAll();
+            if( !on && Thread.currentThread() != this ) {
+                try {
+                    while( busy ) {
+                        wait();
+                    }
+                } catch (InterruptedException ie) { }
+            }
+            return old;
+        }
+        
+        void shutdown() {
+            synchronized(this) {
+                shallStop = true;
+                notifyAll();
+            }
+            queue.close();
+            if( Thread.currentThread() != this ) {
+                try {
+                    join();
+                } catch (InterruptedException ie) { }
+            }
+        }
+        
+        @Override
+        public void run() {
+            GL gl = null;
+            if(null != context) {
+                if( GLContext.CONTEXT_NOT_CURRENT == context.makeCurrent() ) {
+                    System.err.println("GLMediaPlayer: Couldn't make decoder context current: "+context);
+                    destroyContext();
+                    return;
+                }
+                gl = context.getGL();
+            }
+            try {
+                while( !shallStop ) {
+                    final TextureSequence.TextureFrame f = queue.takeFree(0);
+                    if(null == f) {
+                        break; // closed
+                    }
+                    synchronized(this) {
+                        while( !shallStop && !decoding ) {
+                            wait();
+                        }
+                        if( shallStop ) {
+                            queue.putFree(f);
+                            break;
+                        }
+                        busy = true;
+                    }
+                    boolean decoded = false;
+                    try {
+                        final int pts = decodeNextFrameImpl(gl, f);
+                        if( TextureSequence.TextureFrame.INVALID_PTS != pts ) {
+                            if(null != gl) {
+                                gl.glFinish(); // texture content complete before being used by the render context
+                            }
+                            f.setPTS(pts);
+                            queue.putDecoded(f);
+                            decoded = true;
+                        }
+                    } catch (Throwable t) {
+                        System.err.println("GLMediaPlayer: Decoder stopped: "+t.getMessage());
+                        t.printStackTrace();
+                        synchronized(this) {
+                            decoding = false;
+                        }
+                    } finally {
+                        if( !decoded ) {
+                            queue.putFree(f);
+                        }
+                        synchronized(this) {
+                            busy = false;
+                            notifyAll();
+                        }
+                    }
+                    if( decoded ) {
+                        newFrameAvailable();
+                    } else {
+                        Thread.sleep(10); // nothing decoded, e.g. end of stream
+                    }
+                }
+            } catch (InterruptedException ie) {
+            } finally {
+                destroyContext();
+            }
+        }
+        
+        private void destroyContext() {
+            if(null != context) {
+                final GLDrawable drawable = context.getGLDrawable();
+                context.destroy();
+                drawable.setRealized(false);
+            }
+        }
+    }
+    
     protected TextureSequence.TextureFrame createTexImage(GL gl, int idx, int[] tex) {
         return new TextureSequence.TextureFrame( createTexImageImpl(gl, idx, tex, width, height, false) );
     }
@@ -468,11 +802,19 @@ public abstract class GLMediaPlayerImpl implements GLMediaPlayer {
     }
     
     @Override
-    public final synchronized State destroy(GL gl) {
-        destroyImpl(gl);
-        removeAllImageTextures(gl);
-        state = State.Uninitialized;
-        return state;
+    public final State destroy(GL gl) {
+        // not holding the instance lock, which may be required by decodeNextFrameImpl(..)
+        if(null != decoderThread) {
+            decoderThread.shutdown();
+            decoderThread = null;
+            frameQueue = null;
+        }
+        synchronized(this) {
+            destroyImpl(gl);
+            removeAllImageTextures(gl);
+            state = State.Uninitialized;
+            return state;
+        }
     }
     protected abstract void destroyImpl(GL gl);
 
@@ -46,16 +46,32 @@ import com.jogamp.opengl.util.texture.TextureSequence;
 /***
  * A dummy null media player implementation using a static test frame
  * available on all platforms.
+ * <p>
+ * Using more than two textures, the static test frame is 'decoded' on the decoder thread
+ * as a synthetic frame sequence w/ consecutive presentation time stamps,
+ * see {@link #NullGLMediaPlayer(int)}.
+ * </p>
  */
 public class NullGLMediaPlayer extends GLMediaPlayerImpl {
     private TextureData texData = null;
     private TextureSequence.TextureFrame frame = null;
     private int pos_ms = 0;
     private int pos_start = 0;
+    /** Number of synthetic frames decoded, using the decoder thread. */
+    private int decodedFrames = 0;
     
     public NullGLMediaPlayer() {
+        this(1);
+    }
+    
+    /**
+     * @param textureCount number of textures, if greater than 2 
+     *        the synthetic frames are decoded on the decoder thread. 
+     */
+    public NullGLMediaPlayer(int textureCount) {
         super();
-        this.setTextureCount(1);
+        this.setTextureCount(textureCount);
+        this.setDecoderThread(2 < textureCount);
     }
 
     @Override
@@ -76,6 +92,7 @@ public class NullGLMediaPlayer extends GLMediaPlayerImpl {
 
     @Override
     protected boolean stopImpl() {
+        decodedFrames = 0;
         return true;
     }
     
@@ -83,6 +100,7 @@ public class NullGLMediaPlayer extends GLMediaPlayerImpl {
     protected int seekImpl(int msec) {
         pos_ms = msec;
         validatePos();
+        decodedFrames = (int) ( pos_ms * fps / 1000f );
         return pos_ms;
     }
     
@@ -96,6 +114,16 @@ public class NullGLMediaPlayer extends GLMediaPlayerImpl {
         return frame;
     }
     
+    @Override
+    protected int decodeNextFrameImpl(GL gl, TextureSequence.TextureFrame nextFrame) {
+        final int pts = (int) ( decodedFrames * 1000f / fps );
+        if( pts > getDuration() ) {
+            return TextureSequence.TextureFrame.INVALID_PTS; // end of stream
+        }
+        decodedFrames++;
+        return pts;
+    }
+    
     @Override
     protected int getCurrentPositionImpl() {
         pos_ms = (int)System.currentTimeMillis() - pos_start;
@@ -144,8 +172,10 @@ public class NullGLMediaPlayer extends GLMediaPlayerImpl {
         Texture texture = super.createTexImageImpl(gl, idx, tex, width, height, false);
         if(null != texData) {
             texture.updateImage(gl, texData);
-            texData.destroy();
-            texData = null;
+            if( idx == getTextureCount() - 1 ) {
+                texData.destroy();
+                texData = null;
+            }
         }                      
         frame = new TextureSequence.TextureFrame( texture );
         return frame;
@@ -0,0 +1,224 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.opengl.util.av;
+
+import com.jogamp.opengl.util.texture.TextureSequence.TextureFrame;
+
+/**
+ * Bounded producer / consumer queue of {@link TextureFrame}s,
+ * passing decoded frames from a decoder thread to the render thread.
+ * <p>
+ * Each frame is in exactly one of the following states:
+ * <ul>
+ *   <li><i>free</i>: available to the producer, see {@link #takeFree(long)}.</li>
+ *   <li><i>decoded</i>: queued in presentation order, see {@link #putDecoded(TextureFrame)}.</li>
+ *   <li><i>current</i>: the frame last picked by the consumer, see {@link #pick(int)}.</li>
+ *   <li><i>previous</i>: the frame replaced by the last pick.</li>
+ * </ul>
+ * The current and the previous frame are not reused by the producer,
+ * since draw commands issued by the render thread before the last pick
+ * may still sample the previous frame's texture when the pick occurs.
+ * Hence the previous frame is only freed by the next pick,
+ * hence decoding ahead requires a queue of at least 3 frames.
+ * </p>
+ */
+public class TextureFrameQueue {
+    private final TextureFrame[] free;
+    private int freeCount;
+    private final TextureFrame[] decoded;
+    private int decodedHead;
+    private int decodedCount;
+    private TextureFrame current;
+    private TextureFrame previous;
+    private boolean closed;
+    private long presentedCount;
+    private long droppedCount;
+
+    /**
+     * @param frames the frames to be circulated, initially all free
+     */
+    public TextureFrameQueue(TextureFrame[] frames) {
+        free = new TextureFrame[frames.length];
+        decoded = new TextureFrame[frames.length];
+        for(int i=0; i<frames.length; i++) {
+            if(null == frames[i]) {
+                throw new IllegalArgumentException("Frame "+i+" is null");
+            }
+            free[i] = frames[i];
+        }
+        freeCount = frames.length;
+    }
+
+    /** Returns the total number of frames. */
+    public final int getCapacity() { return free.length; }
+
+    /** Returns the number of decoded frames waiting to be presented. */
+    public final synchronized int getDecodedCount() { return decodedCount; }
+
+    /** Returns the number of frames picked by {@link #pick(int)}. */
+    public final synchronized long getPresentedCount() { return presentedCount; }
+
+    /** Returns the number of decoded frames skipped by {@link #pick(int)}, since they were late. */
+    public final synchronized long getDroppedCount() { return droppedCount; }
+
+    /** Returns the frame last picked by {@link #pick(int)}, or <code>null</code>. */
+    public final synchronized TextureFrame getCurrent() { return current; }
+
+    /** Returns the frame replaced by the last {@link #pick(int)}, or <code>null</code>. */
+    public final synchronized TextureFrame getPrevious() { return previous; }
+
+    /**
+     * Returns the presentation time stamp of the next decoded frame,
+     * or {@link TextureFrame#INVALID_PTS} if no decoded frame is queued.
+     */
+    public final synchronized int getNextPTS() {
+        return 0 < decodedCount ? decoded[decodedHead].getPTS() : TextureFrame.INVALID_PTS;
+    }
+
+    /**
+     * Producer: Returns a free frame to decode into,
+     * blocking until one is available.
+     * @param timeoutMS maximum time to wait in milliseconds, 0 waits forever
+     * @return the free frame, or <code>null</code> if closed or timed out
+     */
+    public final synchronized TextureFrame takeFree(long timeoutMS) throws InterruptedException {
+        final long t1 = System.currentTimeMillis() + timeoutMS;
+        while( !closed && 0 == freeCount ) {
+            if( 0 < timeoutMS ) {
+                final long dt = t1 - System.currentTimeMillis();
+                if( 0 >= dt ) {
+                    return null;
+                }
+                wait(dt);
+            } else {
+                wait();
+            }
+        }
+        if( closed ) {
+            return null;
+        }
+        final TextureFrame f = free[--freeCount];
+        free[freeCount] = null;
+        return f;
+    }
+
+    /** Producer: Returns a frame taken via {@link #takeFree(long)}, which could not be decoded. */
+    public final synchronized void putFree(TextureFrame f) {
+        free[freeCount++] = f;
+        notifyAll();
+    }
+
+    /**
+     * Producer: Queues a frame taken via {@link #takeFree(long)},
+     * holding new content and its {@link TextureFrame#getPTS() presentation time stamp}.
+     */
+    public final synchronized void putDecoded(TextureFrame f) {
+        decoded[(decodedHead + decodedCount) % decoded.length] = f;
+        decodedCount++;
+        notifyAll();
+    }
+
+    /**
+     * Consumer: Picks the latest decoded frame due at the given presentation clock,
+     * i.e. with a presentation time stamp less or equal than <code>clock</code>.
+     * <p>
+     * Earlier due frames are late and dropped, i.e. freed w/o being presented.
+     * Frames w/ an {@link TextureFrame#INVALID_PTS invalid PTS} are always due.
+     * On success the current frame becomes the previous frame
+     * and the former previous frame, picked two picks ago, is freed.
+     * </p>
+     * @param clock presentation clock in milliseconds
+     * @return the new current frame, or <code>null</code> if no decoded frame is due yet
+     */
+    public final synchronized TextureFrame pick(int clock) {
+        TextureFrame picked = null;
+        while( 0 < decodedCount ) {
+            final TextureFrame f = decoded[decodedHead];
+            final int pts = f.getPTS();
+            if( TextureFrame.INVALID_PTS != pts && pts > clock ) {
+                break;
+            }
+            decoded[decodedHead] = null;
+            decodedHead = ( decodedHead + 1 ) % decoded.length;
+            decodedCount--;
+            if( null != picked ) {
+                free[freeCount++] = picked;
+                droppedCount++;
+            }
+            picked = f;
+        }
+        if( null != picked ) {
+            if( null != previous ) {
+                free[freeCount++] = previous;
+            }
+            previous = current;
+            current = picked;
+            presentedCount++;
+            notifyAll();
+        }
+        return picked;
+    }
+
+    /**
+     * Consumer: Waits until a frame gets decoded, the queue is closed or the timeout is reached.
+     * @param timeoutMS maximum time to wait in milliseconds, must be &gt; 0
+     * @return <code>true</code> if at least one decoded frame is queued
+     */
+    public final synchronized boolean waitForDecoded(long timeoutMS) throws InterruptedException {
+        if( !closed ) {
+            wait(timeoutMS);
+        }
+        return 0 < decodedCount;
+    }
+
+    /** Frees all decoded frames, e.g. after seeking. The current and the previous frame are kept. */
+    public final synchronized void flush() {
+        while( 0 < decodedCount ) {
+            free[freeCount++] = decoded[decodedHead];
+            decoded[decodedHead] = null;
+            decodedHead = ( decodedHead + 1 ) % decoded.length;
+            decodedCount--;
+        }
+        decodedHead = 0;
+        notifyAll();
+    }
+
+    /** Releases all threads blocked in {@link #takeFree(long)} and {@link #waitForDecoded(long)}. */
+    public final synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    public final synchronized boolean isClosed() { return closed; }
+
+    @Override
+    public final synchronized String toString() {
+        return "TextureFrameQueue[free "+freeCount+", decoded "+decodedCount+"/"+decoded.length+", current "+current+
+               ", previous "+previous+", presented "+presentedCount+", dropped "+droppedCount+", closed "+closed+"]";
+    }
+}
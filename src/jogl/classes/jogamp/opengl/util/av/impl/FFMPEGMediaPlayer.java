@@ -59,7 +59,8 @@ import jogamp.opengl.util.av.EGLMediaPlayerImpl;
  * Implements YUV420P to RGB fragment shader conversion 
  * and the usual packed RGB formats.
  * The decoded video frame is written directly into an OpenGL texture 
- * on the GPU in it's native format. A custom fragment shader converts 
+ * on the GPU in it's native format, using a decoder thread
+ * w/ a shared GL context and multiple textures. A custom fragment shader converts 
  * the native pixelformat to a usable RGB format if required. 
  * Hence only 1 copy is required before bloating the picture 
  * from YUV to RGB, for example.
@@ -85,7 +86,6 @@ import jogamp.opengl.util.av.EGLMediaPlayerImpl;
  * TODO:
  * <ul>
  *   <li>Audio Output</li>
- *   <li>Off thread <i>next frame</i> processing using multiple target textures</li>
  *   <li>better pts sync handling</li>
  *   <li>fix seek</li>   
  * </ul> 
@@ -149,7 +149,8 @@ public class FFMPEGMediaPlayer extends EGLMediaPlayerImpl {
         if(!available) {
             throw new RuntimeException("FFMPEGMediaPlayer not available");
         }
-        setTextureCount(1);
+        setTextureCount(3);
+        setDecoderThread(true);
         moviePtr = createInstance0(true);
         if(0==moviePtr) {
             throw new GLException("Couldn't create FFMPEGInstance");
@@ -201,14 +202,17 @@ public class FFMPEGMediaPlayer extends EGLMediaPlayerImpl {
         }        
         setTextureFormat(tif, tf);
         setTextureType(GL.GL_UNSIGNED_BYTE);
+        procAddrGLTexSubImage2D = getProcAddrGLTexSubImage2D(gl);
+    }
+    private static long getProcAddrGLTexSubImage2D(GL gl) {
         GLContextImpl ctx = (GLContextImpl)gl.getContext();
         ProcAddressTable pt = ctx.getGLProcAddressTable();
         if(pt instanceof GLES2ProcAddressTable) {
-            procAddrGLTexSubImage2D = ((GLES2ProcAddressTable)pt)._addressof_glTexSubImage2D;
+            return ((GLES2ProcAddressTable)pt)._addressof_glTexSubImage2D;
         } else if(pt instanceof GLES1ProcAddressTable) {
-            procAddrGLTexSubImage2D = ((GLES1ProcAddressTable)pt)._addressof_glTexSubImage2D;
+            return ((GLES1ProcAddressTable)pt)._addressof_glTexSubImage2D;
         } else if(pt instanceof GL4bcProcAddressTable) {
-            procAddrGLTexSubImage2D = ((GL4bcProcAddressTable)pt)._addressof_glTexSubImage2D;
+            return ((GL4bcProcAddressTable)pt)._addressof_glTexSubImage2D;
         } else {
             throw new InternalError("Unknown ProcAddressTable: "+pt.getClass().getName()+" of "+ctx.getClass().getName());
         }
@@ -388,7 +392,7 @@ public class FFMPEGMediaPlayer extends EGLMediaPlayerImpl {
             }
             final int pts = getVideoPTS0(moviePtr); // this frame
             if(blocking) {
-                // poor mans video sync .. TODO: off thread 'readNextPackage0(..)' on shared GLContext and multi textures/unit!
+                // poor mans video sync, only used w/o decoder thread
                 final long now = System.currentTimeMillis();
                 final long now_d = now - lastVideoTime;
                 final long pts_d = pts - lastVideoPTS;                
@@ -408,6 +412,35 @@ public class FFMPEGMediaPlayer extends EGLMediaPlayerImpl {
         return lastTex;
     }
     
+    /** Max. number of packets read per decoded video frame, skipping interleaved audio packets. */
+    private static final int maxPacketsPerFrame = 32;
+    
+    @Override
+    protected synchronized int decodeNextFrameImpl(GL gl, TextureSequence.TextureFrame nextFrame) {
+        if(0==moviePtr) {
+            throw new GLException("FFMPEG native instance null");
+        }
+        if(null == gl) {
+            throw new GLException("FFMPEG decoding requires a shared GL context");
+        }
+        final long procAddr = getProcAddrGLTexSubImage2D(gl); // of the decoder context
+        psm.setUnpackAlignment(gl, 1); // RGBA ? 4 : 1
+        try {
+            final Texture tex = nextFrame.getTexture();
+            gl.glActiveTexture(GL.GL_TEXTURE0+getTextureUnit());
+            tex.enable(gl);
+            tex.bind(gl);
+            for(int i=0; i<maxPacketsPerFrame; i++) {
+                if( 2 == readNextPacket0(moviePtr, procAddr, textureTarget, textureFormat, textureType) ) { // video
+                    return getVideoPTS0(moviePtr);
+                }
+            }
+        } finally {
+            psm.restore(gl);
+        }
+        return TextureSequence.TextureFrame.INVALID_PTS; // no video frame, e.g. end of stream
+    }
+    
     private void consumeAudio(int len) {
         
     }
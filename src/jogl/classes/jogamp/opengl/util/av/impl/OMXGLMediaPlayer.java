@@ -187,6 +187,12 @@ public class OMXGLMediaPlayer extends EGLMediaPlayerImpl {
         return lastTex;
     }
     
+    @Override
+    protected int decodeNextFrameImpl(GL gl, TextureSequence.TextureFrame nextFrame) {
+        // no decoder thread, the native player selects the frame, see getNextTextureImpl(..)
+        return TextureSequence.TextureFrame.INVALID_PTS;
+    }
+    
     private String replaceAll(String orig, String search, String repl) {
         String dest=null;
         // In case replaceAll / java.util.regex.* is not supported (-> CVM)
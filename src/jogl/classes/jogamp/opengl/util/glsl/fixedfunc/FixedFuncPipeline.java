@@ -148,13 +148,8 @@ public class FixedFuncPipeline {
         colorStatic.put(3, alpha);
         
         shaderState.useProgram(gl, true);
-        final GLUniformData ud = shaderState.getUniform(mgl_ColorStatic);        
-        if(null!=ud) {
-            // same data object ..
-            shaderState.uniform(gl, ud);
-        } else {
-            throw new GLException("Failed to update: mgl_ColorStatic");
-        }        
+        // same data object ..
+        shaderState.uniform(gl, hColorStatic);
     }
     
     //
@@ -170,15 +165,12 @@ public class FixedFuncPipeline {
     }
 
     private void glToggleClientState(GL2ES2 gl, int glArrayIndex, boolean enable) {
-        final String arrayName = GLPointerFuncUtil.getPredefinedArrayIndexName(glArrayIndex, clientActiveTextureUnit);
-        if(null == arrayName) {
-            throw new GLException("arrayIndex "+toHexString(glArrayIndex)+" unknown");
-        }
+        final int handle = getClientStateHandle(glArrayIndex);
         shaderState.useProgram(gl, true);
         if(enable) {
-            shaderState.enableVertexAttribArray(gl, arrayName );
+            shaderState.enableVertexAttribArray(gl, handle);
         } else {
-            shaderState.disableVertexAttribArray(gl, arrayName );
+            shaderState.disableVertexAttribArray(gl, handle);
         }
         switch( glArrayIndex ) {
             case GLPointerFunc.GL_TEXTURE_COORD_ARRAY:
@@ -196,6 +188,33 @@ public class FixedFuncPipeline {
         }
     }
     
+    /** Returns the attribute handle of the predefined array, registered lazily per array index and client texture unit. */
+    private int getClientStateHandle(int glArrayIndex) {
+        final int i;
+        switch( glArrayIndex ) {
+            case GLPointerFunc.GL_VERTEX_ARRAY:
+                i = 0;
+                break;
+            case GLPointerFunc.GL_NORMAL_ARRAY:
+                i = 1;
+                break;
+            case GLPointerFunc.GL_COLOR_ARRAY:
+                i = 2;
+                break;
+            case GLPointerFunc.GL_TEXTURE_COORD_ARRAY:
+                i = 3 + clientActiveTextureUnit;
+                break;
+            default:
+                throw new GLException("arrayIndex "+toHexString(glArrayIndex)+" unknown");
+        }
+        int handle = clientStateHandles[i];
+        if(0 > handle) {
+            handle = shaderState.registerAttribute(GLPointerFuncUtil.getPredefinedArrayIndexName(glArrayIndex, clientActiveTextureUnit));
+            clientStateHandles[i] = handle;
+        }
+        return handle;
+    }
+    
     public void glVertexPointer(GL2ES2 gl, GLArrayData data) {
         shaderState.useProgram(gl, true);
         shaderState.vertexAttribPointer(gl, data);
@@ -439,45 +458,44 @@ public class FixedFuncPipeline {
         shaderState.useProgram(gl, true);
         light -=GLLightingFunc.GL_LIGHT0;
         if(0 <= light && light < MAX_LIGHTS) {
-            GLUniformData ud = null;
+            final int param;
             switch(pname) {
                 case  GLLightingFunc.GL_AMBIENT:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].ambient");
+                    param = 0;
                     break;
                 case  GLLightingFunc.GL_DIFFUSE:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].diffuse");
+                    param = 1;
                     break;
                 case  GLLightingFunc.GL_SPECULAR:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].specular");
+                    param = 2;
                     break;
                 case GLLightingFunc.GL_POSITION:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].position");
+                    param = 3;
                     break;
                 case GLLightingFunc.GL_SPOT_DIRECTION:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].spotDirection");
+                    param = 4;
                     break;
                 case GLLightingFunc.GL_SPOT_EXPONENT:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].spotExponent");
+                    param = 5;
                     break;
                 case GLLightingFunc.GL_SPOT_CUTOFF:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].spotCutoff");
+                    param = 6;
                     break;
                 case GLLightingFunc.GL_CONSTANT_ATTENUATION:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].constantAttenuation");
+                    param = 7;
                     break;
                 case GLLightingFunc.GL_LINEAR_ATTENUATION:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].linearAttenuation");
+                    param = 8;
                     break;
                 case GLLightingFunc.GL_QUADRATIC_ATTENUATION:
-                    ud = shaderState.getUniform(mgl_LightSource+"["+light+"].quadraticAttenuation");
+                    param = 9;
                     break;
                 default:
                     throw new GLException("glLightfv invalid pname: "+toHexString(pname));
             }
-            if(null!=ud) {
-                ud.setData(params);
-                shaderState.uniform(gl, ud);
-            }
+            final int h = hLightSource[light*mgl_LightSourceParams.length + param];
+            shaderState.getUniform(h).setData(params);
+            shaderState.uniform(gl, h);
         } else {
             throw new GLException("glLightfv light not within [0.."+MAX_LIGHTS+"]: "+light);
         }
@@ -496,41 +514,34 @@ public class FixedFuncPipeline {
             default:
         }
 
-        GLUniformData ud = null;
+        final int param;
         switch(pname) {
             case  GLLightingFunc.GL_AMBIENT:
-                ud = shaderState.getUniform(mgl_FrontMaterial+".ambient");
+                param = 0;
                 break;
             case  GLLightingFunc.GL_AMBIENT_AND_DIFFUSE:
                 {
-                    ud = shaderState.getUniform(mgl_FrontMaterial+".ambient");
-                    if(null!=ud) {
-                        ud.setData(params);
-                        shaderState.uniform(gl, ud);
-                    }
+                    shaderState.getUniform(hFrontMaterial[0]).setData(params);
+                    shaderState.uniform(gl, hFrontMaterial[0]);
                 }
                 // fall through intended ..
             case  GLLightingFunc.GL_DIFFUSE:
-                ud = shaderState.getUniform(mgl_FrontMaterial+".diffuse");
+                param = 1;
                 break;
             case  GLLightingFunc.GL_SPECULAR:
-                ud = shaderState.getUniform(mgl_FrontMaterial+".specular");
+                param = 2;
                 break;
             case  GLLightingFunc.GL_EMISSION:
-                ud = shaderState.getUniform(mgl_FrontMaterial+".emission");
+                param = 3;
                 break;
             case  GLLightingFunc.GL_SHININESS:
-                ud = shaderState.getUniform(mgl_FrontMaterial+".shininess");
+                param = 4;
                 break;
             default:
                 throw new GLException("glMaterialfv invalid pname: "+toHexString(pname));
         }
-        if(null!=ud) {
-            ud.setData(params);
-            shaderState.uniform(gl, ud);
-        } else if(verbose) {
-            
-        }
+        shaderState.getUniform(hFrontMaterial[param]).setData(params);
+        shaderState.uniform(gl, hFrontMaterial[param]);
     }
 
     //
@@ -539,11 +550,8 @@ public class FixedFuncPipeline {
     
     public void glShadeModel(GL2ES2 gl, int mode) {
         shaderState.useProgram(gl, true);
-        GLUniformData ud = shaderState.getUniform(mgl_ShadeModel);
-        if(null!=ud) {
-            ud.setData(mode);
-            shaderState.uniform(gl, ud);
-        }
+        shaderState.getUniform(hShadeModel).setData(mode);
+        shaderState.uniform(gl, hShadeModel);
     }
 
     /** ES2 supports CullFace implicit
@@ -798,34 +806,26 @@ public class FixedFuncPipeline {
         
         GLUniformData ud;
         if( pmvMatrix.update() ) {            
-            ud = shaderState.getUniform(mgl_PMVMatrix);
-            if(null!=ud) {
-                final FloatBuffer m;
-                if(ShaderSelectionMode.COLOR_TEXTURE8_LIGHT_PER_VERTEX == currentShaderSelectionMode ||
-                   ShaderSelectionMode.COLOR_LIGHT_PER_VERTEX== currentShaderSelectionMode ) {
-                    m = pmvMatrix.glGetPMvMvitMatrixf();
-                } else {
-                    m = pmvMatrix.glGetPMvMatrixf();                    
-                }
-                if(m != ud.getBuffer()) {
-                    ud.setData(m);
-                }
-                // same data object ..
-                shaderState.uniform(gl, ud);
+            ud = shaderState.getUniform(hPMVMatrix);
+            final FloatBuffer m;
+            if(ShaderSelectionMode.COLOR_TEXTURE8_LIGHT_PER_VERTEX == currentShaderSelectionMode ||
+               ShaderSelectionMode.COLOR_LIGHT_PER_VERTEX== currentShaderSelectionMode ) {
+                m = pmvMatrix.glGetPMvMvitMatrixf();
             } else {
-                throw new GLException("Failed to update: mgl_PMVMatrix");
+                m = pmvMatrix.glGetPMvMatrixf();                    
+            }
+            if(m != ud.getBuffer()) {
+                ud.setData(m);
             }
+            // same data object ..
+            shaderState.uniform(gl, hPMVMatrix);
         }
         if(colorVAEnabledDirty) { 
-            ud = shaderState.getUniform(mgl_ColorEnabled);
-            if(null!=ud) {
-                int ca = true == shaderState.isVertexAttribArrayEnabled(GLPointerFuncUtil.mgl_Color) ? 1 : 0 ;
-                if(ca!=ud.intValue()) {
-                    ud.setData(ca);
-                    shaderState.uniform(gl, ud);
-                }
-            } else {
-                throw new GLException("Failed to update: mgl_ColorEnabled");                
+            ud = shaderState.getUniform(hColorEnabled);
+            int ca = true == shaderState.isVertexAttribArrayEnabled(GLPointerFuncUtil.mgl_Color) ? 1 : 0 ;
+            if(ca!=ud.intValue()) {
+                ud.setData(ca);
+                shaderState.uniform(gl, hColorEnabled);
             }
             colorVAEnabledDirty = false;
         }
@@ -840,51 +840,33 @@ public class FixedFuncPipeline {
         } */
 
         if(alphaTestDirty) {
-            ud = shaderState.getUniform(mgl_AlphaTestFunc);
-            if(null!=ud) {
-                ud.setData(alphaTestFunc);
-                shaderState.uniform(gl, ud);
-            }
-            ud = shaderState.getUniform(mgl_AlphaTestRef);
-            if(null!=ud) {
-                ud.setData(alphaTestRef);
-                shaderState.uniform(gl, ud);
-            }
+            shaderState.getUniform(hAlphaTestFunc).setData(alphaTestFunc);
+            shaderState.uniform(gl, hAlphaTestFunc);
+            shaderState.getUniform(hAlphaTestRef).setData(alphaTestRef);
+            shaderState.uniform(gl, hAlphaTestRef);
             alphaTestDirty = false;
         }
         if(pointParamsDirty) {
-            ud = shaderState.getUniform(mgl_PointParams);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }
+            // same data object
+            shaderState.uniform(gl, hPointParams);
             pointParamsDirty = false;
         }
         
         if(lightsEnabledDirty) {
-            ud = shaderState.getUniform(mgl_LightsEnabled);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }
+            // same data object
+            shaderState.uniform(gl, hLightsEnabled);
             lightsEnabledDirty=false;
         }
 
         if(textureCoordEnabledDirty) {
-            ud = shaderState.getUniform(mgl_TexCoordEnabled);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }
+            // same data object
+            shaderState.uniform(gl, hTexCoordEnabled);
             textureCoordEnabledDirty=false;
         }        
 
         if(textureEnvModeDirty) {
-            ud = shaderState.getUniform(mgl_TexEnvMode);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }
+            // same data object
+            shaderState.uniform(gl, hTexEnvMode);
             textureEnvModeDirty = false;
         }
         
@@ -892,19 +874,13 @@ public class FixedFuncPipeline {
             for(int i = 0; i<MAX_TEXTURE_UNITS; i++) {
                 textureFormat.put(i, texID2Format.get(boundTextureObject[i]));
             }
-            ud = shaderState.getUniform(mgl_TexFormat);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }            
+            // same data object
+            shaderState.uniform(gl, hTexFormat);
             textureFormatDirty = false;
         }            
         if(textureEnabledDirty) {
-            ud = shaderState.getUniform(mgl_TextureEnabled);
-            if(null!=ud) {
-                // same data object 
-                shaderState.uniform(gl, ud);
-            }
+            // same data object
+            shaderState.uniform(gl, hTextureEnabled);
             textureEnabledDirty=false;
         }
         
@@ -1096,46 +1072,49 @@ public class FixedFuncPipeline {
         shaderState.attachShaderProgram(gl, selectShaderProgram(gl, requestedShaderSelectionMode), true);
 
         // mandatory ..
-        if(!shaderState.uniform(gl, new GLUniformData(mgl_PMVMatrix, 4, 4, pmvMatrix.glGetPMvMvitMatrixf()))) {
+        hPMVMatrix = shaderState.registerUniform(new GLUniformData(mgl_PMVMatrix, 4, 4, pmvMatrix.glGetPMvMvitMatrixf()));
+        if(!shaderState.uniform(gl, hPMVMatrix)) {
             throw new GLException("Error setting PMVMatrix in shader: "+this);
         }
 
-        shaderState.uniform(gl, new GLUniformData(mgl_ColorEnabled,  0));
-        shaderState.uniform(gl, new GLUniformData(mgl_ColorStatic, 4, colorStatic));
+        hColorEnabled = uniform(gl, new GLUniformData(mgl_ColorEnabled,  0));
+        hColorStatic = uniform(gl, new GLUniformData(mgl_ColorStatic, 4, colorStatic));
         
         texID2Format.setKeyNotFoundValue(0);        
-        shaderState.uniform(gl, new GLUniformData(mgl_TexCoordEnabled,  1, textureCoordEnabled));
-        shaderState.uniform(gl, new GLUniformData(mgl_TexEnvMode, 1, textureEnvMode));
-        shaderState.uniform(gl, new GLUniformData(mgl_TexFormat, 1, textureFormat));        
-        shaderState.uniform(gl, new GLUniformData(mgl_TextureEnabled, 1, textureEnabled));
+        hTexCoordEnabled = uniform(gl, new GLUniformData(mgl_TexCoordEnabled,  1, textureCoordEnabled));
+        hTexEnvMode = uniform(gl, new GLUniformData(mgl_TexEnvMode, 1, textureEnvMode));
+        hTexFormat = uniform(gl, new GLUniformData(mgl_TexFormat, 1, textureFormat));        
+        hTextureEnabled = uniform(gl, new GLUniformData(mgl_TextureEnabled, 1, textureEnabled));
         for(int i=0; i<MAX_TEXTURE_UNITS; i++) {
             shaderState.uniform(gl, new GLUniformData(mgl_Texture+i, i));
         }
-        shaderState.uniform(gl, new GLUniformData(mgl_ShadeModel, 0));
+        hShadeModel = uniform(gl, new GLUniformData(mgl_ShadeModel, 0));
         /** ES2 supports CullFace implicit
         shaderState.uniform(gl, new GLUniformData(mgl_CullFace, cullFace)); */
-        shaderState.uniform(gl, new GLUniformData(mgl_AlphaTestFunc, alphaTestFunc));
-        shaderState.uniform(gl, new GLUniformData(mgl_AlphaTestRef, alphaTestRef));   
-        shaderState.uniform(gl, new GLUniformData(mgl_PointParams, 4, pointParams));
+        hAlphaTestFunc = uniform(gl, new GLUniformData(mgl_AlphaTestFunc, alphaTestFunc));
+        hAlphaTestRef = uniform(gl, new GLUniformData(mgl_AlphaTestRef, alphaTestRef));   
+        hPointParams = uniform(gl, new GLUniformData(mgl_PointParams, 4, pointParams));
         for(int i=0; i<MAX_LIGHTS; i++) {
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].ambient", 4, defAmbient));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].diffuse", 4, 0==i ? one4f : defDiffuseN));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].specular", 4, 0==i ? one4f : defSpecularN));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].position", 4, defPosition));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].spotDirection", 3, defSpotDir));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].spotExponent", defSpotExponent));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].spotCutoff", defSpotCutoff));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].constantAttenuation", defConstantAtten));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].linearAttenuation", defLinearAtten));
-            shaderState.uniform(gl, new GLUniformData(mgl_LightSource+"["+i+"].quadraticAttenuation", defQuadraticAtten));
+            final String prefix = mgl_LightSource+"["+i+"]";
+            final int h = i*mgl_LightSourceParams.length;
+            hLightSource[h+0] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[0], 4, defAmbient));
+            hLightSource[h+1] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[1], 4, 0==i ? one4f : defDiffuseN));
+            hLightSource[h+2] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[2], 4, 0==i ? one4f : defSpecularN));
+            hLightSource[h+3] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[3], 4, defPosition));
+            hLightSource[h+4] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[4], 3, defSpotDir));
+            hLightSource[h+5] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[5], defSpotExponent));
+            hLightSource[h+6] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[6], defSpotCutoff));
+            hLightSource[h+7] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[7], defConstantAtten));
+            hLightSource[h+8] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[8], defLinearAtten));
+            hLightSource[h+9] = uniform(gl, new GLUniformData(prefix+mgl_LightSourceParams[9], defQuadraticAtten));
         }        
         shaderState.uniform(gl, new GLUniformData(mgl_LightModel+".ambient", 4, defLightModelAmbient));
-        shaderState.uniform(gl, new GLUniformData(mgl_LightsEnabled,  1, lightsEnabled));
-        shaderState.uniform(gl, new GLUniformData(mgl_FrontMaterial+".ambient", 4, defMatAmbient));
-        shaderState.uniform(gl, new GLUniformData(mgl_FrontMaterial+".diffuse", 4, defMatDiffuse));
-        shaderState.uniform(gl, new GLUniformData(mgl_FrontMaterial+".specular", 4, defMatSpecular));
-        shaderState.uniform(gl, new GLUniformData(mgl_FrontMaterial+".emission", 4, defMatEmission));
-        shaderState.uniform(gl, new GLUniformData(mgl_FrontMaterial+".shininess", defMatShininess));
+        hLightsEnabled = uniform(gl, new GLUniformData(mgl_LightsEnabled,  1, lightsEnabled));
+        hFrontMaterial[0] = uniform(gl, new GLUniformData(mgl_FrontMaterial+".ambient", 4, defMatAmbient));
+        hFrontMaterial[1] = uniform(gl, new GLUniformData(mgl_FrontMaterial+".diffuse", 4, defMatDiffuse));
+        hFrontMaterial[2] = uniform(gl, new GLUniformData(mgl_FrontMaterial+".specular", 4, defMatSpecular));
+        hFrontMaterial[3] = uniform(gl, new GLUniformData(mgl_FrontMaterial+".emission", 4, defMatEmission));
+        hFrontMaterial[4] = uniform(gl, new GLUniformData(mgl_FrontMaterial+".shininess", defMatShininess));
 
         shaderState.useProgram(gl, false);
         if(verbose) {
@@ -1143,6 +1122,13 @@ public class FixedFuncPipeline {
         }
     }
 
+    /** Registers and uploads the uniform, returns its handle */
+    private int uniform(GL2ES2 gl, GLUniformData data) {
+        final int handle = shaderState.registerUniform(data);
+        shaderState.uniform(gl, handle);
+        return handle;
+    }
+
     private String toHexString(int i) {
         return "0x"+Integer.toHexString(i);
     }
@@ -1216,6 +1202,17 @@ public class FixedFuncPipeline {
     private static final String mgl_TexEnvMode       = "mgl_TexEnvMode";      //  int mgl_TexEnvMode[MAX_TEXTURE_UNITS];
     private static final String mgl_TexFormat        = "mgl_TexFormat";       //  int mgl_TexFormat[MAX_TEXTURE_UNITS];
 
+    private static final String[] mgl_LightSourceParams = { ".ambient", ".diffuse", ".specular", ".position", ".spotDirection",
+                                                            ".spotExponent", ".spotCutoff", ".constantAttenuation", 
+                                                            ".linearAttenuation", ".quadraticAttenuation" };
+
+    // uniform and attribute handles, see ShaderState#registerUniform(GLUniformData)
+    private int hPMVMatrix, hColorEnabled, hColorStatic, hShadeModel, hAlphaTestFunc, hAlphaTestRef, hPointParams;
+    private int hLightsEnabled, hTextureEnabled, hTexCoordEnabled, hTexEnvMode, hTexFormat;
+    private final int[] hLightSource = new int[MAX_LIGHTS*mgl_LightSourceParams.length];
+    private final int[] hFrontMaterial = new int[5]; // ambient, diffuse, specular, emission, shininess
+    private final int[] clientStateHandles = new int[] { -1, -1, -1, -1, -1, -1, -1, -1, -1, -1, -1 }; // vertex, normal, color, texCoord[MAX_TEXTURE_UNITS] 
+
     // private static final FloatBuffer zero4f = Buffers.newDirectFloatBuffer(new float[] { 0.0f, 0.0f, 0.0f, 0.0f });
     private static final FloatBuffer neut4f = Buffers.newDirectFloatBuffer(new float[] { 0.0f, 0.0f, 0.0f, 1.0f });
     private static final FloatBuffer one4f  = Buffers.newDirectFloatBuffer(new float[] { 1.0f, 1.0f, 1.0f, 1.0f });    
@@ -40,7 +40,12 @@ public enum FilterType {
 	/**
 	 * Aggresive strategy: select one of the above filters trying each of the filters (this is done for every row!)
 	 */
-	FILTER_VERYAGGRESSIVE(-4), ;
+	FILTER_VERYAGGRESSIVE(-4),
+	/**
+	 * Adaptive strategy: scores the five filters with the integer sum of absolute (signed) differences, computed in
+	 * one pass over the row, on sampled rows only (every 4 rows, and the row after a change of filter)
+	 */
+	FILTER_ADAPTIVE_FAST(-5), ;
 	public final int val;
 
 	private FilterType(int val) {
@@ -91,4 +96,115 @@ public enum FilterType {
 		else
 			return c;
 	}
+
+	/**
+	 * Filters one row with the given (concrete) filter type.
+	 * <p>
+	 * Rows follow the writer convention: image bytes at positions 1..bytesPerRow, position 0 is reserved.
+	 * 
+	 * @param ft
+	 *            one of NONE, SUB, UP, AVERAGE, PAETH
+	 * @param row
+	 *            current row, unfiltered
+	 * @param prev
+	 *            previous row, unfiltered (all zeros for the first row)
+	 * @param out
+	 *            destination; <code>out[outOff]</code> receives the filter type, the filtered bytes follow
+	 */
+	static void filterRow(FilterType ft, byte[] row, byte[] prev, byte[] out, int outOff, int bytesPixel,
+			int bytesPerRow) {
+		int i, j;
+		out[outOff] = (byte) ft.val;
+		switch (ft) {
+		case FILTER_NONE:
+			System.arraycopy(row, 1, out, outOff + 1, bytesPerRow);
+			break;
+		case FILTER_SUB:
+			for (i = 1; i <= bytesPixel; i++)
+				out[outOff + i] = row[i];
+			for (j = 1, i = bytesPixel + 1; i <= bytesPerRow; i++, j++)
+				out[outOff + i] = (byte) (row[i] - row[j]);
+			break;
+		case FILTER_UP:
+			for (i = 1; i <= bytesPerRow; i++)
+				out[outOff + i] = (byte) (row[i] - prev[i]);
+			break;
+		case FILTER_AVERAGE:
+			for (j = 1 - bytesPixel, i = 1; i <= bytesPerRow; i++, j++)
+				out[outOff + i] = (byte) (row[i] - ((prev[i] & 0xFF) + (j > 0 ? (row[j] & 0xFF) : 0)) / 2);
+			break;
+		case FILTER_PAETH:
+			for (j = 1 - bytesPixel, i = 1; i <= bytesPerRow; i++, j++)
+				out[outOff + i] = (byte) (row[i] - filterPaethPredictor(j > 0 ? (row[j] & 0xFF) : 0, prev[i] & 0xFF,
+						j > 0 ? (prev[j] & 0xFF) : 0));
+			break;
+		default:
+			throw new PngjOutputException("Filter type " + ft + " not implemented");
+		}
+	}
+
+	/**
+	 * Filters one row with the five filters in one single pass, and scores each result with the sum of the absolute
+	 * values of the (signed) filtered bytes. Allocation free.
+	 * <p>
+	 * Same row layout as {@link #filterRow(FilterType, byte[], byte[], byte[], int, int, int)}
+	 * 
+	 * @param out
+	 *            five destination rows, indexed by filter type value; position 0 receives the filter type
+	 * @param sums
+	 *            receives the five scores (less is better), indexed by filter type value
+	 */
+	static void filterRowAll(byte[] row, byte[] prev, byte[][] out, int[] sums, int bytesPixel, int bytesPerRow) {
+		final byte[] o0 = out[0], o1 = out[1], o2 = out[2], o3 = out[3], o4 = out[4];
+		int s0 = 0, s1 = 0, s2 = 0, s3 = 0, s4 = 0;
+		int i, x, a, b, c, v;
+		// first pixel: no left neighbours (a = c = 0), PAETH degenerates to UP, AVERAGE to b/2
+		final int n = bytesPixel < bytesPerRow ? bytesPixel : bytesPerRow;
+		for (i = 1; i <= n; i++) {
+			x = row[i];
+			b = prev[i] & 0xFF;
+			o0[i] = (byte) x;
+			s0 += x < 0 ? -x : x;
+			o1[i] = (byte) x;
+			s1 += x < 0 ? -x : x;
+			v = (byte) (x - b);
+			o2[i] = (byte) v;
+			s2 += v < 0 ? -v : v;
+			o4[i] = (byte) v;
+			s4 += v < 0 ? -v : v;
+			v = (byte) (x - (b >> 1));
+			o3[i] = (byte) v;
+			s3 += v < 0 ? -v : v;
+		}
+		for (; i <= bytesPerRow; i++) {
+			x = row[i];
+			a = row[i - bytesPixel] & 0xFF;
+			b = prev[i] & 0xFF;
+			c = prev[i - bytesPixel] & 0xFF;
+			o0[i] = (byte) x;
+			s0 += x < 0 ? -x : x;
+			v = (byte) (x - a);
+			o1[i] = (byte) v;
+			s1 += v < 0 ? -v : v;
+			v = (byte) (x - b);
+			o2[i] = (byte) v;
+			s2 += v < 0 ? -v : v;
+			v = (byte) (x - ((a + b) >> 1));
+			o3[i] = (byte) v;
+			s3 += v < 0 ? -v : v;
+			v = (byte) (x - filterPaethPredictor(a, b, c));
+			o4[i] = (byte) v;
+			s4 += v < 0 ? -v : v;
+		}
+		o0[0] = 0;
+		o1[0] = 1;
+		o2[0] = 2;
+		o3[0] = 3;
+		o4[0] = 4;
+		sums[0] = s0;
+		sums[1] = s1;
+		sums[2] = s2;
+		sums[3] = s3;
+		sums[4] = s4;
+	}
 }
@@ -5,6 +5,7 @@ package jogamp.opengl.util.pngj;
  */
 class FilterWriteStrategy {
 	private static final int COMPUTE_STATS_EVERY_N_LINES = 8;
+	private static final int ADAPTIVE_SAMPLE_EVERY_N_LINES = 4;
 
 	final ImageInfo imgInfo;
 	public final FilterType configuredType; // can be negative (fin dout)
@@ -18,6 +19,9 @@ class FilterWriteStrategy {
 	private double[] preference = new double[] { 1.1, 1.1, 1.1, 1.1, 1.2 };
 	private int discoverEachLines = -1;
 	private double[] histogram1 = new double[256];
+	private final boolean adaptive;
+	private FilterType lastSelected = null; // adaptive only
+	private int testedRows = 0;
 
 	FilterWriteStrategy(ImageInfo imgInfo, FilterType configuredType) {
 		this.imgInfo = imgInfo;
@@ -34,6 +38,9 @@ class FilterWriteStrategy {
 			discoverEachLines = COMPUTE_STATS_EVERY_N_LINES;
 		if (configuredType == FilterType.FILTER_VERYAGGRESSIVE)
 			discoverEachLines = 1;
+		adaptive = configuredType == FilterType.FILTER_ADAPTIVE_FAST;
+		if (adaptive)
+			discoverEachLines = ADAPTIVE_SAMPLE_EVERY_N_LINES;
 	}
 
 	boolean shouldTestAll(int rown) {
@@ -52,7 +59,39 @@ class FilterWriteStrategy {
 		return (discoverEachLines > 0);
 	}
 
+	/**
+	 * True for FILTER_ADAPTIVE_FAST: the caller must score rows with FilterType.filterRowAll() and report with
+	 * fillResultsAdaptive(); no histograms are needed.
+	 */
+	boolean isAdaptive() {
+		return adaptive;
+	}
+
+	/** Number of rows for which all filters were tried */
+	int getTestedRows() {
+		return testedRows;
+	}
+
+	/**
+	 * Reports the five scores (sum of absolute values) of a tested row, and selects the best filter. If the selection
+	 * changes, the next row is tested as well.
+	 */
+	void fillResultsAdaptive(int rown, int[] sums) {
+		testedRows++;
+		int best = 0;
+		for (int i = 1; i < 5; i++) {
+			if (sums[i] < sums[best])
+				best = i;
+		}
+		final FilterType previous = lastSelected;
+		currentType = FilterType.getByVal(best);
+		lastSelected = currentType;
+		lastRowTested = (previous != null && previous != currentType) ? rown - discoverEachLines + 1 : rown;
+	}
+
 	void fillResultsForFilter(int rown, FilterType type, double sum, int[] histo, boolean tentative) {
+		if (tentative && type == FilterType.FILTER_NONE)
+			testedRows++;
 		lastRowTested = rown;
 		lastSums[type.val] = sum;
 		if (histo != null) {
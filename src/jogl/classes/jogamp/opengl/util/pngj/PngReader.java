@@ -1,6 +1,8 @@
 package jogamp.opengl.util.pngj;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -13,11 +15,16 @@ import jogamp.opengl.util.pngj.chunks.ChunkLoadBehaviour;
 import jogamp.opengl.util.pngj.chunks.ChunkRaw;
 import jogamp.opengl.util.pngj.chunks.PngChunk;
 import jogamp.opengl.util.pngj.chunks.PngChunkIHDR;
+import jogamp.opengl.util.pngj.chunks.PngChunkPLTE;
+import jogamp.opengl.util.pngj.chunks.PngChunkTRNS;
 import jogamp.opengl.util.pngj.chunks.PngMetadata;
 
 
 /**
  * Reads a PNG image, line by line
+ * <p>
+ * Interlaced (Adam7) images are deinterlaced when reading the first row, holding the whole unfiltered image in
+ * memory. Rows are then returned in the usual sequence.
  */
 public class PngReader {
 	/**
@@ -44,6 +51,23 @@ public class PngReader {
 	protected byte[] rowb = null;
 	protected byte[] rowbprev = null; // rowb previous
 	protected byte[] rowbfilter = null; // current line 'filtered': exactly as in uncompressed stream
+	private byte[] rowbswap = null; // scratch row for channel swapping, lazily allocated
+
+	private final boolean interlaced;
+	private byte[] deinterlaced = null; // interlaced images: all unfiltered rows, without filter byte
+
+	// output transformation of readRowToBuffer(), see setOutputTransform()
+	private boolean expand = false;
+	private boolean strip16 = false;
+	private boolean outputInitialized = false;
+	private boolean transformed;
+	private int outChannels;
+	private int outBitDepth;
+	private int outBytesPerRow;
+	private byte[] palette = null; // expanded, 3 bytes per entry, 256 entries
+	private byte[] paletteAlpha = null; // 256 entries, or null if no tRNS
+	private int[] trnsColor = null; // transparent gray or rgb sample values, or null if no tRNS
+	private byte[] rowbout = null; // scratch row for the transformation, lazily allocated
 
 	/**
 	 * All chunks loaded. Criticals are included, except that all IDAT chunks appearance are replaced by a single
@@ -94,8 +118,9 @@ public class PngReader {
 		boolean grayscale = (ihdr.getColormodel() == 0 || ihdr.getColormodel() == 4);
 		imgInfo = new ImageInfo(ihdr.getCols(), ihdr.getRows(), ihdr.getBitspc(), alpha, grayscale, palette);
 		imgLine = new ImageLine(imgInfo);
-		if (ihdr.getInterlaced() != 0)
-			throw new PngjUnsupportedException("PNG interlaced not supported by this library");
+		if (ihdr.getInterlaced() != 0 && ihdr.getInterlaced() != 1)
+			throw new PngjInputException("Invalid interlace method " + ihdr.getInterlaced());
+		interlaced = ihdr.getInterlaced() == 1;
 		if (ihdr.getFilmeth() != 0 || ihdr.getCompmeth() != 0)
 			throw new PngjInputException("compmethod o filtermethod unrecognized");
 		if (ihdr.getColormodel() < 0 || ihdr.getColormodel() > 6 || ihdr.getColormodel() == 1
@@ -266,6 +291,270 @@ public class PngReader {
 	 * @return The scanline in the same passwd buffer if it was allocated, a newly allocated one otherwise
 	 */
 	public int[] readRow(int[] buffer, int nrow) {
+		if (buffer == null || buffer.length < imgInfo.samplesPerRowP)
+			buffer = new int[imgInfo.samplesPerRowP];
+		readRowRaw(nrow);
+		convertRowFromBytes(buffer);
+		return buffer;
+	}
+
+	/**
+	 * Reads a line and returns it unfiltered as bytes, without converting it to int samples.
+	 * <p>
+	 * The returned array is internal and is overwritten by the next read. The image bytes start at index 1 (index 0
+	 * holds the filter type), in the PNG sample order; 16 bits samples are big endian.
+	 * 
+	 * @param nrow
+	 *            Row number (0 is top). Rows must be read in sequence.
+	 * @return The internal row buffer, of length <code>imgInfo.bytesPerRow + 1</code>
+	 */
+	public byte[] readRowByte(int nrow) {
+		readRowRaw(nrow);
+		return rowb;
+	}
+
+	/**
+	 * Sets the transformation applied by {@link #readRowToBuffer(int, ByteBuffer, int, boolean)} and
+	 * {@link #readRowsToBuffer(ByteBuffer, int, boolean, boolean)}. Must be called before reading the first row.
+	 * <p>
+	 * Default is no transformation, i.e. the unfiltered bytes as stored in the PNG.
+	 * 
+	 * @param expand
+	 *            If true, indexed images are expanded to RGB, or to RGBA if a tRNS chunk is present. Greyscale bit
+	 *            depths 1-2-4 are scaled to 8 bits. The tRNS color of greyscale and RGB images is expanded to an
+	 *            alpha channel. 16 bits samples are stored in the byte order of the destination buffer, as expected
+	 *            for <code>GL_UNSIGNED_SHORT</code>.
+	 * @param strip16
+	 *            If true, 16 bits samples are reduced to 8 bits.
+	 */
+	public void setOutputTransform(boolean expand, boolean strip16) {
+		if (rowNum >= 0)
+			throw new PngjException("output transform must be set before reading rows");
+		this.expand = expand;
+		this.strip16 = strip16;
+		this.outputInitialized = false;
+	}
+
+	/**
+	 * Number of channels written by {@link #readRowToBuffer(int, ByteBuffer, int, boolean)}, see
+	 * {@link #setOutputTransform(boolean, boolean)}
+	 */
+	public int getOutputChannels() {
+		initOutput();
+		return outChannels;
+	}
+
+	/**
+	 * Bits per sample written by {@link #readRowToBuffer(int, ByteBuffer, int, boolean)}, see
+	 * {@link #setOutputTransform(boolean, boolean)}
+	 */
+	public int getOutputBitDepth() {
+		initOutput();
+		return outBitDepth;
+	}
+
+	/**
+	 * Bytes per row written by {@link #readRowToBuffer(int, ByteBuffer, int, boolean)}, see
+	 * {@link #setOutputTransform(boolean, boolean)}
+	 */
+	public int getOutputBytesPerRow() {
+		initOutput();
+		return outBytesPerRow;
+	}
+
+	private void initOutput() {
+		if (outputInitialized)
+			return;
+		trnsColor = null;
+		palette = null;
+		paletteAlpha = null;
+		if (expand) {
+			final PngChunkTRNS trns = (PngChunkTRNS) getMetadata().getChunk1(ChunkHelper.tRNS);
+			if (imgInfo.indexed) {
+				final PngChunkPLTE plte = (PngChunkPLTE) getMetadata().getChunk1(ChunkHelper.PLTE);
+				if (plte == null)
+					throw new PngjInputException("PLTE chunk missing for indexed image");
+				palette = new byte[256 * 3]; // out of range indices are black
+				final int[] rgb = new int[3];
+				for (int n = 0; n < plte.getNentries(); n++) {
+					plte.getEntryRgb(n, rgb);
+					palette[n * 3] = (byte) rgb[0];
+					palette[n * 3 + 1] = (byte) rgb[1];
+					palette[n * 3 + 2] = (byte) rgb[2];
+				}
+				if (trns != null) {
+					paletteAlpha = new byte[256];
+					Arrays.fill(paletteAlpha, (byte) 0xff);
+					final int[] alpha = trns.getPalletteAlpha();
+					for (int n = 0; n < alpha.length && n < 256; n++)
+						paletteAlpha[n] = (byte) alpha[n];
+				}
+			} else if (trns != null && !imgInfo.alpha) {
+				trnsColor = imgInfo.greyscale ? new int[] { trns.getGray() } : trns.getRGB();
+			}
+		}
+		final int bd = imgInfo.bitDepth;
+		transformed = (expand && (imgInfo.indexed || bd < 8 || bd == 16 || trnsColor != null))
+				|| (strip16 && bd == 16);
+		if (transformed) {
+			outChannels = imgInfo.indexed ? (paletteAlpha != null ? 4 : 3) : imgInfo.channels
+					+ (trnsColor != null ? 1 : 0);
+			outBitDepth = (bd == 16 && !strip16) ? 16 : 8;
+			outBytesPerRow = imgInfo.cols * outChannels * outBitDepth / 8;
+		} else {
+			outChannels = imgInfo.channels;
+			outBitDepth = bd;
+			outBytesPerRow = imgInfo.bytesPerRow;
+		}
+		outputInitialized = true;
+	}
+
+	/**
+	 * Reads a line and copies its unfiltered bytes into <code>dst</code> at absolute position <code>dstOff</code>.
+	 * <p>
+	 * The position and limit of <code>dst</code> are left untouched. No intermediate int scanline is used, the row is
+	 * transferred with one bulk put, which is cheap for direct buffers.
+	 * <p>
+	 * The bytes are transformed as set by {@link #setOutputTransform(boolean, boolean)}.
+	 * 
+	 * @param nrow
+	 *            Row number (0 is top). Rows must be read in sequence.
+	 * @param dst
+	 *            Destination buffer, direct or not, with room for {@link #getOutputBytesPerRow()} bytes at
+	 *            <code>dstOff</code>
+	 * @param dstOff
+	 *            Absolute byte offset in <code>dst</code>
+	 * @param reverseChannels
+	 *            If true, stores RGB[A] as BGR[A]. Only valid for 8 bits RGB or RGBA output.
+	 */
+	public void readRowToBuffer(int nrow, ByteBuffer dst, int dstOff, boolean reverseChannels) {
+		initOutput();
+		if (reverseChannels && (outBitDepth != 8 || outChannels < 3))
+			throw new PngjUnsupportedException("channel reversal only supported for 8 bits RGB/RGBA, not " + imgInfo);
+		readRowRaw(nrow);
+		byte[] src = rowb;
+		int srcOff = 1;
+		if (transformed) {
+			if (rowbout == null)
+				rowbout = new byte[outBytesPerRow];
+			transformRow(rowbout, dst.order() == ByteOrder.LITTLE_ENDIAN);
+			src = rowbout;
+			srcOff = 0;
+		}
+		if (reverseChannels) {
+			if (rowbswap == null)
+				rowbswap = new byte[outBytesPerRow];
+			final byte[] swp = rowbswap;
+			final int bpp = outChannels;
+			for (int i = 0, j = srcOff; i < outBytesPerRow; i += bpp, j += bpp) {
+				swp[i] = src[j + 2];
+				swp[i + 1] = src[j + 1];
+				swp[i + 2] = src[j];
+				if (bpp == 4)
+					swp[i + 3] = src[j + 3];
+			}
+			src = swp;
+			srcOff = 0;
+		}
+		final int pos = dst.position();
+		dst.position(dstOff);
+		dst.put(src, srcOff, outBytesPerRow);
+		dst.position(pos);
+	}
+
+	/**
+	 * Transforms the unfiltered row <code>rowb</code> into <code>out</code>, see
+	 * {@link #setOutputTransform(boolean, boolean)}
+	 */
+	private void transformRow(byte[] out, boolean littleEndian) {
+		final int bd = imgInfo.bitDepth;
+		final int mask = (1 << bd) - 1; // for bit depths 1-2-4-8
+		int o = 0;
+		if (imgInfo.indexed) {
+			for (int x = 0, bit = 0; x < imgInfo.cols; x++, bit += bd) {
+				final int idx = (rowb[1 + (bit >> 3)] >> (8 - bd - (bit & 7))) & mask;
+				out[o++] = palette[idx * 3];
+				out[o++] = palette[idx * 3 + 1];
+				out[o++] = palette[idx * 3 + 2];
+				if (paletteAlpha != null)
+					out[o++] = paletteAlpha[idx];
+			}
+			return;
+		}
+		final int nchan = imgInfo.channels;
+		final boolean wide = outBitDepth == 16;
+		final int scale = bd < 8 ? 255 / mask : 1; // exact for 1-2-4 bits
+		for (int x = 0, s = 0; x < imgInfo.cols; x++) {
+			boolean transparent = trnsColor != null;
+			for (int c = 0; c < nchan; c++, s++) {
+				int v;
+				if (bd == 8) {
+					v = rowb[1 + s] & 0xff;
+				} else if (bd == 16) {
+					v = ((rowb[1 + 2 * s] & 0xff) << 8) | (rowb[2 + 2 * s] & 0xff);
+				} else {
+					final int bit = s * bd;
+					v = (rowb[1 + (bit >> 3)] >> (8 - bd - (bit & 7))) & mask;
+				}
+				if (transparent && v != trnsColor[c])
+					transparent = false;
+				if (bd < 8)
+					v *= scale;
+				else if (bd == 16 && !wide)
+					v >>= 8;
+				o = putSample(out, o, v, wide, littleEndian);
+			}
+			if (trnsColor != null)
+				o = putSample(out, o, transparent ? 0 : (wide ? 0xffff : 0xff), wide, littleEndian);
+		}
+	}
+
+	private static int putSample(byte[] out, int o, int v, boolean wide, boolean littleEndian) {
+		if (!wide) {
+			out[o++] = (byte) v;
+		} else if (littleEndian) {
+			out[o++] = (byte) v;
+			out[o++] = (byte) (v >> 8);
+		} else {
+			out[o++] = (byte) (v >> 8);
+			out[o++] = (byte) v;
+		}
+		return o;
+	}
+
+	/**
+	 * Reads all (remaining) rows into <code>dst</code>, tightly packed with a stride of
+	 * {@link #getOutputBytesPerRow()}, starting at absolute position <code>dstOff</code>.
+	 * <p>
+	 * This does not call {@link #end()}.
+	 * 
+	 * @param dst
+	 *            Destination buffer, with room for <code>getOutputBytesPerRow() * imgInfo.rows</code> bytes
+	 *            between <code>dstOff</code> and its limit
+	 * @param dstOff
+	 *            Absolute byte offset in <code>dst</code>
+	 * @param flipVertically
+	 *            If true, the first PNG row (top) is stored last, i.e. bottom-to-top as OpenGL expects it.
+	 * @param reverseChannels
+	 *            See {@link #readRowToBuffer(int, ByteBuffer, int, boolean)}
+	 * @return the passed buffer
+	 */
+	public ByteBuffer readRowsToBuffer(ByteBuffer dst, int dstOff, boolean flipVertically, boolean reverseChannels) {
+		final int stride = getOutputBytesPerRow();
+		if (dst.limit() - dstOff < stride * imgInfo.rows)
+			throw new PngjException("destination buffer too small: " + (dst.limit() - dstOff) + " < "
+					+ (stride * imgInfo.rows));
+		for (int row = rowNum + 1; row < imgInfo.rows; row++) {
+			final int line = flipVertically ? imgInfo.rows - 1 - row : row;
+			readRowToBuffer(row, dst, dstOff + line * stride, reverseChannels);
+		}
+		return dst;
+	}
+
+	/**
+	 * Reads and unfilters the next row into <code>rowb</code>
+	 */
+	private void readRowRaw(int nrow) {
 		if (nrow < 0 || nrow >= imgInfo.rows)
 			throw new PngjInputException("invalid line");
 		if (nrow != rowNum + 1)
@@ -273,8 +562,15 @@ public class PngReader {
 		if (nrow == 0 && firstChunksNotYetRead())
 			readFirstChunks();
 		rowNum++;
-		if (buffer == null || buffer.length < imgInfo.samplesPerRowP)
-			buffer = new int[imgInfo.samplesPerRowP];
+		if (interlaced) {
+			if (deinterlaced == null)
+				readInterlaced();
+			System.arraycopy(deinterlaced, nrow * imgInfo.bytesPerRow, rowb, 1, imgInfo.bytesPerRow);
+			rowb[0] = rowbfilter[0] = 0;
+			if (nrow == imgInfo.rows - 1)
+				deinterlaced = null;
+			return;
+		}
 		// swap
 		byte[] tmp = rowb;
 		rowb = rowbprev;
@@ -282,16 +578,61 @@ public class PngReader {
 		// loads in rowbfilter "raw" bytes, with filter
 		PngHelper.readBytes(idatIstream, rowbfilter, 0, rowbfilter.length);
 		rowb[0] = 0;
-		unfilterRow();
+		unfilterRow(imgInfo.bytesPerRow);
 		rowb[0] = rowbfilter[0];
-		convertRowFromBytes(buffer);
-		return buffer;
+	}
+
+	// Adam7 passes: x offset, y offset, x step, y step
+	private static final int[][] ADAM7 = { { 0, 0, 8, 8 }, { 4, 0, 8, 8 }, { 0, 4, 4, 8 }, { 2, 0, 4, 4 },
+			{ 0, 2, 2, 4 }, { 1, 0, 2, 2 }, { 0, 1, 1, 2 } };
+
+	/**
+	 * Reads and unfilters all seven passes of an interlaced image into <code>deinterlaced</code>
+	 */
+	private void readInterlaced() {
+		final int bpr = imgInfo.bytesPerRow;
+		final int bd = imgInfo.bitDepth;
+		final int bpp = imgInfo.bytesPixel;
+		deinterlaced = new byte[bpr * imgInfo.rows];
+		for (int p = 0; p < 7; p++) {
+			final int x0 = ADAM7[p][0], y0 = ADAM7[p][1], dx = ADAM7[p][2], dy = ADAM7[p][3];
+			final int pcols = (imgInfo.cols - x0 + dx - 1) / dx;
+			final int prows = (imgInfo.rows - y0 + dy - 1) / dy;
+			if (pcols <= 0 || prows <= 0)
+				continue; // empty pass, not stored
+			final int pbytes = (imgInfo.bitspPixel * pcols + 7) / 8;
+			Arrays.fill(rowb, (byte) 0); // previous row of the first pass row
+			for (int r = 0; r < prows; r++) {
+				byte[] tmp = rowb;
+				rowb = rowbprev;
+				rowbprev = tmp;
+				PngHelper.readBytes(idatIstream, rowbfilter, 0, pbytes + 1);
+				rowb[0] = 0;
+				unfilterRow(pbytes);
+				final int dst = (y0 + r * dy) * bpr;
+				if (bd >= 8) {
+					for (int i = 0, j = 1, x = x0; i < pcols; i++, x += dx) {
+						for (int k = dst + x * bpp, n = 0; n < bpp; n++)
+							deinterlaced[k++] = rowb[j++];
+					}
+				} else { // packed, one channel
+					final int mask = (1 << bd) - 1;
+					for (int i = 0, x = x0; i < pcols; i++, x += dx) {
+						final int sbit = i * bd;
+						final int v = (rowb[1 + (sbit >> 3)] >> (8 - bd - (sbit & 7))) & mask;
+						final int dbit = x * bd;
+						deinterlaced[dst + (dbit >> 3)] |= (byte) (v << (8 - bd - (dbit & 7)));
+					}
+				}
+			}
+		}
 	}
 
 	/**
 	 * This should be called after having read the last line. It reads extra chunks after IDAT, if present.
 	 */
 	public void end() {
+		deinterlaced = null;
 		offset = (int) iIdatCstream.getOffset();
 		try {
 			idatIstream.close();
@@ -305,6 +646,23 @@ public class PngReader {
 		}
 	}
 
+	/**
+	 * Aborts reading, without reading the remaining rows and chunks, and closes the input stream.
+	 */
+	public void close() {
+		deinterlaced = null;
+		try {
+			if (idatIstream != null)
+				idatIstream.close();
+		} catch (Exception e) {
+		}
+		try {
+			is.close();
+		} catch (Exception e) {
+			throw new PngjInputException("error closing input stream!", e);
+		}
+	}
+
 	private void convertRowFromBytes(int[] buffer) {
 		// http://www.libpng.org/pub/png/spec/1.2/PNG-DataRep.html
 		int i, j;
@@ -319,65 +677,65 @@ public class PngReader {
 		}
 	}
 
-	private void unfilterRow() {
+	private void unfilterRow(int nbytes) {
 		int ftn = rowbfilter[0];
 		FilterType ft = FilterType.getByVal(ftn);
 		if (ft == null)
 			throw new PngjInputException("Filter type " + ftn + " invalid");
 		switch (ft) {
 		case FILTER_NONE:
-			unfilterRowNone();
+			unfilterRowNone(nbytes);
 			break;
 		case FILTER_SUB:
-			unfilterRowSub();
+			unfilterRowSub(nbytes);
 			break;
 		case FILTER_UP:
-			unfilterRowUp();
+			unfilterRowUp(nbytes);
 			break;
 		case FILTER_AVERAGE:
-			unfilterRowAverage();
+			unfilterRowAverage(nbytes);
 			break;
 		case FILTER_PAETH:
-			unfilterRowPaeth();
+			unfilterRowPaeth(nbytes);
 			break;
 		default:
 			throw new PngjInputException("Filter type " + ftn + " not implemented");
 		}
 	}
 
-	private void unfilterRowNone() {
-		for (int i = 1; i <= imgInfo.bytesPerRow; i++) {
+	private void unfilterRowNone(int nbytes) {
+		for (int i = 1; i <= nbytes; i++) {
 			rowb[i] = (byte) (rowbfilter[i]);
 		}
 	}
 
-	private void unfilterRowSub() {
+	private void unfilterRowSub(int nbytes) {
 		int i, j;
 		for (i = 1; i <= imgInfo.bytesPixel; i++) {
 			rowb[i] = (byte) (rowbfilter[i]);
 		}
-		for (j = 1, i = imgInfo.bytesPixel + 1; i <= imgInfo.bytesPerRow; i++, j++) {
+		for (j = 1, i = imgInfo.bytesPixel + 1; i <= nbytes; i++, j++) {
 			rowb[i] = (byte) (rowbfilter[i] + rowb[j]);
 		}
 	}
 
-	private void unfilterRowUp() {
-		for (int i = 1; i <= imgInfo.bytesPerRow; i++) {
+	private void unfilterRowUp(int nbytes) {
+		for (int i = 1; i <= nbytes; i++) {
 			rowb[i] = (byte) (rowbfilter[i] + rowbprev[i]);
 		}
 	}
 
-	private void unfilterRowAverage() {
+	private void unfilterRowAverage(int nbytes) {
 		int i, j, x;
-		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= imgInfo.bytesPerRow; i++, j++) {
+		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= nbytes; i++, j++) {
 			x = j > 0 ? (rowb[j] & 0xff) : 0;
 			rowb[i] = (byte) (rowbfilter[i] + (x + (rowbprev[i] & 0xFF)) / 2);
 		}
 	}
 
-	private void unfilterRowPaeth() {
+	private void unfilterRowPaeth(int nbytes) {
 		int i, j, x, y;
-		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= imgInfo.bytesPerRow; i++, j++) {
+		for (j = 1 - imgInfo.bytesPixel, i = 1; i <= nbytes; i++, j++) {
 			x = j > 0 ? (rowb[j] & 0xFF) : 0;
 			y = j > 0 ? (rowbprev[j] & 0xFF) : 0;
 			rowb[i] = (byte) (rowbfilter[i] + FilterType.filterPaethPredictor(x, rowbprev[i] & 0xFF, y));
@@ -0,0 +1,358 @@
+package jogamp.opengl.util.pngj;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Parallel IDAT encoder, used by PngWriter in parallel mode.
+ * <p>
+ * The image is split in stripes of consecutive rows. Each stripe is filtered in a worker thread, concurrently with
+ * the other stripes. The filtered stripes are then fed in order to one zlib <code>Deflater</code>: the deflate task of
+ * stripe N is chained, i.e. it is submitted by whichever of 'stripe N filtered' or 'stripe N-1 deflated' happens
+ * last, hence no worker ever blocks waiting for another one. The compressed stream is identical to the sequential
+ * one. The caller thread writes the compressed stripes in order.
+ * <p>
+ * Only the Java 6 <code>Deflater</code> API is used.
+ */
+class PngStripeEncoder {
+	private final ImageInfo imgInfo;
+	private final FilterType filterType;
+	private final int stripeRows;
+	private final int maxPending;
+	private final ExecutorService executor;
+	private final boolean ownExecutor;
+	private final OutputStream idatStream;
+	private final Deflater deflater;
+	private final AtomicLong filterNanos = new AtomicLong();
+	private final AtomicLong deflateNanos = new AtomicLong();
+	private final AtomicInteger testedRows = new AtomicInteger();
+	private final LinkedList<Stripe> pending = new LinkedList<Stripe>(); // not yet written, caller thread only
+
+	// deflate chain state, guarded by lock
+	private final Object lock = new Object();
+	private final LinkedList<Stripe> toDeflate = new LinkedList<Stripe>(); // head is the next one to deflate
+	private boolean deflating = false;
+	private boolean closed = false;
+	private Throwable failure = null;
+
+	private final byte[] lastRow; // last row of previous stripe, unfiltered; zeros at start
+	private Stripe current = null;
+	private int nextRow = 0;
+
+	/**
+	 * @param executor
+	 *            Worker pool. If null, a new fixed pool with <code>threads</code> daemon threads is created and shut
+	 *            down at {@link #end()} or {@link #close()}
+	 */
+	PngStripeEncoder(ImageInfo imgInfo, OutputStream idatStream, int compLevel, int deflaterStrategy,
+			FilterType filterType, ExecutorService executor, int threads, int stripeRows) {
+		if (stripeRows < 1)
+			throw new PngjException("invalid stripe size " + stripeRows);
+		this.imgInfo = imgInfo;
+		this.idatStream = idatStream;
+		this.filterType = filterType;
+		this.stripeRows = stripeRows;
+		if (executor == null) {
+			if (threads < 1)
+				throw new PngjException("invalid number of threads " + threads);
+			this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "PngStripeEncoder");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+			this.ownExecutor = true;
+			this.maxPending = 2 * threads;
+		} else {
+			this.executor = executor;
+			this.ownExecutor = false;
+			this.maxPending = 2 * Math.max(1, Runtime.getRuntime().availableProcessors());
+		}
+		this.lastRow = new byte[imgInfo.bytesPerRow + 1];
+		this.deflater = new Deflater(compLevel);
+		this.deflater.setStrategy(deflaterStrategy);
+	}
+
+	/**
+	 * Adds one unfiltered row, with the writer layout: bytes at 1..bytesPerRow
+	 */
+	void addRow(byte[] rowb) {
+		if (current == null) {
+			int n = Math.min(stripeRows, imgInfo.rows - nextRow);
+			current = new Stripe(nextRow, n, lastRow);
+		}
+		current.setRow(nextRow - current.firstRow, rowb);
+		nextRow++;
+		if (nextRow - current.firstRow == current.nrows) {
+			System.arraycopy(rowb, 1, lastRow, 1, imgInfo.bytesPerRow);
+			submit(current);
+			current = null;
+		}
+	}
+
+	/**
+	 * Waits for all stripes, and writes the remaining compressed data, including the zlib trailer. Does not flush the
+	 * IDAT stream. Releases the resources in any case.
+	 */
+	void end() {
+		try {
+			if (current != null || nextRow != imgInfo.rows)
+				throw new PngjOutputException("all rows have not been written");
+			while (!pending.isEmpty())
+				writeStripe(pending.removeFirst());
+		} finally {
+			close();
+		}
+	}
+
+	long getFilterNanos() {
+		return filterNanos.get();
+	}
+
+	long getDeflateNanos() {
+		return deflateNanos.get();
+	}
+
+	int getTestedRows() {
+		return testedRows.get();
+	}
+
+	/**
+	 * Stops the deflate chain and releases the own worker pool, if any, and the deflater. Can be called more than
+	 * once.
+	 */
+	void close() {
+		synchronized (lock) {
+			if (closed)
+				return;
+			closed = true;
+			toDeflate.clear();
+			if (!deflating)
+				deflater.end(); // otherwise ended by the running deflate task
+			lock.notifyAll();
+		}
+		pending.clear();
+		if (ownExecutor)
+			executor.shutdownNow();
+	}
+
+	private void submit(final Stripe stripe) {
+		synchronized (lock) {
+			checkFailure();
+			toDeflate.addLast(stripe);
+		}
+		pending.addLast(stripe);
+		execute(new Runnable() {
+			public void run() {
+				try {
+					stripe.filter();
+				} catch (Throwable t) {
+					fail(t);
+					return;
+				}
+				synchronized (lock) {
+					stripe.filtered = true;
+					chainDeflate();
+				}
+			}
+		});
+		// bounds memory: at most maxPending stripes are kept in flight
+		while (pending.size() > maxPending || (!pending.isEmpty() && isDeflated(pending.getFirst())))
+			writeStripe(pending.removeFirst());
+	}
+
+	/** Submits the deflate task of the next stripe if it is filtered and no other deflate runs. Holds lock. */
+	private void chainDeflate() {
+		if (deflating || closed || failure != null || toDeflate.isEmpty() || !toDeflate.getFirst().filtered)
+			return;
+		final Stripe stripe = toDeflate.removeFirst();
+		deflating = true;
+		final boolean ok = execute(new Runnable() {
+			public void run() {
+				Throwable err = null;
+				try {
+					stripe.deflate(deflater);
+				} catch (Throwable t) {
+					err = t;
+				}
+				synchronized (lock) {
+					deflating = false;
+					if (closed) {
+						deflater.end();
+						return;
+					}
+					if (err != null) {
+						failure = err;
+					} else {
+						stripe.deflated = true;
+						chainDeflate();
+					}
+					lock.notifyAll();
+				}
+			}
+		});
+		if (!ok)
+			deflating = false;
+	}
+
+	/** returns false if the task was rejected, e.g. the shared executor was shut down */
+	private boolean execute(Runnable task) {
+		try {
+			executor.execute(task);
+			return true;
+		} catch (RuntimeException e) {
+			fail(e);
+			return false;
+		}
+	}
+
+	private void fail(Throwable t) {
+		synchronized (lock) {
+			if (failure == null)
+				failure = t;
+			lock.notifyAll();
+		}
+	}
+
+	/** Holds lock */
+	private void checkFailure() {
+		if (failure != null)
+			throw failure instanceof PngjException ? (PngjException) failure : new PngjOutputException(failure);
+		if (closed)
+			throw new PngjOutputException("stripe encoder closed");
+	}
+
+	private boolean isDeflated(Stripe s) {
+		synchronized (lock) {
+			return s.deflated;
+		}
+	}
+
+	private void writeStripe(Stripe s) {
+		synchronized (lock) {
+			while (!s.deflated) {
+				checkFailure();
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					throw new PngjOutputException(e);
+				}
+			}
+		}
+		PngHelper.writeBytes(idatStream, s.compressed, 0, s.compressedLen);
+		s.compressed = null;
+	}
+
+	private class Stripe {
+		final int firstRow;
+		final int nrows;
+		final boolean last;
+		final byte[] prevRow; // row above the first one, unfiltered
+		byte[] raw; // unfiltered rows, each bytesPerRow+1 long (first byte unused)
+		byte[] filteredRows; // filtered rows, as in the uncompressed stream
+		byte[] compressed;
+		int compressedLen;
+		boolean filtered = false; // guarded by lock
+		boolean deflated = false; // guarded by lock
+
+		Stripe(int firstRow, int nrows, byte[] prevRow) {
+			this.firstRow = firstRow;
+			this.nrows = nrows;
+			this.last = firstRow + nrows == imgInfo.rows;
+			this.prevRow = prevRow.clone();
+			final int rowLen = imgInfo.bytesPerRow + 1;
+			this.raw = new byte[rowLen * nrows];
+			this.filteredRows = new byte[rowLen * nrows];
+		}
+
+		void setRow(int n, byte[] rowb) {
+			System.arraycopy(rowb, 1, raw, n * (imgInfo.bytesPerRow + 1) + 1, imgInfo.bytesPerRow);
+		}
+
+		void filter() {
+			final long t0 = System.nanoTime();
+			final int rowLen = imgInfo.bytesPerRow + 1;
+			final FilterWriteStrategy strat = new FilterWriteStrategy(imgInfo, filterType);
+			final int[] histo = new int[256];
+			byte[] row = new byte[rowLen];
+			byte[] prev = prevRow;
+			byte[] scratch = new byte[rowLen];
+			byte[][] scratchAll = strat.isAdaptive() ? new byte[5][rowLen] : null;
+			int[] sums = strat.isAdaptive() ? new int[5] : null;
+			for (int r = 0; r < nrows; r++) {
+				final int rown = firstRow + r;
+				System.arraycopy(raw, r * rowLen + 1, row, 1, imgInfo.bytesPerRow);
+				final boolean testAll = strat.shouldTestAll(rown);
+				if (testAll && scratchAll != null) {
+					FilterType.filterRowAll(row, prev, scratchAll, sums, imgInfo.bytesPixel, imgInfo.bytesPerRow);
+					strat.fillResultsAdaptive(rown, sums);
+					final int best = strat.gimmeFilterType(rown, false).val;
+					System.arraycopy(scratchAll[best], 0, filteredRows, r * rowLen, rowLen);
+				} else {
+					if (testAll) {
+						for (int f = 0; f < 5; f++) {
+							FilterType ft = FilterType.getByVal(f);
+							FilterType.filterRow(ft, row, prev, scratch, 0, imgInfo.bytesPixel, imgInfo.bytesPerRow);
+							report(strat, rown, ft, scratch, 0, histo, true);
+						}
+					}
+					FilterType ft = strat.gimmeFilterType(rown, true);
+					FilterType.filterRow(ft, row, prev, filteredRows, r * rowLen, imgInfo.bytesPixel,
+							imgInfo.bytesPerRow);
+					if (!strat.isAdaptive())
+						report(strat, rown, ft, filteredRows, r * rowLen, histo, false);
+				}
+				// swap (prev initially is our own copy of the row above, it can be overwritten)
+				byte[] tmp = prev;
+				prev = row;
+				row = tmp;
+			}
+			raw = null;
+			testedRows.addAndGet(strat.getTestedRows());
+			filterNanos.addAndGet(System.nanoTime() - t0);
+		}
+
+		private void report(FilterWriteStrategy strat, int rown, FilterType ft, byte[] b, int off, int[] histo,
+				boolean tentative) {
+			if (!strat.computesStatistics())
+				return;
+			Arrays.fill(histo, 0);
+			int s = 0, v;
+			for (int i = off + 1; i <= off + imgInfo.bytesPerRow; i++) {
+				v = b[i];
+				s += v < 0 ? -v : v;
+				histo[v & 0xFF]++;
+			}
+			strat.fillResultsForFilter(rown, ft, s, histo, tentative);
+		}
+
+		/**
+		 * Feeds this stripe to the shared deflater, collecting the output produced so far. Only the last stripe
+		 * finishes the stream; the others may leave data buffered in the deflater, which comes out with the next
+		 * stripe.
+		 */
+		void deflate(Deflater def) {
+			final long t0 = System.nanoTime();
+			compressed = new byte[Math.max(1024, filteredRows.length / 2)];
+			compressedLen = 0;
+			def.setInput(filteredRows);
+			if (last)
+				def.finish();
+			while (last ? !def.finished() : !def.needsInput()) {
+				if (compressedLen == compressed.length)
+					compressed = Arrays.copyOf(compressed, compressed.length * 2);
+				compressedLen += def.deflate(compressed, compressedLen, compressed.length - compressedLen);
+			}
+			filteredRows = null;
+			deflateNanos.addAndGet(System.nanoTime() - t0);
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.zip.Deflater;
 import java.util.zip.DeflaterOutputStream;
 
@@ -43,6 +44,12 @@ public class PngWriter {
 	private PngIDatChunkOutputStream datStream;
 	private DeflaterOutputStream datStreamDeflated;
 
+	// parallel mode, see setParallelMode()
+	private int parallelThreads = 0;
+	private int parallelStripeRows = 0;
+	private ExecutorService parallelExecutor = null;
+	private PngStripeEncoder stripeEncoder = null;
+
 	private final ChunkList chunkList;
 	private final PngMetadata metadata; // high level wrapper over chunkList
 
@@ -82,7 +89,11 @@ public class PngWriter {
 	 */
 	private void writeSignatureAndIHDR() {
 		currentChunkGroup = ChunkList.CHUNK_GROUP_0_IDHR;
-		if (datStreamDeflated == null) {
+		if (parallelStripeRows > 0) {
+			if (stripeEncoder == null)
+				stripeEncoder = new PngStripeEncoder(imgInfo, datStream, compLevel, deflaterStrategy,
+						filterStrat.configuredType, parallelExecutor, parallelThreads, parallelStripeRows);
+		} else if (datStreamDeflated == null) {
 			Deflater def = new Deflater(compLevel);
 			def.setStrategy(deflaterStrategy);
 			datStreamDeflated = new DeflaterOutputStream(datStream, def, 8192);
@@ -167,12 +178,25 @@ public class PngWriter {
 		rowb = rowbprev;
 		rowbprev = tmp;
 		convertRowToBytes();
+		if (stripeEncoder != null) {
+			try {
+				stripeEncoder.addRow(rowb);
+			} catch (RuntimeException e) {
+				stripeEncoder.close();
+				throw e;
+			}
+			return;
+		}
+		final long t0 = System.nanoTime();
 		filterRow(rown);
+		final long t1 = System.nanoTime();
 		try {
 			datStreamDeflated.write(rowbfilter, 0, imgInfo.bytesPerRow + 1);
 		} catch (IOException e) {
 			throw new PngjOutputException(e);
 		}
+		filterNanos += t1 - t0;
+		deflateNanos += System.nanoTime() - t1;
 	}
 
 	/**
@@ -208,7 +232,13 @@ public class PngWriter {
 		if (rowNum != imgInfo.rows - 1)
 			throw new PngjOutputException("all rows have not been written");
 		try {
-			datStreamDeflated.finish();
+			if (stripeEncoder != null) {
+				stripeEncoder.end();
+			} else {
+				final long t0 = System.nanoTime();
+				datStreamDeflated.finish();
+				deflateNanos += System.nanoTime() - t0;
+			}
 			datStream.flush();
 			writeLastChunks();
 			writeEndChunk();
@@ -218,7 +248,20 @@ public class PngWriter {
 		}
 	}
 
+	/**
+	 * Releases the resources of the parallel mode (see setParallelMode()) without finishing the image. This is done
+	 * by end(), call this instead if the image is abandoned, e.g. on error. Does not close the stream.
+	 */
+	public void close() {
+		if (stripeEncoder != null)
+			stripeEncoder.close();
+	}
+
 	private int[] histox = new int[256]; // auxiliar buffer, only used by reportResultsForFilter
+	private byte[][] rowbfilterAll = null; // scratch rows for FILTER_ADAPTIVE_FAST, one per filter type
+	private int[] filterSums = null; // scores for FILTER_ADAPTIVE_FAST
+	private long filterNanos = 0; // time spent filtering, sequential mode
+	private long deflateNanos = 0; // time spent deflating, sequential mode
 
 	private void reportResultsForFilter(int rown, FilterType type, boolean tentative) {
 		Arrays.fill(histox, 0);
@@ -237,7 +280,22 @@ public class PngWriter {
 	private void filterRow(int rown) {
 		// warning: filters operation rely on: "previos row" (rowbprev) is
 		// initialized to 0 the first time
-		if (filterStrat.shouldTestAll(rown)) {
+		final boolean testAll = filterStrat.shouldTestAll(rown);
+		if (testAll && filterStrat.isAdaptive()) {
+			if (rowbfilterAll == null) {
+				rowbfilterAll = new byte[5][rowbfilter.length];
+				filterSums = new int[5];
+			}
+			FilterType.filterRowAll(rowb, rowbprev, rowbfilterAll, filterSums, imgInfo.bytesPixel, imgInfo.bytesPerRow);
+			filterStrat.fillResultsAdaptive(rown, filterSums);
+			final int best = filterStrat.gimmeFilterType(rown, false).val;
+			// swap in the selected row, no copy
+			byte[] tmp = rowbfilter;
+			rowbfilter = rowbfilterAll[best];
+			rowbfilterAll[best] = tmp;
+			return;
+		}
+		if (testAll) {
 			filterRowNone();
 			reportResultsForFilter(rown, FilterType.FILTER_NONE, true);
 			filterRowSub();
@@ -270,7 +328,8 @@ public class PngWriter {
 		default:
 			throw new PngjOutputException("Filter type " + filterType + " not implemented");
 		}
-		reportResultsForFilter(rown, filterType, false);
+		if (filterStrat.computesStatistics() && !filterStrat.isAdaptive())
+			reportResultsForFilter(rown, filterType, false);
 	}
 
 	protected int sumRowbfilter() { // sums absolute value
@@ -353,7 +412,7 @@ public class PngWriter {
 	 * 
 	 * @param filterType
 	 *            One of the five prediction types or strategy to choose it (see <code>PngFilterType</code>) Recommended
-	 *            values: DEFAULT (default) or AGGRESIVE
+	 *            values: DEFAULT (default), ADAPTIVE_FAST or AGGRESIVE
 	 */
 	public void setFilterType(FilterType filterType) {
 		filterStrat = new FilterWriteStrategy(imgInfo, filterType);
@@ -375,6 +434,68 @@ public class PngWriter {
 		this.compLevel = compLevel;
 	}
 
+	/**
+	 * Time spent filtering rows (including the filter selection) for this image, in nanoseconds.
+	 * <p>
+	 * In parallel mode, this is the sum over all worker threads.
+	 */
+	public long getFilterTimeNanos() {
+		return stripeEncoder != null ? stripeEncoder.getFilterNanos() : filterNanos;
+	}
+
+	/**
+	 * Time spent deflating for this image, in nanoseconds.
+	 * <p>
+	 * In parallel mode, this is the time spent in the (chained, sequential) deflate tasks.
+	 */
+	public long getDeflateTimeNanos() {
+		return stripeEncoder != null ? stripeEncoder.getDeflateNanos() : deflateNanos;
+	}
+
+	/**
+	 * Number of rows for which all filters were tried, for the adaptive and aggressive filter strategies.
+	 */
+	public int getFilterTestedRows() {
+		return stripeEncoder != null ? stripeEncoder.getTestedRows() : filterStrat.getTestedRows();
+	}
+
+	/**
+	 * Enables the parallel encoding mode, using an own pool of worker threads.
+	 * <p>
+	 * The image is split in stripes of <code>stripeRows</code> rows; the stripes are filtered concurrently, and
+	 * deflated in order by one chained task, overlapping with the filtering of the following stripes. Rows are still
+	 * passed sequentially through <code>writeRow()</code>. The output is identical to the sequential mode. The pool
+	 * is shut down at <code>end()</code> or <code>close()</code>.
+	 * <p>
+	 * This must be called just after constructor, before starting writing.
+	 * 
+	 * @param threads
+	 *            number of worker threads, or 0 to disable the parallel mode
+	 * @param stripeRows
+	 *            rows per stripe, e.g. 64. Smaller stripes start the deflate chain earlier, larger stripes have less
+	 *            overhead.
+	 */
+	public void setParallelMode(int threads, int stripeRows) {
+		if (threads < 0 || (threads > 0 && stripeRows < 1))
+			throw new PngjException("invalid parallel mode: threads " + threads + ", stripe rows " + stripeRows);
+		this.parallelExecutor = null;
+		this.parallelThreads = threads;
+		this.parallelStripeRows = threads > 0 ? stripeRows : 0;
+	}
+
+	/**
+	 * Enables the parallel encoding mode, using the given (shared) executor, which is not shut down by this writer.
+	 * <p>
+	 * See {@link #setParallelMode(int, int)}.
+	 */
+	public void setParallelMode(ExecutorService executor, int stripeRows) {
+		if (executor == null || stripeRows < 1)
+			throw new PngjException("invalid parallel mode: executor " + executor + ", stripe rows " + stripeRows);
+		this.parallelExecutor = executor;
+		this.parallelThreads = 0;
+		this.parallelStripeRows = stripeRows;
+	}
+
 	/**
 	 * copy chunks from reader - copy_mask : see ChunksToWrite.COPY_XXX
 	 * 
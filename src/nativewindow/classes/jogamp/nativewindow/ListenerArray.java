@@ -0,0 +1,153 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package jogamp.nativewindow;
+
+/**
+ * Copy-on-write listener registry.
+ * <p>
+ * Modifications are synchronized and replace the backing array,
+ * while {@link #getArray()} returns the current snapshot without locking or allocation,
+ * allowing event dispatch to iterate it while listeners are added or removed concurrently.
+ * </p>
+ * <p>
+ * A listener removed during dispatch may still receive the event being dispatched.
+ * </p>
+ */
+public class ListenerArray<T> {
+    private final T[] empty;
+    private volatile T[] array;
+    
+    /**
+     * @param empty zero length array of the listener type, used to create new arrays  
+     */
+    public ListenerArray(T[] empty) {
+        if( 0 != empty.length ) {
+            throw new IllegalArgumentException("Array not empty: length "+empty.length);
+        }
+        this.empty = empty;
+        this.array = empty;
+    }
+    
+    /** 
+     * Returns the current snapshot of listeners, which must not be modified.
+     * <p>
+     * The returned array stays valid and unchanged while listeners are added or removed. 
+     * </p>
+     */
+    public final T[] getArray() { return array; }
+    
+    /** Returns a copy of the current listeners. */
+    public final T[] toArray() { return array.clone(); }
+    
+    public final int size() { return array.length; }
+    
+    public final T get(int index) throws IndexOutOfBoundsException {
+        final T[] a = array;
+        if( 0 > index || index >= a.length ) {
+            throw new IndexOutOfBoundsException("Index "+index+", size "+a.length);
+        }
+        return a[index];
+    }
+    
+    public final int indexOf(T l) {
+        final T[] a = array;
+        for(int i = 0; i < a.length; i++) {
+            if( a[i] == l || ( null != l && l.equals(a[i]) ) ) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    public final boolean contains(T l) { return 0 <= indexOf(l); }
+    
+    public final void add(T l) {
+        add(-1, l);
+    }
+    
+    /**
+     * @param index position to insert the listener, or -1 to append it
+     */
+    public final synchronized void add(int index, T l) throws IndexOutOfBoundsException {
+        final T[] a = array;
+        if( 0 > index ) {
+            index = a.length;
+        } else if( index > a.length ) {
+            throw new IndexOutOfBoundsException("Index "+index+", size "+a.length);
+        }
+        final T[] n = newArray(a.length + 1);
+        System.arraycopy(a, 0, n, 0, index);
+        n[index] = l;
+        System.arraycopy(a, index, n, index + 1, a.length - index);
+        array = n;
+    }
+    
+    /** @return true if the listener was contained and has been removed */
+    public final synchronized boolean remove(T l) {
+        final int index = indexOf(l);
+        if( 0 > index ) {
+            return false;
+        }
+        removeImpl(index);
+        return true;
+    }
+    
+    /**
+     * @param index position of the listener to remove, or -1 to remove the last one
+     * @return the removed listener 
+     */
+    public final synchronized T remove(int index) throws IndexOutOfBoundsException {
+        if( 0 > index ) {
+            index = array.length - 1;
+        }
+        final T l = get(index);
+        removeImpl(index);
+        return l;
+    }
+    
+    public final synchronized void clear() {
+        array = empty;
+    }
+    
+    private final void removeImpl(int index) {
+        final T[] a = array;
+        if( 1 == a.length ) {
+            array = empty;
+        } else {
+            final T[] n = newArray(a.length - 1);
+            System.arraycopy(a, 0, n, 0, index);
+            System.arraycopy(a, index + 1, n, index, a.length - index - 1);
+            array = n;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private final T[] newArray(int length) {
+        return (T[]) java.lang.reflect.Array.newInstance(empty.getClass().getComponentType(), length);
+    }
+}
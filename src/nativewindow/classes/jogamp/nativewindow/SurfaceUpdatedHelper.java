@@ -28,14 +28,11 @@
 
 package jogamp.nativewindow;
 
-import java.util.ArrayList;
-
 import javax.media.nativewindow.NativeSurface;
 import javax.media.nativewindow.SurfaceUpdatedListener;
 
 public class SurfaceUpdatedHelper implements SurfaceUpdatedListener {
-    private final Object surfaceUpdatedListenersLock = new Object();
-    private final ArrayList<SurfaceUpdatedListener> surfaceUpdatedListeners = new ArrayList<SurfaceUpdatedListener>();
+    private final ListenerArray<SurfaceUpdatedListener> surfaceUpdatedListeners = new ListenerArray<SurfaceUpdatedListener>(new SurfaceUpdatedListener[0]);
 
     //
     // Management Utils
@@ -57,29 +54,20 @@ public class SurfaceUpdatedHelper implements SurfaceUpdatedListener {
         if(l == null) {
             return;
         }
-        synchronized(surfaceUpdatedListenersLock) {
-            if(0>index) { 
-                index = surfaceUpdatedListeners.size(); 
-            }
-            surfaceUpdatedListeners.add(index, l);
-        }
+        surfaceUpdatedListeners.add(index, l);
     }
 
     public void removeSurfaceUpdatedListener(SurfaceUpdatedListener l) {
         if (l == null) {
             return;
         }
-        synchronized(surfaceUpdatedListenersLock) {
-            surfaceUpdatedListeners.remove(l);
-        }
+        surfaceUpdatedListeners.remove(l);
     }
 
     public void surfaceUpdated(Object updater, NativeSurface ns, long when) {
-        synchronized(surfaceUpdatedListenersLock) {
-          for(int i = 0; i < surfaceUpdatedListeners.size(); i++ ) {
-            SurfaceUpdatedListener l = surfaceUpdatedListeners.get(i);
-            l.surfaceUpdated(updater, ns, when);
-          }
+        final SurfaceUpdatedListener[] listeners = surfaceUpdatedListeners.getArray();
+        for(int i = 0; i < listeners.length; i++ ) {
+            listeners[i].surfaceUpdated(updater, ns, when);
         }
     }
 }
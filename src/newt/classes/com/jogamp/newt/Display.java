@@ -181,6 +181,28 @@ public abstract class Display {
 
     public abstract void dispatchMessages();
     
+    /**
+     * Enables or disables coalescing of queued events, disabled by default.
+     * <p>
+     * If enabled, a queued {@link com.jogamp.newt.event.MouseEvent#EVENT_MOUSE_MOVED moved} or 
+     * {@link com.jogamp.newt.event.MouseEvent#EVENT_MOUSE_DRAGGED dragged} mouse event is dropped 
+     * if it is directly followed by an event of the same type, source, pointer and modifiers.
+     * Likewise a queued {@link com.jogamp.newt.event.WindowEvent#EVENT_WINDOW_RESIZED resize} event 
+     * is dropped if directly followed by another one of the same source.
+     * Events a caller waits for are never dropped.
+     * </p>
+     * <p>
+     * The default may be enabled via the property <code>newt.event.coalesce</code>.
+     * </p>
+     */
+    public abstract void setEventCoalescing(boolean enable);
+    
+    /** Returns true if queued events are coalesced, see {@link #setEventCoalescing(boolean)}. */
+    public abstract boolean isEventCoalescing();
+    
+    /** Returns the number of queued events dropped by coalescing so far, see {@link #setEventCoalescing(boolean)}. */
+    public abstract long getCoalescedEventCount();
+    
     // Global Displays
     protected static ArrayList<Display> displayList = new ArrayList<Display>();
     protected static int displaysActive = 0;
@@ -36,12 +36,15 @@ package jogamp.newt;
 
 import com.jogamp.newt.Display;
 import com.jogamp.newt.NewtFactory;
+import com.jogamp.newt.event.MouseEvent;
 import com.jogamp.newt.event.NEWTEvent;
 import com.jogamp.newt.event.NEWTEventConsumer;
+import com.jogamp.newt.event.WindowEvent;
 
 import jogamp.newt.event.NEWTEventTask;
 import com.jogamp.newt.util.EDTUtil;
-import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.media.nativewindow.AbstractGraphicsDevice;
 import javax.media.nativewindow.NativeWindowException;
@@ -362,10 +365,82 @@ public abstract class DisplayImpl extends Display {
     /** Dispatch native Toolkit messageges */
     protected abstract void dispatchMessagesNative();
 
-    private Object eventsLock = new Object();
-    private ArrayList<NEWTEventTask> events = new ArrayList<NEWTEventTask>();
-    private volatile boolean haveEvents = false;
+    /** 
+     * Lock-free multiple producer event queue: a stack of tasks, linked in reverse order,
+     * swapped out as a whole by the consumer and reversed to dispatch in FIFO order.
+     */
+    private final AtomicReference<NEWTEventTask> events = new AtomicReference<NEWTEventTask>();
+    
+    /** Recycled tasks, only accessed on the EDT */
+    private NEWTEventTask taskPool = null;
+    private int taskPoolSize = 0;
+    private static final int TASK_POOL_MAX = 64;
+    
+    private final NEWTEventTask newEventTask(NEWTEvent e, boolean wait, boolean onEDT) {
+        if( onEDT && null != taskPool ) {
+            final NEWTEventTask t = taskPool;
+            taskPool = t.getNext();
+            taskPoolSize--;
+            t.set(e, wait);
+            return t;
+        }
+        return new NEWTEventTask(e, wait);
+    }
+    
+    private final void recycleEventTask(NEWTEventTask t) {
+        // a waiting caller may still read the task
+        if( !t.isCallerWaiting() && TASK_POOL_MAX > taskPoolSize ) {
+            t.set(null, false);
+            t.setNext(taskPool);
+            taskPool = t;
+            taskPoolSize++;
+        }
+    }
 
+    private static final boolean DEFAULT_EVENT_COALESCING = Debug.getBooleanProperty("newt.event.coalesce", true);
+    
+    private volatile boolean eventCoalescing = DEFAULT_EVENT_COALESCING;
+    private final AtomicLong coalescedEventCount = new AtomicLong();
+    
+    @Override
+    public final void setEventCoalescing(boolean enable) {
+        eventCoalescing = enable;
+    }
+    
+    @Override
+    public final boolean isEventCoalescing() {
+        return eventCoalescing;
+    }
+    
+    @Override
+    public final long getCoalescedEventCount() {
+        return coalescedEventCount.get();
+    }
+    
+    /** 
+     * Returns true if <code>e0</code> is superseded by the following event <code>e1</code>,
+     * i.e. a moved/dragged mouse event of the same pointer and modifiers 
+     * or a resize event of the same source.
+     */
+    private static final boolean isCoalescable(NEWTEvent e0, NEWTEvent e1) {
+        if( null == e0 || null == e1 || e0.getEventType() != e1.getEventType() || e0.getSource() != e1.getSource() ) {
+            return false;
+        }
+        if( e0 instanceof MouseEvent && e1 instanceof MouseEvent ) {
+            final MouseEvent m0 = (MouseEvent) e0;
+            final MouseEvent m1 = (MouseEvent) e1;
+            final int type = m0.getEventType();
+            return ( MouseEvent.EVENT_MOUSE_MOVED == type || MouseEvent.EVENT_MOUSE_DRAGGED == type ) &&
+                   m0.getModifiers() == m1.getModifiers() &&
+                   m0.getPointerCount() == m1.getPointerCount() &&
+                   m0.getPointerId(0) == m1.getPointerId(0);
+        }
+        if( e0 instanceof WindowEvent && e1 instanceof WindowEvent ) {
+            return WindowEvent.EVENT_WINDOW_RESIZED == e0.getEventType();
+        }
+        return false;
+    }
+    
     class DispatchMessagesRunnable implements Runnable {
         public void run() {
             DisplayImpl.this.dispatchMessages();
@@ -419,22 +494,36 @@ public abstract class DisplayImpl extends Display {
             return;
         }
 
-        ArrayList<NEWTEventTask> _events = null;
-
-        if(haveEvents) { // volatile: ok
-            synchronized(eventsLock) {
-                if(haveEvents) {
-                    // swap events list to free ASAP
-                    _events = events;
-                    events = new ArrayList<NEWTEventTask>();
-                    haveEvents = false;
-                }
-                eventsLock.notifyAll();
+        if( null != events.get() ) { // volatile: ok
+            // swap events queue to free ASAP
+            NEWTEventTask task = events.getAndSet(null);
+            // reverse to FIFO order
+            NEWTEventTask fifo = null;
+            while( null != task ) {
+                final NEWTEventTask next = task.getNext();
+                task.setNext(fifo);
+                fifo = task;
+                task = next;
             }
-            if( null != _events ) {
-                for (int i=0; i < _events.size(); i++) {
-                    dispatchMessage(_events.get(i));
+            final boolean onEDT = null != edtUtil && edtUtil.isCurrentThreadEDT();
+            final boolean coalesce = eventCoalescing;
+            long coalesced = 0;
+            while( null != fifo ) {
+                final NEWTEventTask next = fifo.getNext();
+                if( coalesce && null != next && !fifo.isCallerWaiting() && 
+                    isCoalescable(fifo.get(), next.get()) ) {
+                    // superseded by the next event
+                    coalesced++;
+                } else {
+                    dispatchMessage(fifo);
+                }
+                if( onEDT ) {
+                    recycleEventTask(fifo);
                 }
+                fifo = next;
+            }
+            if( 0 < coalesced ) {
+                coalescedEventCount.addAndGet(coalesced);
             }
         }
 
@@ -452,30 +541,31 @@ public abstract class DisplayImpl extends Display {
             return;
         }
         
+        final boolean onEDT = edtUtil.isCurrentThreadEDT();
+        
         // can't wait if we are on EDT or NEDT -> consume right away
-        if(wait && edtUtil.isCurrentThreadEDTorNEDT() ) {
-            dispatchMessage(new NEWTEventTask(e, null));
+        if(wait && ( onEDT || edtUtil.isCurrentThreadEDTorNEDT() ) ) {
+            final NEWTEventTask eTask = newEventTask(e, false, onEDT);
+            dispatchMessage(eTask);
+            if( onEDT ) {
+                recycleEventTask(eTask);
+            }
             return;
         }
         
-        final Object lock = new Object();
-        final NEWTEventTask eTask = new NEWTEventTask(e, wait?lock:null);
-        synchronized(lock) {
-            synchronized(eventsLock) {
-                events.add(eTask);
-                haveEvents = true;
-                eventsLock.notifyAll();
+        final NEWTEventTask eTask = newEventTask(e, wait, onEDT);
+        NEWTEventTask head;
+        do {
+            head = events.get();
+            eTask.setNext(head);
+        } while( !events.compareAndSet(head, eTask) );
+        
+        if( wait ) {
+            // only the caller is parked, the EDT picks up the event within its next dispatch cycle
+            eTask.waitForCaller();
+            if( null != eTask.getException() ) {
+                throw eTask.getException();
             }
-            if( wait ) {
-                try {
-                    lock.wait();
-                } catch (InterruptedException ie) {
-                    throw new RuntimeException(ie);
-                }
-                if( null != eTask.getException() ) {
-                    throw eTask.getException();
-                }
-            }            
         }
     }
 
@@ -74,6 +74,7 @@ import javax.media.nativewindow.util.InsetsImmutable;
 import javax.media.nativewindow.util.Point;
 import javax.media.nativewindow.util.Rectangle;
 
+import jogamp.nativewindow.ListenerArray;
 import jogamp.nativewindow.SurfaceUpdatedHelper;
 
 public abstract class WindowImpl implements Window, NEWTEventConsumer
@@ -120,16 +121,16 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
     private Object childWindowsLock = new Object();
     private ArrayList<NativeWindow> childWindows = new ArrayList<NativeWindow>();
 
-    private ArrayList<MouseListener> mouseListeners = new ArrayList<MouseListener>();
+    private final ListenerArray<MouseListener> mouseListeners = new ListenerArray<MouseListener>(new MouseListener[0]);
     private int  mouseButtonPressed = 0;  // current pressed mouse button number
     private long lastMousePressed = 0;    // last time when a mouse button was pressed
     private int  lastMouseClickCount = 0; // last mouse button click count
     private boolean mouseInWindow = false;// mouse entered window - is inside the window (may be synthetic)
     private Point lastMousePosition = new Point();
 
-    private ArrayList<KeyListener> keyListeners = new ArrayList<KeyListener>();
+    private final ListenerArray<KeyListener> keyListeners = new ListenerArray<KeyListener>(new KeyListener[0]);
 
-    private ArrayList<WindowListener> windowListeners  = new ArrayList<WindowListener>();
+    private final ListenerArray<WindowListener> windowListeners = new ListenerArray<WindowListener>(new WindowListener[0]);
     private boolean repaintQueued = false;
 
     // Workaround for initialization order problems on Mac OS X
@@ -2096,36 +2097,25 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
         if(l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<MouseListener> clonedListeners = (ArrayList<MouseListener>) mouseListeners.clone();
-        if(0>index) { 
-            index = clonedListeners.size(); 
-        }
-        clonedListeners.add(index, l);
-        mouseListeners = clonedListeners;
+        mouseListeners.add(index, l);
     }
 
     public void removeMouseListener(MouseListener l) {
         if (l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<MouseListener> clonedListeners = (ArrayList<MouseListener>) mouseListeners.clone();
-        clonedListeners.remove(l);
-        mouseListeners = clonedListeners;
+        mouseListeners.remove(l);
     }
 
     public MouseListener getMouseListener(int index) {
-        @SuppressWarnings("unchecked")
-        ArrayList<MouseListener> clonedListeners = (ArrayList<MouseListener>) mouseListeners.clone();
         if(0>index) { 
-            index = clonedListeners.size()-1; 
+            index = mouseListeners.size()-1;
         }
-        return clonedListeners.get(index);
+        return mouseListeners.get(index);
     }
 
     public MouseListener[] getMouseListeners() {
-        return mouseListeners.toArray(new MouseListener[mouseListeners.size()]);
+        return mouseListeners.toArray();
     }
 
     protected void consumeMouseEvent(MouseEvent e) {
@@ -2133,8 +2123,9 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
             System.err.println("consumeMouseEvent: event:         "+e);
         }
         boolean consumed = false;
-        for(int i = 0; !consumed && i < mouseListeners.size(); i++ ) {
-            MouseListener l = mouseListeners.get(i);
+        final MouseListener[] listeners = mouseListeners.getArray();
+        for(int i = 0; !consumed && i < listeners.length; i++ ) {
+            final MouseListener l = listeners[i];
             switch(e.getEventType()) {
                 case MouseEvent.EVENT_MOUSE_CLICKED:
                     l.mouseClicked(e);
@@ -2243,36 +2234,25 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
         if(l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<KeyListener> clonedListeners = (ArrayList<KeyListener>) keyListeners.clone();
-        if(0>index) { 
-            index = clonedListeners.size();
-        }
-        clonedListeners.add(index, l);
-        keyListeners = clonedListeners;
+        keyListeners.add(index, l);
     }
 
     public void removeKeyListener(KeyListener l) {
         if (l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<KeyListener> clonedListeners = (ArrayList<KeyListener>) keyListeners.clone();
-        clonedListeners.remove(l);
-        keyListeners = clonedListeners;
+        keyListeners.remove(l);
     }
 
     public KeyListener getKeyListener(int index) {
-        @SuppressWarnings("unchecked")
-        ArrayList<KeyListener> clonedListeners = (ArrayList<KeyListener>) keyListeners.clone();
         if(0>index) { 
-            index = clonedListeners.size()-1;
+            index = keyListeners.size()-1;
         }
-        return clonedListeners.get(index);
+        return keyListeners.get(index);
     }
 
     public KeyListener[] getKeyListeners() {
-        return keyListeners.toArray(new KeyListener[keyListeners.size()]);
+        return keyListeners.toArray();
     }
 
     private final boolean propagateKeyEvent(KeyEvent e, KeyListener l) {
@@ -2305,8 +2285,9 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
                 System.err.println("consumeKeyEvent: "+e);
             }
         }
-        for(int i = 0; !consumed && i < keyListeners.size(); i++ ) {
-            consumed = propagateKeyEvent(e, keyListeners.get(i));
+        final KeyListener[] listeners = keyListeners.getArray();
+        for(int i = 0; !consumed && i < listeners.length; i++ ) {
+            consumed = propagateKeyEvent(e, listeners[i]);
         }
     }
 
@@ -2331,44 +2312,34 @@ public abstract class WindowImpl implements Window, NEWTEventConsumer
         if(l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<WindowListener> clonedListeners = (ArrayList<WindowListener>) windowListeners.clone();
-        if(0>index) { 
-            index = clonedListeners.size(); 
-        }
-        clonedListeners.add(index, l);
-        windowListeners = clonedListeners;
+        windowListeners.add(index, l);
     }
 
     public final void removeWindowListener(WindowListener l) {
         if (l == null) {
             return;
         }
-        @SuppressWarnings("unchecked")
-        ArrayList<WindowListener> clonedListeners = (ArrayList<WindowListener>) windowListeners.clone();
-        clonedListeners.remove(l);
-        windowListeners = clonedListeners;
+        windowListeners.remove(l);
     }
 
     public WindowListener getWindowListener(int index) {
-        @SuppressWarnings("unchecked")
-        ArrayList<WindowListener> clonedListeners = (ArrayList<WindowListener>) windowListeners.clone();
         if(0>index) { 
-            index = clonedListeners.size()-1; 
+            index = windowListeners.size()-1;
         }
-        return clonedListeners.get(index);
+        return windowListeners.get(index);
     }
 
     public WindowListener[] getWindowListeners() {
-        return windowListeners.toArray(new WindowListener[windowListeners.size()]);
+        return windowListeners.toArray();
     }
 
     protected void consumeWindowEvent(WindowEvent e) {
         if(DEBUG_IMPLEMENTATION) {
             System.err.println("consumeWindowEvent: "+e+", visible "+isVisible()+" "+getX()+"/"+getY()+" "+getWidth()+"x"+getHeight());
         }
-        for(int i = 0; i < windowListeners.size(); i++ ) {
-            WindowListener l = windowListeners.get(i);
+        final WindowListener[] listeners = windowListeners.getArray();
+        for(int i = 0; i < listeners.length; i++ ) {
+            final WindowListener l = listeners[i];
             switch(e.getEventType()) {
                 case WindowEvent.EVENT_WINDOW_RESIZED:
                     l.windowResized(e);
@@ -28,34 +28,69 @@
  
 package jogamp.newt.event;
 
+import java.util.concurrent.locks.LockSupport;
+
 import com.jogamp.newt.event.NEWTEvent;
 
 /**
  * Helper class to provide a NEWTEvent queue implementation with a NEWTEvent wrapper
  * which notifies after sending the event for the <code>invokeAndWait()</code> semantics.
+ * <p>
+ * A waiting caller is parked until the event has been dispatched, see {@link #waitForCaller()}.
+ * Instances carry an intrusive link to be used by a queue and may be reused via {@link #set(NEWTEvent, boolean)}.
+ * </p>
  */
 public class NEWTEventTask {
     private NEWTEvent event;
-    private Object notifyObject;
+    private Thread waiter;
+    private volatile boolean done;
     private RuntimeException exception;
+    private NEWTEventTask next;
+
+    /**
+     * @param event the event
+     * @param wait if true, the current thread is the caller waiting for dispatching via {@link #waitForCaller()}
+     */
+    public NEWTEventTask(NEWTEvent event, boolean wait) {
+        set(event, wait);
+    }
 
-    public NEWTEventTask(NEWTEvent event, Object notifyObject) {
+    /** (Re)initializes this task, see {@link #NEWTEventTask(NEWTEvent, boolean)}. */
+    public final void set(NEWTEvent event, boolean wait) {
         this.event = event ;
-        this.notifyObject = notifyObject ;
+        this.waiter = wait ? Thread.currentThread() : null ;
         this.exception = null;
+        this.next = null;
+        this.done = false;
     }
 
     public final NEWTEvent get() { return event; }
     public final void setException(RuntimeException e) { exception = e; }
     public final RuntimeException getException() { return exception; }
-    public final boolean isCallerWaiting() { return null != notifyObject; }
+    public final boolean isCallerWaiting() { return null != waiter; }
+
+    /** Queue link, the queue is responsible for visibility. */
+    public final NEWTEventTask getNext() { return next; }
+    public final void setNext(NEWTEventTask next) { this.next = next; }
 
     public void notifyCaller() {
-        if(null != notifyObject) {
-            synchronized (notifyObject) {
-                notifyObject.notifyAll();
+        final Thread t = waiter;
+        if(null != t) {
+            done = true;
+            LockSupport.unpark(t);
+        }
+    }
+
+    /**
+     * Parks the waiting caller until {@link #notifyCaller()} has been called.
+     * @throws RuntimeException wrapping an {@link InterruptedException} if the caller has been interrupted
+     */
+    public final void waitForCaller() {
+        while( !done ) {
+            LockSupport.park(this);
+            if( !done && Thread.interrupted() ) {
+                throw new RuntimeException(new InterruptedException());
             }
         }
     }
 }
-
@@ -0,0 +1,192 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URLConnection;
+
+import jogamp.graph.font.UbuntuFontLoader;
+import jogamp.graph.font.typecast.ot.OTFont;
+import jogamp.graph.font.typecast.ot.OTFontCollection;
+import jogamp.graph.font.typecast.ot.OTGlyph;
+import jogamp.graph.font.typecast.ot.Point;
+import jogamp.graph.font.typecast.ot.table.TableDirectory;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+
+/**
+ * Measures the font load time and the retained heap of the bundled Ubuntu fonts,
+ * on demand (open, cmap and hmtx access, i.e. what text layout needs first)
+ * versus all tables and glyph descriptions parsed, i.e. the work of the former eager parser.
+ * <p>
+ * Also validates that glyphs resolved in reverse order, i.e. composite glyphs before their components,
+ * match glyphs resolved in file order.
+ * </p>
+ */
+public class TestFontLoad01NOUI {
+    static final String[] fontNames = { "Ubuntu-R.ttf", "Ubuntu-RI.ttf", "Ubuntu-B.ttf", "Ubuntu-BI.ttf",
+                                        "Ubuntu-L.ttf", "Ubuntu-LI.ttf", "Ubuntu-M.ttf", "Ubuntu-MI.ttf" };
+    static int loops = 10;
+    static File[] fontFiles;
+
+    @BeforeClass
+    public static void copyFonts() throws IOException {
+        fontFiles = new File[fontNames.length];
+        for(int i=0; i<fontNames.length; i++) {
+            final URLConnection conn = IOUtil.getResource(UbuntuFontLoader.class, "fonts/ubuntu/"+fontNames[i]);
+            Assert.assertNotNull(conn);
+            fontFiles[i] = IOUtil.createTempFile("TestFontLoad01", ".ttf", false, null);
+            IOUtil.copyURLConn2File(conn, fontFiles[i]);
+        }
+    }
+
+    @AfterClass
+    public static void deleteFonts() {
+        for(int i=0; i<fontFiles.length; i++) {
+            fontFiles[i].delete();
+        }
+    }
+
+    static OTFont[] openOnDemand() throws IOException {
+        final OTFont[] fonts = new OTFont[fontFiles.length];
+        for(int i=0; i<fontFiles.length; i++) {
+            fonts[i] = OTFontCollection.create(fontFiles[i]).getFont(0);
+            Assert.assertNotNull(fonts[i].getCmapTable());
+            Assert.assertNotNull(fonts[i].getHmtxTable());
+        }
+        return fonts;
+    }
+
+    static OTFont[] openAll() throws IOException {
+        final OTFont[] fonts = openOnDemand();
+        for(int i=0; i<fonts.length; i++) {
+            final TableDirectory dir = fonts[i].getTableDirectory();
+            for(int j=0; j<dir.getNumTables(); j++) {
+                fonts[i].getTable(dir.getEntry(j).getTag());
+            }
+            for(int j=0; j<fonts[i].getNumGlyphs(); j++) {
+                fonts[i].getGlyph(j);
+            }
+        }
+        return fonts;
+    }
+
+    static long usedHeap() {
+        final Runtime rt = Runtime.getRuntime();
+        for(int i=0; i<3; i++) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    static void assertEquals(OTGlyph expected, OTGlyph has) {
+        if( null == expected ) {
+            Assert.assertNull(has);
+            return;
+        }
+        Assert.assertNotNull(has);
+        Assert.assertEquals(expected.getAdvanceWidth(), has.getAdvanceWidth());
+        Assert.assertEquals(expected.getLeftSideBearing(), has.getLeftSideBearing());
+        Assert.assertEquals(expected.getPointCount(), has.getPointCount());
+        for(int i=0; i<expected.getPointCount(); i++) {
+            final Point pe = expected.getPoint(i);
+            final Point ph = has.getPoint(i);
+            Assert.assertEquals(pe.x, ph.x);
+            Assert.assertEquals(pe.y, ph.y);
+            Assert.assertEquals(pe.onCurve, ph.onCurve);
+            Assert.assertEquals(pe.endOfContour, ph.endOfContour);
+        }
+    }
+
+    @Test
+    public void testLazyGlyphOrder() throws IOException {
+        for(int i=0; i<fontFiles.length; i++) {
+            final OTFont forward = OTFontCollection.create(fontFiles[i]).getFont(0);
+            final OTFont reverse = OTFontCollection.create(fontFiles[i]).getFont(0);
+            final int count = forward.getNumGlyphs();
+            final OTGlyph[] glyphs = new OTGlyph[count];
+            for(int j=count-1; j>=0; j--) {
+                glyphs[j] = reverse.getGlyph(j);
+            }
+            for(int j=0; j<count; j++) {
+                assertEquals(forward.getGlyph(j), glyphs[j]);
+            }
+        }
+    }
+
+    @Test
+    public void testLoadPerf() throws IOException {
+        // warm up
+        for(int i=0; i<loops; i++) {
+            openOnDemand();
+            openAll();
+        }
+        long t0 = System.nanoTime();
+        for(int i=0; i<loops; i++) {
+            openOnDemand();
+        }
+        final long tOnDemand = ( System.nanoTime() - t0 ) / loops;
+        t0 = System.nanoTime();
+        for(int i=0; i<loops; i++) {
+            openAll();
+        }
+        final long tAll = ( System.nanoTime() - t0 ) / loops;
+
+        final long heap0 = usedHeap();
+        OTFont[] fonts = openOnDemand();
+        final long heapOnDemand = usedHeap() - heap0;
+        Assert.assertEquals(fontFiles.length, fonts.length); // keep alive
+        fonts = null;
+        final long heap1 = usedHeap();
+        fonts = openAll();
+        final long heapAll = usedHeap() - heap1;
+        Assert.assertEquals(fontFiles.length, fonts.length); // keep alive
+
+        System.err.println(fontFiles.length+" fonts, "+loops+" loops");
+        System.err.println("  on demand:  "+(tOnDemand/1000000.0)+" ms, retained heap "+(heapOnDemand/1024)+" KiB");
+        System.err.println("  all parsed: "+(tAll/1000000.0)+" ms, retained heap "+(heapAll/1024)+" KiB");
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestFontLoad01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+
+import jogamp.graph.font.FontInt;
+import jogamp.graph.font.GlyphCache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Validates the bounded glyph cache of a font: eviction within the weight limit
+ * and identical glyphs for cache hits.
+ */
+public class TestGlyphCache01 extends UITestCase {
+
+    @Test
+    public void testBoundedGlyphCache() throws IOException {
+        final Font font = FontFactory.get(FontFactory.UBUNTU).getDefault();
+        final GlyphCache cache = ((FontInt)font).getGlyphCache();
+        final int limit = cache.getLimit();
+        try {
+            cache.clear();
+            cache.setLimit(2000);
+            final Font.Glyph a = font.getGlyph('A');
+            Assert.assertSame(a, font.getGlyph('A'));
+            for(char c = 0x20; c < 0x250; c++) {
+                font.getGlyph(c);
+                Assert.assertTrue(cache.getWeight() <= 2000 || 1 == cache.size());
+            }
+            System.err.println("Cache: "+cache);
+            Assert.assertTrue(0 < cache.getEvictions());
+            Assert.assertTrue(0 < cache.getHits());
+            // evicted glyphs are recreated equal
+            final Font.Glyph a2 = font.getGlyph('A');
+            Assert.assertEquals(a.getSymbol(), a2.getSymbol());
+            Assert.assertEquals(a.getAdvance(24f, true), a2.getAdvance(24f, true), 0f);
+            Assert.assertEquals(a.getBBox(24f), a2.getBBox(24f));
+        } finally {
+            cache.setLimit(limit);
+        }
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestGlyphCache01.class.getName());
+    }
+}
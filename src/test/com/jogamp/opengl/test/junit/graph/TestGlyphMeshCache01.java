@@ -0,0 +1,148 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import jogamp.graph.curve.text.GlyphMeshCache;
+import jogamp.graph.curve.text.GlyphString;
+import jogamp.graph.font.FontInt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.curve.Region;
+import com.jogamp.graph.font.Font;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.graph.font.Font.Glyph;
+import com.jogamp.graph.geom.Triangle;
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.graph.geom.VertexStore;
+import com.jogamp.graph.geom.opengl.SVertex;
+import com.jogamp.opengl.math.geom.AABBox;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+/**
+ * Validates the per glyph triangulation cache: glyphs are triangulated once,
+ * meshes reference only their own vertices, the limit is obeyed
+ * and a cached string's region matches its glyphs triangulated w/o cache,
+ * scaled and offset like the glyphs of the uncached string.
+ */
+public class TestGlyphMeshCache01 extends UITestCase {
+    static final float EPSILON = 0.001f;
+
+    @Test
+    public void testGlyphMeshCache() throws IOException {
+        final Font font = FontFactory.get(FontFactory.UBUNTU).getDefault();
+        final GlyphMeshCache cache = new GlyphMeshCache(SVertex.factory(), 0);
+
+        final GlyphMeshCache.Mesh a = cache.get(font, font.getGlyph('A'));
+        Assert.assertNotNull(a);
+        Assert.assertTrue(0 < a.getTriangleCount());
+        for(int i=0; i<a.indices.length; i++) {
+            Assert.assertTrue(0 <= a.indices[i] && a.indices[i] < a.getVertexCount());
+        }
+        Assert.assertSame(a, cache.get(font, font.getGlyph('A')));
+        Assert.assertNotNull(cache.get(font, font.getGlyph('B')));
+        Assert.assertEquals(2, cache.getMisses());
+        Assert.assertEquals(1, cache.getHits());
+
+        // new strings of known glyphs don't triangulate again
+        GlyphString.createCachedString(cache, font, 10, "0123456789");
+        final long misses = cache.getMisses();
+        GlyphString.createCachedString(cache, font, 10, "9876543210");
+        GlyphString.createCachedString(cache, font, 24, "31415\n92653");
+        Assert.assertEquals(misses, cache.getMisses());
+        System.err.println("Cache: "+cache);
+
+        cache.setLimit(4);
+        Assert.assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testCachedRegionMatchesUncached() throws IOException {
+        final Font font = FontFactory.get(FontFactory.UBUNTU).getDefault();
+        final GlyphMeshCache cache = new GlyphMeshCache(SVertex.factory(), 0);
+        // glyphs offset along and across lines, repeated glyphs reuse their mesh
+        final String str = "JogAmp 4.2\nglyph mesh";
+        final int[] fontSizes = { 10, 24, 37 };
+        for(int i=0; i<fontSizes.length; i++) {
+            final float scale = font.getMetrics().getScale(fontSizes[i]);
+            final ArrayList<OutlineShape> uncached = ((FontInt)font).getOutlineShapes(str, fontSizes[i], SVertex.factory());
+            final Region region = GlyphString.createCachedString(cache, font, fontSizes[i], str).createRegion(null, 0);
+            final VertexStore store = region.getVertexStore();
+            final int[] indices = region.getVertexStoreIndices();
+            Assert.assertEquals(str.length(), uncached.size()); // one shape per character
+            int vertexBase = 0, index = 0;
+            for(int c=0; c<str.length(); c++) {
+                final char symbol = str.charAt(c);
+                if( ' ' == symbol || '\n' == symbol ) {
+                    continue;
+                }
+                final String msg = "font size "+fontSizes[i]+", glyph '"+symbol+"'";
+                final Glyph glyph = font.getGlyph(symbol);
+                // the glyph triangulated w/o cache in font units, 
+                // placed like the glyph of the uncached string 
+                final OutlineShape unit = ((FontInt)font).getOutlineShape(glyph, SVertex.factory());
+                final AABBox unitBox = new AABBox();
+                unitBox.resize(unit.getBounds());
+                final AABBox box = uncached.get(c).getBounds();
+                Assert.assertEquals(msg, unitBox.getWidth() * scale, box.getWidth(), EPSILON);
+                Assert.assertEquals(msg, unitBox.getHeight() * scale, box.getHeight(), EPSILON);
+                final float tx = box.getLow()[0] - unitBox.getLow()[0] * scale;
+                final float ty = box.getLow()[1] - unitBox.getLow()[1] * scale;
+                unit.transformOutlines(OutlineShape.VerticesState.QUADRATIC_NURBS);
+                final ArrayList<Triangle> triangles = unit.triangulate();
+
+                final int vertexCount = cache.get(font, glyph).getVertexCount();
+                for(int t=0; t<triangles.size(); t++) {
+                    final Vertex[] tv = triangles.get(t).getVertices();
+                    for(int j=0; j<3; j++) {
+                        final int idx = indices[index++];
+                        Assert.assertTrue(msg, vertexBase <= idx && idx < vertexBase + vertexCount);
+                        final float[] tex = tv[j].getTexCoord();
+                        Assert.assertEquals(msg, tv[j].getX() * scale + tx, store.getX(idx), EPSILON);
+                        Assert.assertEquals(msg, tv[j].getY() * scale + ty, store.getY(idx), EPSILON);
+                        Assert.assertEquals(msg, tv[j].getZ(), store.getZ(idx), EPSILON);
+                        Assert.assertEquals(msg, tex[0], store.getS(idx), EPSILON);
+                        Assert.assertEquals(msg, tex[1], store.getT(idx), EPSILON);
+                    }
+                }
+                vertexBase += vertexCount;
+            }
+            Assert.assertEquals(store.size(), vertexBase);
+            Assert.assertEquals(region.getVertexStoreIndexCount(), index);
+        }
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestGlyphMeshCache01.class.getName());
+    }
+}
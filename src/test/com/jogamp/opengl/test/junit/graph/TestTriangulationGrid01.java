@@ -0,0 +1,160 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.graph;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+
+import jogamp.graph.curve.tess.CDTriangulator2D;
+import jogamp.graph.font.FontInt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.graph.curve.OutlineShape;
+import com.jogamp.graph.font.FontFactory;
+import com.jogamp.graph.geom.Outline;
+import com.jogamp.graph.geom.Triangle;
+import com.jogamp.graph.geom.Vertex;
+import com.jogamp.graph.geom.opengl.SVertex;
+
+/**
+ * Validates the spatial grid of {@link CDTriangulator2D} produces the same triangulation
+ * as the exhaustive Delaunay tests for polygons with and without holes and compares their speed.
+ * <p>
+ * Besides random polygons the corpus contains the glyph outlines of the Ubuntu font,
+ * i.e. few vertices per outline, curves and nested holes as triangulated for text.
+ * </p>
+ */
+public class TestTriangulationGrid01 {
+
+    static Outline createPolygon(int n, float cx, float cy, float r, boolean cw, long seed) {
+        final Random rnd = new Random(seed);
+        final Outline o = new Outline();
+        for(int i=0; i<n; i++) {
+            final double a = 2*Math.PI*i/n * ( cw ? -1 : 1 );
+            final float rr = r * ( 1f + 0.3f * ( rnd.nextFloat() - 0.5f ) );
+            o.addVertex(SVertex.factory().create(cx+rr*(float)Math.cos(a), cy+rr*(float)Math.sin(a), 0, true));
+        }
+        return o;
+    }
+
+    static ArrayList<Triangle> triangulate(int gridThreshold, int n, int holes, long seed, long[] time) {
+        final CDTriangulator2D triangulator = new CDTriangulator2D();
+        triangulator.setGridThreshold(gridThreshold);
+        final long t0 = System.nanoTime();
+        triangulator.addCurve(createPolygon(n, 0, 0, 1000, false, seed));
+        for(int i=0; i<holes; i++) {
+            triangulator.addCurve(createPolygon(n/4, -400+i*300, 0, 100, true, seed+i+1));
+        }
+        final ArrayList<Triangle> triangles = triangulator.generate();
+        time[0] += System.nanoTime() - t0;
+        return triangles;
+    }
+
+    static ArrayList<Triangle> triangulate(int gridThreshold, OutlineShape shape, long[] time) {
+        final ArrayList<Outline> outlines = new ArrayList<Outline>();
+        for(int i=0; i<shape.getOutlineNumber(); i++) {
+            outlines.add(shape.getOutline(i));
+        }
+        // outline order of OutlineShape.triangulate(), large to small
+        Collections.sort(outlines);
+        Collections.reverse(outlines);
+        final CDTriangulator2D triangulator = new CDTriangulator2D();
+        triangulator.setGridThreshold(gridThreshold);
+        final long t0 = System.nanoTime();
+        for(int i=0; i<outlines.size(); i++) {
+            triangulator.addCurve(outlines.get(i));
+        }
+        final ArrayList<Triangle> triangles = triangulator.generate();
+        time[0] += System.nanoTime() - t0;
+        return triangles;
+    }
+
+    static void assertEquals(ArrayList<Triangle> t0, ArrayList<Triangle> t1) {
+        Assert.assertEquals(t0.size(), t1.size());
+        for(int i=0; i<t0.size(); i++) {
+            final Vertex[] v0 = t0.get(i).getVertices();
+            final Vertex[] v1 = t1.get(i).getVertices();
+            for(int j=0; j<3; j++) {
+                Assert.assertEquals(v0[j].getX(), v1[j].getX(), 0f);
+                Assert.assertEquals(v0[j].getY(), v1[j].getY(), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void testGridEqualsExhaustive() {
+        final long[] tExhaustive = new long[1];
+        final long[] tGrid = new long[1];
+        for(int n = 16; n <= 1024; n*=4) {
+            for(int holes = 0; holes < 3; holes++) {
+                final ArrayList<Triangle> t0 = triangulate(0, n, holes, n+holes, tExhaustive);
+                final ArrayList<Triangle> t1 = triangulate(8, n, holes, n+holes, tGrid);
+                assertEquals(t0, t1);
+            }
+        }
+        System.err.println("Triangulation exhaustive "+tExhaustive[0]/1000000+"ms, grid "+tGrid[0]/1000000+"ms");
+    }
+
+    @Test
+    public void testGlyphsGridEqualsExhaustive() throws IOException {
+        final FontInt font = (FontInt) FontFactory.get(FontFactory.UBUNTU).getDefault();
+        final String text = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789@&%$#?!{}";
+        final long[] tExhaustive = new long[1];
+        final long[] tGrid = new long[1];
+        int shapes = 0;
+        int vertices = 0;
+        // grid used for all glyph loops as well as with the default threshold
+        final int[] thresholds = { 3, CDTriangulator2D.DEFAULT_GRID_THRESHOLD };
+        for(int k=0; k<thresholds.length; k++) {
+            final ArrayList<OutlineShape> glyphs = font.getOutlineShapes(text, 256f, SVertex.factory());
+            for(int i=0; i<glyphs.size(); i++) {
+                final OutlineShape shape = glyphs.get(i);
+                shape.transformOutlines(OutlineShape.VerticesState.QUADRATIC_NURBS);
+                if( shape.getVertexCount() < 3 ) {
+                    continue;
+                }
+                final ArrayList<Triangle> t0 = triangulate(0, shape, tExhaustive);
+                final ArrayList<Triangle> t1 = triangulate(thresholds[k], shape, tGrid);
+                assertEquals(t0, t1);
+                shapes++;
+                vertices += shape.getVertexCount();
+            }
+        }
+        Assert.assertTrue(0 < shapes);
+        System.err.println("Glyph triangulation of "+shapes+" shapes, "+vertices+" vertices: exhaustive "+
+                           tExhaustive[0]/1000000+"ms, grid "+tGrid[0]/1000000+"ms");
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestTriangulationGrid01.class.getName());
+    }
+}
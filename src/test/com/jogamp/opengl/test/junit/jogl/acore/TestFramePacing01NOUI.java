@@ -0,0 +1,191 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.acore;
+
+import jogamp.opengl.FPSCounterImpl;
+import jogamp.opengl.FramePacer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Validates the frame duration percentiles of {@link FPSCounterImpl}
+ * and the deadline schedule of {@link FramePacer} as used by {@link com.jogamp.opengl.util.Animator},
+ * both driven by a deterministic clock w/o any GL context.
+ */
+public class TestFramePacing01NOUI {
+    static final long MS = 1000000L;
+    /** Relative error bound of the log-linear histogram w/ 16 buckets per power of two */
+    static final float PRECISION = 1f / 16f;
+
+    static void assertDuration(String msg, float expectedMS, float actualMS) {
+        Assert.assertTrue(msg+": expected "+expectedMS+" ms, has "+actualMS+" ms",
+                          Math.abs(actualMS - expectedMS) <= expectedMS * PRECISION);
+    }
+
+    static FPSCounterImpl createCounter() {
+        final FPSCounterImpl c = new FPSCounterImpl();
+        c.setUpdateFPSFrames(Integer.MAX_VALUE, null);
+        return c;
+    }
+
+    @Test
+    public void test01PercentileSingleDuration() {
+        final long base = System.nanoTime();
+        for(long micros = 1; micros <= 10000000L; micros = micros * 3 / 2 + 1) {
+            final FPSCounterImpl c = createCounter();
+            c.tickFPS(base);
+            c.tickFPS(base + micros * 1000L);
+            final float expected = micros / 1000f;
+            assertDuration("p50 of "+micros+" us", expected, c.getFrameDurationPercentile(0.5f));
+            if( micros < 16 ) {
+                Assert.assertEquals("exact p50 of "+micros+" us", expected, c.getFrameDurationPercentile(0.5f), 0f);
+            }
+        }
+    }
+
+    @Test
+    public void test02PercentileDistribution() {
+        final FPSCounterImpl c = createCounter();
+        Assert.assertEquals(0f, c.getFrameDurationPercentile(0.5f), 0f);
+        final long period = 16666667L; // 60 Hz
+        long t = System.nanoTime();
+        c.tickFPS(t);
+        for(int i = 0; i < 990; i++) {
+            t += period;
+            c.tickFPS(t);
+        }
+        for(int i = 0; i < 10; i++) {
+            t += 50 * MS;
+            c.tickFPS(t);
+        }
+        // 1000 durations: 990 x 16.7 ms and 10 x 50 ms
+        assertDuration("p0", 16.667f, c.getFrameDurationPercentile(0f));
+        assertDuration("p50", 16.667f, c.getFrameDurationPercentile(0.5f));
+        assertDuration("p99", 16.667f, c.getFrameDurationPercentile(0.99f));
+        assertDuration("p99.5", 50f, c.getFrameDurationPercentile(0.995f));
+        assertDuration("p100", 50f, c.getFrameDurationPercentile(1f));
+        Assert.assertEquals(1001, c.getTotalFPSFrames());
+
+        c.resetFPSCounter();
+        Assert.assertEquals(0f, c.getFrameDurationPercentile(0.5f), 0f);
+    }
+
+    @Test
+    public void test03PercentileDisabled() {
+        final FPSCounterImpl c = new FPSCounterImpl();
+        final long t = System.nanoTime();
+        c.tickFPS(t);
+        c.tickFPS(t + 10 * MS);
+        Assert.assertEquals(2, c.getTotalFPSFrames());
+        Assert.assertEquals(0f, c.getFrameDurationPercentile(0.5f), 0f);
+    }
+
+    @Test
+    public void test04PacingOnTime() {
+        final FramePacer p = new FramePacer();
+        final long period = 10 * MS;
+        final long t0 = 1000 * MS;
+        long start = t0;
+        for(int i = 1; i <= 10; i++) {
+            final long now = start + 2 * MS;
+            Assert.assertFalse(p.schedule(period, FramePacer.SKIP, start, now));
+            Assert.assertEquals(t0 + i * period, p.getDeadline());
+            Assert.assertEquals(p.getDeadline() - now - p.getSpin(), p.getParkNanos(now));
+            Assert.assertEquals(0, p.getParkNanos(p.getDeadline() - p.getSpin()));
+            start = p.getDeadline() + MS / 10; // woken up slightly late
+        }
+        p.reset();
+        Assert.assertEquals(0, p.getDeadline());
+        Assert.assertFalse(p.schedule(period, FramePacer.SKIP, 5 * t0, 5 * t0 + MS));
+        Assert.assertEquals(5 * t0 + period, p.getDeadline());
+    }
+
+    @Test
+    public void test05PacingSkip() {
+        final FramePacer p = new FramePacer();
+        final long period = 10 * MS;
+        final long t0 = 1000 * MS;
+        Assert.assertFalse(p.schedule(period, FramePacer.SKIP, t0, t0 + 2 * MS));
+        // long frame: deadline t0+20 missed at t0+35, phase kept
+        Assert.assertTrue(p.schedule(period, FramePacer.SKIP, t0 + 10 * MS, t0 + 35 * MS));
+        Assert.assertEquals(t0 + 40 * MS, p.getDeadline());
+        // late start w/ short frame: skipped as well
+        Assert.assertTrue(p.schedule(period, FramePacer.SKIP, t0 + 48 * MS, t0 + 52 * MS));
+        Assert.assertEquals(t0 + 60 * MS, p.getDeadline());
+        // exactly on deadline is not missed
+        Assert.assertFalse(p.schedule(period, FramePacer.SKIP, t0 + 60 * MS, t0 + 70 * MS));
+        Assert.assertEquals(t0 + 70 * MS, p.getDeadline());
+    }
+
+    @Test
+    public void test06PacingCatchUp() {
+        final FramePacer p = new FramePacer();
+        final long period = 10 * MS;
+        final long t0 = 1000 * MS;
+        Assert.assertFalse(p.schedule(period, FramePacer.CATCH_UP, t0, t0 + 2 * MS));
+        // late start w/ short frame: deadline t0+20 kept, next frame w/o waiting
+        Assert.assertTrue(p.schedule(period, FramePacer.CATCH_UP, t0 + 18 * MS, t0 + 25 * MS));
+        Assert.assertEquals(t0 + 20 * MS, p.getDeadline());
+        Assert.assertEquals(0, p.getParkNanos(t0 + 25 * MS));
+        // caught up
+        Assert.assertFalse(p.schedule(period, FramePacer.CATCH_UP, t0 + 25 * MS, t0 + 28 * MS));
+        Assert.assertEquals(t0 + 30 * MS, p.getDeadline());
+        // frame longer than a period: skipped
+        Assert.assertTrue(p.schedule(period, FramePacer.CATCH_UP, t0 + 30 * MS, t0 + 42 * MS));
+        Assert.assertEquals(t0 + 50 * MS, p.getDeadline());
+        // more than MAX_CATCH_UP periods behind: skipped
+        final long late = t0 + ( 60 + FramePacer.MAX_CATCH_UP * 10 ) * MS;
+        Assert.assertTrue(p.schedule(period, FramePacer.CATCH_UP, late - 5 * MS, late));
+        Assert.assertEquals(late + period, p.getDeadline());
+    }
+
+    @Test
+    public void test07SpinAdaption() {
+        final FramePacer p = new FramePacer();
+        final long spin0 = p.getSpin();
+        Assert.assertTrue(FramePacer.SPIN_MIN <= spin0 && spin0 <= FramePacer.SPIN_MAX);
+        for(int i = 0; i < 100; i++) {
+            p.parked(MS, MS); // no overshoot
+        }
+        Assert.assertEquals(FramePacer.SPIN_MIN, p.getSpin());
+        for(int i = 0; i < 100; i++) {
+            p.parked(MS, 6 * MS); // 5 ms overshoot
+        }
+        Assert.assertEquals(FramePacer.SPIN_MAX, p.getSpin());
+        // converges towards twice the overshoot within the bounds
+        for(int i = 0; i < 200; i++) {
+            p.parked(MS, MS + 300000L);
+        }
+        Assert.assertTrue("spin "+p.getSpin(), Math.abs(p.getSpin() - 600000L) < 10000L);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestFramePacing01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.acore;
+
+import javax.media.opengl.GLAutoDrawable;
+import javax.media.opengl.GLEventListener;
+
+import jogamp.opengl.GLDrawableHelper;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.test.junit.util.GLStub;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+
+/**
+ * Validates and measures the {@link GLEventListener} dispatch of {@link GLDrawableHelper#display(GLAutoDrawable)}
+ * w/o any GL context: a listener removed concurrently is never displayed after its removal,
+ * the dispatch cost per frame w/ and w/o concurrent listener modifications,
+ * and that the dispatch does not allocate, if the VM supports thread allocation measurement.
+ * <p>
+ * Use <code>-loops N</code> for a longer benchmark.
+ * </p>
+ */
+public class TestGLDrawableHelperDispatch01NOUI {
+    static int loops = 200000;
+
+    /** A GLAutoDrawable returning default values only, sufficient for the listener dispatch. */
+    static GLAutoDrawable createDrawable() {
+        return (GLAutoDrawable) new GLStub().createProxy(GLAutoDrawable.class);
+    }
+
+    static class CountingListener implements GLEventListener {
+        volatile boolean removed = false;
+        volatile int displayed = 0;
+        volatile int displayedAfterRemoval = 0;
+        public void init(GLAutoDrawable drawable) {}
+        public void dispose(GLAutoDrawable drawable) {}
+        public void display(GLAutoDrawable drawable) {
+            if( removed ) {
+                displayedAfterRemoval++;
+            }
+            displayed++;
+        }
+        public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {}
+    }
+
+    /** Adds the listener w/o pending init, which would require a GL context for the initial reshape */
+    static void addInitialized(GLDrawableHelper helper, GLEventListener l) {
+        helper.addGLEventListener(l);
+        helper.setGLEventListenerInitState(l, true);
+    }
+
+    @Test
+    public void testNoDisplayAfterRemove() throws InterruptedException {
+        final GLDrawableHelper helper = new GLDrawableHelper();
+        final GLAutoDrawable drawable = createDrawable();
+        final CountingListener frames = new CountingListener();
+        addInitialized(helper, frames);
+        final boolean[] stop = { false };
+        final Thread displayThread = new Thread(new Runnable() {
+            public void run() {
+                while( true ) {
+                    synchronized(stop) {
+                        if( stop[0] ) {
+                            return;
+                        }
+                    }
+                    helper.display(drawable);
+                }
+            }
+        }, "DisplayThread");
+        displayThread.start();
+        int violations = 0;
+        try {
+            for(int i=0; i<500; i++) {
+                final CountingListener l = new CountingListener();
+                addInitialized(helper, l);
+                while( 0 == l.displayed ) {
+                    Thread.yield();
+                }
+                Assert.assertSame(l, helper.removeGLEventListener(l));
+                l.removed = true;
+                // at least one complete frame after the removal
+                final int f = frames.displayed;
+                while( frames.displayed < f + 2 ) {
+                    Thread.yield();
+                }
+                violations += l.displayedAfterRemoval;
+            }
+        } finally {
+            synchronized(stop) {
+                stop[0] = true;
+            }
+            displayThread.join();
+        }
+        Assert.assertEquals("Listeners displayed after removal", 0, violations);
+        Assert.assertEquals(1, helper.getGLEventListenerCount());
+    }
+
+    long benchmark(GLDrawableHelper helper, GLAutoDrawable drawable) {
+        for(int i=0; i<loops/10; i++) {
+            helper.display(drawable);
+        }
+        final long t0 = System.nanoTime();
+        for(int i=0; i<loops; i++) {
+            helper.display(drawable);
+        }
+        return System.nanoTime() - t0;
+    }
+
+    @Test
+    public void testDispatchBenchmark() throws InterruptedException {
+        final GLAutoDrawable drawable = createDrawable();
+        final int[] listenerCounts = { 1, 4, 16 };
+        for(int n=0; n<listenerCounts.length; n++) {
+            final GLDrawableHelper helper = new GLDrawableHelper();
+            final CountingListener[] ls = new CountingListener[listenerCounts[n]];
+            for(int i=0; i<ls.length; i++) {
+                ls[i] = new CountingListener();
+                addInitialized(helper, ls[i]);
+            }
+            final long tIdle = benchmark(helper, drawable);
+
+            // concurrent modifications
+            final boolean[] stop = { false };
+            final Thread modThread = new Thread(new Runnable() {
+                public void run() {
+                    final CountingListener l = new CountingListener();
+                    while( true ) {
+                        synchronized(stop) {
+                            if( stop[0] ) {
+                                return;
+                            }
+                        }
+                        addInitialized(helper, l);
+                        helper.removeGLEventListener(l);
+                        Thread.yield();
+                    }
+                }
+            }, "ModThread");
+            modThread.start();
+            final long tMod;
+            try {
+                tMod = benchmark(helper, drawable);
+            } finally {
+                synchronized(stop) {
+                    stop[0] = true;
+                }
+                modThread.join();
+            }
+            Assert.assertEquals(ls.length, helper.getGLEventListenerCount());
+            Assert.assertEquals(2*loops+2*(loops/10), ls[0].displayed);
+            System.err.println("display() w/ "+ls.length+" listeners: "+(tIdle/loops)+" ns/frame, w/ concurrent add/remove "+(tMod/loops)+" ns/frame");
+        }
+    }
+
+    @Test
+    public void testDisplayAllocation() {
+        final GLDrawableHelper helper = new GLDrawableHelper();
+        final GLAutoDrawable drawable = createDrawable();
+        for(int i=0; i<4; i++) {
+            addInitialized(helper, new CountingListener());
+        }
+        if( 0 > MiscUtils.getThreadAllocatedBytes() ) {
+            System.err.println("Thread allocation measurement n/a, skipped");
+            return;
+        }
+        for(int i=0; i<loops/10; i++) {
+            helper.display(drawable);
+        }
+        final long a0 = MiscUtils.getThreadAllocatedBytes();
+        for(int i=0; i<loops; i++) {
+            helper.display(drawable);
+        }
+        final long bytes = MiscUtils.getThreadAllocatedBytes() - a0;
+        System.err.println("display() w/ 4 listeners: "+bytes+" bytes allocated in "+loops+" frames");
+        // any allocation per frame would exceed one byte per frame
+        Assert.assertTrue("display() allocates "+bytes+" bytes in "+loops+" frames", bytes < loops);
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                loops = Integer.parseInt(args[++i]);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGLDrawableHelperDispatch01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.acore;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.media.opengl.GLAutoDrawable;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.test.junit.util.GLStub;
+import com.jogamp.opengl.util.GLDrawableUtil;
+import com.jogamp.opengl.util.ParallelAnimator;
+
+/**
+ * Validates the threads exposed by {@link ParallelAnimator} w/o any GL context:
+ * {@link ParallelAnimator#getThread()} stays the animator thread while drawables are rendered on worker threads,
+ * which are exposed via {@link ParallelAnimator#isWorkerThread(Thread)} and {@link ParallelAnimator#getWorkerThreads()}
+ * and are not considered another thread by {@link GLDrawableUtil}.
+ */
+public class TestParallelAnimator01NOUI {
+    static final long TIMEOUT = 5000;
+
+    /** Records the state of the animator observed within display(). */
+    static class Recorder extends GLStub {
+        final ParallelAnimator anim;
+        volatile int displayed = 0;
+        volatile Thread displayThread = null;
+        volatile Thread animThread = null;
+        volatile boolean isWorker = false;
+        volatile boolean otherThread = true;
+
+        Recorder(ParallelAnimator anim) {
+            this.anim = anim;
+        }
+
+        @Override
+        protected Object call(Object proxy, String name, Object[] args) {
+            if( "display".equals(name) ) {
+                final Thread t = Thread.currentThread();
+                displayThread = t;
+                animThread = anim.getThread();
+                isWorker = anim.isWorkerThread(t);
+                otherThread = GLDrawableUtil.isAnimatorAnimatingOnOtherThread(anim) || 
+                              GLDrawableUtil.isAnimatorStartedOnOtherThread(anim);
+                displayed++;
+            }
+            return null;
+        }
+    }
+
+    static GLAutoDrawable createDrawable(Recorder r) {
+        return (GLAutoDrawable) r.createProxy(GLAutoDrawable.class);
+    }
+
+    static void waitForFrames(Recorder[] recorders, int frames) throws InterruptedException {
+        final long t0 = System.currentTimeMillis();
+        for(int i = 0; i < recorders.length; i++) {
+            while( recorders[i].displayed < frames ) {
+                Assert.assertTrue("timeout waiting for frames", System.currentTimeMillis() - t0 < TIMEOUT);
+                Thread.sleep(5);
+            }
+        }
+    }
+
+    @Test
+    public void test01WorkerThreads() throws InterruptedException {
+        final ParallelAnimator anim = new ParallelAnimator(2);
+        final Recorder[] recorders = new Recorder[4];
+        for(int i = 0; i < recorders.length; i++) {
+            recorders[i] = new Recorder(anim);
+            anim.add(createDrawable(recorders[i]));
+        }
+        Assert.assertEquals(0, anim.getWorkerThreads().length);
+        anim.start();
+        try {
+            waitForFrames(recorders, 10);
+            final Thread animThread = anim.getThread();
+            Assert.assertNotNull(animThread);
+            Assert.assertFalse(anim.isWorkerThread(Thread.currentThread()));
+            Assert.assertFalse(anim.isWorkerThread(animThread));
+            Assert.assertFalse(anim.isWorkerThread(null));
+            Assert.assertTrue(GLDrawableUtil.isAnimatorStartedOnOtherThread(anim));
+
+            final List<Thread> workers = Arrays.asList(anim.getWorkerThreads());
+            Assert.assertEquals(2, workers.size());
+            Assert.assertEquals(2, anim.getWorkerCount());
+            for(int i = 0; i < recorders.length; i++) {
+                final Recorder r = recorders[i];
+                Assert.assertSame("stable getThread() on worker", animThread, r.animThread);
+                Assert.assertTrue("worker "+r.displayThread, workers.contains(r.displayThread));
+                Assert.assertTrue(r.isWorker);
+                Assert.assertFalse("worker considered other thread", r.otherThread);
+            }
+            // a worker of another animator is not one of ours
+            final ParallelAnimator other = new ParallelAnimator(1);
+            for(int i = 0; i < workers.size(); i++) {
+                Assert.assertFalse(other.isWorkerThread(workers.get(i)));
+            }
+        } finally {
+            anim.stop();
+        }
+        Assert.assertNull(anim.getThread());
+        Assert.assertEquals(0, anim.getWorkerThreads().length);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestParallelAnimator01NOUI.class.getName());
+    }
+}
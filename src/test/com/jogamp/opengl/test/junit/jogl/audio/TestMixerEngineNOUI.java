@@ -0,0 +1,327 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.audio;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.audio.AudioSink;
+import com.jogamp.audio.FileAudioSink;
+import com.jogamp.audio.MixSource;
+import com.jogamp.audio.MixerEngine;
+import com.jogamp.audio.NullAudioSink;
+
+/**
+ * Validates the platform neutral {@link MixerEngine} w/ synthetic sources and the null and file sinks.
+ */
+public class TestMixerEngineNOUI {
+
+    /** Constant mono source, -1 samples for an endless source. */
+    static class ConstSource implements MixSource {
+        final float value;
+        final float x, y, z;
+        volatile int remaining;
+        volatile int available = Integer.MAX_VALUE;
+        volatile int fillCount;
+
+        ConstSource(float value, int samples, float x, float y, float z) {
+            this.value = value;
+            this.remaining = samples;
+            this.x = x; this.y = y; this.z = z;
+        }
+
+        public boolean isPlaying() { return 0 != remaining; }
+
+        public boolean done() { return 0 == remaining; }
+
+        public void getPosition(float[] xyz) {
+            xyz[0] = x; xyz[1] = y; xyz[2] = z;
+        }
+
+        public int read(float[] dst, int off, int count) {
+            int n = Math.min(count, available);
+            if(0 <= remaining) {
+                n = Math.min(n, remaining);
+                remaining -= n;
+            }
+            for(int i=0; i<n; i++) {
+                dst[off+i] = value;
+            }
+            return n;
+        }
+
+        public void fill() { fillCount++; }
+    }
+
+    @Test
+    public void testSpatialization() {
+        final MixerEngine engine = new MixerEngine();
+        engine.add(new ConstSource(1000f, -1, -1, 0, 0));
+        final float[] block = new float[2*64];
+        engine.mix(block, 64);
+        for(int i=0; i<64; i++) {
+            Assert.assertEquals(1000f, block[2*i], 0.001f);
+            Assert.assertEquals(200f, block[2*i+1], 0.001f); // 1 / ( 1 + 2^2 )
+        }
+        engine.setFalloffFactor(4f);
+        engine.mix(block, 64);
+        Assert.assertEquals(500f, block[1], 0.001f); // 4 / ( 4 + 2^2 )
+        Assert.assertEquals(1, engine.getBlockCount() - 1);
+        Assert.assertEquals(0, engine.getUnderrunCount());
+    }
+
+    @Test
+    public void testMixAndRemoveDone() {
+        final MixerEngine engine = new MixerEngine();
+        final ConstSource a = new ConstSource(100f, -1, 0, 0, 0);
+        final ConstSource b = new ConstSource(50f, 10, 0, 0, 0);
+        Assert.assertTrue(engine.add(a));
+        Assert.assertTrue(engine.add(b));
+        Assert.assertFalse(engine.add(b));
+        final float[] block = new float[2*32];
+        engine.mix(block, 32);
+        // both sources at distance 1 of each speaker: gain 0.5
+        Assert.assertEquals(75f, block[0], 0.001f);
+        Assert.assertEquals(75f, block[2*9+1], 0.001f);
+        Assert.assertEquals(50f, block[2*10], 0.001f);
+        Assert.assertEquals(1, engine.getSources().length);
+        Assert.assertEquals(0, engine.getUnderrunCount());
+        Assert.assertFalse(engine.remove(b));
+        Assert.assertTrue(engine.remove(a));
+        Assert.assertEquals(0, engine.getSources().length);
+    }
+
+    @Test
+    public void testUnderrun() {
+        final MixerEngine engine = new MixerEngine();
+        final ConstSource a = new ConstSource(100f, -1, 0, 0, 0);
+        a.available = 16;
+        engine.add(a);
+        final float[] block = new float[2*32];
+        engine.mix(block, 32);
+        Assert.assertEquals(50f, block[2*15], 0.001f);
+        Assert.assertEquals(0f, block[2*16], 0.001f);
+        Assert.assertEquals(1, engine.getUnderrunCount());
+        Assert.assertEquals(1, engine.getSources().length);
+        a.available = Integer.MAX_VALUE;
+        engine.mix(block, 32);
+        Assert.assertEquals(1, engine.getUnderrunCount());
+        Assert.assertEquals(2, engine.getBlockCount());
+    }
+
+    @Test
+    public void testConcurrentRegistration() throws InterruptedException {
+        final MixerEngine engine = new MixerEngine();
+        final int threadCount = 4, loops = 2000;
+        final Thread[] threads = new Thread[threadCount];
+        // assertions on the worker threads would not fail the test, hence count and check after join
+        final AtomicInteger failures = new AtomicInteger(0);
+        final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+        for(int t=0; t<threadCount; t++) {
+            threads[t] = new Thread() {
+                public void run() {
+                    try {
+                        final ConstSource keep = new ConstSource(1f, -1, 0, 0, 0);
+                        for(int i=0; i<loops; i++) {
+                            final ConstSource s = new ConstSource(1f, -1, 0, 0, 0);
+                            if( !engine.add(s) ) {
+                                failures.incrementAndGet();
+                            }
+                            if( !engine.remove(s) ) {
+                                failures.incrementAndGet();
+                            }
+                        }
+                        if( !engine.add(keep) ) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Throwable th) {
+                        error.compareAndSet(null, th);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        final float[] block = new float[2*64];
+        boolean alive = true;
+        while(alive) {
+            engine.mix(block, 64);
+            alive = false;
+            for(int t=0; t<threadCount; t++) {
+                alive |= threads[t].isAlive();
+            }
+        }
+        for(int t=0; t<threadCount; t++) {
+            threads[t].join();
+        }
+        if( null != error.get() ) {
+            throw new AssertionError(error.get());
+        }
+        Assert.assertEquals("failed add/remove", 0, failures.get());
+        Assert.assertEquals(threadCount, engine.getSources().length);
+        engine.mix(block, 64);
+        Assert.assertEquals(threadCount * 0.5f, block[0], 0.001f);
+    }
+
+    @Test
+    public void testFileSink() throws IOException, InterruptedException {
+        final MixerEngine engine = new MixerEngine();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final FileAudioSink sink = new FileAudioSink(out, 44100, 256);
+        final ConstSource a = new ConstSource(80000f, 1000, 0, 0, 0);
+        engine.add(a);
+        engine.start(sink);
+        final long t1 = System.currentTimeMillis() + 5000;
+        while( 0 < engine.getSources().length && System.currentTimeMillis() < t1 ) {
+            Thread.sleep(5);
+        }
+        engine.shutdown();
+        Assert.assertTrue(a.done());
+        final byte[] pcm = out.toByteArray();
+        Assert.assertEquals(sink.getFrameCount() * 4, pcm.length);
+        Assert.assertEquals(0, pcm.length % ( 256 * 4 ));
+        Assert.assertTrue(pcm.length >= 1024 * 4);
+        // gain 0.5 -> 40000 clamped to 32767, little endian
+        Assert.assertEquals(0xff, pcm[0] & 0xff);
+        Assert.assertEquals(0x7f, pcm[1] & 0xff);
+        // silence after the end of the source
+        Assert.assertEquals(0, pcm[1000*4]);
+        Assert.assertEquals(0, pcm[1000*4+1]);
+    }
+
+    @Test
+    public void testNullSinkMetrics() throws InterruptedException {
+        final MixerEngine engine = new MixerEngine();
+        for(int i=0; i<32; i++) {
+            engine.add(new ConstSource(100f, -1, i, 0, 1));
+        }
+        final NullAudioSink sink = new NullAudioSink(44100, 512, false);
+        engine.start(sink);
+        Thread.sleep(200);
+        engine.shutdown();
+        Assert.assertTrue(0 < engine.getBlockCount());
+        Assert.assertEquals(engine.getBlockCount() * 512, sink.getFrameCount(), 512);
+        Assert.assertTrue(engine.getMaxMixNanos() >= engine.getAverageMixNanos());
+        Assert.assertEquals(0, engine.getUnderrunCount());
+        System.err.println("32 sources, 512 frames / block: "+engine);
+
+        // real time pacing: 512 frames @ 44.1 kHz ~ 11.6 ms per block
+        final MixerEngine paced = new MixerEngine();
+        final ConstSource a = new ConstSource(100f, -1, 0, 0, 0);
+        paced.add(a);
+        final NullAudioSink pacedSink = new NullAudioSink(44100, 512, true);
+        paced.start(pacedSink);
+        Thread.sleep(200);
+        paced.shutdown();
+        Assert.assertTrue(paced.getBlockCount() <= 200 / 11 + 2);
+        Assert.assertTrue(0 < a.fillCount);
+    }
+
+    /** Sink recording its callers, the first write blocks until released. */
+    static class RecordingSink implements AudioSink {
+        final CountDownLatch writing = new CountDownLatch(1);
+        final CountDownLatch stopping = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean stopped;
+        volatile boolean inWrite;
+        volatile boolean closedWhileWriting;
+        volatile boolean usedAfterClose;
+        volatile int closeCount;
+        volatile Thread writer;
+        volatile Thread closer;
+
+        public int getSampleRate() { return 44100; }
+
+        public int awaitBlock() {
+            usedAfterClose |= 0 < closeCount;
+            return stopped ? 0 : 64;
+        }
+
+        public void write(float[] block, int frames) {
+            usedAfterClose |= 0 < closeCount;
+            inWrite = true;
+            writer = Thread.currentThread();
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+            }
+            inWrite = false;
+        }
+
+        public void stop() {
+            stopped = true;
+            stopping.countDown();
+        }
+
+        public void close() {
+            closedWhileWriting |= inWrite;
+            closer = Thread.currentThread();
+            closeCount++;
+        }
+    }
+
+    @Test
+    public void testShutdownWhileWriting() throws InterruptedException {
+        final MixerEngine engine = new MixerEngine();
+        engine.add(new ConstSource(100f, -1, 0, 0, 0));
+        final RecordingSink sink = new RecordingSink();
+        engine.start(sink);
+        Assert.assertTrue(sink.writing.await(5, TimeUnit.SECONDS));
+
+        // shutdown while the mixing thread is blocked in write()
+        final Thread stopper = new Thread("Mixer Stopper") {
+            public void run() {
+                engine.shutdown();
+            }
+        };
+        stopper.start();
+        Assert.assertTrue(sink.stopping.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(0, sink.closeCount);
+        sink.release.countDown();
+        stopper.join(5000);
+        Assert.assertFalse(stopper.isAlive());
+
+        // released once by the mixing thread after its last write
+        Assert.assertEquals(1, sink.closeCount);
+        Assert.assertSame(sink.writer, sink.closer);
+        Assert.assertFalse(sink.closedWhileWriting);
+        Assert.assertFalse(sink.usedAfterClose);
+    }
+
+    public static void main(String args[]) throws IOException {
+        org.junit.runner.JUnitCore.main(TestMixerEngineNOUI.class.getName());
+    }
+}
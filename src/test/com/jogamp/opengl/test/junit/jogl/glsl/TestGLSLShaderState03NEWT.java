@@ -0,0 +1,162 @@
+/**
+ * Copyright 2013 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.glsl;
+
+import com.jogamp.opengl.util.PMVMatrix;
+import com.jogamp.opengl.util.glsl.ShaderCode;
+import com.jogamp.opengl.util.glsl.ShaderProgram;
+import com.jogamp.opengl.util.glsl.ShaderState;
+import com.jogamp.opengl.test.junit.jogl.demos.es2.RedSquareES2;
+import com.jogamp.opengl.test.junit.util.NEWTGLContext;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+
+import java.io.IOException;
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2ES2;
+import javax.media.opengl.GLCapabilities;
+import javax.media.opengl.GLDrawable;
+import javax.media.opengl.GLException;
+import javax.media.opengl.GLProfile;
+import javax.media.opengl.GLUniformData;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Testing the handle based uniform access of {@link ShaderState},
+ * i.e. the cached location lookup, the skipped redundant upload
+ * and the invalidation of cached locations and values after a relink.
+ */
+public class TestGLSLShaderState03NEWT extends UITestCase {
+    static final String pmvName = "mgl_PMVMatrix";
+
+    static ShaderCode createFragmentShader(GL2ES2 gl) {
+        final ShaderCode rsFp = ShaderCode.create(gl, GL2ES2.GL_FRAGMENT_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader", true);
+        rsFp.defaultShaderCustomization(gl, true, ShaderCode.es2_default_precision_fp);
+        return rsFp;
+    }
+
+    static float[] getUniformMatrix(GL2ES2 gl, ShaderProgram sp, int location) {
+        final float[] m = new float[16];
+        gl.glGetUniformfv(sp.program(), location, m, 0);
+        return m;
+    }
+
+    static void assertMatrixEquals(String msg, GLUniformData data, float[] m) {
+        for(int i=0; i<16; i++) {
+            Assert.assertEquals(msg+" ["+i+"]", data.floatBufferValue().get(i), m[i], 0.0001f);
+        }
+    }
+
+    @Test
+    public void testUniformHandles01() throws InterruptedException {
+        final NEWTGLContext.WindowContext winctx = NEWTGLContext.createOnscreenWindow(
+                new GLCapabilities(GLProfile.getGL2ES2()), 480, 480, true);
+        final GLDrawable drawable = winctx.context.getGLDrawable();
+        final GL2ES2 gl = winctx.context.getGL().getGL2ES2();
+        System.err.println(winctx.context);
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        final ShaderState st = new ShaderState();
+        final ShaderCode rsVp = ShaderCode.create(gl, GL2ES2.GL_VERTEX_SHADER, RedSquareES2.class, "shader",
+                "shader/bin", "RedSquareShader", true);
+        rsVp.defaultShaderCustomization(gl, true, ShaderCode.es2_default_precision_vp);
+        final ShaderCode rsFp = createFragmentShader(gl);
+
+        final ShaderProgram sp = new ShaderProgram();
+        sp.add(gl, rsVp, System.err);
+        sp.add(gl, rsFp, System.err);
+        Assert.assertTrue(sp.link(gl, System.err));
+        final int linkCount = sp.linkCount();
+        Assert.assertTrue(0 < linkCount);
+        st.attachShaderProgram(gl, sp, true);
+        Assert.assertTrue(sp.inUse());
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        final PMVMatrix pmvMatrix = new PMVMatrix();
+        pmvMatrix.glMatrixMode(PMVMatrix.GL_PROJECTION);
+        pmvMatrix.glLoadIdentity();
+        pmvMatrix.gluPerspective(45.0F, (float) drawable.getWidth() / (float) drawable.getHeight(), 1.0F, 100.0F);
+        final GLUniformData pmvMatrixUniform = new GLUniformData(pmvName, 4, 4, pmvMatrix.glGetPMvMatrixf());
+
+        // lookup: same name, same handle and data
+        final int h = st.registerUniform(pmvMatrixUniform);
+        Assert.assertTrue(0 <= h);
+        Assert.assertEquals(h, st.registerUniform(pmvMatrixUniform));
+        Assert.assertSame(pmvMatrixUniform, st.getUniform(h));
+        try {
+            st.getUniform(h+1);
+            Assert.fail("invalid handle not rejected");
+        } catch (GLException e) { /* expected */ }
+
+        // first upload resolves and caches the location
+        Assert.assertTrue(st.uniform(gl, h));
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+        final int location = gl.glGetUniformLocation(sp.program(), pmvName);
+        Assert.assertTrue(0 <= location);
+        Assert.assertEquals(location, pmvMatrixUniform.getLocation());
+        Assert.assertEquals(location, st.getCachedUniformLocation(pmvName));
+        assertMatrixEquals("uploaded", pmvMatrixUniform, getUniformMatrix(gl, sp, location));
+
+        // unchanged data is not uploaded again
+        final float[] zero = new float[16];
+        gl.glUniformMatrix4fv(location, 1, false, zero, 0);
+        Assert.assertTrue(st.uniform(gl, h));
+        final float[] m = getUniformMatrix(gl, sp, location);
+        for(int i=0; i<16; i++) {
+            Assert.assertEquals("skipped ["+i+"]", 0f, m[i], 0f);
+        }
+
+        // changed data is uploaded, matrix mode is still GL_PROJECTION
+        pmvMatrix.glTranslatef(0, 0, -10);
+        Assert.assertTrue(st.uniform(gl, h));
+        assertMatrixEquals("changed", pmvMatrixUniform, getUniformMatrix(gl, sp, location));
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        // relink resets the program's uniforms, cached locations and values are invalid
+        Assert.assertTrue(sp.replaceShader(gl, rsFp, createFragmentShader(gl), System.err));
+        Assert.assertTrue(sp.inUse());
+        Assert.assertEquals(linkCount+1, sp.linkCount());
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+        Assert.assertTrue(st.uniform(gl, h));
+        final int relinkedLocation = gl.glGetUniformLocation(sp.program(), pmvName);
+        Assert.assertEquals(relinkedLocation, pmvMatrixUniform.getLocation());
+        Assert.assertEquals(relinkedLocation, st.getCachedUniformLocation(pmvName));
+        assertMatrixEquals("relinked", pmvMatrixUniform, getUniformMatrix(gl, sp, relinkedLocation));
+        Assert.assertEquals(GL.GL_NO_ERROR, gl.glGetError());
+
+        st.destroy(gl);
+        NEWTGLContext.destroyWindow(winctx);
+    }
+
+    public static void main(String args[]) throws IOException {
+        String tstname = TestGLSLShaderState03NEWT.class.getName();
+        org.junit.runner.JUnitCore.main(tstname);
+    }
+}
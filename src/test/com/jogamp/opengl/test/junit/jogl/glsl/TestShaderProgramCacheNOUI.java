@@ -0,0 +1,266 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.glsl;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2ES2;
+import javax.media.opengl.GL2GL3;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jogamp.opengl.test.junit.util.GLStub;
+import com.jogamp.opengl.util.glsl.ShaderCode;
+import com.jogamp.opengl.util.glsl.ShaderProgram;
+import com.jogamp.opengl.util.glsl.ShaderProgramCache;
+
+/**
+ * Validates {@link ShaderProgramCache} using a stub GL recording the issued GL calls.
+ */
+public class TestShaderProgramCacheNOUI {
+
+    /** Stub GL, producing a program binary of <code>64 + program</code> bytes. */
+    static class StubGL extends GLStub {
+        String renderer = "Stub Renderer";
+        boolean acceptBinary = true;
+
+        StubGL() {
+            super(true, true);
+        }
+
+        GL2ES2 create() {
+            return (GL2ES2) createProxy(GL2ES2.class, GL2GL3.class);
+        }
+
+        @Override
+        protected Object call(Object proxy, String name, Object[] args) {
+            if("glGetString".equals(name)) {
+                return GL.GL_RENDERER == ((Integer)args[0]).intValue() ? renderer : "Stub";
+            } else if("glCreateProgram".equals(name)) {
+                return Integer.valueOf(1);
+            } else if("glGetIntegerv".equals(name) && args[1] instanceof int[]) {
+                ((int[])args[1])[((Integer)args[2]).intValue()] = 1;
+            } else if("glGetProgramiv".equals(name) && args[2] instanceof int[]) {
+                final int pname = ((Integer)args[1]).intValue();
+                final int v;
+                if(GL2ES2.GL_PROGRAM_BINARY_LENGTH == pname) {
+                    v = 64 + ((Integer)args[0]).intValue();
+                } else {
+                    v = acceptBinary ? 1 : 0;
+                }
+                ((int[])args[2])[((Integer)args[3]).intValue()] = v;
+            } else if("glGetProgramBinary".equals(name)) {
+                final int length = ((Integer)args[1]).intValue();
+                final ByteBuffer binary = (ByteBuffer) args[6];
+                for(int i=0; i<length; i++) {
+                    binary.put(i, (byte)i);
+                }
+                ((int[])args[2])[((Integer)args[3]).intValue()] = length;
+                ((int[])args[4])[((Integer)args[5]).intValue()] = 0x1234;
+            }
+            return null;
+        }
+    }
+
+    File dir;
+
+    @Before
+    public void setUp() {
+        dir = new File("TestShaderProgramCacheNOUI-"+System.currentTimeMillis());
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = dir.listFiles();
+        if(null != files) {
+            for(int i=0; i<files.length; i++) {
+                files[i].delete();
+            }
+        }
+        dir.delete();
+    }
+
+    static List<ShaderCode> createShaderCode(String fragSource) {
+        return Arrays.asList(new ShaderCode(GL2ES2.GL_VERTEX_SHADER, 1, new CharSequence[][] { { "void main() { gl_Position = vec4(0); }" } }),
+                             new ShaderCode(GL2ES2.GL_FRAGMENT_SHADER, 1, new CharSequence[][] { { fragSource } }));
+    }
+
+    @Test
+    public void testKey() {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        final List<ShaderCode> codes = createShaderCode("void main() { gl_FragColor = vec4(1); }");
+        final Map<String, Integer> attribs = new HashMap<String, Integer>();
+        attribs.put("mgl_Vertex", Integer.valueOf(0));
+
+        final String key = cache.computeKey(gl, codes, attribs);
+        Assert.assertEquals(key, cache.computeKey(gl, Arrays.asList(codes.get(1), codes.get(0)), attribs));
+        Assert.assertFalse(key.equals(cache.computeKey(gl, createShaderCode("void main() { gl_FragColor = vec4(0); }"), attribs)));
+        Assert.assertFalse(key.equals(cache.computeKey(gl, codes, null)));
+        stub.renderer = "Other Renderer";
+        Assert.assertFalse(key.equals(cache.computeKey(gl, codes, attribs)));
+    }
+
+    @Test
+    public void testLinkFromCache() {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        final List<ShaderCode> codes = createShaderCode("void main() { gl_FragColor = vec4(1); }");
+
+        final String key = cache.computeKey(gl, codes, null);
+        Assert.assertFalse(cache.load(gl, 1, key));
+        Assert.assertTrue(cache.store(gl, 1, key));
+        Assert.assertEquals(1, cache.getStoreCount());
+
+        final ShaderProgram sp = new ShaderProgram();
+        sp.setProgramCache(cache);
+        sp.add(codes.get(0));
+        sp.add(codes.get(1));
+        stub.clear();
+        Assert.assertTrue(sp.link(gl, System.err));
+        Assert.assertTrue(sp.linked());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, stub.count("glProgramBinary"));
+        Assert.assertEquals(0, stub.count("glShaderSource"));
+        Assert.assertEquals(0, stub.count("glCompileShader"));
+        Assert.assertEquals(0, stub.count("glLinkProgram"));
+    }
+
+    @Test
+    public void testRejectedBinary() throws IOException {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        final String key = cache.computeKey(gl, createShaderCode("void main() { gl_FragColor = vec4(1); }"), null);
+        Assert.assertTrue(cache.store(gl, 1, key));
+
+        // binary rejected by the driver
+        stub.acceptBinary = false;
+        Assert.assertFalse(cache.load(gl, 1, key));
+        Assert.assertEquals(0, cache.getSize());
+        stub.acceptBinary = true;
+
+        // corrupt entry
+        final FileOutputStream out = new FileOutputStream(new File(dir, key+".bin"));
+        out.write(new byte[] { 1, 2, 3 });
+        out.close();
+        stub.clear();
+        Assert.assertFalse(cache.load(gl, 1, key));
+        Assert.assertEquals(0, stub.count("glProgramBinary"));
+        Assert.assertEquals(0, cache.getSize());
+        Assert.assertEquals(2, cache.getFailureCount());
+    }
+
+    @Test
+    public void testSupportedQueriedOnce() {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        Assert.assertTrue(cache.isSupported(gl));
+        Assert.assertTrue(cache.isSupported(gl));
+        Assert.assertEquals(1, stub.count("glGetIntegerv"));
+        Assert.assertEquals(1, stub.count("glGetError"));
+    }
+
+    @Test
+    public void testRetrievableHint() {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        cache.setRetrievableHint(gl, 3);
+        final int i = stub.getCalls().indexOf("glProgramParameteri");
+        Assert.assertTrue(0 <= i);
+        Assert.assertEquals(Integer.valueOf(3), stub.getArgs().get(i)[0]);
+        Assert.assertEquals(Integer.valueOf(GL2GL3.GL_PROGRAM_BINARY_RETRIEVABLE_HINT), stub.getArgs().get(i)[1]);
+        Assert.assertEquals(Integer.valueOf(GL.GL_TRUE), stub.getArgs().get(i)[2]);
+    }
+
+    @Test
+    public void testConcurrentStore() throws InterruptedException {
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 0);
+        final Thread[] threads = new Thread[4];
+        for(int t=0; t<threads.length; t++) {
+            final int program = 1 + t; // binaries of distinct length
+            threads[t] = new Thread() {
+                public void run() {
+                    final GL2ES2 gl = new StubGL().create();
+                    for(int i=0; i<50; i++) {
+                        cache.store(gl, program, "key");
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for(int t=0; t<threads.length; t++) {
+            threads[t].join();
+        }
+        // each writer used its own temporary file, all of which are gone
+        Assert.assertEquals(Arrays.asList("key.bin"), Arrays.asList(dir.list()));
+        Assert.assertTrue(cache.load(new StubGL().create(), 1, "key"));
+    }
+
+    @Test
+    public void testLimit() {
+        final StubGL stub = new StubGL();
+        final GL2ES2 gl = stub.create();
+        // each entry is 16 bytes header + 64 + program bytes,
+        // modification times are set explicitly instead of waiting for the file time granularity
+        final long t0 = System.currentTimeMillis() - 60000;
+        final ShaderProgramCache cache = new ShaderProgramCache(dir, 200);
+        Assert.assertTrue(cache.store(gl, 1, "k1"));
+        Assert.assertTrue(new File(dir, "k1.bin").setLastModified(t0));
+        Assert.assertTrue(cache.store(gl, 2, "k2"));
+        Assert.assertTrue(new File(dir, "k2.bin").setLastModified(t0 + 10000));
+        Assert.assertTrue(cache.load(gl, 3, "k1")); // k1 becomes most recently used
+        Assert.assertTrue(new File(dir, "k2.bin").lastModified() < new File(dir, "k1.bin").lastModified());
+        Assert.assertTrue(cache.store(gl, 3, "k3"));
+
+        Assert.assertTrue(new File(dir, "k1.bin").exists());
+        Assert.assertFalse(new File(dir, "k2.bin").exists());
+        Assert.assertTrue(new File(dir, "k3.bin").exists());
+        Assert.assertTrue(cache.getSize() <= 200);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestShaderProgramCacheNOUI.class.getName());
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.glu;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.glu.GLU;
+import javax.media.opengl.glu.GLUtessellator;
+import javax.media.opengl.glu.GLUtessellatorCallbackAdapter;
+import javax.media.opengl.glu.GLUtessellatorTriangles;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Validates the bulk {@link GLU#gluTessTriangles(GLUtessellator, double[], int, int[], int, int, GLUtessellatorTriangles)}
+ * output and the <code>GLU_TESS_POOL_STORAGE</code> property, which both need no GL context.
+ * <p>
+ * {@link #testBenchmark()} compares the callback and the bulk path with and without pooling,
+ * use <code>-loops N</code> to tessellate more polygons.
+ * </p>
+ */
+public class TestGluTessTrianglesNOUI {
+    static int loops = 2000;
+
+    /** Collects the triangles of the callback path, plus combined vertices. */
+    static class Collector extends GLUtessellatorCallbackAdapter {
+        final List<double[]> triangles = new ArrayList<double[]>();
+        int type, count;
+        double[] first, prev;
+
+        public void begin(int type) {
+            this.type = type;
+            count = 0;
+        }
+
+        public void vertex(Object data) {
+            final double[] v = (double[]) data;
+            if (count == 0) {
+                first = v;
+            } else if (count >= 2) {
+                if (GL.GL_TRIANGLE_FAN == type) {
+                    triangles.add(new double[] { first[0], first[1], prev[0], prev[1], v[0], v[1] });
+                } else if (GL.GL_TRIANGLE_STRIP == type) {
+                    if (0 == count % 2) {
+                        triangles.add(new double[] { first[0], first[1], prev[0], prev[1], v[0], v[1] });
+                    } else {
+                        triangles.add(new double[] { prev[0], prev[1], first[0], first[1], v[0], v[1] });
+                    }
+                } else if (2 == count % 3) {
+                    triangles.add(new double[] { first[0], first[1], prev[0], prev[1], v[0], v[1] });
+                }
+            }
+            if (GL.GL_TRIANGLES == type) {
+                if (0 == count % 3) {
+                    first = v;
+                }
+            } else if (GL.GL_TRIANGLE_STRIP == type && count >= 1) {
+                first = prev;
+            }
+            prev = v;
+            count++;
+        }
+
+        public void combine(double[] coords, Object[] data, float[] weight, Object[] outData) {
+            outData[0] = new double[] { coords[0], coords[1], coords[2] };
+        }
+    }
+
+    static double area(double x0, double y0, double x1, double y1, double x2, double y2) {
+        return 0.5 * ( (x1 - x0) * (y2 - y0) - (x2 - x0) * (y1 - y0) );
+    }
+
+    static double area(GLUtessellatorTriangles t) {
+        final double[] v = t.getVertices();
+        final int[] idx = t.getIndices();
+        double a = 0;
+        for(int i=0; i<t.getIndexCount(); i+=3) {
+            final int i0 = 3*idx[i], i1 = 3*idx[i+1], i2 = 3*idx[i+2];
+            a += area(v[i0], v[i0+1], v[i1], v[i1+1], v[i2], v[i2+1]);
+        }
+        return a;
+    }
+
+    static double area(List<double[]> triangles) {
+        double a = 0;
+        for(int i=0; i<triangles.size(); i++) {
+            final double[] t = triangles.get(i);
+            a += area(t[0], t[1], t[2], t[3], t[4], t[5]);
+        }
+        return a;
+    }
+
+    static GLUtessellator newTess(boolean pooled) {
+        final GLUtessellator tess = GLU.gluNewTess();
+        GLU.gluTessNormal(tess, 0, 0, 1);
+        GLU.gluTessProperty(tess, GLU.GLU_TESS_POOL_STORAGE, pooled ? 1 : 0);
+        return tess;
+    }
+
+    static void tessellate(GLUtessellator tess, double[] coords, int[] contours) {
+        GLU.gluTessBeginPolygon(tess, null);
+        int v = 0;
+        for(int i=0; i<contours.length; i++) {
+            GLU.gluTessBeginContour(tess);
+            for(int j=0; j<contours[i]; j++, v++) {
+                GLU.gluTessVertex(tess, coords, 3*v, new double[] { coords[3*v], coords[3*v+1], coords[3*v+2] });
+            }
+            GLU.gluTessEndContour(tess);
+        }
+        GLU.gluTessEndPolygon(tess);
+    }
+
+    /** Star shaped outline, optionally with a star shaped hole and self intersections. */
+    static double[] createPolygon(Random rnd, int n, boolean hole, boolean intersecting, int[] contours) {
+        final double[] coords = new double[3 * n * (hole ? 2 : 1)];
+        for(int i=0; i<n; i++) {
+            final double a = 2.0 * Math.PI * i / n;
+            final double r = intersecting ? 0.2 + rnd.nextDouble() : 0.6 + 0.4 * rnd.nextDouble();
+            final double b = intersecting ? a + 3.0 * Math.PI * i / n : a;
+            coords[3*i] = r * Math.cos(b);
+            coords[3*i+1] = r * Math.sin(b);
+            if(hole) {
+                coords[3*(n+i)] = 0.3 * Math.cos(-a);
+                coords[3*(n+i)+1] = 0.3 * Math.sin(-a);
+            }
+        }
+        contours[0] = n;
+        contours[1] = hole ? n : 0;
+        return coords;
+    }
+
+    @Test
+    public void testBulkSquare() {
+        final GLUtessellator tess = newTess(false);
+        final GLUtessellatorTriangles t = new GLUtessellatorTriangles();
+        final double[] square = { 0, 0, 0,  1, 0, 0,  1, 1, 0,  0, 1, 0 };
+        Assert.assertTrue(GLU.gluTessTriangles(tess, square, 0, new int[] { 4 }, 0, 1, t));
+        Assert.assertEquals(4, t.getVertexCount());
+        Assert.assertEquals(2, t.getTriangleCount());
+        Assert.assertEquals(1.0, area(t), 1e-9);
+
+        // with a hole, using the mesh path
+        final double[] holed = { 0, 0, 0,  4, 0, 0,  4, 4, 0,  0, 4, 0,
+                                 1, 1, 0,  1, 3, 0,  3, 3, 0,  3, 1, 0 };
+        Assert.assertTrue(GLU.gluTessTriangles(tess, holed, 0, new int[] { 4, 4 }, 0, 2, t));
+        Assert.assertEquals(8, t.getVertexCount());
+        Assert.assertEquals(8, t.getTriangleCount());
+        Assert.assertEquals(12.0, area(t), 1e-9);
+        GLU.gluDeleteTess(tess);
+    }
+
+    @Test
+    public void testBulkIntersecting() {
+        // bowtie, creating one intersection vertex
+        final GLUtessellator tess = newTess(true);
+        GLU.gluTessProperty(tess, GLU.GLU_TESS_WINDING_RULE, GLU.GLU_TESS_WINDING_NONZERO);
+        final GLUtessellatorTriangles t = new GLUtessellatorTriangles();
+        final double[] bowtie = { 0, 0, 0,  2, 2, 0,  2, 0, 0,  0, 2, 0 };
+        Assert.assertTrue(GLU.gluTessTriangles(tess, bowtie, 0, new int[] { 4 }, 0, 1, t));
+        Assert.assertEquals(5, t.getVertexCount());
+        Assert.assertEquals(1.0, t.getVertices()[3*4], 1e-9);
+        Assert.assertEquals(1.0, t.getVertices()[3*4+1], 1e-9);
+        Assert.assertEquals(2, t.getTriangleCount());
+        Assert.assertEquals(2.0, Math.abs(area(t)), 1e-9);
+    }
+
+    @Test
+    public void testBulkMatchesCallbacks() {
+        final Random rnd = new Random(1);
+        final int[] contours = new int[2];
+        final GLUtessellatorTriangles t = new GLUtessellatorTriangles();
+        for(int k=0; k<2; k++) {
+            final boolean pooled = 1 == k;
+            final GLUtessellator tess = newTess(pooled);
+            final Collector collector = new Collector();
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_BEGIN, collector);
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_VERTEX, collector);
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_COMBINE, collector);
+            for(int i=0; i<200; i++) {
+                final double[] coords = createPolygon(rnd, 5 + i % 20, 0 == i % 3, 0 == i % 4, contours);
+                collector.triangles.clear();
+                tessellate(tess, coords, contours);
+                Assert.assertTrue(GLU.gluTessTriangles(tess, coords, 0, contours, 0, 2, t));
+                Assert.assertEquals("polygon "+i+", pooled "+pooled, collector.triangles.size(), t.getTriangleCount());
+                Assert.assertEquals("polygon "+i+", pooled "+pooled, area(collector.triangles), area(t), 1e-9);
+            }
+            GLU.gluDeleteTess(tess);
+        }
+    }
+
+    @Test
+    public void testPooledMatchesUnpooled() {
+        final Random rnd = new Random(2);
+        final int[] contours = new int[2];
+        final GLUtessellator tess0 = newTess(false);
+        final GLUtessellator tess1 = newTess(true);
+        final GLUtessellatorTriangles t0 = new GLUtessellatorTriangles();
+        final GLUtessellatorTriangles t1 = new GLUtessellatorTriangles();
+        for(int i=0; i<500; i++) {
+            // alternate large and small polygons, so pooled storage is partially reused
+            final double[] coords = createPolygon(rnd, 0 == i % 2 ? 200 : 6, 0 == i % 3, 0 == i % 5, contours);
+            Assert.assertTrue(GLU.gluTessTriangles(tess0, coords, 0, contours, 0, 2, t0));
+            Assert.assertTrue(GLU.gluTessTriangles(tess1, coords, 0, contours, 0, 2, t1));
+            Assert.assertEquals(t0.getVertexCount(), t1.getVertexCount());
+            Assert.assertArrayEquals(Arrays.copyOf(t0.getVertices(), 3*t0.getVertexCount()),
+                                     Arrays.copyOf(t1.getVertices(), 3*t1.getVertexCount()), 0);
+            Assert.assertArrayEquals(Arrays.copyOf(t0.getIndices(), t0.getIndexCount()),
+                                     Arrays.copyOf(t1.getIndices(), t1.getIndexCount()));
+        }
+    }
+
+    @Test
+    public void testBenchmark() {
+        final Random rnd = new Random(3);
+        final int[][] contours = new int[64][2];
+        final double[][] polygons = new double[contours.length][];
+        for(int i=0; i<polygons.length; i++) {
+            polygons[i] = createPolygon(rnd, 8 + i % 24, 0 == i % 2, 0 == i % 8, contours[i]);
+        }
+        final GLUtessellatorTriangles t = new GLUtessellatorTriangles();
+        for(int k=0; k<4; k++) {
+            final boolean pooled = 0 != ( k & 1 );
+            final boolean bulk = 0 != ( k & 2 );
+            final GLUtessellator tess = newTess(pooled);
+            final GLUtessellatorCallbackAdapter sink = new GLUtessellatorCallbackAdapter();
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_BEGIN, sink);
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_VERTEX, sink);
+            GLU.gluTessCallback(tess, GLU.GLU_TESS_COMBINE, new Collector());
+            long triangles = 0;
+            final long t0 = System.nanoTime();
+            for(int i=0; i<loops; i++) {
+                final int j = i % polygons.length;
+                if(bulk) {
+                    GLU.gluTessTriangles(tess, polygons[j], 0, contours[j], 0, 2, t);
+                    triangles += t.getTriangleCount();
+                } else {
+                    tessellate(tess, polygons[j], contours[j]);
+                }
+            }
+            final long dt = System.nanoTime() - t0;
+            System.err.println("Tessellated "+loops+" polygons, bulk "+bulk+", pooled "+pooled+": "+
+                               dt/1000000+" ms, "+(dt/loops)+" ns/polygon, triangles "+triangles);
+            GLU.gluDeleteTess(tess);
+        }
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                loops = Integer.parseInt(args[++i]);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestGluTessTrianglesNOUI.class.getName());
+    }
+}
@@ -0,0 +1,233 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.math;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.media.opengl.fixedfunc.GLMatrixFunc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.math.geom.AABBox;
+import com.jogamp.opengl.math.geom.Frustum;
+import com.jogamp.opengl.util.PMVMatrix;
+
+/**
+ * Validates the bulk culling of {@link Frustum} against the per object calls.
+ * <p>
+ * {@link #testBenchmark()} compares both, use <code>-count N</code> and <code>-loops N</code> for other sizes.
+ * </p>
+ */
+public class TestFrustum01NOUI {
+    static int count = 100000;
+    static int loops = 20;
+
+    static Frustum createFrustum(float angle) {
+        final PMVMatrix pmv = new PMVMatrix();
+        pmv.glMatrixMode(GLMatrixFunc.GL_PROJECTION);
+        pmv.glLoadIdentity();
+        pmv.gluPerspective(45f, 4f/3f, 1f, 100f);
+        pmv.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+        pmv.glLoadIdentity();
+        pmv.glRotatef(angle, 0f, 1f, 0f);
+        pmv.glTranslatef(0f, 0f, -50f);
+        return pmv.glGetFrustum();
+    }
+
+    /** Boxes and spheres within [-100 .. 100], partially overlapping the frustum. */
+    static float[] createBoxes(Random rnd, int n) {
+        final float[] boxes = new float[n*Frustum.AABBOX_FLOATS];
+        for(int i=0; i<n; i++) {
+            final float x = rnd.nextFloat()*200f-100f, y = rnd.nextFloat()*200f-100f, z = rnd.nextFloat()*200f-100f;
+            final int o = i*Frustum.AABBOX_FLOATS;
+            boxes[o+0] = x;
+            boxes[o+1] = y;
+            boxes[o+2] = z;
+            boxes[o+3] = x + rnd.nextFloat()*10f;
+            boxes[o+4] = y + rnd.nextFloat()*10f;
+            boxes[o+5] = z + rnd.nextFloat()*10f;
+        }
+        return boxes;
+    }
+
+    static float[] createSpheres(Random rnd, int n) {
+        final float[] spheres = new float[n*Frustum.SPHERE_FLOATS];
+        for(int i=0; i<n; i++) {
+            final int o = i*Frustum.SPHERE_FLOATS;
+            spheres[o+0] = rnd.nextFloat()*200f-100f;
+            spheres[o+1] = rnd.nextFloat()*200f-100f;
+            spheres[o+2] = rnd.nextFloat()*200f-100f;
+            spheres[o+3] = rnd.nextFloat()*5f;
+        }
+        return spheres;
+    }
+
+    static AABBox[] toAABBoxes(float[] boxes, int n) {
+        final AABBox[] res = new AABBox[n];
+        for(int i=0; i<n; i++) {
+            final int o = i*Frustum.AABBOX_FLOATS;
+            res[i] = new AABBox(boxes[o+0], boxes[o+1], boxes[o+2], boxes[o+3], boxes[o+4], boxes[o+5]);
+        }
+        return res;
+    }
+
+    static boolean isVisible(int[] visible, int i) {
+        return 0 != ( visible[i >>> 5] & ( 1 << ( i & 31 ) ) );
+    }
+
+    static void validateBoxes(Frustum f, AABBox[] boxes, int[] visible, int visCount) {
+        int n = 0;
+        for(int i=0; i<boxes.length; i++) {
+            final boolean vis = !f.isAABBoxOutside(boxes[i]);
+            Assert.assertEquals("box "+i, vis, isVisible(visible, i));
+            if( vis ) { n++; }
+        }
+        Assert.assertEquals(n, visCount);
+        for(int i=boxes.length; i < visible.length * 32; i++) {
+            Assert.assertFalse("bit "+i, isVisible(visible, i));
+        }
+    }
+
+    static void validateSpheres(Frustum f, float[] spheres, int[] visible, int visCount) {
+        int n = 0;
+        final float[] p = new float[3];
+        for(int i=0; i<spheres.length/Frustum.SPHERE_FLOATS; i++) {
+            System.arraycopy(spheres, i*Frustum.SPHERE_FLOATS, p, 0, 3);
+            final boolean vis = !f.isSphereOutside(p, spheres[i*Frustum.SPHERE_FLOATS+3]);
+            Assert.assertEquals("sphere "+i, vis, isVisible(visible, i));
+            if( vis ) { n++; }
+        }
+        Assert.assertEquals(n, visCount);
+    }
+
+    @Test
+    public void testAABBoxes() {
+        final Random rnd = new Random(1);
+        final int n = 1000 + 17;
+        final float[] packed = createBoxes(rnd, n);
+        final AABBox[] boxes = toAABBoxes(packed, n);
+        final int[] visible = new int[(n+31)/32];
+        java.util.Arrays.fill(visible, -1);
+        final byte[] hints = new byte[n];
+        for(int a=0; a<360; a+=15) {
+            final Frustum f = createFrustum(a);
+            validateBoxes(f, boxes, visible, f.cullAABBoxes(packed, 0, n, visible, null, null));
+            validateBoxes(f, boxes, visible, f.cullAABBoxes(packed, 0, n, visible, hints, null));
+        }
+    }
+
+    @Test
+    public void testSpheres() {
+        final Random rnd = new Random(2);
+        final int n = 1000 + 17;
+        final float[] spheres = createSpheres(rnd, n);
+        final int[] visible = new int[(n+31)/32];
+        final byte[] hints = new byte[n];
+        for(int a=0; a<360; a+=15) {
+            final Frustum f = createFrustum(a);
+            validateSpheres(f, spheres, visible, f.cullSpheres(spheres, 0, n, visible, null, null));
+            validateSpheres(f, spheres, visible, f.cullSpheres(spheres, 0, n, visible, hints, null));
+        }
+    }
+
+    @Test
+    public void testParallel() {
+        final Random rnd = new Random(3);
+        final int n = 4 * Frustum.PARALLEL_CHUNK_MIN + 5;
+        final float[] packed = createBoxes(rnd, n);
+        final AABBox[] boxes = toAABBoxes(packed, n);
+        final float[] spheres = createSpheres(rnd, n);
+        final int[] visible = new int[(n+31)/32];
+        final byte[] hints = new byte[n];
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final Frustum f = createFrustum(30f);
+            validateBoxes(f, boxes, visible, f.cullAABBoxes(packed, 0, n, visible, hints, executor));
+            validateSpheres(f, spheres, visible, f.cullSpheres(spheres, 0, n, visible, hints, executor));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testBenchmark() {
+        final Random rnd = new Random(4);
+        final float[] packed = createBoxes(rnd, count);
+        final AABBox[] boxes = toAABBoxes(packed, count);
+        final int[] visible = new int[(count+31)/32];
+        final byte[] hints = new byte[count];
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            for(int k=0; k<3; k++) {
+                int n0 = 0, n1 = 0, n2 = 0, n3 = 0;
+                final long t0 = System.nanoTime();
+                for(int l=0; l<loops; l++) {
+                    final Frustum f = createFrustum(l);
+                    for(int i=0; i<count; i++) {
+                        if( !f.isAABBoxOutside(boxes[i]) ) { n0++; }
+                    }
+                }
+                final long t1 = System.nanoTime();
+                for(int l=0; l<loops; l++) {
+                    n1 += createFrustum(l).cullAABBoxes(packed, 0, count, visible, null, null);
+                }
+                final long t2 = System.nanoTime();
+                for(int l=0; l<loops; l++) {
+                    n2 += createFrustum(l).cullAABBoxes(packed, 0, count, visible, hints, null);
+                }
+                final long t3 = System.nanoTime();
+                for(int l=0; l<loops; l++) {
+                    n3 += createFrustum(l).cullAABBoxes(packed, 0, count, visible, hints, executor);
+                }
+                final long t4 = System.nanoTime();
+                Assert.assertEquals(n0, n1);
+                Assert.assertEquals(n0, n2);
+                Assert.assertEquals(n0, n3);
+                System.err.println("Cull "+count+" boxes x "+loops+": per object "+(t1-t0)/1000000+" ms, bulk "+(t2-t1)/1000000+
+                                   " ms, bulk w/ hints "+(t3-t2)/1000000+" ms, parallel "+(t4-t3)/1000000+" ms");
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-count")) {
+                count = Integer.parseInt(args[++i]);
+            } else if(args[i].equals("-loops")) {
+                loops = Integer.parseInt(args[++i]);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestFrustum01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,214 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.nio.Buffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GL2ES1;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.opengl.test.junit.util.GLStub;
+import com.jogamp.opengl.util.ImmModeSink;
+
+/**
+ * Validates the {@link ImmModeSink} batch mode against a recording GL2ES1 w/o any GL context:
+ * draw call and buffer counts, uploads only after appending vertices, 
+ * balanced client state and indexed drawing of batches w/ different primitive types.
+ */
+public class TestImmModeSinkBatch01NOUI {
+
+    /** Records the GL calls issued by the sink, emulating a GL2ES1 profile w/o GL_QUADS support. */
+    static class RecordingGL extends GLStub {
+        final GL2ES1 gl = (GL2ES1) createProxy(GL2ES1.class);
+        int nextBufferName = 1;
+        int drawCalls = 0;
+        int uploads = 0;
+        int enabledClientStates = 0;
+        /** mode, index position and index count of each glDrawElements call */
+        final List<int[]> drawElements = new ArrayList<int[]>();
+        /** mode, first vertex and vertex count of each glDrawArrays call */
+        final List<int[]> drawArrays = new ArrayList<int[]>();
+
+        @Override
+        protected Object call(Object proxy, String name, Object[] args) {
+            if( name.equals("glGenBuffers") ) {
+                ((int[])args[1])[((Integer)args[2]).intValue()] = nextBufferName++;
+            } else if( name.equals("glBufferData") || name.equals("glBufferSubData") ) {
+                uploads++;
+            } else if( name.equals("glEnableClientState") ) {
+                enabledClientStates++;
+            } else if( name.equals("glDisableClientState") ) {
+                enabledClientStates--;
+            } else if( name.equals("glDrawArrays") ) {
+                drawCalls++;
+                drawArrays.add(new int[] { ((Integer)args[0]).intValue(), ((Integer)args[1]).intValue(), ((Integer)args[2]).intValue() });
+            } else if( name.equals("glDrawElements") && args[3] instanceof Buffer ) {
+                drawCalls++;
+                drawElements.add(new int[] { ((Integer)args[0]).intValue(), ((Buffer)args[3]).position(), ((Integer)args[1]).intValue() });
+            }
+            return null;
+        }
+    }
+
+    static ImmModeSink createSink(boolean batchMode) {
+        final ImmModeSink sink = ImmModeSink.createFixed(16, 3, GL.GL_FLOAT, 0, GL.GL_FLOAT, 0, GL.GL_FLOAT, 0, GL.GL_FLOAT, GL.GL_STATIC_DRAW);
+        sink.setBatchMode(batchMode);
+        return sink;
+    }
+
+    static void addPrimitive(GL gl, ImmModeSink sink, int mode, int vertices) {
+        sink.glBegin(mode);
+        for(int i = 0; i < vertices; i++) {
+            sink.glVertex3f(i, i % 2, 0f);
+        }
+        sink.glEnd(gl, false);
+    }
+
+    @Test
+    public void test01DeferredWithoutBatchMode() {
+        final RecordingGL rec = new RecordingGL();
+        final ImmModeSink sink = createSink(false);
+        for(int i = 0; i < 10; i++) {
+            addPrimitive(rec.gl, sink, GL.GL_TRIANGLES, 3);
+        }
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(10, sink.getDrawCallCount());
+        Assert.assertEquals(10, sink.getBufferCount());
+        Assert.assertEquals(10, rec.uploads);
+        Assert.assertEquals(0, rec.enabledClientStates);
+        sink.destroy(rec.gl);
+    }
+
+    @Test
+    public void test02DeferredBatchMode() {
+        final RecordingGL rec = new RecordingGL();
+        final ImmModeSink sink = createSink(true);
+        for(int i = 0; i < 10; i++) {
+            addPrimitive(rec.gl, sink, GL.GL_TRIANGLES, 3);
+        }
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(1, sink.getDrawCallCount());
+        Assert.assertEquals(1, sink.getBufferCount());
+        Assert.assertEquals(1, rec.uploads);
+        Assert.assertEquals(0, rec.enabledClientStates);
+
+        // unchanged content is not uploaded again
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(2, sink.getDrawCallCount());
+        Assert.assertEquals(1, rec.uploads);
+
+        // an empty primitive does not change the content either
+        sink.glBegin(GL.GL_TRIANGLES);
+        sink.glEnd(rec.gl, false);
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(3, sink.getDrawCallCount());
+        Assert.assertEquals(1, rec.uploads);
+
+        // appended strip: one more draw call, uploaded once
+        addPrimitive(rec.gl, sink, GL.GL_TRIANGLE_STRIP, 4);
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(5, sink.getDrawCallCount());
+        Assert.assertEquals(1, sink.getBufferCount());
+        Assert.assertEquals(2, rec.uploads);
+        Assert.assertEquals(0, rec.enabledClientStates);
+        final int[] strip = rec.drawArrays.get(rec.drawArrays.size()-1);
+        Assert.assertEquals(GL.GL_TRIANGLE_STRIP, strip[0]);
+        Assert.assertEquals(30, strip[1]);
+        Assert.assertEquals(4, strip[2]);
+
+        sink.destroy(rec.gl);
+        Assert.assertEquals(0, rec.enabledClientStates);
+    }
+
+    @Test
+    public void test03ClientStateAfterAppend() {
+        final RecordingGL rec = new RecordingGL();
+        final ImmModeSink sink = createSink(true);
+        addPrimitive(rec.gl, sink, GL.GL_TRIANGLES, 3);
+        sink.draw(rec.gl, false);
+        Assert.assertEquals(1, rec.enabledClientStates);
+
+        // appending to the enabled buffer, disabled before being respecified
+        addPrimitive(rec.gl, sink, GL.GL_TRIANGLES, 3);
+        sink.draw(rec.gl, false);
+        Assert.assertEquals(1, rec.enabledClientStates);
+        Assert.assertEquals(2, rec.uploads);
+        sink.draw(rec.gl, true);
+        Assert.assertEquals(0, rec.enabledClientStates);
+
+        addPrimitive(rec.gl, sink, GL.GL_LINES, 2);
+        sink.draw(rec.gl, false);
+        Assert.assertEquals(1, rec.enabledClientStates);
+        sink.reset(rec.gl);
+        Assert.assertEquals(0, rec.enabledClientStates);
+        sink.destroy(rec.gl);
+    }
+
+    @Test
+    public void test04IndexedBatches() {
+        final RecordingGL rec = new RecordingGL();
+        final ImmModeSink sink = createSink(true);
+        addPrimitive(rec.gl, sink, GL.GL_TRIANGLES, 6); // vertices 0..5
+        addPrimitive(rec.gl, sink, GL.GL_LINES, 4);     // vertices 6..9
+        final ShortBuffer indices = Buffers.newDirectShortBuffer(new short[] { 0, 1, 2, 5, 4, 3, 6, 7, 9, 8 });
+        sink.draw(rec.gl, indices, true);
+        Assert.assertEquals(2, sink.getDrawCallCount());
+        Assert.assertEquals(2, rec.drawElements.size());
+        Assert.assertArrayEquals(new int[] { GL.GL_TRIANGLES, 0, 6 }, rec.drawElements.get(0));
+        Assert.assertArrayEquals(new int[] { GL.GL_LINES, 6, 4 }, rec.drawElements.get(1));
+        Assert.assertEquals(0, indices.position());
+        Assert.assertEquals(0, rec.enabledClientStates);
+        sink.destroy(rec.gl);
+    }
+
+    @Test
+    public void test05MergedQuads() {
+        final RecordingGL rec = new RecordingGL();
+        final ImmModeSink sink = createSink(true);
+        addPrimitive(rec.gl, sink, ImmModeSink.GL_QUADS, 8);
+        addPrimitive(rec.gl, sink, ImmModeSink.GL_QUADS, 4);
+        sink.draw(rec.gl, true);
+        // one merged batch, emulated w/ one triangle fan per quad
+        Assert.assertEquals(3, sink.getDrawCallCount());
+        for(int i = 0; i < 3; i++) {
+            Assert.assertArrayEquals(new int[] { GL.GL_TRIANGLE_FAN, i*4, 4 }, rec.drawArrays.get(i));
+        }
+        sink.destroy(rec.gl);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestImmModeSinkBatch01NOUI.class.getName());
+    }
+}
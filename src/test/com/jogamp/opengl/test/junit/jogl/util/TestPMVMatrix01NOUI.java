@@ -0,0 +1,255 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.fixedfunc.GLMatrixFunc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.math.FloatUtil;
+import com.jogamp.opengl.util.PMVMatrix;
+
+/**
+ * Validates the {@link PMVMatrix} stack storage and its in place translate, rotate and scale
+ * against full 4x4 matrix multiplication.
+ * <p>
+ * {@link #testBenchmark()} compares both against the former list based stack
+ * and full multiplication, use <code>-loops N</code> for more iterations.
+ * </p>
+ */
+public class TestPMVMatrix01NOUI {
+    static int loops = 200000;
+    static final int[] modes = { GLMatrixFunc.GL_MODELVIEW, GLMatrixFunc.GL_PROJECTION, GL.GL_TEXTURE };
+
+    /** Former implementation: list based stack and full multiplication. */
+    static class Reference {
+        final float[] m = new float[16];
+        final List<float[]> stack = new ArrayList<float[]>();
+        final float[] tmp = new float[16];
+        final float[] op = new float[16];
+
+        Reference() {
+            FloatUtil.makeIdentityf(m, 0);
+        }
+
+        void push() {
+            final float[] e = new float[16];
+            System.arraycopy(m, 0, e, 0, 16);
+            stack.add(0, e);
+        }
+
+        void pop() {
+            System.arraycopy(stack.remove(0), 0, m, 0, 16);
+        }
+
+        void mult() {
+            FloatUtil.multMatrixf(m, 0, op, 0, tmp, 0);
+            System.arraycopy(tmp, 0, m, 0, 16);
+        }
+
+        void translate(float x, float y, float z) {
+            FloatUtil.makeIdentityf(op, 0);
+            op[12] = x; op[13] = y; op[14] = z;
+            mult();
+        }
+
+        void scale(float x, float y, float z) {
+            FloatUtil.makeIdentityf(op, 0);
+            op[0] = x; op[5] = y; op[10] = z;
+            mult();
+        }
+
+        void rotate(float angdeg, float x, float y, float z) {
+            final PMVMatrix r = new PMVMatrix();
+            r.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+            r.glLoadIdentity();
+            r.glRotatef(angdeg, x, y, z); // identity * R == R
+            r.glGetMvMatrixf().get(op);
+            mult();
+        }
+    }
+
+    static void assertEquals(float[] expected, FloatBuffer actual) {
+        for(int i=0; i<16; i++) {
+            Assert.assertEquals("element "+i, expected[i], actual.get(i), 0f);
+        }
+    }
+
+    static void apply(Random rnd, PMVMatrix pmv, Reference ref) {
+        final float x = rnd.nextFloat()*4f-2f, y = rnd.nextFloat()*4f-2f, z = rnd.nextFloat()*4f-2f;
+        switch(rnd.nextInt(3)) {
+            case 0:
+                pmv.glTranslatef(x, y, z);
+                ref.translate(x, y, z);
+                break;
+            case 1:
+                pmv.glScalef(x, y, z);
+                ref.scale(x, y, z);
+                break;
+            default:
+                final float a = rnd.nextFloat()*360f;
+                pmv.glRotatef(a, x, y, z);
+                ref.rotate(a, x, y, z);
+        }
+    }
+
+    @Test
+    public void testAffine() {
+        for(int k=0; k<2; k++) {
+            final PMVMatrix pmv = new PMVMatrix(0==k);
+            for(int j=0; j<modes.length; j++) {
+                final Random rnd = new Random(j);
+                final Reference ref = new Reference();
+                pmv.glMatrixMode(modes[j]);
+                pmv.glLoadIdentity();
+                for(int i=0; i<100; i++) {
+                    apply(rnd, pmv, ref);
+                    assertEquals(ref.m, pmv.glGetMatrixf());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testModifiedBits() {
+        final PMVMatrix pmv = new PMVMatrix();
+        pmv.update();
+        pmv.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+        pmv.glTranslatef(1, 2, 3);
+        Assert.assertEquals(PMVMatrix.MODIFIED_MODELVIEW, pmv.getModifiedBits(true));
+        pmv.glMatrixMode(GLMatrixFunc.GL_PROJECTION);
+        pmv.glScalef(1, 2, 3);
+        Assert.assertEquals(PMVMatrix.MODIFIED_PROJECTION, pmv.getModifiedBits(true));
+        pmv.glMatrixMode(GL.GL_TEXTURE);
+        pmv.glRotatef(45, 0, 0, 1);
+        Assert.assertEquals(PMVMatrix.MODIFIED_TEXTURE, pmv.getModifiedBits(true));
+    }
+
+    @Test
+    public void testStack() {
+        final PMVMatrix pmv = new PMVMatrix();
+        for(int j=0; j<modes.length; j++) {
+            final Random rnd = new Random(j);
+            final Reference ref = new Reference();
+            pmv.glMatrixMode(modes[j]);
+            pmv.glLoadIdentity();
+            // exceeds the preallocated depth
+            final int depth = 2 * PMVMatrix.MODELVIEW_STACK_DEPTH + 1;
+            for(int i=0; i<depth; i++) {
+                pmv.glPushMatrix();
+                ref.push();
+                apply(rnd, pmv, ref);
+            }
+            for(int i=0; i<depth; i++) {
+                assertEquals(ref.m, pmv.glGetMatrixf());
+                pmv.glPopMatrix();
+                ref.pop();
+            }
+            assertEquals(ref.m, pmv.glGetMatrixf());
+            try {
+                pmv.glPopMatrix();
+                Assert.assertTrue("stack underflow not detected", false);
+            } catch (IndexOutOfBoundsException e) { }
+            pmv.glPushMatrix();
+            pmv.glPopMatrix();
+        }
+    }
+
+    /** Former push, allocating a stack entry. */
+    static void legacyPush(PMVMatrix pmv, List<float[]> stack) {
+        final float[] e = new float[16];
+        pmv.glGetMatrixf().get(e);
+        pmv.glGetMatrixf().reset();
+        stack.add(0, e);
+    }
+
+    /** Former translate, multiplying with a full matrix. */
+    static void legacyTranslate(PMVMatrix pmv, float[] m, float x, float y, float z) {
+        m[12] = x; m[13] = y; m[14] = z;
+        pmv.glMultMatrixf(m, 0);
+    }
+
+    /** Former scale, multiplying with a full matrix. */
+    static void legacyScale(PMVMatrix pmv, float[] m, float x, float y, float z) {
+        m[0] = x; m[5] = y; m[10] = z;
+        pmv.glMultMatrixf(m, 0);
+    }
+
+    @Test
+    public void testBenchmark() {
+        final PMVMatrix pmv = new PMVMatrix();
+        pmv.glMatrixMode(GLMatrixFunc.GL_MODELVIEW);
+        final List<float[]> stack = new ArrayList<float[]>();
+        final float[] trans = new float[16];
+        final float[] scale = new float[16];
+        FloatUtil.makeIdentityf(trans, 0);
+        FloatUtil.makeIdentityf(scale, 0);
+        for(int k=0; k<3; k++) {
+            pmv.glLoadIdentity();
+            final long t0 = System.nanoTime();
+            for(int i=0; i<loops; i++) {
+                pmv.glPushMatrix();
+                pmv.glTranslatef(1f, 2f, 3f);
+                pmv.glScalef(0.5f, 0.5f, 0.5f);
+                pmv.glPushMatrix();
+                pmv.glTranslatef(-1f, 0f, 1f);
+                pmv.glPopMatrix();
+                pmv.glPopMatrix();
+            }
+            final long t1 = System.nanoTime();
+            for(int i=0; i<loops; i++) {
+                legacyPush(pmv, stack);
+                legacyTranslate(pmv, trans, 1f, 2f, 3f);
+                legacyScale(pmv, scale, 0.5f, 0.5f, 0.5f);
+                legacyPush(pmv, stack);
+                legacyTranslate(pmv, trans, -1f, 0f, 1f);
+                pmv.glLoadMatrixf(stack.remove(0), 0);
+                pmv.glLoadMatrixf(stack.remove(0), 0);
+            }
+            final long t2 = System.nanoTime();
+            System.err.println("Push/translate/scale/pop "+loops+" loops: PMVMatrix "+(t1-t0)/1000000+" ms, former "+(t2-t1)/1000000+" ms");
+        }
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                loops = Integer.parseInt(args[++i]);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestPMVMatrix01NOUI.class.getName());
+    }
+}
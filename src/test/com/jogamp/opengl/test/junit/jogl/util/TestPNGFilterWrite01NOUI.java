@@ -0,0 +1,139 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+import jogamp.opengl.util.pngj.FilterType;
+import jogamp.opengl.util.pngj.ImageInfo;
+import jogamp.opengl.util.pngj.ImageLine;
+import jogamp.opengl.util.pngj.PngReader;
+import jogamp.opengl.util.pngj.PngWriter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Round trip of the PNG writer filter strategies, esp. {@link FilterType#FILTER_ADAPTIVE_FAST},
+ * validating the decoded pixels and the per-image filter and deflate counters.
+ */
+public class TestPNGFilterWrite01NOUI {
+    static final int width = 211, height = 97;
+
+    /** Gradients w/ some noise, so every filter type wins on some rows. */
+    static int[][] createRows(int channels) {
+        final Random rnd = new Random(4711);
+        final int[][] rows = new int[height][width * channels];
+        for(int y = 0; y < height; y++) {
+            for(int x = 0; x < width; x++) {
+                for(int c = 0; c < channels; c++) {
+                    final int v;
+                    switch( ( y / 16 ) % 3 ) {
+                        case 0:  v = x * ( c + 1 ); break;
+                        case 1:  v = y * 2 + c * 40; break;
+                        default: v = x + y + rnd.nextInt(4); break;
+                    }
+                    rows[y][x * channels + c] = v & 0xff;
+                }
+            }
+        }
+        return rows;
+    }
+
+    static PngWriter encode(ImageInfo imi, int[][] rows, FilterType filterType, int threads, ByteArrayOutputStream out) {
+        final PngWriter png = new PngWriter(out, imi);
+        png.setFilterType(filterType);
+        if( 0 < threads ) {
+            png.setParallelMode(threads, 16);
+        }
+        for(int y = 0; y < height; y++) {
+            png.writeRow(rows[y], y);
+        }
+        png.end();
+        return png;
+    }
+
+    static void assertDecodesTo(byte[] png, int[][] rows) {
+        final PngReader pngr = new PngReader(new ByteArrayInputStream(png), null);
+        Assert.assertEquals(width, pngr.imgInfo.cols);
+        Assert.assertEquals(height, pngr.imgInfo.rows);
+        for(int y = 0; y < height; y++) {
+            final ImageLine line = pngr.readRow(y);
+            for(int i = 0; i < rows[y].length; i++) {
+                Assert.assertEquals("row "+y+", sample "+i, rows[y][i], line.scanline[i]);
+            }
+        }
+        pngr.end();
+    }
+
+    void testRoundTrip(int channels, FilterType filterType, int threads) {
+        final ImageInfo imi = new ImageInfo(width, height, 8, 4 == channels);
+        final int[][] rows = createRows(channels);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final PngWriter png = encode(imi, rows, filterType, threads, out);
+        System.err.println(filterType+", channels "+channels+", threads "+threads+": "+out.size()+" bytes, filter "+
+                           png.getFilterTimeNanos()/1000+" us, deflate "+png.getDeflateTimeNanos()/1000+" us, tested rows "+
+                           png.getFilterTestedRows());
+        assertDecodesTo(out.toByteArray(), rows);
+        Assert.assertTrue(0 < png.getFilterTimeNanos());
+        Assert.assertTrue(0 < png.getDeflateTimeNanos());
+        if( FilterType.FILTER_ADAPTIVE_FAST == filterType ) {
+            // every 4th row at least, plus the rows following a filter change
+            Assert.assertTrue(( height + 3 ) / 4 <= png.getFilterTestedRows());
+            Assert.assertTrue(height >= png.getFilterTestedRows());
+        }
+    }
+
+    @Test
+    public void testAdaptiveFastRGB() {
+        testRoundTrip(3, FilterType.FILTER_ADAPTIVE_FAST, 0);
+    }
+
+    @Test
+    public void testAdaptiveFastRGBA() {
+        testRoundTrip(4, FilterType.FILTER_ADAPTIVE_FAST, 0);
+    }
+
+    @Test
+    public void testAdaptiveFastParallel() {
+        testRoundTrip(4, FilterType.FILTER_ADAPTIVE_FAST, 3);
+    }
+
+    @Test
+    public void testDefaultAndAggressive() {
+        testRoundTrip(3, FilterType.FILTER_DEFAULT, 0);
+        testRoundTrip(3, FilterType.FILTER_AGGRESSIVE, 0);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestPNGFilterWrite01NOUI.class.getName());
+    }
+}
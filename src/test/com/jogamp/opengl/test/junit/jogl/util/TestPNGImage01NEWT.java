@@ -35,6 +35,19 @@ public class TestPNGImage01NEWT extends UITestCase {
         }                
     }
     
+    @Test
+    public void testPNGParallelWriteAndCompare() throws InterruptedException, IOException, MalformedURLException {
+        final File out1_f=new File(getSimpleTestName(".")+"-PNGImageTest1.png");
+        final String url_s="jogl/util/data/av/test-ntsc01-160x90.png";
+        URLConnection urlConn = IOUtil.getResource(url_s, this.getClass().getClassLoader());
+        PNGImage image0 = PNGImage.read(urlConn.getInputStream());
+        image0.setWriteParallelism(4, 7); // odd stripe size, last stripe is shorter
+        image0.write(out1_f, true);
+        {
+            Assert.assertEquals(image0.getData(), PNGImage.read(IOUtil.toURL(out1_f).openStream()).getData());
+        }
+    }
+    
     public static void main(String args[]) {
         org.junit.runner.JUnitCore.main(TestPNGImage01NEWT.class.getName());
     }
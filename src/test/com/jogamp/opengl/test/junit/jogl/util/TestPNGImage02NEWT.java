@@ -0,0 +1,118 @@
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+
+import jogamp.opengl.util.pngj.ImageLine;
+import jogamp.opengl.util.pngj.PngReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.spi.PNGImage;
+
+/**
+ * Validates the direct-to-ByteBuffer PNG decode path against the former int[] scanline path
+ * and compares their throughput.
+ */
+public class TestPNGImage02NEWT extends UITestCase {
+    static int loops = 50;
+
+    static byte[] readResource(String url_s) throws IOException {
+        final URLConnection urlConn = IOUtil.getResource(url_s, TestPNGImage02NEWT.class.getClassLoader());
+        Assert.assertNotNull(urlConn);
+        return IOUtil.copyStream2ByteArray(urlConn.getInputStream());
+    }
+
+    /** The former decode loop of PNGImage: int[] scanline and a per byte put, flipped to GL coords. */
+    static ByteBuffer readIntScanline(InputStream in) {
+        final PngReader pngr = new PngReader(in, null);
+        final int bpp = pngr.imgInfo.bytesPixel;
+        final int width = pngr.imgInfo.cols;
+        final int height = pngr.imgInfo.rows;
+        final ByteBuffer data = Buffers.newDirectByteBuffer(bpp * width * height);
+        int dataOff = bpp * width * height - 1;
+        for (int row = 0; row < height; row++) {
+            final ImageLine l1 = pngr.readRow(row);
+            for (int lineOff = width * bpp - 1; lineOff >= 0; lineOff--) {
+                data.put(dataOff--, (byte)l1.scanline[lineOff]);
+            }
+        }
+        pngr.end();
+        return data;
+    }
+
+    @Test
+    public void testDirectDecodeEqualsScanline() throws IOException {
+        final byte[] png = readResource("jogl/util/data/av/test-ntsc01-160x90.png");
+        final ByteBuffer expected = readIntScanline(new ByteArrayInputStream(png));
+        final PNGImage image = PNGImage.read(new ByteArrayInputStream(png));
+        System.err.println("PNGImage: "+image);
+        Assert.assertEquals(expected, image.getData());
+    }
+
+    @Test
+    public void testDirectDecodePooledBufferAndReversedChannels() throws IOException {
+        final byte[] png = readResource("jogl/util/data/av/test-ntsc01-160x90.png");
+        final ByteBuffer expected = readIntScanline(new ByteArrayInputStream(png));
+        final int offset = 16;
+        final ByteBuffer pool = Buffers.newDirectByteBuffer(offset + expected.capacity());
+        pool.position(offset);
+        final PNGImage image = PNGImage.read(new ByteArrayInputStream(png), pool, true);
+        Assert.assertSame(pool, image.getData());
+        Assert.assertEquals(offset, pool.position());
+        final int bpp = image.getBytesPerPixel();
+        Assert.assertEquals(bpp > 1, image.getHasReversedChannels());
+        for(int i = 0; i < expected.capacity(); i+=bpp) {
+            if( bpp > 1 ) {
+                Assert.assertEquals(expected.get(i    ), pool.get(offset + i + 2));
+                Assert.assertEquals(expected.get(i + 1), pool.get(offset + i + 1));
+                Assert.assertEquals(expected.get(i + 2), pool.get(offset + i    ));
+                if( 4 == bpp ) {
+                    Assert.assertEquals(expected.get(i + 3), pool.get(offset + i + 3));
+                }
+            } else {
+                Assert.assertEquals(expected.get(i), pool.get(offset + i));
+            }
+        }
+    }
+
+    @Test
+    public void testDecodePerf() throws IOException {
+        final byte[] png = readResource("jogl/util/data/av/test-ntsc01-160x90.png");
+        // warm up
+        for(int i = 0; i < loops; i++) {
+            readIntScanline(new ByteArrayInputStream(png));
+            PNGImage.read(new ByteArrayInputStream(png));
+        }
+        long t0 = System.nanoTime();
+        for(int i = 0; i < loops; i++) {
+            readIntScanline(new ByteArrayInputStream(png));
+        }
+        final long tScanline = System.nanoTime() - t0;
+        final ByteBuffer pool = Buffers.newDirectByteBuffer(PNGImage.read(new ByteArrayInputStream(png)).getData().capacity());
+        t0 = System.nanoTime();
+        for(int i = 0; i < loops; i++) {
+            PNGImage.read(new ByteArrayInputStream(png), pool, false);
+        }
+        final long tDirect = System.nanoTime() - t0;
+        System.err.println("PNG decode "+loops+" loops: int[] scanline "+(tScanline/1000000.0)+" ms, direct "+(tDirect/1000000.0)+" ms");
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestPNGImage02NEWT.class.getName());
+    }
+}
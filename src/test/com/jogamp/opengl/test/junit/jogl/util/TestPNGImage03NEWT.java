@@ -0,0 +1,340 @@
+package com.jogamp.opengl.test.junit.jogl.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.DeflaterOutputStream;
+
+import javax.media.opengl.GL;
+import javax.media.opengl.GLProfile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.spi.PNGImage;
+
+/**
+ * Validates decoding of interlaced, indexed, low bit depth, tRNS and 16 bit PNG images by {@link PNGImage}.
+ * <p>
+ * The images are encoded by this test from random samples, cycling through all filter types,
+ * and compared against the samples expanded as documented.
+ * </p>
+ */
+public class TestPNGImage03NEWT extends UITestCase {
+    static int loops = 20;
+
+    static final int GRAY = 0, RGB = 2, INDEXED = 3, GRAY_ALPHA = 4, RGBA = 6;
+    static final int[][] ADAM7 = { { 0, 0, 8, 8 }, { 4, 0, 8, 8 }, { 0, 4, 4, 8 }, { 2, 0, 4, 4 },
+                                   { 0, 2, 2, 4 }, { 1, 0, 2, 2 }, { 0, 1, 1, 2 } };
+
+    /** A PNG image of random samples */
+    static class Image {
+        final int width, height, colorType, bitDepth, channels;
+        final int[] samples; // width * height * channels, top-to-bottom
+        byte[] plte = null;
+        byte[] trns = null;
+        int[] trnsColor = null;
+
+        Image(Random rnd, int width, int height, int colorType, int bitDepth) {
+            this.width = width;
+            this.height = height;
+            this.colorType = colorType;
+            this.bitDepth = bitDepth;
+            switch(colorType) {
+                case GRAY: case INDEXED: channels = 1; break;
+                case GRAY_ALPHA: channels = 2; break;
+                case RGB: channels = 3; break;
+                default: channels = 4;
+            }
+            final int max = INDEXED == colorType ? ( 1 << bitDepth ) - 2 : ( 1 << bitDepth ) - 1; // one unused palette entry
+            samples = new int[width * height * channels];
+            for(int i=0; i<samples.length; i++) {
+                samples[i] = rnd.nextInt(max + 1);
+            }
+            if( INDEXED == colorType ) {
+                plte = new byte[3 * ( max + 1 )];
+                rnd.nextBytes(plte);
+            }
+        }
+
+        /** Adds a tRNS chunk, using the samples of the first pixel as transparent color. */
+        Image setTransparency(Random rnd) {
+            if( INDEXED == colorType ) {
+                trns = new byte[plte.length / 3 / 2]; // remaining entries are opaque
+                rnd.nextBytes(trns);
+            } else {
+                trnsColor = new int[channels];
+                System.arraycopy(samples, 0, trnsColor, 0, channels);
+                trns = new byte[2 * channels];
+                for(int c=0; c<channels; c++) {
+                    trns[2*c] = (byte) ( trnsColor[c] >> 8 );
+                    trns[2*c+1] = (byte) trnsColor[c];
+                }
+            }
+            return this;
+        }
+
+        int bytesPerRow(int cols) {
+            return ( cols * channels * bitDepth + 7 ) / 8;
+        }
+
+        /** Packs the given row of samples, starting with the pixel x0 and stepping by dx */
+        void packRow(int y, int x0, int dx, byte[] row) {
+            java.util.Arrays.fill(row, (byte)0);
+            int bit = 0;
+            for(int x = x0; x < width; x += dx) {
+                for(int c = 0; c < channels; c++) {
+                    final int v = samples[( y * width + x ) * channels + c];
+                    if( 16 == bitDepth ) {
+                        row[bit >> 3] = (byte) ( v >> 8 );
+                        row[( bit >> 3 ) + 1] = (byte) v;
+                    } else {
+                        row[bit >> 3] |= (byte) ( v << ( 8 - bitDepth - ( bit & 7 ) ) );
+                    }
+                    bit += bitDepth;
+                }
+            }
+        }
+
+        byte[] encode(boolean interlaced) throws IOException {
+            final ByteArrayOutputStream idat = new ByteArrayOutputStream();
+            final DeflaterOutputStream zout = new DeflaterOutputStream(idat);
+            final int bpp = Math.max(1, channels * bitDepth / 8);
+            int filter = 0;
+            for(int p = 0; p < ( interlaced ? 7 : 1 ); p++) {
+                final int x0 = interlaced ? ADAM7[p][0] : 0, y0 = interlaced ? ADAM7[p][1] : 0;
+                final int dx = interlaced ? ADAM7[p][2] : 1, dy = interlaced ? ADAM7[p][3] : 1;
+                final int cols = ( width - x0 + dx - 1 ) / dx;
+                if( 0 >= cols || y0 >= height ) {
+                    continue;
+                }
+                final int n = bytesPerRow(cols);
+                byte[] prev = new byte[n];
+                byte[] row = new byte[n];
+                for(int y = y0; y < height; y += dy) {
+                    packRow(y, x0, dx, row);
+                    zout.write(filter);
+                    for(int i=0; i<n; i++) {
+                        final int a = i >= bpp ? row[i-bpp] & 0xff : 0;
+                        final int b = prev[i] & 0xff;
+                        final int c = i >= bpp ? prev[i-bpp] & 0xff : 0;
+                        final int pred;
+                        switch(filter) {
+                            case 1: pred = a; break;
+                            case 2: pred = b; break;
+                            case 3: pred = ( a + b ) / 2; break;
+                            case 4: {
+                                final int pa = Math.abs(b - c), pb = Math.abs(a - c), pc = Math.abs(a + b - 2 * c);
+                                pred = pa <= pb && pa <= pc ? a : ( pb <= pc ? b : c );
+                                break;
+                            }
+                            default: pred = 0;
+                        }
+                        zout.write(( row[i] - pred ) & 0xff);
+                    }
+                    final byte[] tmp = prev; prev = row; row = tmp;
+                    filter = ( filter + 1 ) % 5;
+                }
+            }
+            zout.close();
+
+            final ByteArrayOutputStream png = new ByteArrayOutputStream();
+            png.write(new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x0d, 0x0a, 0x1a, 0x0a });
+            final ByteArrayOutputStream ihdr = new ByteArrayOutputStream();
+            writeInt(ihdr, width);
+            writeInt(ihdr, height);
+            ihdr.write(bitDepth);
+            ihdr.write(colorType);
+            ihdr.write(0);
+            ihdr.write(0);
+            ihdr.write(interlaced ? 1 : 0);
+            writeChunk(png, "IHDR", ihdr.toByteArray());
+            if( null != plte ) {
+                writeChunk(png, "PLTE", plte);
+            }
+            if( null != trns ) {
+                writeChunk(png, "tRNS", trns);
+            }
+            writeChunk(png, "IDAT", idat.toByteArray());
+            writeChunk(png, "IEND", new byte[0]);
+            return png.toByteArray();
+        }
+
+        /** The samples as expanded by PNGImage, bottom-to-top */
+        ByteBuffer expected(boolean keep16Bits) {
+            final boolean wide = 16 == bitDepth && keep16Bits;
+            final int outChannels = INDEXED == colorType ? ( null != trns ? 4 : 3 ) : channels + ( null != trnsColor ? 1 : 0 );
+            final ByteBuffer res = ByteBuffer.allocate(width * height * outChannels * ( wide ? 2 : 1 )).order(ByteOrder.nativeOrder());
+            for(int y = height - 1; y >= 0; y--) {
+                for(int x = 0; x < width; x++) {
+                    final int s = ( y * width + x ) * channels;
+                    if( INDEXED == colorType ) {
+                        final int idx = samples[s];
+                        res.put(plte, idx * 3, 3);
+                        if( null != trns ) {
+                            res.put(idx < trns.length ? trns[idx] : (byte) 0xff);
+                        }
+                        continue;
+                    }
+                    boolean transparent = null != trnsColor;
+                    for(int c = 0; c < channels; c++) {
+                        final int v = samples[s + c];
+                        transparent &= null != trnsColor && v == trnsColor[c];
+                        if( wide ) {
+                            res.putShort((short) v);
+                        } else if( 16 == bitDepth ) {
+                            res.put((byte) ( v >> 8 ));
+                        } else {
+                            res.put((byte) ( v * 255 / ( ( 1 << bitDepth ) - 1 ) ));
+                        }
+                    }
+                    if( null != trnsColor ) {
+                        if( wide ) {
+                            res.putShort((short) ( transparent ? 0 : 0xffff ));
+                        } else {
+                            res.put((byte) ( transparent ? 0 : 0xff ));
+                        }
+                    }
+                }
+            }
+            res.flip();
+            return res;
+        }
+
+        public String toString() {
+            return "Image["+width+"x"+height+", colorType "+colorType+", bitDepth "+bitDepth+", tRNS "+(null != trns)+"]";
+        }
+    }
+
+    static void writeInt(ByteArrayOutputStream out, int v) {
+        out.write(v >>> 24);
+        out.write(v >>> 16);
+        out.write(v >>> 8);
+        out.write(v);
+    }
+
+    static void writeChunk(ByteArrayOutputStream out, String id, byte[] data) throws IOException {
+        final byte[] idb = id.getBytes("US-ASCII");
+        writeInt(out, data.length);
+        out.write(idb);
+        out.write(data);
+        final CRC32 crc = new CRC32();
+        crc.update(idb);
+        crc.update(data);
+        writeInt(out, (int) crc.getValue());
+    }
+
+    /** ES profile, if available, requiring internalformat == format */
+    static final GLProfile glpES = GLProfile.isAvailable(GLProfile.GLES2) ? GLProfile.get(GLProfile.GLES2) : null;
+
+    static void validate(Image img, boolean keep16Bits, int glFormat) throws IOException {
+        for(int k = 0; k < 2; k++) {
+            final boolean interlaced = 1 == k;
+            final PNGImage image = PNGImage.read(new ByteArrayInputStream(img.encode(interlaced)), null, false, keep16Bits);
+            final String msg = img+", interlaced "+interlaced+", keep16Bits "+keep16Bits+": "+image;
+            Assert.assertEquals(msg, img.width, image.getWidth());
+            Assert.assertEquals(msg, img.height, image.getHeight());
+            Assert.assertEquals(msg, glFormat, image.getGLFormat());
+            if( null != glpES ) {
+                Assert.assertEquals(msg, glFormat, image.getGLInternalFormat(glpES));
+            }
+            Assert.assertEquals(msg, 16 == img.bitDepth && keep16Bits ? GL.GL_UNSIGNED_SHORT : GL.GL_UNSIGNED_BYTE, image.getGLType());
+            Assert.assertEquals(msg, img.expected(keep16Bits), image.getData());
+        }
+    }
+
+    static final int[][] sizes = { { 1, 1 }, { 3, 5 }, { 8, 8 }, { 17, 13 }, { 33, 1 }, { 1, 9 } };
+
+    @Test
+    public void testInterlacedTrueColor() throws IOException {
+        final Random rnd = new Random(1);
+        for(int i = 0; i < sizes.length; i++) {
+            validate(new Image(rnd, sizes[i][0], sizes[i][1], RGB, 8), false, GL.GL_RGB);
+            validate(new Image(rnd, sizes[i][0], sizes[i][1], RGBA, 8), false, GL.GL_RGBA);
+        }
+    }
+
+    @Test
+    public void testGray() throws IOException {
+        final Random rnd = new Random(2);
+        final int[] bitDepths = { 1, 2, 4, 8 };
+        for(int i = 0; i < sizes.length; i++) {
+            for(int j = 0; j < bitDepths.length; j++) {
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], GRAY, bitDepths[j]), false, GL.GL_LUMINANCE);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], GRAY, bitDepths[j]).setTransparency(rnd), false, GL.GL_LUMINANCE_ALPHA);
+            }
+            validate(new Image(rnd, sizes[i][0], sizes[i][1], GRAY_ALPHA, 8), false, GL.GL_LUMINANCE_ALPHA);
+        }
+    }
+
+    @Test
+    public void testIndexed() throws IOException {
+        final Random rnd = new Random(3);
+        final int[] bitDepths = { 1, 2, 4, 8 };
+        for(int i = 0; i < sizes.length; i++) {
+            for(int j = 0; j < bitDepths.length; j++) {
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], INDEXED, bitDepths[j]), false, GL.GL_RGB);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], INDEXED, bitDepths[j]).setTransparency(rnd), false, GL.GL_RGBA);
+            }
+        }
+    }
+
+    @Test
+    public void test16Bits() throws IOException {
+        final Random rnd = new Random(4);
+        for(int i = 0; i < sizes.length; i++) {
+            for(int k = 0; k < 2; k++) {
+                final boolean keep16Bits = 1 == k;
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], RGB, 16), keep16Bits, GL.GL_RGB);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], RGB, 16).setTransparency(rnd), keep16Bits, GL.GL_RGBA);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], RGBA, 16), keep16Bits, GL.GL_RGBA);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], GRAY, 16), keep16Bits, GL.GL_LUMINANCE);
+                validate(new Image(rnd, sizes[i][0], sizes[i][1], GRAY_ALPHA, 16), keep16Bits, GL.GL_LUMINANCE_ALPHA);
+            }
+        }
+    }
+
+    @Test
+    public void testDecodePerf() throws IOException {
+        final Random rnd = new Random(5);
+        final Image[] images = { new Image(rnd, 512, 512, RGBA, 8), new Image(rnd, 512, 512, RGB, 8),
+                                 new Image(rnd, 512, 512, INDEXED, 8).setTransparency(rnd),
+                                 new Image(rnd, 512, 512, GRAY, 4), new Image(rnd, 512, 512, GRAY, 8).setTransparency(rnd),
+                                 new Image(rnd, 512, 512, GRAY_ALPHA, 8),
+                                 new Image(rnd, 512, 512, RGBA, 16), new Image(rnd, 512, 512, RGBA, 16) };
+        final boolean[] keep16Bits = { false, false, false, false, false, false, false, true };
+        for(int i = 0; i < images.length; i++) {
+            for(int k = 0; k < 2; k++) {
+                final boolean interlaced = 1 == k;
+                final byte[] png = images[i].encode(interlaced);
+                for(int l = 0; l < loops; l++) { // warm up
+                    PNGImage.read(new ByteArrayInputStream(png), null, false, keep16Bits[i]);
+                }
+                final long t0 = System.nanoTime();
+                for(int l = 0; l < loops; l++) {
+                    PNGImage.read(new ByteArrayInputStream(png), null, false, keep16Bits[i]);
+                }
+                final long dt = System.nanoTime() - t0;
+                final double mpixels = (double) loops * images[i].width * images[i].height / 1000000.0;
+                System.err.println("PNG decode "+images[i]+", interlaced "+interlaced+", keep16Bits "+keep16Bits[i]+": "+(dt/1000000/loops)+" ms/image, "+
+                                   (int)(mpixels / ( dt / 1000000000.0 ))+" Mpixel/s");
+            }
+        }
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                i++;
+                loops = MiscUtils.atoi(args[i], loops);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestPNGImage03NEWT.class.getName());
+    }
+}
@@ -0,0 +1,309 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util.av;
+
+import java.io.IOException;
+import java.net.URL;
+
+import javax.media.opengl.GL;
+
+import jogamp.opengl.util.av.NullGLMediaPlayer;
+import jogamp.opengl.util.av.TextureFrameQueue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.opengl.test.junit.util.GLStub;
+import com.jogamp.opengl.util.av.GLMediaPlayer;
+import com.jogamp.opengl.util.texture.TextureSequence.TextureFrame;
+
+/**
+ * Validates the decoder thread's {@link TextureFrameQueue} and the presentation clock of
+ * <code>GLMediaPlayerImpl</code> using a synthetic frame source based on {@link NullGLMediaPlayer},
+ * a stub GL and a manually advanced clock.
+ */
+public class TestGLMediaPlayerDecoderNOUI {
+
+    /** Stub GL w/o context, generating texture names. */
+    static class StubGL extends GLStub {
+        int nextName = 1;
+
+        GL create() {
+            return (GL) createProxy(GL.class);
+        }
+
+        @Override
+        protected Object call(Object proxy, String name, Object[] args) {
+            if("glGenTextures".equals(name)) {
+                final int n = ((Integer)args[0]).intValue();
+                final int[] names = (int[]) args[1];
+                final int off = ((Integer)args[2]).intValue();
+                for(int i=0; i<n; i++) {
+                    names[off+i] = nextName++;
+                }
+            }
+            return null;
+        }
+    }
+
+    /** Synthetic 25 fps source w/ a manually advanced presentation clock time base. */
+    static class SyntheticMediaPlayer extends NullGLMediaPlayer {
+        volatile long clockMillis = 1000;
+
+        SyntheticMediaPlayer(int textureCount) {
+            super(textureCount);
+        }
+
+        @Override
+        protected long getClockMillis() {
+            return clockMillis;
+        }
+
+        @Override
+        protected void initGLStreamImpl(GL gl, int[] texNames) throws IOException {
+            width = 160;
+            height = 90;
+            fps = 25f;
+            duration = 10*1000;
+            totalFrames = (int) ( (duration/1000)*fps );
+            vcodec = "synthetic";
+        }
+    }
+
+    static TextureFrame[] createFrames(int n) {
+        final TextureFrame[] frames = new TextureFrame[n];
+        for(int i=0; i<n; i++) {
+            frames[i] = new TextureFrame(null);
+        }
+        return frames;
+    }
+
+    static void decode(TextureFrameQueue q, int pts) throws InterruptedException {
+        final TextureFrame f = q.takeFree(0);
+        f.setPTS(pts);
+        q.putDecoded(f);
+    }
+
+    static void waitForDecoded(TextureFrameQueue q, int count) throws InterruptedException {
+        final long t1 = System.currentTimeMillis() + 5000;
+        while( q.getDecodedCount() < count && System.currentTimeMillis() < t1 ) {
+            Thread.sleep(5);
+        }
+        Assert.assertEquals("Decoded frames, "+q, count, q.getDecodedCount());
+    }
+
+    @Test
+    public void testQueuePick() throws InterruptedException {
+        final TextureFrameQueue q = new TextureFrameQueue(createFrames(4));
+        Assert.assertEquals(TextureFrame.INVALID_PTS, q.getNextPTS());
+        decode(q, 0);
+        decode(q, 40);
+        decode(q, 80);
+        Assert.assertEquals(0, q.getNextPTS());
+
+        Assert.assertNull(q.pick(-1));
+        Assert.assertNull(q.getCurrent());
+
+        // frame 0 is late
+        TextureFrame f = q.pick(50);
+        Assert.assertEquals(40, f.getPTS());
+        Assert.assertSame(f, q.getCurrent());
+        Assert.assertEquals(1, q.getDroppedCount());
+        Assert.assertEquals(1, q.getDecodedCount());
+
+        // no frame due, current is kept
+        Assert.assertNull(q.pick(79));
+        Assert.assertSame(f, q.getCurrent());
+
+        final TextureFrame f40 = f;
+        f = q.pick(80);
+        Assert.assertEquals(80, f.getPTS());
+        Assert.assertSame(f40, q.getPrevious());
+        Assert.assertEquals(1, q.getDroppedCount());
+        Assert.assertEquals(2, q.getPresentedCount());
+
+        // all but the current and the previous frame are free again
+        Assert.assertNotNull(q.takeFree(0));
+        Assert.assertNotNull(q.takeFree(0));
+        Assert.assertNull(q.takeFree(10));
+    }
+
+    @Test
+    public void testQueuePreviousFrameHeld() throws InterruptedException {
+        final TextureFrameQueue q = new TextureFrameQueue(createFrames(4));
+        decode(q, 0);
+        decode(q, 40);
+        decode(q, 80);
+        final TextureFrame f0 = q.pick(0);
+        final TextureFrame f1 = q.pick(40);
+        Assert.assertSame(f0, q.getPrevious());
+        Assert.assertSame(f1, q.getCurrent());
+
+        // the previous frame may still be sampled by draw commands issued before the last pick
+        final TextureFrame f3 = q.takeFree(0);
+        Assert.assertNotSame(f0, f3);
+        Assert.assertNotSame(f1, f3);
+        Assert.assertNull(q.takeFree(10));
+        q.putFree(f3);
+
+        // the frame picked two picks ago is freed by the next pick
+        final TextureFrame f2 = q.pick(80);
+        Assert.assertSame(f1, q.getPrevious());
+        Assert.assertSame(f2, q.getCurrent());
+        Assert.assertSame(f0, q.takeFree(0));
+        Assert.assertSame(f3, q.takeFree(0));
+        Assert.assertNull(q.takeFree(10));
+
+        // flush keeps the current and the previous frame
+        f0.setPTS(120);
+        q.putDecoded(f0);
+        q.flush();
+        Assert.assertSame(f0, q.takeFree(0));
+        Assert.assertNull(q.takeFree(10));
+    }
+
+    @Test
+    public void testQueueFlushAndClose() throws InterruptedException {
+        final TextureFrameQueue q = new TextureFrameQueue(createFrames(2));
+        decode(q, 0);
+        decode(q, 40);
+        Assert.assertNull(q.takeFree(10));
+        q.flush();
+        Assert.assertEquals(0, q.getDecodedCount());
+        Assert.assertEquals(0, q.getDroppedCount());
+
+        final TextureFrame f = q.takeFree(0);
+        Assert.assertNotNull(f);
+        Assert.assertNotNull(q.takeFree(0));
+
+        // close releases a blocked producer
+        final Thread closer = new Thread() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) { }
+                q.close();
+            }
+        };
+        closer.start();
+        Assert.assertNull(q.takeFree(0));
+        closer.join();
+        Assert.assertTrue(q.isClosed());
+    }
+
+    @Test
+    public void testPresentationClock() throws IOException, InterruptedException {
+        final GL gl = new StubGL().create();
+        // render thread holds the current and the previous frame, 3 are decoded ahead
+        final SyntheticMediaPlayer mp = new SyntheticMediaPlayer(5);
+        Assert.assertEquals(GLMediaPlayer.State.Stopped, mp.initGLStream(gl, new URL("file:synthetic.null").openConnection()));
+        Assert.assertTrue(mp.usesDecoderThread());
+        final TextureFrameQueue q = mp.getFrameQueue();
+        Assert.assertEquals(5, q.getCapacity());
+        Assert.assertEquals(GLMediaPlayer.State.Playing, mp.start());
+
+        // clock starts w/ the first decoded frame
+        waitForDecoded(q, 5);
+        TextureFrame f = mp.getNextTexture(gl, false);
+        Assert.assertEquals(0, f.getPTS());
+        Assert.assertNotNull(f.getTexture());
+        Assert.assertEquals(0, mp.getCurrentPosition());
+
+        mp.clockMillis += 50;
+        f = mp.getNextTexture(gl, false);
+        Assert.assertEquals(40, f.getPTS());
+        Assert.assertEquals(0, q.getDroppedCount());
+
+        // frames 80 and 120 are late
+        waitForDecoded(q, 3);
+        mp.clockMillis += 120;
+        f = mp.getNextTexture(gl, false);
+        Assert.assertEquals(160, f.getPTS());
+        Assert.assertEquals(2, q.getDroppedCount());
+        Assert.assertEquals(160, mp.getCurrentPosition());
+
+        // next frame not due yet, last frame is repeated
+        waitForDecoded(q, 3);
+        Assert.assertSame(f, mp.getNextTexture(gl, false));
+        final long t0 = System.currentTimeMillis();
+        Assert.assertSame(f, mp.getNextTexture(gl, true));
+        Assert.assertTrue(System.currentTimeMillis() - t0 < 1000);
+        Assert.assertEquals(3, q.getPresentedCount());
+
+        // clock halts while paused
+        Assert.assertEquals(GLMediaPlayer.State.Paused, mp.pause());
+        mp.clockMillis += 1000;
+        Assert.assertSame(f, mp.getNextTexture(gl, false));
+        Assert.assertEquals(GLMediaPlayer.State.Playing, mp.start());
+        mp.clockMillis += 40;
+        f = mp.getNextTexture(gl, false);
+        Assert.assertEquals(200, f.getPTS());
+        Assert.assertEquals(2, q.getDroppedCount());
+
+        // seek restarts the clock w/ the first decoded frame
+        Assert.assertEquals(1000, mp.seek(1000));
+        waitForDecoded(q, 3);
+        f = mp.getNextTexture(gl, false);
+        Assert.assertEquals(1000, f.getPTS());
+        mp.clockMillis += 40;
+        Assert.assertEquals(1040, mp.getNextTexture(gl, false).getPTS());
+
+        Assert.assertEquals(GLMediaPlayer.State.Stopped, mp.stop());
+        Assert.assertEquals(0, q.getDecodedCount());
+        Assert.assertEquals(GLMediaPlayer.State.Uninitialized, mp.destroy(gl));
+        Assert.assertFalse(mp.usesDecoderThread());
+        Assert.assertTrue(q.isClosed());
+    }
+
+    @Test
+    public void testTwoTextures() throws IOException {
+        // too few textures to hold the current and the previous frame while decoding ahead
+        final GL gl = new StubGL().create();
+        final SyntheticMediaPlayer mp = new SyntheticMediaPlayer(2);
+        mp.initGLStream(gl, new URL("file:synthetic.null").openConnection());
+        Assert.assertFalse(mp.usesDecoderThread());
+        mp.destroy(gl);
+    }
+
+    @Test
+    public void testSingleTexture() throws IOException {
+        final GL gl = new StubGL().create();
+        final SyntheticMediaPlayer mp = new SyntheticMediaPlayer(1);
+        mp.initGLStream(gl, new URL("file:synthetic.null").openConnection());
+        Assert.assertFalse(mp.usesDecoderThread());
+        Assert.assertNull(mp.getFrameQueue());
+        mp.start();
+        Assert.assertSame(mp.getLastTexture(), mp.getNextTexture(gl, false));
+        mp.destroy(gl);
+    }
+
+    public static void main(String args[]) throws IOException {
+        org.junit.runner.JUnitCore.main(TestGLMediaPlayerDecoderNOUI.class.getName());
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ * 
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ * 
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ * 
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+ 
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.spi.DDSImage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Validates the zero-copy mipmap slices of memory-mapped DDS files
+ * and the sharing of one mapping between images of the same file.
+ */
+public class TestDDSImage01 extends UITestCase {
+
+    static ByteBuffer[] createDXT5MipMaps(int width, int height, int levels) {
+        final ByteBuffer[] mipmaps = new ByteBuffer[levels];
+        for(int i=0; i<levels; i++) {
+            final int size = Math.max(1, (width>>i)/4) * Math.max(1, (height>>i)/4) * 16;
+            mipmaps[i] = ByteBuffer.allocate(size);
+            for(int j=0; j<size; j++) {
+                mipmaps[i].put(j, (byte)(i*31 + j));
+            }
+        }
+        return mipmaps;
+    }
+
+    @Test
+    public void testSharedMappingAndMipMapSlices() throws IOException {
+        final ByteBuffer[] mipmaps = createDXT5MipMaps(16, 16, 3);
+        final File file = File.createTempFile("TestDDSImage01", ".dds");
+        file.deleteOnExit();
+        DDSImage.createFromData(DDSImage.D3DFMT_DXT5, 16, 16, mipmaps).write(file);
+
+        final int mappings = DDSImage.getSharedMappingCount();
+        final DDSImage image1 = DDSImage.read(file);
+        final DDSImage image2 = DDSImage.read(file);
+        Assert.assertEquals(mappings+1, DDSImage.getSharedMappingCount());
+        Assert.assertEquals(3, image1.getNumMipMaps());
+
+        for(int i=0; i<mipmaps.length; i++) {
+            final ByteBuffer slice = image2.getMipMapData(0, i);
+            Assert.assertEquals(mipmaps[i].capacity(), slice.remaining());
+            Assert.assertEquals(mipmaps[i], slice);
+            Assert.assertEquals(slice, image1.getMipMap(i).getData());
+        }
+
+        image1.close();
+        Assert.assertEquals(mappings+1, DDSImage.getSharedMappingCount());
+        image2.close();
+        Assert.assertEquals(mappings, DDSImage.getSharedMappingCount());
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestDDSImage01.class.getName());
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+
+import javax.media.opengl.GLProfile;
+
+import com.jogamp.common.nio.Buffers;
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.texture.TextureBandReader;
+import com.jogamp.opengl.util.texture.TextureData;
+import com.jogamp.opengl.util.texture.TextureIO;
+import com.jogamp.opengl.util.texture.spi.PNGImage;
+import com.jogamp.opengl.util.texture.spi.TGAImage;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Validates the band-wise {@link TextureBandReader} against a full image read,
+ * for PNG and bottom-to-top and top-to-bottom TGA files and various band sizes.
+ */
+public class TestTextureBandReader01 extends UITestCase {
+
+    /** Reads all bands and places them at their band-y, returns the assembled image in OpenGL order. */
+    static ByteBuffer readBands(TextureBandReader reader, int bandRows) throws IOException {
+        final int bytesPerRow = reader.getBytesPerRow();
+        final ByteBuffer image = Buffers.newDirectByteBuffer(bytesPerRow * reader.getHeight());
+        int rows = 0;
+        try {
+            while( reader.hasMoreBands() ) {
+                final TextureData band = reader.nextBand(bandRows);
+                Assert.assertEquals(reader.getWidth(), band.getWidth());
+                Assert.assertTrue(bandRows >= band.getHeight());
+                final ByteBuffer data = (ByteBuffer) band.getBuffer();
+                Assert.assertEquals(band.getHeight() * bytesPerRow, data.remaining());
+                image.position(reader.getBandY() * bytesPerRow);
+                image.put(data);
+                rows += band.getHeight();
+            }
+        } finally {
+            reader.close();
+        }
+        Assert.assertEquals(reader.getHeight(), rows);
+        Assert.assertNull(reader.nextBand(bandRows));
+        image.clear();
+        return image;
+    }
+
+    static byte[] readResource(String url_s) throws IOException {
+        final URLConnection urlConn = IOUtil.getResource(url_s, TestTextureBandReader01.class.getClassLoader());
+        Assert.assertNotNull(urlConn);
+        return IOUtil.copyStream2ByteArray(urlConn.getInputStream());
+    }
+
+    static void assertEquals(ByteBuffer expected, ByteBuffer has) {
+        Assert.assertEquals(expected.remaining(), has.remaining());
+        for(int i=0; i<expected.remaining(); i++) {
+            Assert.assertEquals("byte "+i, expected.get(expected.position()+i), has.get(has.position()+i));
+        }
+    }
+
+    @Test
+    public void testPNGBands() throws IOException {
+        final GLProfile glp = GLProfile.getDefault();
+        final byte[] png = readResource("jogl/util/data/av/test-ntsc01-160x90.png");
+        final PNGImage image = PNGImage.read(new ByteArrayInputStream(png));
+        final int[] bandRows = { 1, 7, 32, image.getHeight(), image.getHeight() + 5 };
+        for(int i=0; i<bandRows.length; i++) {
+            final TextureBandReader reader = TextureIO.newTextureBandReader(glp, new ByteArrayInputStream(png), 0, 0, TextureIO.PNG);
+            Assert.assertEquals(image.getWidth(), reader.getWidth());
+            Assert.assertEquals(image.getHeight(), reader.getHeight());
+            Assert.assertEquals(image.getGLFormat(), reader.getTextureData().getPixelFormat());
+            assertEquals(image.getData(), readBands(reader, bandRows[i]));
+        }
+    }
+
+    static File writeTGA(int width, int height, boolean hasAlpha, boolean topToBottom) throws IOException {
+        final int bpp = hasAlpha ? 4 : 3;
+        final ByteBuffer data = Buffers.newDirectByteBuffer(width * height * bpp);
+        for(int i=0; i<data.capacity(); i++) {
+            data.put(i, (byte) ( i * 7 + i / ( width * bpp ) ));
+        }
+        final File file = File.createTempFile("TestTextureBandReader01", ".tga");
+        file.deleteOnExit();
+        TGAImage.createFromData(width, height, hasAlpha, topToBottom, data).write(file);
+        return file;
+    }
+
+    void testTGABands(boolean hasAlpha, boolean topToBottom) throws IOException {
+        final GLProfile glp = GLProfile.getDefault();
+        final File file = writeTGA(37, 29, hasAlpha, topToBottom);
+        final ByteBuffer expected;
+        {
+            final FileInputStream in = new FileInputStream(file);
+            try {
+                expected = TGAImage.read(glp, in).getData();
+            } finally {
+                in.close();
+            }
+        }
+        final int[] bandRows = { 1, 4, 29, 64 };
+        for(int i=0; i<bandRows.length; i++) {
+            final TextureBandReader reader = TextureIO.newTextureBandReader(glp, file, 0, 0, null);
+            assertEquals(expected, readBands(reader, bandRows[i]));
+        }
+    }
+
+    @Test
+    public void testTGABandsBottomToTop() throws IOException {
+        testTGABands(false, false);
+        testTGABands(true, false);
+    }
+
+    @Test
+    public void testTGABandsTopToBottom() throws IOException {
+        testTGABands(false, true);
+        testTGABands(true, true);
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestTextureBandReader01.class.getName());
+    }
+}
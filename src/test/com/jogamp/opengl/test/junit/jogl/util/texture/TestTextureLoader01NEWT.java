@@ -0,0 +1,205 @@
+/**
+ * Copyright 2012 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+
+package com.jogamp.opengl.test.junit.jogl.util.texture;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.media.opengl.GLAutoDrawable;
+import javax.media.opengl.GLCapabilities;
+import javax.media.opengl.GLEventListener;
+import javax.media.opengl.GLProfile;
+
+import com.jogamp.common.util.IOUtil;
+import com.jogamp.newt.opengl.GLWindow;
+import com.jogamp.opengl.test.junit.util.UITestCase;
+import com.jogamp.opengl.util.Animator;
+import com.jogamp.opengl.util.texture.Texture;
+import com.jogamp.opengl.util.texture.TextureIO;
+import com.jogamp.opengl.util.texture.TextureLoader;
+
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Validates the asynchronous {@link TextureLoader}: decoding and upload w/ and w/o animator,
+ * the per frame upload budget and the cancellation of unfinished requests on dispose.
+ */
+public class TestTextureLoader01NEWT extends UITestCase {
+    static final long timeoutMS = 10000;
+    static byte[] png;
+
+    @BeforeClass
+    public static void initClass() throws IOException {
+        final URLConnection urlConn = IOUtil.getResource("jogl/util/data/av/test-ntsc01-160x90.png", TestTextureLoader01NEWT.class.getClassLoader());
+        Assert.assertNotNull(urlConn);
+        png = IOUtil.copyStream2ByteArray(urlConn.getInputStream());
+    }
+
+    /** Counts frames, i.e. display calls. */
+    static class FrameCounter implements GLEventListener {
+        volatile int frames = 0;
+        public void init(GLAutoDrawable drawable) {}
+        public void dispose(GLAutoDrawable drawable) {}
+        public void display(GLAutoDrawable drawable) { frames++; }
+        public void reshape(GLAutoDrawable drawable, int x, int y, int width, int height) {}
+    }
+
+    /** Records the frame of each upload. */
+    static class FrameRecorder implements TextureLoader.Listener {
+        final FrameCounter counter;
+        final List<Integer> uploadFrames = new ArrayList<Integer>();
+        volatile Throwable failure = null;
+        FrameRecorder(FrameCounter counter) { this.counter = counter; }
+        public synchronized void textureLoaded(GLAutoDrawable drawable, TextureLoader.Request request, Texture texture) {
+            uploadFrames.add(Integer.valueOf(counter.frames));
+        }
+        public void textureFailed(TextureLoader.Request request, Throwable cause) {
+            failure = cause;
+        }
+    }
+
+    static GLWindow createWindow(FrameCounter counter) {
+        final GLCapabilities caps = new GLCapabilities(GLProfile.getDefault());
+        final GLWindow glad = GLWindow.create(caps);
+        glad.setTitle("TestTextureLoader01NEWT");
+        glad.setSize(160, 90);
+        glad.addGLEventListener(counter);
+        glad.setVisible(true);
+        Assert.assertTrue(glad.isRealized());
+        return glad;
+    }
+
+    TextureLoader.Request[] loadAll(TextureLoader loader, int count, TextureLoader.Listener listener) {
+        final TextureLoader.Request[] requests = new TextureLoader.Request[count];
+        for(int i=0; i<count; i++) {
+            requests[i] = loader.load(new ByteArrayInputStream(png), false, TextureIO.PNG, 0, listener);
+        }
+        return requests;
+    }
+
+    @Test
+    public void testAsyncLoadWithAnimatorBudget() throws InterruptedException, ExecutionException, TimeoutException {
+        final FrameCounter counter = new FrameCounter();
+        final GLWindow glad = createWindow(counter);
+        final Animator animator = new Animator(glad);
+        animator.start();
+        // 1ns budget: exactly one upload per frame
+        final TextureLoader loader = new TextureLoader(glad, 2, 1L);
+        final FrameRecorder recorder = new FrameRecorder(counter);
+        try {
+            final TextureLoader.Request[] requests = loadAll(loader, 6, recorder);
+            for(int i=0; i<requests.length; i++) {
+                final Texture tex = requests[i].get(timeoutMS, TimeUnit.MILLISECONDS);
+                Assert.assertNotNull(tex);
+                Assert.assertEquals(160, tex.getImageWidth());
+                Assert.assertEquals(90, tex.getImageHeight());
+            }
+            Assert.assertNull(recorder.failure);
+            Assert.assertEquals(0, loader.getPendingDecodes());
+            Assert.assertEquals(0, loader.getPendingUploads());
+            synchronized(recorder) {
+                System.err.println("Upload frames: "+recorder.uploadFrames);
+                Assert.assertEquals(requests.length, recorder.uploadFrames.size());
+                for(int i=1; i<recorder.uploadFrames.size(); i++) {
+                    Assert.assertTrue("two uploads in one frame: "+recorder.uploadFrames,
+                                      recorder.uploadFrames.get(i-1).intValue() < recorder.uploadFrames.get(i).intValue());
+                }
+            }
+        } finally {
+            loader.dispose();
+            animator.stop();
+            glad.destroy();
+        }
+    }
+
+    @Test
+    public void testAsyncLoadWithoutAnimator() throws InterruptedException, ExecutionException, TimeoutException {
+        final FrameCounter counter = new FrameCounter();
+        final GLWindow glad = createWindow(counter);
+        final TextureLoader loader = new TextureLoader(glad, 2, 1L);
+        try {
+            final TextureLoader.Request[] requests = loadAll(loader, 3, null);
+            for(int i=0; i<requests.length; i++) {
+                Assert.assertNotNull(requests[i].get(timeoutMS, TimeUnit.MILLISECONDS));
+                Assert.assertTrue(requests[i].isDone());
+            }
+            // uploads were driven by display calls of the loader itself
+            Assert.assertTrue(requests.length <= counter.frames);
+        } finally {
+            loader.dispose();
+            glad.destroy();
+        }
+    }
+
+    @Test
+    public void testDisposeCancelsUnfinished() throws InterruptedException, ExecutionException {
+        final FrameCounter counter = new FrameCounter();
+        final GLWindow glad = createWindow(counter);
+        final TextureLoader loader = new TextureLoader(glad, 1, 1L);
+        try {
+            final TextureLoader.Request[] requests = loadAll(loader, 16, null);
+            loader.dispose();
+            Assert.assertTrue(loader.isDisposed());
+            int cancelled = 0;
+            for(int i=0; i<requests.length; i++) {
+                try {
+                    Assert.assertNotNull(requests[i].get(timeoutMS, TimeUnit.MILLISECONDS));
+                } catch (CancellationException ce) {
+                    Assert.assertTrue(requests[i].isCancelled());
+                    cancelled++;
+                } catch (TimeoutException te) {
+                    Assert.fail("Request not finished after dispose: "+requests[i]);
+                }
+            }
+            System.err.println("Cancelled "+cancelled+" of "+requests.length);
+            Assert.assertTrue(0 < cancelled);
+            try {
+                loader.load(new ByteArrayInputStream(png), false, TextureIO.PNG, 0, null);
+                Assert.fail("Request accepted after dispose");
+            } catch (IllegalStateException ise) {
+                // expected
+            }
+        } finally {
+            glad.destroy();
+        }
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestTextureLoader01NEWT.class.getName());
+    }
+}
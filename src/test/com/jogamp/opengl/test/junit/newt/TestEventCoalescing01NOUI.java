@@ -0,0 +1,244 @@
+/**
+ * Copyright 2013 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.newt;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.media.nativewindow.DefaultGraphicsDevice;
+import javax.media.nativewindow.NativeWindowFactory;
+
+import jogamp.newt.DisplayImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.newt.event.InputEvent;
+import com.jogamp.newt.event.MouseEvent;
+import com.jogamp.newt.event.NEWTEvent;
+import com.jogamp.newt.event.NEWTEventConsumer;
+import com.jogamp.newt.event.WindowEvent;
+import com.jogamp.newt.util.EDTUtil;
+
+/**
+ * Validates the coalescing of queued mouse-move and resize events by {@link DisplayImpl#dispatchMessages()},
+ * using a native-less display whose EDT is the test thread.
+ */
+public class TestEventCoalescing01NOUI {
+
+    /** EDT stub, the thread creating it is the EDT. */
+    static class TestEDT implements EDTUtil {
+        final Thread edt = Thread.currentThread();
+        public long getPollPeriod() { return 0; }
+        public void setPollPeriod(long ms) { }
+        public void reset() { }
+        public boolean isCurrentThreadEDT() { return Thread.currentThread() == edt; }
+        public boolean isCurrentThreadNEDT() { return false; }
+        public boolean isCurrentThreadEDTorNEDT() { return isCurrentThreadEDT(); }
+        public boolean isRunning() { return true; }
+        public void invokeStop(Runnable finalTask) { }
+        public void invoke(boolean wait, Runnable task) { task.run(); }
+        public void waitUntilIdle() { }
+        public void waitUntilStopped() { }
+    }
+
+    /** Display w/o native resources, events are dispatched by the test thread. */
+    static class TestDisplay extends DisplayImpl {
+        TestDisplay() {
+            edtUtil = new TestEDT();
+            refCount = 1;
+            aDevice = new DefaultGraphicsDevice(NativeWindowFactory.TYPE_DEFAULT, "TestEventCoalescing01NOUI", 0, 0, null);
+            setEventCoalescing(true);
+        }
+        protected void createNativeImpl() { }
+        protected void closeNativeImpl() { }
+        protected void dispatchMessagesNative() { }
+    }
+
+    /** Event source recording all delivered events. */
+    static class Consumer implements NEWTEventConsumer {
+        final List<NEWTEvent> events = new ArrayList<NEWTEvent>();
+        public synchronized boolean consumeEvent(NEWTEvent event) {
+            events.add(event);
+            return true;
+        }
+    }
+
+    static MouseEvent move(Object source, int modifiers, int x) {
+        return new MouseEvent(MouseEvent.EVENT_MOUSE_MOVED, source, System.currentTimeMillis(), modifiers, x, 0, 0, 0, 0);
+    }
+
+    static WindowEvent resize(Object source) {
+        return new WindowEvent(WindowEvent.EVENT_WINDOW_RESIZED, source, System.currentTimeMillis());
+    }
+
+    static void assertDelivered(List<NEWTEvent> expected, Consumer consumer) {
+        Assert.assertEquals(expected.size(), consumer.events.size());
+        for(int i=0; i<expected.size(); i++) {
+            Assert.assertSame("event "+i, expected.get(i), consumer.events.get(i));
+        }
+        consumer.events.clear();
+    }
+
+    @Test
+    public void testConsecutiveMoves() {
+        final TestDisplay display = new TestDisplay();
+        final Consumer src = new Consumer();
+        MouseEvent last = null;
+        for(int i=0; i<5; i++) {
+            last = move(src, 0, i);
+            display.enqueueEvent(false, last);
+        }
+        display.dispatchMessages();
+        final List<NEWTEvent> expected = new ArrayList<NEWTEvent>();
+        expected.add(last);
+        assertDelivered(expected, src);
+        Assert.assertEquals(4, display.getCoalescedEventCount());
+    }
+
+    @Test
+    public void testConsecutiveResizes() {
+        final TestDisplay display = new TestDisplay();
+        final Consumer src = new Consumer();
+        final Consumer src2 = new Consumer();
+        final List<NEWTEvent> expected = new ArrayList<NEWTEvent>();
+        final List<NEWTEvent> expected2 = new ArrayList<NEWTEvent>();
+        display.enqueueEvent(false, resize(src));
+        display.enqueueEvent(false, resize(src));
+        NEWTEvent e = resize(src);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        // different source in between
+        e = resize(src2);
+        display.enqueueEvent(false, e);
+        expected2.add(e);
+        e = resize(src);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        display.dispatchMessages();
+        assertDelivered(expected, src);
+        assertDelivered(expected2, src2);
+        Assert.assertEquals(2, display.getCoalescedEventCount());
+    }
+
+    @Test
+    public void testInterruptedSequence() {
+        final TestDisplay display = new TestDisplay();
+        final Consumer src = new Consumer();
+        final Consumer src2 = new Consumer();
+        final List<NEWTEvent> expected = new ArrayList<NEWTEvent>();
+        final List<NEWTEvent> expected2 = new ArrayList<NEWTEvent>();
+        NEWTEvent e;
+
+        display.enqueueEvent(false, move(src, 0, 0));
+        e = move(src, 0, 1);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        // different source
+        e = move(src2, 0, 2);
+        display.enqueueEvent(false, e);
+        expected2.add(e);
+        e = move(src, 0, 3);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        // different modifiers
+        display.enqueueEvent(false, move(src, InputEvent.SHIFT_MASK, 4));
+        e = move(src, InputEvent.SHIFT_MASK, 5);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        // different type
+        e = new MouseEvent(MouseEvent.EVENT_MOUSE_PRESSED, src, System.currentTimeMillis(), 0, 6, 0, 1, 1, 0);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        e = move(src, 0, 7);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        e = resize(src);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+        e = move(src, 0, 8);
+        display.enqueueEvent(false, e);
+        expected.add(e);
+
+        display.dispatchMessages();
+        assertDelivered(expected, src);
+        assertDelivered(expected2, src2);
+        Assert.assertEquals(2, display.getCoalescedEventCount());
+    }
+
+    @Test
+    public void testWaitedOnEventDelivered() throws InterruptedException {
+        final TestDisplay display = new TestDisplay();
+        final Consumer src = new Consumer();
+        final MouseEvent waited = move(src, 0, 0);
+        final Thread caller = new Thread("Waiting Caller") {
+            public void run() {
+                display.enqueueEvent(true, waited);
+            }
+        };
+        caller.setDaemon(true);
+        caller.start();
+        // the caller is parked once its event is queued
+        final long t1 = System.currentTimeMillis() + 5000;
+        while( Thread.State.WAITING != caller.getState() && System.currentTimeMillis() < t1 ) {
+            Thread.yield();
+        }
+        Assert.assertEquals(Thread.State.WAITING, caller.getState());
+        final MouseEvent next = move(src, 0, 1);
+        display.enqueueEvent(false, next);
+        display.dispatchMessages();
+        caller.join(5000);
+        Assert.assertFalse(caller.isAlive());
+
+        final List<NEWTEvent> expected = new ArrayList<NEWTEvent>();
+        expected.add(waited);
+        expected.add(next);
+        assertDelivered(expected, src);
+        Assert.assertEquals(0, display.getCoalescedEventCount());
+    }
+
+    @Test
+    public void testDisabled() {
+        final TestDisplay display = new TestDisplay();
+        display.setEventCoalescing(false);
+        final Consumer src = new Consumer();
+        final List<NEWTEvent> expected = new ArrayList<NEWTEvent>();
+        for(int i=0; i<3; i++) {
+            final NEWTEvent e = move(src, 0, i);
+            display.enqueueEvent(false, e);
+            expected.add(e);
+        }
+        display.dispatchMessages();
+        assertDelivered(expected, src);
+        Assert.assertEquals(0, display.getCoalescedEventCount());
+    }
+
+    public static void main(String args[]) {
+        org.junit.runner.JUnitCore.main(TestEventCoalescing01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright 2013 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.newt;
+
+import javax.media.nativewindow.util.Insets;
+import javax.media.nativewindow.util.Point;
+
+import jogamp.newt.WindowImpl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.jogamp.newt.event.KeyAdapter;
+import com.jogamp.newt.event.KeyEvent;
+import com.jogamp.newt.event.MouseAdapter;
+import com.jogamp.newt.event.MouseEvent;
+import com.jogamp.newt.event.NEWTEvent;
+import com.jogamp.newt.event.WindowAdapter;
+import com.jogamp.newt.event.WindowEvent;
+import com.jogamp.opengl.test.junit.util.MiscUtils;
+
+/**
+ * Validates that the mouse, key and window listener dispatch of {@link WindowImpl#consumeEvent(NEWTEvent)}
+ * reaches all listeners and does not allocate, if the VM supports thread allocation measurement,
+ * using a native-less window.
+ * <p>
+ * Use <code>-loops N</code> for a longer measurement.
+ * </p>
+ */
+public class TestWindowListenerDispatch01NOUI {
+    static int loops = 200000;
+
+    /** Window w/o native resources, events are dispatched by the test thread. */
+    static class TestWindow extends WindowImpl {
+        protected void createNativeImpl() { }
+        protected void closeNativeImpl() { }
+        protected void requestFocusImpl(boolean force) { }
+        protected boolean reconfigureWindowImpl(int x, int y, int width, int height, int flags) { return true; }
+        protected Point getLocationOnScreenImpl(int x, int y) { return new Point(x, y); }
+        protected void updateInsetsImpl(Insets insets) { }
+    }
+
+    static class CountingMouseListener extends MouseAdapter {
+        int moved = 0;
+        public void mouseMoved(MouseEvent e) { moved++; }
+    }
+
+    static class CountingKeyListener extends KeyAdapter {
+        int pressed = 0;
+        public void keyPressed(KeyEvent e) { pressed++; }
+    }
+
+    static class CountingWindowListener extends WindowAdapter {
+        int moved = 0;
+        public void windowMoved(WindowEvent e) { moved++; }
+    }
+
+    /** Returns the bytes allocated by the current thread while dispatching the event <code>loops</code> times. */
+    static long dispatch(WindowImpl window, NEWTEvent e) {
+        for(int i=0; i<loops/10; i++) {
+            window.consumeEvent(e);
+        }
+        final long a0 = MiscUtils.getThreadAllocatedBytes();
+        for(int i=0; i<loops; i++) {
+            window.consumeEvent(e);
+        }
+        return MiscUtils.getThreadAllocatedBytes() - a0;
+    }
+
+    static void assertNoAllocation(String name, long bytes) {
+        System.err.println(name+" dispatch: "+bytes+" bytes allocated in "+loops+" events");
+        // any allocation per event would exceed one byte per event
+        Assert.assertTrue(name+" dispatch allocates "+bytes+" bytes in "+loops+" events", bytes < loops);
+    }
+
+    @Test
+    public void testDispatchAllocation() {
+        final TestWindow window = new TestWindow();
+        final CountingMouseListener[] mls = new CountingMouseListener[4];
+        final CountingKeyListener[] kls = new CountingKeyListener[4];
+        final CountingWindowListener[] wls = new CountingWindowListener[4];
+        for(int i=0; i<4; i++) {
+            mls[i] = new CountingMouseListener();
+            window.addMouseListener(mls[i]);
+            kls[i] = new CountingKeyListener();
+            window.addKeyListener(kls[i]);
+            wls[i] = new CountingWindowListener();
+            window.addWindowListener(wls[i]);
+        }
+        final MouseEvent mouseEvent = new MouseEvent(MouseEvent.EVENT_MOUSE_MOVED, window, System.currentTimeMillis(), 0, 10, 10, 0, 0, 0);
+        final KeyEvent keyEvent = new KeyEvent(KeyEvent.EVENT_KEY_PRESSED, window, System.currentTimeMillis(), 0, KeyEvent.VK_A, 'a');
+        final WindowEvent windowEvent = new WindowEvent(WindowEvent.EVENT_WINDOW_MOVED, window, System.currentTimeMillis());
+
+        final boolean measure = 0 <= MiscUtils.getThreadAllocatedBytes();
+        final long mouseBytes = dispatch(window, mouseEvent);
+        final long keyBytes = dispatch(window, keyEvent);
+        final long windowBytes = dispatch(window, windowEvent);
+
+        final int events = loops + loops/10;
+        for(int i=0; i<4; i++) {
+            Assert.assertEquals(events, mls[i].moved);
+            Assert.assertEquals(events, kls[i].pressed);
+            Assert.assertEquals(events, wls[i].moved);
+        }
+        if( !measure ) {
+            System.err.println("Thread allocation measurement n/a, skipped");
+            return;
+        }
+        assertNoAllocation("Mouse", mouseBytes);
+        assertNoAllocation("Key", keyBytes);
+        assertNoAllocation("Window", windowBytes);
+    }
+
+    public static void main(String args[]) {
+        for(int i=0; i<args.length; i++) {
+            if(args[i].equals("-loops")) {
+                loops = Integer.parseInt(args[++i]);
+            }
+        }
+        org.junit.runner.JUnitCore.main(TestWindowListenerDispatch01NOUI.class.getName());
+    }
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright 2013 JogAmp Community. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without modification, are
+ * permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this list of
+ *       conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice, this list
+ *       of conditions and the following disclaimer in the documentation and/or other materials
+ *       provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY JogAmp Community ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ * WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND
+ * FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL JogAmp Community OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR
+ * CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ * NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE, EVEN IF
+ * ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ * The views and conclusions contained in the software and documentation are those of the
+ * authors and should not be interpreted as representing official policies, either expressed
+ * or implied, of JogAmp Community.
+ */
+package com.jogamp.opengl.test.junit.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamic proxy stub for GL and drawable interfaces, allowing NOUI tests to run w/o any GL context.
+ * <p>
+ * Every method returns a default value, i.e. <code>0</code>, <code>null</code> or the configured boolean,
+ * <code>getGL*()</code> returns the proxy itself if it implements the requested type
+ * and the <code>Object</code> methods use the proxy's identity.
+ * Subclasses emulate specific methods by overriding {@link #call(Object, String, Object[])}.
+ * </p>
+ * <p>
+ * If enabled, all issued calls are recorded w/ their arguments.
+ * </p>
+ */
+public class GLStub implements InvocationHandler {
+    private final boolean defaultBoolean;
+    private final boolean record;
+    private final List<String> calls = new ArrayList<String>();
+    private final List<Object[]> args = new ArrayList<Object[]>();
+
+    /** Creates a stub returning <code>false</code> for boolean methods w/o recording the calls. */
+    public GLStub() {
+        this(false, false);
+    }
+
+    /**
+     * @param defaultBoolean the value returned by all boolean methods not emulated by {@link #call(Object, String, Object[])}
+     * @param record if true, all calls are recorded, see {@link #getCalls()}
+     */
+    public GLStub(boolean defaultBoolean, boolean record) {
+        this.defaultBoolean = defaultBoolean;
+        this.record = record;
+    }
+
+    /** Returns a new proxy implementing the given interfaces, which shall be casted to the first one. */
+    public Object createProxy(Class<?>... ifaces) {
+        return Proxy.newProxyInstance(ifaces[0].getClassLoader(), ifaces, this);
+    }
+
+    /** Returns the names of the recorded calls in issue order. */
+    public synchronized List<String> getCalls() {
+        return calls;
+    }
+
+    /** Returns the arguments of the recorded calls, w/ the same index as {@link #getCalls()}. */
+    public synchronized List<Object[]> getArgs() {
+        return args;
+    }
+
+    /** Returns the number of recorded calls of the given method. */
+    public synchronized int count(String name) {
+        int n = 0;
+        for(int i=0; i<calls.size(); i++) {
+            if(name.equals(calls.get(i))) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** Clears all recorded calls. */
+    public synchronized void clear() {
+        calls.clear();
+        args.clear();
+    }
+
+    /**
+     * Emulates a method, the default implementation returns <code>null</code>.
+     * @return the method's return value, or <code>null</code> to return the default value
+     */
+    protected Object call(Object proxy, String name, Object[] args) throws Throwable {
+        return null;
+    }
+
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final String name = method.getName();
+        if( record ) {
+            synchronized(this) {
+                calls.add(name);
+                this.args.add(args);
+            }
+        }
+        final Class<?> rt = method.getReturnType();
+        if( Object.class == method.getDeclaringClass() ) {
+            if( "hashCode".equals(name) ) {
+                return Integer.valueOf(System.identityHashCode(proxy));
+            } else if( "equals".equals(name) ) {
+                return Boolean.valueOf(proxy == args[0]);
+            }
+            return getClass().getSimpleName()+"@"+Integer.toHexString(System.identityHashCode(proxy));
+        } else if( name.startsWith("getGL") && rt.isInstance(proxy) ) {
+            return proxy;
+        }
+        final Object res = call(proxy, name, args);
+        if( null != res ) {
+            return res;
+        }
+        return getDefaultValue(rt);
+    }
+
+    private Object getDefaultValue(Class<?> rt) {
+        if( !rt.isPrimitive() || void.class == rt ) {
+            return null;
+        } else if( boolean.class == rt ) {
+            return Boolean.valueOf(defaultBoolean);
+        } else if( int.class == rt ) {
+            return Integer.valueOf(0);
+        } else if( long.class == rt ) {
+            return Long.valueOf(0);
+        } else if( float.class == rt ) {
+            return Float.valueOf(0f);
+        } else if( double.class == rt ) {
+            return Double.valueOf(0.0);
+        } else if( short.class == rt ) {
+            return Short.valueOf((short)0);
+        } else if( byte.class == rt ) {
+            return Byte.valueOf((byte)0);
+        }
+        return Character.valueOf((char)0);
+    }
+}
@@ -29,6 +29,8 @@
 
 package com.jogamp.opengl.test.junit.util;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.lang.reflect.*;
 import java.nio.FloatBuffer;
 
@@ -114,6 +116,25 @@ public class MiscUtils {
         }
         return false;
     }
+
+    /**
+     * Returns the number of bytes allocated on the heap by the current thread,
+     * or <code>-1</code> if the VM does not support thread allocation measurement.
+     */
+    public static long getThreadAllocatedBytes() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        try {
+            if( bean instanceof com.sun.management.ThreadMXBean ) {
+                final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if( sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled() ) {
+                    return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+                }
+            }
+        } catch (NoClassDefFoundError e) {
+            // OK - not a HotSpot based VM
+        }
+        return -1;
+    }
 }
 
 